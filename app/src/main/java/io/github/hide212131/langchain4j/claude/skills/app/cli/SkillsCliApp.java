@@ -3,6 +3,7 @@ package io.github.hide212131.langchain4j.claude.skills.app.cli;
 import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndexLoader;
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndexWatcher;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.AgentService;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.AgentService.StageVisit;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.support.WorkflowFactory;
@@ -35,7 +36,7 @@ public final class SkillsCliApp implements Runnable {
 
     static CommandLine commandLineInstance() {
         CommandLine cmd = new CommandLine(new SkillsCliApp());
-        SkillIndexLoader loader = new SkillIndexLoader();
+        SkillIndexLoader loader = SkillIndexLoader.fromEnvironment(System.getenv(), Runtime.getRuntime().availableProcessors());
     AgentServiceFactory factory = (dryRun, index, client) -> AgentService.withDefaults(new WorkflowFactory(), client, index, dryRun);
         cmd.addSubcommand("run", new RunCommand(factory, loader));
         return cmd;
@@ -109,7 +110,11 @@ public final class SkillsCliApp implements Runnable {
                         .getErr()
                         .println("Warning: skills directory not found at " + resolvedSkillsDir);
             }
-            SkillIndexLoader.LoadResult loadResult = loader.load(resolvedSkillsDir);
+            // The watcher's virtual thread lives until the process exits, keeping the snapshot and the
+            // index's file tree current while a long run edits the skills.
+            SkillIndexLoader.LoadResult loadResult = SkillIndexWatcher.enabled(System.getenv())
+                    ? SkillIndexWatcher.start(loader, resolvedSkillsDir, null).current()
+                    : loader.load(resolvedSkillsDir);
             loadResult.warnings().forEach(warning -> commandSpec.commandLine().getOut().println("Warning: " + warning));
             LangChain4jLlmClient client = dryRun
                     ? LangChain4jLlmClient.fake()
@@ -179,6 +184,21 @@ public final class SkillsCliApp implements Runnable {
                                 result.metrics().callCount(),
                                 result.metrics().totalDurationMs());
             }
+            if (result.llmLatency() != null) {
+                result.llmLatency().series().stream()
+                        .filter(series -> series.calls() > 0)
+                        .forEach(series -> commandSpec
+                                .commandLine()
+                                .getOut()
+                                .printf(
+                                        "LLM latency %s [%s]: calls=%d p50/p95/p99=%d/%d/%dms%n",
+                                        series.stage().label(),
+                                        series.model(),
+                                        series.calls(),
+                                        series.latencyMs().p50(),
+                                        series.latencyMs().p95(),
+                                        series.latencyMs().p99()));
+            }
             if (result.actResult() != null) {
                 if (!result.actResult().invokedSkills().isEmpty()) {
                     commandSpec
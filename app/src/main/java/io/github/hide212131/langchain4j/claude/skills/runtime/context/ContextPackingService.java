@@ -1,15 +1,324 @@
 package io.github.hide212131.langchain4j.claude.skills.runtime.context;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
- * Placeholder for the progressive disclosure / context packing logic. Will evolve with detailed
- * heuristics in later tasks.
+ * Fits progressive-disclosure content (L1 metadata, L2 {@code SKILL.md}, L3 references) into a per-model token
+ * budget. Disclosures are ranked by priority, then level (L1 before L3), then recency. While the packed context
+ * is over budget, the lowest-ranked one is replaced by an outline (headings and the first line under each),
+ * then truncated to whatever room is left, then dropped, before the next one up is touched. Any slack freed by
+ * a drop is handed back, best first. Tokens are estimated at four characters each, the same rule admission
+ * control uses.
  */
 public final class ContextPackingService {
 
-    public List<String> pack(List<String> disclosures) {
-        return disclosures == null ? Collections.emptyList() : List.copyOf(disclosures);
+    public static final int DEFAULT_BUDGET_TOKENS = 16_000;
+    static final int SUMMARY_TOKENS = 256;
+    static final int MIN_TRUNCATED_TOKENS = 64;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    /** Most valuable first: higher priority, then lower level, then more recent. */
+    private static final Comparator<Candidate> VALUE_ORDER = Comparator
+            .comparingInt((Candidate candidate) -> candidate.disclosure.priority()).reversed()
+            .thenComparing(candidate -> candidate.disclosure.level())
+            .thenComparing(Comparator.comparingLong((Candidate candidate) -> candidate.disclosure.recency())
+                    .reversed());
+
+    private final int defaultBudgetTokens;
+    private final Map<String, Integer> modelBudgets;
+
+    public ContextPackingService() {
+        this(DEFAULT_BUDGET_TOKENS, Map.of());
+    }
+
+    public ContextPackingService(int defaultBudgetTokens, Map<String, Integer> modelBudgets) {
+        if (defaultBudgetTokens <= 0) {
+            throw new IllegalArgumentException("defaultBudgetTokens must be positive");
+        }
+        this.defaultBudgetTokens = defaultBudgetTokens;
+        this.modelBudgets = Map.copyOf(Objects.requireNonNull(modelBudgets, "modelBudgets"));
+    }
+
+    /**
+     * Reads {@code SKILLS_CONTEXT_BUDGET_TOKENS} (default {@value #DEFAULT_BUDGET_TOKENS}) and
+     * {@code SKILLS_CONTEXT_MODEL_BUDGETS}, a comma-separated list of {@code model=tokens} overrides.
+     */
+    public static ContextPackingService fromEnvironment(Map<String, String> environment) {
+        int budget = DEFAULT_BUDGET_TOKENS;
+        String raw = environment.get("SKILLS_CONTEXT_BUDGET_TOKENS");
+        if (raw != null && !raw.isBlank()) {
+            budget = parseBudget(raw, "SKILLS_CONTEXT_BUDGET_TOKENS");
+        }
+        Map<String, Integer> overrides = new HashMap<>();
+        String perModel = environment.get("SKILLS_CONTEXT_MODEL_BUDGETS");
+        if (perModel != null && !perModel.isBlank()) {
+            for (String entry : perModel.split(",")) {
+                if (entry.isBlank()) {
+                    continue;
+                }
+                int separator = entry.lastIndexOf('=');
+                if (separator <= 0 || entry.substring(0, separator).isBlank()) {
+                    throw new IllegalStateException(
+                            "SKILLS_CONTEXT_MODEL_BUDGETS must be a comma-separated list of model=tokens");
+                }
+                overrides.put(
+                        entry.substring(0, separator).trim(),
+                        parseBudget(entry.substring(separator + 1), "SKILLS_CONTEXT_MODEL_BUDGETS"));
+            }
+        }
+        return new ContextPackingService(budget, overrides);
+    }
+
+    /** Budget for {@code modelName}, falling back to the default when it has no override. */
+    public int budgetFor(String modelName) {
+        return modelName == null ? defaultBudgetTokens : modelBudgets.getOrDefault(modelName, defaultBudgetTokens);
+    }
+
+    public PackResult pack(List<Disclosure> disclosures, String modelName) {
+        return pack(disclosures, budgetFor(modelName));
+    }
+
+    /** Packs {@code disclosures} into {@code budgetTokens}; the result keeps their input order. */
+    public PackResult pack(List<Disclosure> disclosures, int budgetTokens) {
+        if (disclosures == null || disclosures.isEmpty()) {
+            return new PackResult(List.of(), Math.max(0, budgetTokens), 0, 0);
+        }
+        int budget = Math.max(0, budgetTokens);
+        List<Candidate> candidates = new ArrayList<>(disclosures.size());
+        for (Disclosure disclosure : disclosures) {
+            candidates.add(new Candidate(Objects.requireNonNull(disclosure, "disclosure")));
+        }
+        List<Candidate> ranked = new ArrayList<>(candidates);
+        ranked.sort(VALUE_ORDER);
+
+        int used = 0;
+        for (Candidate candidate : candidates) {
+            used += candidate.tokens();
+        }
+        // Degrade from the lowest-value end until the context fits.
+        for (int i = ranked.size() - 1; i >= 0 && used > budget; i--) {
+            Candidate candidate = ranked.get(i);
+            if (i == 0) {
+                used -= candidate.tokens();
+                candidate.truncate(budget - used);
+                used += candidate.tokens();
+                break;
+            }
+            used -= candidate.tokens();
+            candidate.summarise();
+            if (used + candidate.tokens() > budget) {
+                int remaining = budget - used;
+                if (remaining >= MIN_TRUNCATED_TOKENS) {
+                    candidate.truncate(remaining);
+                } else {
+                    candidate.drop();
+                }
+            }
+            used += candidate.tokens();
+        }
+        // The last drop may have freed more than needed; restore the most valuable degraded items that fit.
+        for (Candidate candidate : ranked) {
+            if (candidate.outcome == Outcome.DROPPED || candidate.outcome == Outcome.SUMMARISED) {
+                used -= candidate.tokens();
+                if (used + candidate.fullTokens <= budget) {
+                    candidate.restore();
+                } else if (candidate.outcome == Outcome.DROPPED && used + candidate.summaryTokens() <= budget) {
+                    candidate.summarise();
+                }
+                used += candidate.tokens();
+            }
+        }
+
+        List<PackedDisclosure> packed = new ArrayList<>(candidates.size());
+        int packedTokens = 0;
+        int droppedTokens = 0;
+        for (Candidate candidate : candidates) {
+            packed.add(new PackedDisclosure(
+                    candidate.disclosure, candidate.content, candidate.outcome, candidate.tokens()));
+            packedTokens += candidate.tokens();
+            droppedTokens += candidate.fullTokens - candidate.tokens();
+        }
+        return new PackResult(List.copyOf(packed), budget, packedTokens, droppedTokens);
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Everything before the first Markdown heading (front matter, intro), then each heading with the first
+     * non-blank line under it.
+     */
+    static String outline(String content, int maxTokens) {
+        StringBuilder outline = new StringBuilder();
+        boolean sawHeading = false;
+        boolean wantFirstLine = true;
+        for (String line : content.lines().toList()) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("```")) {
+                continue;
+            }
+            if (trimmed.startsWith("#")) {
+                outline.append(trimmed).append('\n');
+                sawHeading = true;
+                wantFirstLine = true;
+            } else if (!sawHeading || wantFirstLine) {
+                outline.append(trimmed).append('\n');
+                wantFirstLine = false;
+            }
+            if (outline.length() >= maxTokens * CHARS_PER_TOKEN) {
+                break;
+            }
+        }
+        return truncate(outline.toString().stripTrailing(), maxTokens);
+    }
+
+    /** Keeps the head of {@code content}, cut at a line break where possible, within {@code maxTokens}. */
+    static String truncate(String content, int maxTokens) {
+        int limit = Math.max(0, maxTokens) * CHARS_PER_TOKEN;
+        if (content.length() <= limit) {
+            return content;
+        }
+        String marker = "\n[truncated: %d of %d tokens kept]".formatted(maxTokens, estimateTokens(content));
+        int keep = limit - marker.length();
+        if (keep <= 0) {
+            return "";
+        }
+        int lineBreak = content.lastIndexOf('\n', keep);
+        if (lineBreak >= keep * 4 / 5) {
+            keep = lineBreak;
+        }
+        if (Character.isHighSurrogate(content.charAt(keep - 1))) {
+            keep--;
+        }
+        return content.substring(0, keep) + marker;
+    }
+
+    private static int parseBudget(String raw, String variable) {
+        int tokens;
+        try {
+            tokens = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException(variable + " must be a positive integer (tokens)", ex);
+        }
+        if (tokens <= 0) {
+            throw new IllegalStateException(variable + " must be greater than zero");
+        }
+        return tokens;
+    }
+
+    /**
+     * One piece of disclosed context. Higher {@code priority} wins; {@code recency} is any increasing value,
+     * such as a modification time or sequence number.
+     */
+    public record Disclosure(Level level, String source, String content, int priority, long recency) {
+        public Disclosure {
+            Objects.requireNonNull(level, "level");
+            Objects.requireNonNull(source, "source");
+            content = content == null ? "" : content;
+        }
+    }
+
+    /**
+     * Progressive-disclosure level of a {@link Disclosure}: L1 metadata, L2 {@code SKILL.md}, L3 references.
+     * Kept separate from the runtime's own level type so this package does not depend on the skill runtime.
+     */
+    public enum Level {
+        L1,
+        L2,
+        L3
+    }
+
+    public enum Outcome {
+        KEPT,
+        SUMMARISED,
+        TRUNCATED,
+        DROPPED
+    }
+
+    public record PackedDisclosure(Disclosure disclosure, String content, Outcome outcome, int tokens) {}
+
+    /** {@code droppedTokens} counts what summarising, truncating and dropping removed. */
+    public record PackResult(List<PackedDisclosure> disclosures, int budgetTokens, int packedTokens, int droppedTokens) {
+
+        public boolean degraded() {
+            return droppedTokens > 0;
+        }
+
+        /** Content of the disclosures that survived, in input order. */
+        public List<String> contents() {
+            List<String> contents = new ArrayList<>();
+            for (PackedDisclosure disclosure : disclosures) {
+                if (disclosure.outcome() != Outcome.DROPPED) {
+                    contents.add(disclosure.content());
+                }
+            }
+            return contents;
+        }
+
+        public PackedDisclosure find(String source) {
+            for (PackedDisclosure disclosure : disclosures) {
+                if (disclosure.disclosure().source().equals(source)) {
+                    return disclosure;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Candidate {
+        final Disclosure disclosure;
+        final int fullTokens;
+        String content;
+        Outcome outcome = Outcome.KEPT;
+        private String summary;
+
+        Candidate(Disclosure disclosure) {
+            this.disclosure = disclosure;
+            this.content = disclosure.content();
+            this.fullTokens = estimateTokens(content);
+        }
+
+        int tokens() {
+            return outcome == Outcome.DROPPED ? 0 : estimateTokens(content);
+        }
+
+        int summaryTokens() {
+            return estimateTokens(summary());
+        }
+
+        void summarise() {
+            if (summaryTokens() < fullTokens) {
+                content = summary();
+                outcome = Outcome.SUMMARISED;
+            }
+        }
+
+        void truncate(int maxTokens) {
+            content = ContextPackingService.truncate(disclosure.content(), maxTokens);
+            outcome = content.isEmpty() ? Outcome.DROPPED : Outcome.TRUNCATED;
+        }
+
+        void drop() {
+            content = "";
+            outcome = Outcome.DROPPED;
+        }
+
+        void restore() {
+            content = disclosure.content();
+            outcome = Outcome.KEPT;
+        }
+
+        private String summary() {
+            if (summary == null) {
+                summary = outline(disclosure.content(), SUMMARY_TOKENS);
+            }
+            return summary;
+        }
     }
 }
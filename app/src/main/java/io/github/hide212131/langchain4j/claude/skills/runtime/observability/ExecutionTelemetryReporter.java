@@ -3,6 +3,7 @@ package io.github.hide212131.langchain4j.claude.skills.runtime.observability;
 import io.github.hide212131.langchain4j.claude.skills.infra.logging.WorkflowLogger;
 import io.github.hide212131.langchain4j.claude.skills.infra.observability.WorkflowTracer;
 import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmMetricsRegistry;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.AgentService;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.act.DefaultInvoker;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan.PlanModels;
@@ -35,6 +36,7 @@ public final class ExecutionTelemetryReporter {
             LangChain4jLlmClient.CompletionResult finalPlanCompletion,
             DefaultInvoker.ActResult finalActResult,
             LangChain4jLlmClient.ProviderMetrics metricsSnapshot,
+            LlmMetricsRegistry.Snapshot latencySnapshot,
             int stageVisitCount) {
 
         String planSkills = joinComma(finalPlan == null ? List.of() : finalPlan.orderedSkillIds());
@@ -62,6 +64,7 @@ public final class ExecutionTelemetryReporter {
             eventAttributes.put("act.artifact_path", artifactPath);
         }
         appendMetricAttributes(eventAttributes, metricsSnapshot);
+        appendLatencyAttributes(eventAttributes, latencySnapshot);
         tracer.addEvent("execution.summary", eventAttributes);
 
         logSummary(request.goal(), descriptor, planSkills, invokedSkills, artifactPath, metricsSnapshot, stageVisitCount);
@@ -165,7 +168,55 @@ public final class ExecutionTelemetryReporter {
         attributes.put("llm.tokens_input", Integer.toString(metrics.totalInputTokens()));
         attributes.put("llm.tokens_output", Integer.toString(metrics.totalOutputTokens()));
         attributes.put("llm.tokens_total", Integer.toString(metrics.totalTokenCount()));
+        if (metrics.cachedInputTokens() > 0) {
+            attributes.put("llm.tokens_cached", Long.toString(metrics.cachedInputTokens()));
+        }
         attributes.put("llm.duration_ms", Long.toString(metrics.totalDurationMs()));
+        attributes.put("llm.cache_hits", Long.toString(metrics.responseCache().hits()));
+        attributes.put("llm.cache_misses", Long.toString(metrics.responseCache().misses()));
+        if (metrics.streaming().callCount() > 0) {
+            attributes.put("llm.streamed_calls", Integer.toString(metrics.streaming().callCount()));
+            attributes.put("llm.ttft_ms_avg", Long.toString(metrics.streaming().averageTimeToFirstTokenMs()));
+        }
+        if (metrics.admission().queuedCalls() > 0 || metrics.admission().throttledCalls() > 0) {
+            attributes.put("llm.queued_calls", Long.toString(metrics.admission().queuedCalls()));
+            attributes.put("llm.queue_wait_ms", Long.toString(metrics.admission().totalQueueWaitMs()));
+            attributes.put("llm.throttled_calls", Long.toString(metrics.admission().throttledCalls()));
+        }
+        if (metrics.resilience().retries() > 0 || metrics.resilience().hedgedCalls() > 0) {
+            attributes.put("llm.retries", Long.toString(metrics.resilience().retries()));
+            attributes.put("llm.hedged_calls", Long.toString(metrics.resilience().hedgedCalls()));
+            attributes.put("llm.hedge_wins", Long.toString(metrics.resilience().hedgeWins()));
+        }
+    }
+
+    private static void appendLatencyAttributes(
+            Map<String, String> attributes,
+            LlmMetricsRegistry.Snapshot latency) {
+        if (latency == null) {
+            return;
+        }
+        for (LlmMetricsRegistry.SeriesSnapshot series : latency.series()) {
+            String prefix = "llm.latency." + series.stage().label() + "." + series.model() + ".";
+            attributes.put(prefix + "calls", Long.toString(series.calls()));
+            if (series.failures() > 0) {
+                attributes.put(prefix + "failures", Long.toString(series.failures()));
+            }
+            if (series.calls() > 0) {
+                attributes.put(prefix + "p50_ms", Long.toString(series.latencyMs().p50()));
+                attributes.put(prefix + "p95_ms", Long.toString(series.latencyMs().p95()));
+                attributes.put(prefix + "p99_ms", Long.toString(series.latencyMs().p99()));
+                attributes.put(prefix + "max_ms", Long.toString(series.latencyMs().max()));
+            }
+            if (series.inputTokens().count() > 0) {
+                attributes.put(prefix + "tokens_input_p50", Long.toString(series.inputTokens().p50()));
+                attributes.put(prefix + "tokens_input_p95", Long.toString(series.inputTokens().p95()));
+            }
+            if (series.outputTokens().count() > 0) {
+                attributes.put(prefix + "tokens_output_p50", Long.toString(series.outputTokens().p50()));
+                attributes.put(prefix + "tokens_output_p95", Long.toString(series.outputTokens().p95()));
+            }
+        }
     }
 
     private static String joinComma(List<String> values) {
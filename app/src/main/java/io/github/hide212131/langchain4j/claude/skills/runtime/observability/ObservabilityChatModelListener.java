@@ -13,6 +13,7 @@ import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.output.TokenUsage;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
@@ -148,6 +149,10 @@ public final class ObservabilityChatModelListener implements ChatModelListener {
             if (usage.totalTokenCount() != null) {
                 span.setAttribute("gen_ai.usage.total_tokens", usage.totalTokenCount());
             }
+            Integer cachedInputTokens = LangChain4jLlmClient.cachedInputTokens(usage);
+            if (cachedInputTokens != null) {
+                span.setAttribute("gen_ai.usage.cached_input_tokens", cachedInputTokens);
+            }
         }
         if (chatResponse.metadata() != null) {
             if (chatResponse.metadata().modelName() != null) {
@@ -0,0 +1,137 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.exception.TimeoutException;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link ChatModel} decorator that admits each call through a shared {@link AdmissionController} under the
+ * model's name. The token reservation is estimated at four characters per token plus the requested output
+ * limit, and reconciled with the reported usage when the call returns.
+ */
+public final class AdmissionControlledChatModel implements ChatModel {
+
+    private static final int DEFAULT_OUTPUT_ESTIMATE = 1024;
+
+    private final ChatModel delegate;
+    private final AdmissionController controller;
+    private final String modelName;
+
+    public AdmissionControlledChatModel(ChatModel delegate, AdmissionController controller, String modelName) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.controller = Objects.requireNonNull(controller, "controller");
+        this.modelName = modelName == null ? "" : modelName;
+    }
+
+    public ChatModel delegate() {
+        return delegate;
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest request) {
+        Objects.requireNonNull(request, "request");
+        AdmissionController.Permit permit;
+        try {
+            permit = controller.acquire(modelName, estimateTokens(request));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LLM admission", ex);
+        }
+        try {
+            ChatResponse response = delegate.chat(request);
+            Integer total = response.tokenUsage() == null ? null : response.tokenUsage().totalTokenCount();
+            permit.succeeded(total);
+            return response;
+        } catch (RuntimeException ex) {
+            permit.failed(isOverload(ex));
+            throw ex;
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    static int estimateTokens(ChatRequest request) {
+        long characters = 0;
+        for (ChatMessage message : request.messages()) {
+            characters += textLength(message);
+        }
+        Integer maxOutput = request.parameters() == null ? null : request.parameters().maxOutputTokens();
+        long estimate = characters / 4 + (maxOutput != null ? maxOutput : DEFAULT_OUTPUT_ESTIMATE);
+        return (int) Math.min(Integer.MAX_VALUE, estimate);
+    }
+
+    private static long textLength(ChatMessage message) {
+        if (message instanceof SystemMessage system) {
+            return system.text() == null ? 0 : system.text().length();
+        }
+        if (message instanceof UserMessage user) {
+            long length = 0;
+            for (Content content : user.contents()) {
+                if (content instanceof TextContent text) {
+                    length += text.text().length();
+                }
+            }
+            return length;
+        }
+        if (message instanceof AiMessage ai) {
+            return ai.text() == null ? 0 : ai.text().length();
+        }
+        if (message instanceof ToolExecutionResultMessage result) {
+            return result.text() == null ? 0 : result.text().length();
+        }
+        return 0;
+    }
+
+    /**
+     * Rate limiting (HTTP 429) and timeouts mean the provider is saturated; other failures do not. Decided on
+     * the exception types LangChain4j maps provider errors to, anywhere in the cause chain, never on messages.
+     */
+    static boolean isOverload(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof RateLimitException
+                    || current instanceof TimeoutException
+                    || current instanceof java.util.concurrent.TimeoutException
+                    || current instanceof SocketTimeoutException
+                    || current instanceof HttpTimeoutException) {
+                return true;
+            }
+            if (current instanceof HttpException http && http.statusCode() == 429) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,304 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared admission control for LLM calls, keyed by model name. Each model gets an AIMD concurrency limit
+ * (halved when the provider signals overload, grown by one per window of successful calls up to the
+ * configured maximum) and optional requests-per-minute and tokens-per-minute buckets. Token reservations are
+ * estimated from the prompt and reconciled with the reported {@code TokenUsage} afterwards.
+ */
+public final class AdmissionController {
+
+    static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private final int maxConcurrency;
+    private final int requestsPerMinute;
+    private final int tokensPerMinute;
+    private final LongSupplier nanoTime;
+    private final Map<String, ModelState> models = new ConcurrentHashMap<>();
+
+    public AdmissionController(int maxConcurrency, int requestsPerMinute, int tokensPerMinute) {
+        this(maxConcurrency, requestsPerMinute, tokensPerMinute, System::nanoTime);
+    }
+
+    AdmissionController(int maxConcurrency, int requestsPerMinute, int tokensPerMinute, LongSupplier nanoTime) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than zero");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.requestsPerMinute = Math.max(0, requestsPerMinute);
+        this.tokensPerMinute = Math.max(0, tokensPerMinute);
+        this.nanoTime = Objects.requireNonNull(nanoTime, "nanoTime");
+    }
+
+    /**
+     * Returns a controller when any of {@code SKILLS_LLM_MAX_CONCURRENCY}, {@code SKILLS_LLM_RPM} or
+     * {@code SKILLS_LLM_TPM} is set, otherwise {@code null}. Unset budgets are unlimited.
+     */
+    static AdmissionController fromEnvironment(LangChain4jLlmClient.EnvironmentVariables environment) {
+        Integer concurrency = positiveInt(environment, "SKILLS_LLM_MAX_CONCURRENCY");
+        Integer rpm = positiveInt(environment, "SKILLS_LLM_RPM");
+        Integer tpm = positiveInt(environment, "SKILLS_LLM_TPM");
+        if (concurrency == null && rpm == null && tpm == null) {
+            return null;
+        }
+        return new AdmissionController(
+                concurrency == null ? DEFAULT_MAX_CONCURRENCY : concurrency,
+                rpm == null ? 0 : rpm,
+                tpm == null ? 0 : tpm);
+    }
+
+    /**
+     * Blocks until {@code model} has a free concurrency slot and enough request and token budget for a call
+     * estimated at {@code estimatedTokens}.
+     */
+    public Permit acquire(String model, int estimatedTokens) throws InterruptedException {
+        ModelState state = models.computeIfAbsent(model == null ? "" : model, this::newState);
+        long start = nanoTime.getAsLong();
+        boolean queued = false;
+        queued |= state.requests != null && state.requests.take(1, nanoTime);
+        // Reconcile against what the bucket actually gave out, not the (possibly larger) estimate.
+        int reservedTokens = state.tokens == null ? 0 : state.tokens.capped(Math.max(0, estimatedTokens));
+        queued |= state.tokens != null && state.tokens.take(reservedTokens, nanoTime);
+        queued |= state.concurrency.acquire();
+        long waitedNanos = nanoTime.getAsLong() - start;
+        state.recordAdmission(queued, waitedNanos);
+        if (queued) {
+            LlmRunMetrics.ifCurrent(run -> run.recordQueued(waitedNanos));
+        }
+        return new Permit(state, reservedTokens);
+    }
+
+    public List<ModelStats> stats() {
+        List<ModelStats> snapshot = new ArrayList<>();
+        models.forEach((model, state) -> snapshot.add(state.stats(model)));
+        snapshot.sort((a, b) -> a.model().compareTo(b.model()));
+        return snapshot;
+    }
+
+    private ModelState newState(String model) {
+        return new ModelState(
+                new AimdLimiter(maxConcurrency),
+                requestsPerMinute > 0 ? new TokenBucket(requestsPerMinute, nanoTime.getAsLong()) : null,
+                tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute, nanoTime.getAsLong()) : null);
+    }
+
+    private static Integer positiveInt(LangChain4jLlmClient.EnvironmentVariables environment, String name) {
+        String raw = environment.get(name);
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException(name + " must be a positive integer", ex);
+        }
+        if (value <= 0) {
+            throw new IllegalStateException(name + " must be greater than zero");
+        }
+        return value;
+    }
+
+    /** Admission for one call; release it exactly once with the outcome. */
+    public static final class Permit {
+
+        private final ModelState state;
+        private final int reservedTokens;
+        private boolean released;
+
+        private Permit(ModelState state, int reservedTokens) {
+            this.state = state;
+            this.reservedTokens = reservedTokens;
+        }
+
+        /** Records a completed call; {@code actualTokens} may be {@code null} when the provider reported none. */
+        public void succeeded(Integer actualTokens) {
+            release(false, actualTokens);
+        }
+
+        /** Records a failed call; {@code overloaded} shrinks the concurrency limit. */
+        public void failed(boolean overloaded) {
+            release(overloaded, null);
+        }
+
+        private synchronized void release(boolean overloaded, Integer actualTokens) {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (state.tokens != null && actualTokens != null) {
+                state.tokens.adjust(actualTokens - reservedTokens);
+            }
+            if (overloaded) {
+                state.throttled.incrementAndGet();
+                LlmRunMetrics.ifCurrent(LlmRunMetrics::recordThrottled);
+            }
+            state.concurrency.release(overloaded);
+        }
+    }
+
+    public record ModelStats(
+            String model,
+            int concurrencyLimit,
+            int inFlight,
+            long admitted,
+            long queued,
+            long totalQueueWaitMs,
+            long maxQueueWaitMs,
+            long throttled) {}
+
+    private static final class ModelState {
+
+        private final AimdLimiter concurrency;
+        private final TokenBucket requests;
+        private final TokenBucket tokens;
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong queueWaitNanos = new AtomicLong();
+        private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+
+        private ModelState(AimdLimiter concurrency, TokenBucket requests, TokenBucket tokens) {
+            this.concurrency = concurrency;
+            this.requests = requests;
+            this.tokens = tokens;
+        }
+
+        private void recordAdmission(boolean wasQueued, long waitedNanos) {
+            admitted.incrementAndGet();
+            if (wasQueued) {
+                queued.incrementAndGet();
+                queueWaitNanos.addAndGet(waitedNanos);
+                maxQueueWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+            }
+        }
+
+        private ModelStats stats(String model) {
+            return new ModelStats(
+                    model,
+                    concurrency.limit(),
+                    concurrency.inFlight(),
+                    admitted.get(),
+                    queued.get(),
+                    TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get()),
+                    throttled.get());
+        }
+    }
+
+    /** Additive-increase / multiplicative-decrease concurrency limit. */
+    static final class AimdLimiter {
+
+        private final int maxLimit;
+        private double limit;
+        private int inFlight;
+
+        AimdLimiter(int maxLimit) {
+            this.maxLimit = maxLimit;
+            this.limit = maxLimit;
+        }
+
+        /** Returns {@code true} when the caller had to wait for a slot. */
+        synchronized boolean acquire() throws InterruptedException {
+            boolean waited = false;
+            while (inFlight >= (int) limit) {
+                waited = true;
+                wait();
+            }
+            inFlight++;
+            return waited;
+        }
+
+        synchronized void release(boolean overloaded) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (overloaded) {
+                limit = Math.max(1.0, Math.floor(limit / 2.0));
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            notifyAll();
+        }
+
+        synchronized int limit() {
+            return (int) limit;
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Per-minute budget refilled continuously. The level may go negative after a reconciliation, which delays
+     * later callers until the overdraft has been paid back.
+     */
+    static final class TokenBucket {
+
+        private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+        private final double capacity;
+        private double level;
+        private long lastRefillNanos;
+
+        TokenBucket(int perMinute, long nowNanos) {
+            this.capacity = perMinute;
+            this.level = perMinute;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        /** The part of {@code amount} one {@link #take} holds; calls above a minute's budget are capped. */
+        int capped(int amount) {
+            return (int) Math.min(amount, capacity);
+        }
+
+        /** Takes the {@link #capped(int) capped} {@code amount}, sleeping until available; true if it waited. */
+        boolean take(int amount, LongSupplier nanoTime) throws InterruptedException {
+            double needed = capped(amount);
+            boolean waited = false;
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    refill(nanoTime.getAsLong());
+                    if (level >= needed) {
+                        level -= needed;
+                        return waited;
+                    }
+                    waitNanos = nanosUntil(needed);
+                }
+                waited = true;
+                TimeUnit.NANOSECONDS.sleep(Math.max(1L, waitNanos));
+            }
+        }
+
+        synchronized void adjust(int delta) {
+            level = Math.min(capacity, level - delta);
+        }
+
+        synchronized long nanosUntil(double amount) {
+            double missing = amount - level;
+            return missing <= 0 ? 0L : (long) Math.ceil(missing * NANOS_PER_MINUTE / capacity);
+        }
+
+        synchronized double level(long nowNanos) {
+            refill(nowNanos);
+            return level;
+        }
+
+        private void refill(long nowNanos) {
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed > 0) {
+                level = Math.min(capacity, level + elapsed * capacity / NANOS_PER_MINUTE);
+                lastRefillNanos = nowNanos;
+            }
+        }
+    }
+}
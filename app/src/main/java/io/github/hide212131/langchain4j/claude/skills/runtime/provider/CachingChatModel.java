@@ -0,0 +1,276 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ChatModel} decorator that replays earlier responses for identical requests. The key is a SHA-256 over
+ * a namespace (the configured model), the normalised messages and the request parameters, which include tool
+ * specifications and response format. Replayed responses report zero token usage because no provider call
+ * was made. Wrap it with {@code InstrumentedChatModel} as usual; spans are still emitted for cache hits.
+ */
+public final class CachingChatModel implements ChatModel {
+
+    static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    static final int DEFAULT_MAX_ENTRIES = 256;
+    static final Path DEFAULT_DIRECTORY = Path.of("build", "llm-cache");
+
+    private final ChatModel delegate;
+    private final ChatResponseStore store;
+    private final String namespace;
+    private final Duration ttl;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    public CachingChatModel(
+            ChatModel delegate, ChatResponseStore store, String namespace, Duration ttl, Clock clock) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.store = Objects.requireNonNull(store, "store");
+        this.namespace = namespace == null ? "" : namespace;
+        this.ttl = Objects.requireNonNull(ttl, "ttl");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Builds the store selected by {@code SKILLS_LLM_CACHE} ({@code off}, {@code memory} or {@code disk}), or
+     * returns {@code null} when caching is off.
+     */
+    static ChatResponseStore storeFromEnvironment(LangChain4jLlmClient.EnvironmentVariables environment, Clock clock) {
+        String mode = trimToNull(environment.get("SKILLS_LLM_CACHE"));
+        int maxEntries = positiveInt(environment, "SKILLS_LLM_CACHE_MAX_ENTRIES", DEFAULT_MAX_ENTRIES);
+        if (mode == null) {
+            return null;
+        }
+        return switch (mode.toLowerCase(Locale.ROOT)) {
+            case "off" -> null;
+            case "memory" -> new InMemoryChatResponseStore(maxEntries);
+            case "disk" -> {
+                String directory = trimToNull(environment.get("SKILLS_LLM_CACHE_DIR"));
+                yield new InMemoryChatResponseStore(
+                        maxEntries,
+                        new SegmentFileChatResponseStore(
+                                directory == null ? DEFAULT_DIRECTORY : Path.of(directory), clock));
+            }
+            default -> throw new IllegalStateException("SKILLS_LLM_CACHE must be off, memory or disk");
+        };
+    }
+
+    static Duration ttlFromEnvironment(LangChain4jLlmClient.EnvironmentVariables environment) {
+        return Duration.ofSeconds(
+                positiveInt(environment, "SKILLS_LLM_CACHE_TTL_SECONDS", (int) DEFAULT_TTL.toSeconds()));
+    }
+
+    public ChatModel delegate() {
+        return delegate;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), expired.get(), stores.get());
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest request) {
+        Objects.requireNonNull(request, "request");
+        String key = keyFor(request);
+        long now = clock.millis();
+        Optional<ChatResponseStore.CachedResponse> cached = store.get(key);
+        if (cached.isPresent()) {
+            if (cached.get().expiresAtMillis() > now) {
+                hits.incrementAndGet();
+                LlmRunMetrics.ifCurrent(run -> run.recordCacheLookup(true));
+                return toResponse(cached.get());
+            }
+            expired.incrementAndGet();
+            store.remove(key);
+        }
+        misses.incrementAndGet();
+        LlmRunMetrics.ifCurrent(run -> run.recordCacheLookup(false));
+        // chat(...) merges the delegate's default parameters, so provider-specific parameter types are honoured.
+        ChatResponse response = delegate.chat(request);
+        if (isCacheable(response)) {
+            store.put(key, fromResponse(response, now + ttl.toMillis()));
+            stores.incrementAndGet();
+        }
+        return response;
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    String keyFor(ChatRequest request) {
+        StringBuilder material = new StringBuilder();
+        material.append("ns=").append(namespace).append('\n');
+        for (ChatMessage message : request.messages()) {
+            material.append(message.type()).append(':');
+            appendMessage(message, material);
+            material.append('\u001e');
+        }
+        material.append("params=").append(request.parameters());
+        return sha256Hex(material.toString());
+    }
+
+    private static void appendMessage(ChatMessage message, StringBuilder material) {
+        if (message instanceof SystemMessage system) {
+            material.append(normalise(system.text()));
+        } else if (message instanceof UserMessage user) {
+            if (user.name() != null) {
+                material.append('@').append(user.name()).append(' ');
+            }
+            for (Content content : user.contents()) {
+                material.append(content instanceof TextContent text ? normalise(text.text()) : content.toString());
+                material.append('\u001f');
+            }
+        } else if (message instanceof AiMessage ai) {
+            material.append(normalise(ai.text()));
+            if (ai.hasToolExecutionRequests()) {
+                for (ToolExecutionRequest call : ai.toolExecutionRequests()) {
+                    material.append('\u001f').append(call.id()).append('|').append(call.name())
+                            .append('|').append(call.arguments());
+                }
+            }
+        } else if (message instanceof ToolExecutionResultMessage result) {
+            material.append(result.id()).append('|').append(result.toolName()).append('|')
+                    .append(normalise(result.text()));
+        } else {
+            material.append(message);
+        }
+    }
+
+    /** Line endings and trailing whitespace do not change what the model sees in any meaningful way. */
+    private static String normalise(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\r\n", "\n").strip();
+    }
+
+    private static boolean isCacheable(ChatResponse response) {
+        if (response == null || response.aiMessage() == null) {
+            return false;
+        }
+        FinishReason finishReason = response.finishReason();
+        return finishReason == null || finishReason == FinishReason.STOP || finishReason == FinishReason.TOOL_EXECUTION;
+    }
+
+    private static ChatResponseStore.CachedResponse fromResponse(ChatResponse response, long expiresAtMillis) {
+        AiMessage message = response.aiMessage();
+        List<ChatResponseStore.ToolCall> toolCalls = message.hasToolExecutionRequests()
+                ? message.toolExecutionRequests().stream()
+                        .map(call -> new ChatResponseStore.ToolCall(call.id(), call.name(), call.arguments()))
+                        .toList()
+                : List.of();
+        return new ChatResponseStore.CachedResponse(
+                message.text(),
+                toolCalls,
+                response.finishReason() == null ? null : response.finishReason().name(),
+                response.modelName(),
+                expiresAtMillis);
+    }
+
+    private static ChatResponse toResponse(ChatResponseStore.CachedResponse cached) {
+        List<ToolExecutionRequest> toolCalls = cached.toolCalls().stream()
+                .map(call -> ToolExecutionRequest.builder()
+                        .id(call.id())
+                        .name(call.name())
+                        .arguments(call.arguments())
+                        .build())
+                .toList();
+        AiMessage message;
+        if (toolCalls.isEmpty()) {
+            message = AiMessage.from(cached.text() == null ? "" : cached.text());
+        } else if (cached.text() == null) {
+            message = AiMessage.from(toolCalls);
+        } else {
+            message = AiMessage.from(cached.text(), toolCalls);
+        }
+        ChatResponse.Builder builder = ChatResponse.builder()
+                .aiMessage(message)
+                .tokenUsage(new TokenUsage(0, 0, 0))
+                .modelName(cached.modelName());
+        if (cached.finishReason() != null) {
+            builder.finishReason(FinishReason.valueOf(cached.finishReason()));
+        }
+        return builder.build();
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static int positiveInt(LangChain4jLlmClient.EnvironmentVariables environment, String name, int fallback) {
+        String raw = trimToNull(environment.get(name));
+        if (raw == null) {
+            return fallback;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw);
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException(name + " must be a positive integer", ex);
+        }
+        if (value <= 0) {
+            throw new IllegalStateException(name + " must be greater than zero");
+        }
+        return value;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public record Stats(long hits, long misses, long expired, long stores) {}
+}
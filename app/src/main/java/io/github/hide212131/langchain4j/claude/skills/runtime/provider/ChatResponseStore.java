@@ -0,0 +1,36 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Storage backend for {@link CachingChatModel}. Implementations only store and return entries; expiry is
+ * decided by the caller from {@link CachedResponse#expiresAtMillis()}.
+ */
+public interface ChatResponseStore {
+
+    Optional<CachedResponse> get(String key);
+
+    void put(String key, CachedResponse response);
+
+    void remove(String key);
+
+    /** Provider-independent copy of an assistant reply. */
+    record CachedResponse(
+            String text,
+            List<ToolCall> toolCalls,
+            String finishReason,
+            String modelName,
+            long expiresAtMillis) {
+        public CachedResponse {
+            toolCalls = toolCalls == null ? List.of() : List.copyOf(toolCalls);
+        }
+    }
+
+    record ToolCall(String id, String name, String arguments) {
+        public ToolCall {
+            Objects.requireNonNull(name, "name");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU {@link ChatResponseStore}. When a backing store is given, misses fall through to it (promoting
+ * the entry into memory) and writes go to both.
+ */
+public final class InMemoryChatResponseStore implements ChatResponseStore {
+
+    private final ChatResponseStore backing;
+    private final Map<String, CachedResponse> entries;
+
+    public InMemoryChatResponseStore(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    public InMemoryChatResponseStore(int maxEntries, ChatResponseStore backing) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        }
+        this.backing = backing;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 64), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Optional<CachedResponse> get(String key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        if (backing == null) {
+            return Optional.empty();
+        }
+        Optional<CachedResponse> loaded = backing.get(key);
+        loaded.ifPresent(response -> {
+            synchronized (entries) {
+                entries.put(key, response);
+            }
+        });
+        return loaded;
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        synchronized (entries) {
+            entries.put(key, response);
+        }
+        if (backing != null) {
+            backing.put(key, response);
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+        if (backing != null) {
+            backing.remove(key);
+        }
+    }
+}
@@ -3,20 +3,35 @@ package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.listener.ChatModelErrorContext;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.request.ChatRequestParameters;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import dev.langchain4j.model.openai.OpenAiChatModel;
 import dev.langchain4j.model.openai.OpenAiChatRequestParameters;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
+import dev.langchain4j.model.openai.OpenAiTokenUsage;
 import io.github.hide212131.langchain4j.claude.skills.runtime.observability.InstrumentedChatModel;
 import dev.langchain4j.model.output.TokenUsage;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static dev.langchain4j.model.chat.Capability.RESPONSE_FORMAT_JSON_SCHEMA;
 
@@ -30,10 +45,17 @@ public final class LangChain4jLlmClient {
     private final String defaultModelName;
     private final ChatModel highPerformanceChatModel;
     private final String highPerformanceModelName;
+    private final StreamingChatModel streamingChatModel;
+    private final AdmissionController admissionController;
     private final AtomicInteger callCount = new AtomicInteger();
     private final AtomicLong cumulativeDurationMs = new AtomicLong();
     private final AtomicInteger cumulativeInputTokens = new AtomicInteger();
     private final AtomicInteger cumulativeOutputTokens = new AtomicInteger();
+    private final AtomicLong cumulativeCachedInputTokens = new AtomicLong();
+    private final AtomicInteger streamedCallCount = new AtomicInteger();
+    private final AtomicLong cumulativeTimeToFirstTokenMs = new AtomicLong();
+    private final LlmMetricsRegistry llmMetrics = new LlmMetricsRegistry();
+    private volatile ChatModelListener listener;
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(120);
 
     private LangChain4jLlmClient(
@@ -41,7 +63,9 @@ public final class LangChain4jLlmClient {
             ChatModel highPerformanceChatModel,
             Clock clock,
             String defaultModelName,
-            String highPerformanceModelName) {
+            String highPerformanceModelName,
+            StreamingChatModel streamingChatModel,
+            AdmissionController admissionController) {
         this.chatModel = Objects.requireNonNull(chatModel, "chatModel");
         this.highPerformanceChatModel =
                 highPerformanceChatModel != null ? highPerformanceChatModel : chatModel;
@@ -49,6 +73,8 @@ public final class LangChain4jLlmClient {
         this.defaultModelName = defaultModelName;
         this.highPerformanceModelName =
                 highPerformanceModelName != null ? highPerformanceModelName : defaultModelName;
+        this.streamingChatModel = streamingChatModel;
+        this.admissionController = admissionController;
     }
 
     public static LangChain4jLlmClient forOpenAi(EnvironmentVariables environment) {
@@ -68,34 +94,195 @@ public final class LangChain4jLlmClient {
         String highPerformanceModelName =
                 trimToNull(environment.get("OPENAI_HIGH_PERFORMANCE_MODEL_NAME"));
         Duration timeout = resolveTimeout(environment);
-        OpenAiConfig defaultConfig = new OpenAiConfig(apiKey, modelName, timeout);
-        ChatModel chatModel = factory.create(defaultConfig);
+        ResilientChatModel.Settings resilience = ResilientChatModel.settingsFromEnvironment(environment);
+        // With our own retries enabled, the OpenAI client's built-in retries would multiply the attempts.
+        Integer clientRetries = resilience == null ? null : 0;
+        OpenAiConfig defaultConfig = new OpenAiConfig(apiKey, modelName, timeout, clientRetries);
+        Decorators decorators = new Decorators(
+                AdmissionController.fromEnvironment(environment),
+                resilience,
+                CachingChatModel.storeFromEnvironment(environment, clock),
+                CachingChatModel.ttlFromEnvironment(environment),
+                clock);
+        ChatModel chatModel = decorators.apply(factory.create(defaultConfig), modelName);
         ChatModel highPerformanceChatModel = null;
         if (highPerformanceModelName != null && !highPerformanceModelName.equals(modelName)) {
-            highPerformanceChatModel =
-                    factory.create(new OpenAiConfig(apiKey, highPerformanceModelName, timeout));
+            highPerformanceChatModel = decorators.apply(
+                    factory.create(new OpenAiConfig(apiKey, highPerformanceModelName, timeout, clientRetries)),
+                    highPerformanceModelName);
         }
+        // The decorators only wrap the blocking ChatModel; streaming around them would skip the response cache,
+        // admission control and retries, so those settings take precedence over OPENAI_STREAMING.
+        StreamingChatModel streamingChatModel = resolveStreaming(environment) && !decorators.configured()
+                ? factory.createStreaming(defaultConfig)
+                : null;
         return new LangChain4jLlmClient(
                 chatModel,
                 highPerformanceChatModel,
                 clock,
                 defaultConfig.modelName,
-                highPerformanceModelName);
+                highPerformanceModelName,
+                streamingChatModel,
+                decorators.admission());
+    }
+
+    /**
+     * Optional wrappers applied to every provider model: admission control sits next to the provider so cache
+     * hits never wait for a slot and every retry or hedge is admitted on its own, retries and hedging sit above
+     * it, and the response cache sits outside everything.
+     */
+    private record Decorators(
+            AdmissionController admission,
+            ResilientChatModel.Settings resilience,
+            ChatResponseStore responseStore,
+            Duration cacheTtl,
+            Clock clock) {
+        boolean configured() {
+            return admission != null || resilience != null || responseStore != null;
+        }
+
+        ChatModel apply(ChatModel model, String modelName) {
+            ChatModel decorated = admission == null
+                    ? model
+                    : new AdmissionControlledChatModel(model, admission, modelName);
+            if (resilience != null) {
+                decorated = resilience.wrap(decorated);
+            }
+            return responseStore == null
+                    ? decorated
+                    : new CachingChatModel(decorated, responseStore, modelName, cacheTtl, clock);
+        }
     }
 
     public static LangChain4jLlmClient usingChatModel(ChatModel chatModel) {
-        return new LangChain4jLlmClient(chatModel, null, Clock.systemUTC(), null, null);
+        return new LangChain4jLlmClient(chatModel, null, Clock.systemUTC(), null, null, null, null);
     }
 
     public static LangChain4jLlmClient fake() {
-        return new LangChain4jLlmClient(new FakeChatModel(), null, Clock.systemUTC(), null, null);
+        return new LangChain4jLlmClient(new FakeChatModel(), null, Clock.systemUTC(), null, null, null, null);
+    }
+
+    /**
+     * Reports every planner completion, blocking or streamed, to {@code listener} (typically an
+     * {@code ObservabilityChatModelListener}, so each call gets the same {@code llm.chat} span as the
+     * {@link InstrumentedChatModel}-wrapped runtime models). Passing {@code null} removes it.
+     */
+    public void instrument(ChatModelListener listener) {
+        this.listener = listener;
     }
 
     public CompletionResult complete(String prompt) {
         Instant start = clock.instant();
         ChatModel providerModel = unwrap(chatModel);
+        ChatRequest request = request(prompt, providerModel instanceof OpenAiChatModel);
+        Map<Object, Object> attributes = new ConcurrentHashMap<>();
+        ChatModelListener listener = this.listener;
+        if (listener != null) {
+            listener.onRequest(new ChatModelRequestContext(request, providerModel.provider(), attributes));
+        }
+        ChatResponse response;
+        try {
+            response = chatModel.doChat(request);
+        } catch (RuntimeException ex) {
+            recordFailure();
+            if (listener != null) {
+                listener.onError(new ChatModelErrorContext(ex, request, providerModel.provider(), attributes));
+            }
+            throw ex;
+        }
+        if (listener != null) {
+            listener.onResponse(new ChatModelResponseContext(
+                    response, request, providerModel.provider(), attributes));
+        }
+        long durationMs = Duration.between(start, clock.instant()).toMillis();
+        AiMessage aiMessage = response.aiMessage();
+        String content = aiMessage != null ? aiMessage.text() : "";
+        TokenUsage usage = response.tokenUsage();
+        recordMetrics(usage, durationMs);
+        return new CompletionResult(content, usage, durationMs);
+    }
+
+    /**
+     * Streams a completion, passing each partial chunk to {@code onPartial} as it arrives, and returns the
+     * complete result with its time to first token. Without a streaming model (see {@code OPENAI_STREAMING}; it
+     * is not created when the response cache, admission control or retries are configured, since those only
+     * decorate the blocking model) this falls back to {@link #complete(String)} and delivers the whole content
+     * as a single chunk.
+     */
+    public CompletionResult completeStreaming(String prompt, Consumer<String> onPartial) {
+        Consumer<String> sink = onPartial != null ? onPartial : chunk -> { };
+        if (streamingChatModel == null) {
+            CompletionResult result = complete(prompt);
+            if (result.content() != null && !result.content().isEmpty()) {
+                sink.accept(result.content());
+            }
+            return result;
+        }
+        Instant start = clock.instant();
+        AtomicReference<Instant> firstToken = new AtomicReference<>();
+        CompletableFuture<ChatResponse> completion = new CompletableFuture<>();
+        ChatRequest request = request(prompt, streamingChatModel instanceof OpenAiStreamingChatModel);
+        Map<Object, Object> attributes = new ConcurrentHashMap<>();
+        ChatModelListener listener = this.listener;
+        if (listener != null) {
+            // Opened and closed on this thread: the handler callbacks below run on the provider's threads.
+            listener.onRequest(new ChatModelRequestContext(request, streamingChatModel.provider(), attributes));
+        }
+        streamingChatModel.chat(request, new StreamingChatResponseHandler() {
+            @Override
+            public void onPartialResponse(String partialResponse) {
+                firstToken.compareAndSet(null, clock.instant());
+                sink.accept(partialResponse);
+            }
+
+            @Override
+            public void onCompleteResponse(ChatResponse completeResponse) {
+                completion.complete(completeResponse);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                completion.completeExceptionally(error);
+            }
+        });
+        ChatResponse response;
+        try {
+            response = completion.join();
+        } catch (CompletionException ex) {
+            recordFailure();
+            RuntimeException failure = ex.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new IllegalStateException("Streaming completion failed", ex.getCause());
+            if (listener != null) {
+                listener.onError(new ChatModelErrorContext(
+                        failure, request, streamingChatModel.provider(), attributes));
+            }
+            throw failure;
+        }
+        if (listener != null) {
+            listener.onResponse(new ChatModelResponseContext(
+                    response, request, streamingChatModel.provider(), attributes));
+        }
+        Instant end = clock.instant();
+        long durationMs = Duration.between(start, end).toMillis();
+        long timeToFirstTokenMs = Duration.between(start, firstToken.get() != null ? firstToken.get() : end).toMillis();
+        AiMessage aiMessage = response.aiMessage();
+        String content = aiMessage != null && aiMessage.text() != null ? aiMessage.text() : "";
+        TokenUsage usage = response.tokenUsage();
+        recordMetrics(usage, durationMs);
+        streamedCallCount.incrementAndGet();
+        cumulativeTimeToFirstTokenMs.addAndGet(timeToFirstTokenMs);
+        LlmRunMetrics.ifCurrent(run -> run.recordTimeToFirstToken(timeToFirstTokenMs));
+        return new CompletionResult(content, usage, durationMs, timeToFirstTokenMs);
+    }
+
+    /**
+     * Planner request for {@code prompt}; both completion paths share it so streamed calls carry the same
+     * parameters as blocking ones.
+     */
+    private ChatRequest request(String prompt, boolean openAi) {
         ChatRequestParameters parameters;
-        if (providerModel instanceof OpenAiChatModel) {
+        if (openAi) {
             var builder = OpenAiChatRequestParameters.builder();
             if (defaultModelName != null && !defaultModelName.isBlank()) {
                 builder.modelName(defaultModelName);
@@ -104,17 +291,10 @@ public final class LangChain4jLlmClient {
         } else {
             parameters = ChatRequestParameters.builder().build();
         }
-        ChatRequest request = ChatRequest.builder()
+        return ChatRequest.builder()
                 .messages(List.of(UserMessage.from(prompt)))
                 .parameters(parameters)
                 .build();
-    ChatResponse response = chatModel.doChat(request);
-        long durationMs = Duration.between(start, clock.instant()).toMillis();
-        AiMessage aiMessage = response.aiMessage();
-        String content = aiMessage != null ? aiMessage.text() : "";
-        TokenUsage usage = response.tokenUsage();
-        recordMetrics(usage, durationMs);
-        return new CompletionResult(content, usage, durationMs);
     }
 
     public ChatModel chatModel() {
@@ -133,20 +313,113 @@ public final class LangChain4jLlmClient {
         return highPerformanceModelName;
     }
 
+    /**
+     * Latency and token distributions by model and stage. Planner completions are recorded here; supervisor and
+     * validator calls are recorded by {@link MeteredChatModel} wrappers built on this registry.
+     */
+    public LlmMetricsRegistry llmMetrics() {
+        return llmMetrics;
+    }
+
     public ProviderMetrics metrics() {
+        long cacheHits = 0L;
+        long cacheMisses = 0L;
+        long retries = 0L;
+        long hedgedCalls = 0L;
+        long hedgeWins = 0L;
+        for (ChatModel model : highPerformanceChatModel == chatModel
+                ? List.of(chatModel)
+                : List.of(chatModel, highPerformanceChatModel)) {
+            if (model instanceof CachingChatModel caching) {
+                CachingChatModel.Stats stats = caching.stats();
+                cacheHits += stats.hits();
+                cacheMisses += stats.misses();
+            }
+            ResilientChatModel resilient = layer(model, ResilientChatModel.class);
+            if (resilient != null) {
+                ResilientChatModel.Stats stats = resilient.stats();
+                retries += stats.retries();
+                hedgedCalls += stats.hedges();
+                hedgeWins += stats.hedgeWins();
+            }
+        }
+        long queuedCalls = 0L;
+        long totalQueueWaitMs = 0L;
+        long throttledCalls = 0L;
+        for (AdmissionController.ModelStats stats : admissionStats()) {
+            queuedCalls += stats.queued();
+            totalQueueWaitMs += stats.totalQueueWaitMs();
+            throttledCalls += stats.throttled();
+        }
         return new ProviderMetrics(
                 callCount.get(),
                 cumulativeDurationMs.get(),
                 cumulativeInputTokens.get(),
-                cumulativeOutputTokens.get());
+                cumulativeOutputTokens.get(),
+                cumulativeCachedInputTokens.get(),
+                new ProviderMetrics.ResponseCache(cacheHits, cacheMisses),
+                new ProviderMetrics.Streaming(streamedCallCount.get(), cumulativeTimeToFirstTokenMs.get()),
+                new ProviderMetrics.Admission(queuedCalls, totalQueueWaitMs, throttledCalls),
+                new ProviderMetrics.Resilience(retries, hedgedCalls, hedgeWins));
+    }
+
+    /**
+     * Input tokens the provider served from its prompt cache, or {@code null} when the usage does not report
+     * them (non-OpenAI providers, replayed responses).
+     */
+    public static Integer cachedInputTokens(TokenUsage usage) {
+        if (usage instanceof OpenAiTokenUsage openAiUsage && openAiUsage.inputTokensDetails() != null) {
+            return openAiUsage.inputTokensDetails().cachedTokens();
+        }
+        return null;
+    }
+
+    /** Per-model admission statistics, empty unless admission control is configured. */
+    public List<AdmissionController.ModelStats> admissionStats() {
+        return admissionController == null ? List.of() : admissionController.stats();
     }
 
-    public record CompletionResult(String content, TokenUsage tokenUsage, long durationMs) {}
+    /** {@code timeToFirstTokenMs} is {@code null} unless the completion was streamed. */
+    public record CompletionResult(String content, TokenUsage tokenUsage, long durationMs, Long timeToFirstTokenMs) {
+        public CompletionResult(String content, TokenUsage tokenUsage, long durationMs) {
+            this(content, tokenUsage, durationMs, null);
+        }
+    }
 
-    public record ProviderMetrics(int callCount, long totalDurationMs, int totalInputTokens, int totalOutputTokens) {
+    /**
+     * Planner completions and their token usage ({@code cachedInputTokens} is the part of
+     * {@code totalInputTokens} served from the provider's prompt cache), followed by what the optional layers
+     * around the provider did. {@link #metrics()} covers the whole process; {@link LlmRunMetrics} a single run.
+     */
+    public record ProviderMetrics(
+            int callCount,
+            long totalDurationMs,
+            int totalInputTokens,
+            int totalOutputTokens,
+            long cachedInputTokens,
+            ResponseCache responseCache,
+            Streaming streaming,
+            Admission admission,
+            Resilience resilience) {
         public int totalTokenCount() {
             return totalInputTokens + totalOutputTokens;
         }
+
+        /** Lookups in the response cache; zero when it is off. */
+        public record ResponseCache(long hits, long misses) {}
+
+        /** Streamed completions only. */
+        public record Streaming(int callCount, long totalTimeToFirstTokenMs) {
+            public long averageTimeToFirstTokenMs() {
+                return callCount == 0 ? 0L : totalTimeToFirstTokenMs / callCount;
+            }
+        }
+
+        /** Calls that waited for an admission slot, and calls the provider rejected as overloaded. */
+        public record Admission(long queuedCalls, long totalQueueWaitMs, long throttledCalls) {}
+
+        /** Retries and hedged requests issued by the retry/hedging wrapper. */
+        public record Resilience(long retries, long hedgedCalls, long hedgeWins) {}
     }
 
     @FunctionalInterface
@@ -156,17 +429,29 @@ public final class LangChain4jLlmClient {
 
     interface ChatModelFactory {
         ChatModel create(OpenAiConfig config);
+
+        /** Returns {@code null} when the factory cannot stream; completions then fall back to blocking calls. */
+        default StreamingChatModel createStreaming(OpenAiConfig config) {
+            return null;
+        }
     }
 
     static final class OpenAiConfig {
         final String apiKey;
         final String modelName;
         final Duration timeout;
+        /** {@code null} keeps the client library's default. */
+        final Integer maxRetries;
 
         OpenAiConfig(String apiKey, String modelName, Duration timeout) {
+            this(apiKey, modelName, timeout, null);
+        }
+
+        OpenAiConfig(String apiKey, String modelName, Duration timeout, Integer maxRetries) {
             this.apiKey = Objects.requireNonNull(apiKey, "apiKey");
             this.modelName = Objects.requireNonNull(modelName, "modelName");
             this.timeout = Objects.requireNonNull(timeout, "timeout");
+            this.maxRetries = maxRetries;
         }
     }
 
@@ -181,10 +466,20 @@ public final class LangChain4jLlmClient {
                     .apiKey(config.apiKey)
                     .modelName(config.modelName)
                     .timeout(config.timeout)
+                    .maxRetries(config.maxRetries)
                     .supportedCapabilities(RESPONSE_FORMAT_JSON_SCHEMA)
                     .strictJsonSchema(true)
                     .build();
         }
+
+        @Override
+        public StreamingChatModel createStreaming(OpenAiConfig config) {
+            return OpenAiStreamingChatModel.builder()
+                    .apiKey(config.apiKey)
+                    .modelName(config.modelName)
+                    .timeout(config.timeout)
+                    .build();
+        }
     }
 
     private static final class FakeChatModel implements ChatModel {
@@ -219,6 +514,18 @@ public final class LangChain4jLlmClient {
         return Duration.ofSeconds(seconds);
     }
 
+    private static boolean resolveStreaming(EnvironmentVariables environment) {
+        String raw = trimToNull(environment.get("OPENAI_STREAMING"));
+        if (raw == null) {
+            return false;
+        }
+        return switch (raw.toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalStateException("OPENAI_STREAMING must be true or false");
+        };
+    }
+
     private static String trimToNull(String value) {
         if (value == null) {
             return null;
@@ -227,7 +534,17 @@ public final class LangChain4jLlmClient {
         return trimmed.isEmpty() ? null : trimmed;
     }
 
+    private void recordFailure() {
+        llmMetrics.recordFailure(defaultModelName, LlmMetricsRegistry.Stage.PLAN);
+        LlmRunMetrics.ifCurrent(run -> run.llmMetrics().recordFailure(defaultModelName, LlmMetricsRegistry.Stage.PLAN));
+    }
+
     private void recordMetrics(TokenUsage usage, long durationMs) {
+        llmMetrics.record(defaultModelName, LlmMetricsRegistry.Stage.PLAN, durationMs, usage);
+        LlmRunMetrics.ifCurrent(run -> {
+            run.llmMetrics().record(defaultModelName, LlmMetricsRegistry.Stage.PLAN, durationMs, usage);
+            run.recordCompletion(usage, durationMs);
+        });
         callCount.incrementAndGet();
         cumulativeDurationMs.addAndGet(durationMs);
         if (usage != null) {
@@ -237,13 +554,47 @@ public final class LangChain4jLlmClient {
             if (usage.outputTokenCount() != null) {
                 cumulativeOutputTokens.addAndGet(usage.outputTokenCount());
             }
+            Integer cached = cachedInputTokens(usage);
+            if (cached != null) {
+                cumulativeCachedInputTokens.addAndGet(cached);
+            }
         }
     }
 
     private ChatModel unwrap(ChatModel model) {
+        ChatModel current = model;
+        for (ChatModel inner = inner(current); inner != null; inner = inner(current)) {
+            current = inner;
+        }
+        return current;
+    }
+
+    /** Finds the first decorator of {@code type} in the chain, or {@code null}. */
+    private static <T extends ChatModel> T layer(ChatModel model, Class<T> type) {
+        for (ChatModel current = model; current != null; current = inner(current)) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+        }
+        return null;
+    }
+
+    private static ChatModel inner(ChatModel model) {
         if (model instanceof InstrumentedChatModel instrumented) {
             return instrumented.delegate();
         }
-        return model;
+        if (model instanceof CachingChatModel caching) {
+            return caching.delegate();
+        }
+        if (model instanceof AdmissionControlledChatModel admitted) {
+            return admitted.delegate();
+        }
+        if (model instanceof ResilientChatModel resilient) {
+            return resilient.delegate();
+        }
+        if (model instanceof MeteredChatModel metered) {
+            return metered.delegate();
+        }
+        return null;
     }
 }
@@ -0,0 +1,231 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import dev.langchain4j.model.output.TokenUsage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-model, per-stage distributions of LLM call latency and token counts. Values land in log-linear buckets
+ * (four per power of two, so a reported percentile is at most 25% above the true value) held in
+ * {@link LongAdder}s, which keeps recording contention-free when skills run in parallel. {@link #snapshot()}
+ * copies the counters. Each client owns one for the whole process and each run gets its own through
+ * {@link LlmRunMetrics}.
+ */
+public final class LlmMetricsRegistry {
+
+    /** Values at or above {@code 2^MAX_EXPONENT} (about 4.6 hours in milliseconds) share the last bucket. */
+    static final int MAX_EXPONENT = 24;
+    private static final int SUB_BUCKETS = 4;
+    static final int BUCKET_COUNT = 2 + MAX_EXPONENT * SUB_BUCKETS;
+    private static final Comparator<SeriesSnapshot> SERIES_ORDER =
+            Comparator.comparing(SeriesSnapshot::stage).thenComparing(SeriesSnapshot::model);
+
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+
+    /** Workflow stage an LLM call was made for. */
+    public enum Stage {
+        PLAN,
+        SUPERVISOR,
+        VALIDATOR;
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Records a completed call; {@code usage} may be {@code null} when the provider reports none. */
+    public void record(String model, Stage stage, long latencyMs, TokenUsage usage) {
+        Series target = series(model, stage);
+        target.latencyMs.record(latencyMs);
+        if (usage != null) {
+            if (usage.inputTokenCount() != null) {
+                target.inputTokens.record(usage.inputTokenCount());
+            }
+            if (usage.outputTokenCount() != null) {
+                target.outputTokens.record(usage.outputTokenCount());
+            }
+        }
+    }
+
+    /** Counts a failed call; failures stay out of the latency distribution so they do not skew it. */
+    public void recordFailure(String model, Stage stage) {
+        series(model, stage).failures.increment();
+    }
+
+    public Snapshot snapshot() {
+        List<SeriesSnapshot> copies = new ArrayList<>();
+        series.forEach((key, value) -> copies.add(new SeriesSnapshot(
+                key.model(),
+                key.stage(),
+                value.failures.sum(),
+                value.latencyMs.snapshot(),
+                value.inputTokens.snapshot(),
+                value.outputTokens.snapshot())));
+        copies.sort(SERIES_ORDER);
+        return new Snapshot(List.copyOf(copies));
+    }
+
+    private Series series(String model, Stage stage) {
+        Objects.requireNonNull(stage, "stage");
+        String name = model == null || model.isBlank() ? "default" : model;
+        return series.computeIfAbsent(new Key(name, stage), key -> new Series());
+    }
+
+    /** Bucket 0 holds zero; each power of two above that is split into four equal-width buckets. */
+    static int bucketIndex(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = exponent >= 2
+                ? (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1)
+                : (int) (value << (2 - exponent)) & (SUB_BUCKETS - 1);
+        return 1 + exponent * SUB_BUCKETS + subBucket;
+    }
+
+    /** Largest value that maps to {@code index}. */
+    static long bucketUpperBound(int index) {
+        if (index == 0) {
+            return 0;
+        }
+        if (index >= BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = (index - 1) / SUB_BUCKETS;
+        int subBucket = (index - 1) % SUB_BUCKETS;
+        if (exponent < 2) {
+            // 1, 2 and 3 each have a bucket of their own.
+            return (SUB_BUCKETS + subBucket) >> (2 - exponent);
+        }
+        long lower = (long) (SUB_BUCKETS + subBucket) << (exponent - 2);
+        return lower + (1L << (exponent - 2)) - 1;
+    }
+
+    public record Snapshot(List<SeriesSnapshot> series) {
+
+        public Snapshot {
+            series = series == null ? List.of() : List.copyOf(series);
+        }
+
+        public static Snapshot empty() {
+            return new Snapshot(List.of());
+        }
+
+        /** Returns the series for {@code model} and {@code stage}, or {@code null}. */
+        public SeriesSnapshot find(String model, Stage stage) {
+            for (SeriesSnapshot candidate : series) {
+                if (candidate.stage() == stage && candidate.model().equals(model)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record SeriesSnapshot(
+            String model,
+            Stage stage,
+            long failures,
+            Histogram latencyMs,
+            Histogram inputTokens,
+            Histogram outputTokens) {
+
+        /** Successful calls. */
+        public long calls() {
+            return latencyMs.count();
+        }
+    }
+
+    /** Immutable copy of one distribution. Percentiles report the upper bound of the bucket they fall in. */
+    public record Histogram(long count, long sum, long max, List<Long> buckets) {
+
+        public Histogram {
+            buckets = List.copyOf(buckets);
+        }
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long p50() {
+            return percentile(0.50);
+        }
+
+        public long p95() {
+            return percentile(0.95);
+        }
+
+        public long p99() {
+            return percentile(0.99);
+        }
+
+        /** Nearest-rank percentile for {@code quantile} in {@code (0, 1]}, or {@code 0} when empty. */
+        public long percentile(double quantile) {
+            if (quantile <= 0 || quantile > 1) {
+                throw new IllegalArgumentException("quantile must be in (0, 1]");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.size(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+
+    private record Key(String model, Stage stage) {}
+
+    private static final class Series {
+        final LongAdder failures = new LongAdder();
+        final Recorder latencyMs = new Recorder();
+        final Recorder inputTokens = new Recorder();
+        final Recorder outputTokens = new Recorder();
+    }
+
+    private static final class Recorder {
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Recorder() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            long clamped = Math.max(0, value);
+            buckets[bucketIndex(clamped)].increment();
+            sum.add(clamped);
+            max.accumulate(clamped);
+        }
+
+        Histogram snapshot() {
+            List<Long> counts = new ArrayList<>(buckets.length);
+            long total = 0;
+            for (LongAdder bucket : buckets) {
+                long count = bucket.sum();
+                counts.add(count);
+                total += count;
+            }
+            // Buckets are read one by one, so derive the count from them rather than from a racing adder.
+            return new Histogram(total, sum.sum(), max.get(), counts);
+        }
+    }
+}
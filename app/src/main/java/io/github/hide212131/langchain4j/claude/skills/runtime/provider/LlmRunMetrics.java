@@ -0,0 +1,124 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import dev.langchain4j.model.output.TokenUsage;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * LLM usage of a single agent run. The client, its decorators and {@link MeteredChatModel} keep their
+ * process-wide counters and additionally record into the run made current with {@link #makeCurrent()}. The run
+ * travels in the OpenTelemetry {@link Context}, which the act stage and hedged calls already carry onto their
+ * worker threads, so concurrent runs sharing one client do not count each other's calls.
+ */
+public final class LlmRunMetrics {
+
+    private static final ContextKey<LlmRunMetrics> KEY = ContextKey.named("skills.llm.run-metrics");
+
+    private final LlmMetricsRegistry llmMetrics = new LlmMetricsRegistry();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder durationMs = new LongAdder();
+    private final LongAdder inputTokens = new LongAdder();
+    private final LongAdder outputTokens = new LongAdder();
+    private final LongAdder cachedInputTokens = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder streamedCalls = new LongAdder();
+    private final LongAdder timeToFirstTokenMs = new LongAdder();
+    private final LongAdder queuedCalls = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder throttledCalls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedgedCalls = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /** The run recording on this thread, or {@code null} outside a run. */
+    public static LlmRunMetrics current() {
+        return Context.current().get(KEY);
+    }
+
+    static void ifCurrent(Consumer<LlmRunMetrics> action) {
+        LlmRunMetrics run = current();
+        if (run != null) {
+            action.accept(run);
+        }
+    }
+
+    /** Records calls made on this thread, and on threads that inherit its context, into this run. */
+    public Scope makeCurrent() {
+        return Context.current().with(KEY, this).makeCurrent();
+    }
+
+    /** Latency and token distributions of this run's calls, by model and stage. */
+    public LlmMetricsRegistry llmMetrics() {
+        return llmMetrics;
+    }
+
+    public LangChain4jLlmClient.ProviderMetrics snapshot() {
+        return new LangChain4jLlmClient.ProviderMetrics(
+                calls.intValue(),
+                durationMs.sum(),
+                inputTokens.intValue(),
+                outputTokens.intValue(),
+                cachedInputTokens.sum(),
+                new LangChain4jLlmClient.ProviderMetrics.ResponseCache(cacheHits.sum(), cacheMisses.sum()),
+                new LangChain4jLlmClient.ProviderMetrics.Streaming(
+                        streamedCalls.intValue(), timeToFirstTokenMs.sum()),
+                new LangChain4jLlmClient.ProviderMetrics.Admission(
+                        queuedCalls.sum(),
+                        TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.sum()),
+                        throttledCalls.sum()),
+                new LangChain4jLlmClient.ProviderMetrics.Resilience(
+                        retries.sum(), hedgedCalls.sum(), hedgeWins.sum()));
+    }
+
+    void recordCompletion(TokenUsage usage, long completionDurationMs) {
+        calls.increment();
+        durationMs.add(completionDurationMs);
+        if (usage != null) {
+            if (usage.inputTokenCount() != null) {
+                inputTokens.add(usage.inputTokenCount());
+            }
+            if (usage.outputTokenCount() != null) {
+                outputTokens.add(usage.outputTokenCount());
+            }
+            Integer cached = LangChain4jLlmClient.cachedInputTokens(usage);
+            if (cached != null) {
+                cachedInputTokens.add(cached);
+            }
+        }
+    }
+
+    void recordTimeToFirstToken(long millis) {
+        streamedCalls.increment();
+        timeToFirstTokenMs.add(millis);
+    }
+
+    void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    void recordQueued(long waitedNanos) {
+        queuedCalls.increment();
+        queueWaitNanos.add(waitedNanos);
+    }
+
+    void recordThrottled() {
+        throttledCalls.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordHedge() {
+        hedgedCalls.increment();
+    }
+
+    void recordHedgeWin() {
+        hedgeWins.increment();
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link ChatModel} decorator that records each call's latency and token usage in an {@link LlmMetricsRegistry}
+ * under a model name and workflow stage. Models that serve several stages are re-tagged with
+ * {@link #withStage(ChatModel, LlmMetricsRegistry.Stage)} rather than wrapped twice.
+ */
+public final class MeteredChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final LlmMetricsRegistry registry;
+    private final String modelName;
+    private final LlmMetricsRegistry.Stage stage;
+
+    public MeteredChatModel(
+            ChatModel delegate, LlmMetricsRegistry registry, String modelName, LlmMetricsRegistry.Stage stage) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.modelName = modelName;
+        this.stage = Objects.requireNonNull(stage, "stage");
+    }
+
+    /**
+     * Returns {@code model} recording under {@code stage} when it is metered, or {@code model} unchanged when it
+     * is not.
+     */
+    public static ChatModel withStage(ChatModel model, LlmMetricsRegistry.Stage stage) {
+        if (model instanceof MeteredChatModel metered && metered.stage != stage) {
+            return new MeteredChatModel(metered.delegate, metered.registry, metered.modelName, stage);
+        }
+        return model;
+    }
+
+    public ChatModel delegate() {
+        return delegate;
+    }
+
+    public String modelName() {
+        return modelName;
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest request) {
+        long start = System.nanoTime();
+        ChatResponse response;
+        try {
+            response = delegate.chat(request);
+        } catch (RuntimeException ex) {
+            registry.recordFailure(modelName, stage);
+            LlmRunMetrics.ifCurrent(run -> run.llmMetrics().recordFailure(modelName, stage));
+            throw ex;
+        }
+        long latencyMs = (System.nanoTime() - start) / 1_000_000L;
+        registry.record(modelName, stage, latencyMs, response.tokenUsage());
+        LlmRunMetrics.ifCurrent(run -> run.llmMetrics().record(modelName, stage, latencyMs, response.tokenUsage()));
+        return response;
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+}
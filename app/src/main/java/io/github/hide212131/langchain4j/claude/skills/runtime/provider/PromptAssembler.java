@@ -0,0 +1,53 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assembles prompts so their most stable content comes first. Provider-side prompt caches (e.g. OpenAI's
+ * automatic prefix caching) only reuse a byte-identical prefix, so sections are rendered by {@link Layer} —
+ * static policy, then skill instructions, then per-run values — whatever order they were added in. Line
+ * endings are normalised to {@code \n} and trailing whitespace is trimmed so that, for example, a
+ * {@code SKILL.md} saved with CRLF does not change the prefix.
+ */
+public final class PromptAssembler {
+
+    private static final String SEPARATOR = "\n\n";
+
+    private final Map<Layer, List<String>> sections = new EnumMap<>(Layer.class);
+
+    public PromptAssembler add(Layer layer, String section) {
+        Objects.requireNonNull(layer, "layer");
+        if (section == null) {
+            return this;
+        }
+        String normalised = section.replace("\r\n", "\n").replace('\r', '\n').stripTrailing();
+        if (!normalised.isBlank()) {
+            sections.computeIfAbsent(layer, key -> new ArrayList<>()).add(normalised);
+        }
+        return this;
+    }
+
+    public String render() {
+        StringBuilder prompt = new StringBuilder();
+        for (List<String> layerSections : sections.values()) {
+            for (String section : layerSections) {
+                if (!prompt.isEmpty()) {
+                    prompt.append(SEPARATOR);
+                }
+                prompt.append(section);
+            }
+        }
+        return prompt.append('\n').toString();
+    }
+
+    /** Rendering order, from content shared by every run to content unique to one run. */
+    public enum Layer {
+        STATIC_POLICY,
+        SKILL_INSTRUCTIONS,
+        RUN_VARIABLES
+    }
+}
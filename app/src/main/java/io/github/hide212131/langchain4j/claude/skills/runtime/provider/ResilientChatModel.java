@@ -0,0 +1,386 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.RetriableException;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link ChatModel} decorator that retries transient failures (rate limits, timeouts, 5xx and I/O errors) with
+ * full-jitter exponential backoff, and hedges slow calls: once an attempt has run longer than the configured
+ * percentile of recently observed latencies, a duplicate request is sent and whichever answers first wins. The
+ * loser is cancelled by interrupting its thread. Retry and hedge counts are added to the current
+ * {@code llm.chat} span when one is active.
+ */
+public final class ResilientChatModel implements ChatModel {
+
+    static final int DEFAULT_MAX_RETRIES = 2;
+    static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(8);
+    /** Hedging waits for this many successful calls so the percentile means something. */
+    static final int MIN_HEDGE_SAMPLES = 20;
+    static final Duration MIN_HEDGE_DELAY = Duration.ofMillis(50);
+
+    private final ChatModel delegate;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final double hedgePercentile;
+    private final Sleeper sleeper;
+    private final DoubleSupplier random;
+    private final LatencyWindow latencies = new LatencyWindow(128);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    /**
+     * @param hedgePercentile latency percentile (exclusive of 0, up to 100) after which a hedge is fired, or
+     *     {@code 0} to disable hedging
+     */
+    public ResilientChatModel(ChatModel delegate, int maxRetries, Duration initialBackoff, double hedgePercentile) {
+        this(delegate, maxRetries, initialBackoff, hedgePercentile, TimeUnit.MILLISECONDS::sleep,
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    ResilientChatModel(
+            ChatModel delegate,
+            int maxRetries,
+            Duration initialBackoff,
+            double hedgePercentile,
+            Sleeper sleeper,
+            DoubleSupplier random) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        if (hedgePercentile < 0 || hedgePercentile > 100) {
+            throw new IllegalArgumentException("hedgePercentile must be between 0 and 100");
+        }
+        this.maxRetries = maxRetries;
+        this.initialBackoff = Objects.requireNonNull(initialBackoff, "initialBackoff");
+        this.hedgePercentile = hedgePercentile;
+        this.sleeper = Objects.requireNonNull(sleeper, "sleeper");
+        this.random = Objects.requireNonNull(random, "random");
+    }
+
+    /**
+     * Returns the retry and hedging settings when {@code SKILLS_LLM_MAX_RETRIES} or
+     * {@code SKILLS_LLM_HEDGE_PERCENTILE} is set, otherwise {@code null}. Retries default to
+     * {@value #DEFAULT_MAX_RETRIES} and hedging stays off unless a percentile is given.
+     */
+    static Settings settingsFromEnvironment(LangChain4jLlmClient.EnvironmentVariables environment) {
+        String retriesRaw = trimToNull(environment.get("SKILLS_LLM_MAX_RETRIES"));
+        String percentileRaw = trimToNull(environment.get("SKILLS_LLM_HEDGE_PERCENTILE"));
+        if (retriesRaw == null && percentileRaw == null) {
+            return null;
+        }
+        int maxRetries = DEFAULT_MAX_RETRIES;
+        if (retriesRaw != null) {
+            try {
+                maxRetries = Integer.parseInt(retriesRaw);
+            } catch (NumberFormatException ex) {
+                throw new IllegalStateException("SKILLS_LLM_MAX_RETRIES must be a non-negative integer", ex);
+            }
+            if (maxRetries < 0) {
+                throw new IllegalStateException("SKILLS_LLM_MAX_RETRIES must be a non-negative integer");
+            }
+        }
+        double percentile = 0;
+        if (percentileRaw != null) {
+            try {
+                percentile = Double.parseDouble(percentileRaw);
+            } catch (NumberFormatException ex) {
+                throw new IllegalStateException("SKILLS_LLM_HEDGE_PERCENTILE must be a number between 0 and 100", ex);
+            }
+            if (!(percentile >= 0 && percentile < 100)) {
+                throw new IllegalStateException("SKILLS_LLM_HEDGE_PERCENTILE must be a number between 0 and 100");
+            }
+        }
+        Duration backoff = DEFAULT_INITIAL_BACKOFF;
+        String backoffRaw = trimToNull(environment.get("SKILLS_LLM_RETRY_BACKOFF_MS"));
+        if (backoffRaw != null) {
+            long millis;
+            try {
+                millis = Long.parseLong(backoffRaw);
+            } catch (NumberFormatException ex) {
+                throw new IllegalStateException("SKILLS_LLM_RETRY_BACKOFF_MS must be a positive integer", ex);
+            }
+            if (millis <= 0) {
+                throw new IllegalStateException("SKILLS_LLM_RETRY_BACKOFF_MS must be greater than zero");
+            }
+            backoff = Duration.ofMillis(millis);
+        }
+        return new Settings(maxRetries, backoff, percentile);
+    }
+
+    record Settings(int maxRetries, Duration initialBackoff, double hedgePercentile) {
+        ResilientChatModel wrap(ChatModel model) {
+            return new ResilientChatModel(model, maxRetries, initialBackoff, hedgePercentile);
+        }
+    }
+
+    public ChatModel delegate() {
+        return delegate;
+    }
+
+    public Stats stats() {
+        return new Stats(calls.get(), retries.get(), hedges.get(), hedgeWins.get());
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest request) {
+        Objects.requireNonNull(request, "request");
+        calls.incrementAndGet();
+        Span span = Span.current();
+        int retried = 0;
+        Outcome outcome = new Outcome();
+        try {
+            while (true) {
+                try {
+                    return attempt(request, span, outcome);
+                } catch (RuntimeException ex) {
+                    if (retried >= maxRetries || !isTransient(ex)) {
+                        throw ex;
+                    }
+                    long backoffMs = backoffMillis(retried);
+                    retried++;
+                    retries.incrementAndGet();
+                    LlmRunMetrics.ifCurrent(LlmRunMetrics::recordRetry);
+                    span.addEvent("llm.retry", Attributes.builder()
+                            .put("attempt", retried)
+                            .put("backoff_ms", backoffMs)
+                            .put("error", ex.getClass().getSimpleName())
+                            .build());
+                    sleep(backoffMs);
+                }
+            }
+        } finally {
+            if (retried > 0) {
+                span.setAttribute("llm.retries", retried);
+            }
+            if (outcome.hedged > 0) {
+                span.setAttribute("llm.hedges", outcome.hedged);
+                span.setAttribute("llm.hedge_won", outcome.hedgeWon);
+            }
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    /** Records a successful call's latency; exposed so tests can prime the hedging window. */
+    void recordLatency(long nanos) {
+        latencies.add(nanos);
+    }
+
+    private ChatResponse attempt(ChatRequest request, Span span, Outcome outcome) {
+        long hedgeDelayNanos = hedgeDelayNanos();
+        if (hedgeDelayNanos < 0) {
+            return timedCall(request);
+        }
+        // Context.wrap keeps the caller's trace (and the llm.chat span) current on the worker threads.
+        Callable<ChatResponse> call = Context.current().wrap(() -> timedCall(request));
+        ExecutorCompletionService<ChatResponse> race = new ExecutorCompletionService<>(executor);
+        List<Future<ChatResponse>> running = new ArrayList<>(2);
+        running.add(race.submit(call));
+        try {
+            Future<ChatResponse> done = race.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            if (done == null) {
+                hedges.incrementAndGet();
+                LlmRunMetrics.ifCurrent(LlmRunMetrics::recordHedge);
+                outcome.hedged++;
+                span.addEvent("llm.hedge", Attributes.builder()
+                        .put("delay_ms", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos))
+                        .build());
+                running.add(race.submit(call));
+                done = race.take();
+            }
+            try {
+                return winner(done, running, outcome);
+            } catch (ExecutionException first) {
+                if (running.size() < 2) {
+                    throw rethrow(first);
+                }
+                // The other request may still succeed; only fail when both have.
+                try {
+                    return winner(race.take(), running, outcome);
+                } catch (ExecutionException second) {
+                    throw rethrow(second);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LLM response", ex);
+        } finally {
+            for (Future<ChatResponse> future : running) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private ChatResponse winner(Future<ChatResponse> done, List<Future<ChatResponse>> running, Outcome outcome)
+            throws ExecutionException, InterruptedException {
+        ChatResponse response = done.get();
+        if (running.size() > 1 && done == running.get(1)) {
+            hedgeWins.incrementAndGet();
+            LlmRunMetrics.ifCurrent(LlmRunMetrics::recordHedgeWin);
+            outcome.hedgeWon = true;
+        }
+        return response;
+    }
+
+    private ChatResponse timedCall(ChatRequest request) {
+        long start = System.nanoTime();
+        // chat(...) merges the delegate's default parameters, so provider-specific parameter types are honoured.
+        ChatResponse response = delegate.chat(request);
+        latencies.add(System.nanoTime() - start);
+        return response;
+    }
+
+    /** Returns {@code -1} while hedging is off or there are too few samples. */
+    private long hedgeDelayNanos() {
+        if (hedgePercentile <= 0) {
+            return -1L;
+        }
+        long threshold = latencies.percentile(hedgePercentile, MIN_HEDGE_SAMPLES);
+        return threshold < 0 ? -1L : Math.max(threshold, MIN_HEDGE_DELAY.toNanos());
+    }
+
+    /** Full jitter: uniform between zero and the capped exponential step. */
+    long backoffMillis(int retry) {
+        long ceiling = Math.min(MAX_BACKOFF.toMillis(), initialBackoff.toMillis() << Math.min(retry, 20));
+        return (long) (random.getAsDouble() * ceiling);
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            sleeper.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off before an LLM retry", ex);
+        }
+    }
+
+    private static RuntimeException rethrow(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("LLM call failed", cause);
+    }
+
+    /**
+     * Overload signals plus server errors and I/O failures; client errors such as 400 are not retried. Like
+     * {@link AdmissionControlledChatModel#isOverload}, only exception types are trusted, never message text.
+     */
+    static boolean isTransient(Throwable error) {
+        if (AdmissionControlledChatModel.isOverload(error)) {
+            return true;
+        }
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof RetriableException || current instanceof IOException) {
+                return true;
+            }
+            if (current instanceof HttpException http && http.statusCode() >= 500) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public record Stats(long calls, long retries, long hedges, long hedgeWins) {}
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    /** Per-call retry and hedge bookkeeping for the span attributes. */
+    private static final class Outcome {
+        private int hedged;
+        private boolean hedgeWon;
+    }
+
+    /** Ring buffer of the most recent successful latencies. */
+    static final class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        /** Nearest-rank percentile, or {@code -1} with fewer than {@code minSamples} samples. */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (size == 0 || size < minSamples) {
+                return -1L;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * size);
+            return sorted[Math.min(size, Math.max(1, rank)) - 1];
+        }
+    }
+}
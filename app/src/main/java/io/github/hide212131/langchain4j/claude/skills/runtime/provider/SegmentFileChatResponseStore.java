@@ -0,0 +1,174 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@link ChatResponseStore} persisted in a single append-only segment file of JSON lines. Only the offset of
+ * each live record is kept in memory; records are read back on demand. Expired and superseded records are
+ * dropped by rewriting the segment when it is opened.
+ */
+public final class SegmentFileChatResponseStore implements ChatResponseStore {
+
+    static final String SEGMENT_FILE_NAME = "responses.seg";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path segment;
+    private final Map<String, Location> index = new HashMap<>();
+    private long size;
+
+    public SegmentFileChatResponseStore(Path directory, Clock clock) {
+        Objects.requireNonNull(directory, "directory");
+        Objects.requireNonNull(clock, "clock");
+        this.segment = directory.toAbsolutePath().normalize().resolve(SEGMENT_FILE_NAME);
+        try {
+            Files.createDirectories(segment.getParent());
+            load(clock.millis());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open LLM response cache: " + segment, e);
+        }
+    }
+
+    @Override
+    public synchronized Optional<CachedResponse> get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(location.length());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset() + buffer.position()) < 0) {
+                    index.remove(key);
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(OBJECT_MAPPER.readValue(buffer.array(), Record.class).response());
+        } catch (IOException e) {
+            index.remove(key);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void put(String key, CachedResponse response) {
+        try {
+            byte[] line = encode(new Record(key, response));
+            Files.write(segment, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            index.put(key, new Location(size, line.length - 1));
+            size += line.length;
+        } catch (IOException e) {
+            // The in-memory layer still serves the entry; persistence is best effort.
+        }
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        // The stale record is skipped on the next compaction.
+        index.remove(key);
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    private void load(long nowMillis) throws IOException {
+        if (!Files.exists(segment)) {
+            return;
+        }
+        byte[] content = Files.readAllBytes(segment);
+        Map<String, Record> live = new HashMap<>();
+        int records = 0;
+        int start = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            records++;
+            try {
+                Record record = OBJECT_MAPPER.readValue(content, start, i - start, Record.class);
+                if (record.key() != null && record.response() != null) {
+                    if (record.response().expiresAtMillis() > nowMillis) {
+                        live.put(record.key(), record);
+                    } else {
+                        live.remove(record.key());
+                    }
+                }
+            } catch (IOException e) {
+                // A torn or corrupt line is dropped by the rewrite below.
+            }
+            start = i + 1;
+        }
+        boolean trailingPartialLine = start < content.length;
+        if (!trailingPartialLine && live.size() == records) {
+            indexExisting(content);
+            return;
+        }
+        rewrite(live);
+    }
+
+    private void indexExisting(byte[] content) throws IOException {
+        int start = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                Record record = OBJECT_MAPPER.readValue(content, start, i - start, Record.class);
+                index.put(record.key(), new Location(start, i - start));
+                start = i + 1;
+            }
+        }
+        size = content.length;
+    }
+
+    private void rewrite(Map<String, Record> live) throws IOException {
+        Path temp = Files.createTempFile(segment.getParent(), SEGMENT_FILE_NAME, ".tmp");
+        try {
+            long offset = 0L;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (Record record : live.values()) {
+                    byte[] line = encode(record);
+                    ByteBuffer buffer = ByteBuffer.wrap(line);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    index.put(record.key(), new Location(offset, line.length - 1));
+                    offset += line.length;
+                }
+            }
+            try {
+                Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING);
+            }
+            size = offset;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static byte[] encode(Record record) throws IOException {
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(record);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    record Record(String key, CachedResponse response) {}
+
+    private record Location(long offset, int length) {}
+}
@@ -0,0 +1,180 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Catalog of the files under the runtime output directory. The listing is rebuilt only when the output tree
+ * generation changes, previews are taken from a bounded prefix of each file and cached by modification time
+ * and size, and callers page through the catalog so prompts only carry what fits their budget. Directories
+ * whose name is in the excluded set (runtime bookkeeping such as script logs) are never listed.
+ */
+final class ArtifactCatalog {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int PREVIEW_PREFIX_BYTES = 2048;
+    private static final int PREVIEW_CHARS = 400;
+    private static final int MAX_CACHED_PREVIEWS = 1024;
+
+    private final Path root;
+    private final Set<String> excludedDirectories;
+    private final Map<Path, CachedPreview> previews = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, CachedPreview> eldest) {
+            return size() > MAX_CACHED_PREVIEWS;
+        }
+    };
+    private long indexedGeneration = -1L;
+    private List<Entry> entries = List.of();
+
+    ArtifactCatalog(Path root) {
+        this(root, Set.of());
+    }
+
+    ArtifactCatalog(Path root, Set<String> excludedDirectories) {
+        this.root = Objects.requireNonNull(root, "root").toAbsolutePath().normalize();
+        this.excludedDirectories = Set.copyOf(excludedDirectories);
+    }
+
+    /**
+     * Returns up to {@code limit} artifacts starting at {@code offset}, optionally restricted to one
+     * {@link #kindOf(Path) kind}. Only the returned artifacts are previewed.
+     */
+    synchronized SkillRuntime.ArtifactPage page(long generation, String kind, int offset, int limit)
+            throws IOException {
+        if (generation != indexedGeneration) {
+            entries = scan();
+            indexedGeneration = generation;
+        }
+        String kindFilter = kind == null || kind.isBlank() ? null : kind.trim().toLowerCase(Locale.ROOT);
+        List<Entry> matching = kindFilter == null
+                ? entries
+                : entries.stream().filter(entry -> entry.kind().equals(kindFilter)).toList();
+        int safeOffset = Math.max(0, Math.min(offset, matching.size()));
+        int safeLimit = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        int end = Math.min(matching.size(), safeOffset + safeLimit);
+        List<SkillRuntime.ArtifactSummary> artifacts = new ArrayList<>(end - safeOffset);
+        for (Entry entry : matching.subList(safeOffset, end)) {
+            artifacts.add(new SkillRuntime.ArtifactSummary(
+                    entry.path().getFileName().toString(),
+                    root.relativize(entry.path()).toString(),
+                    entry.size(),
+                    entry.kind(),
+                    preview(entry)));
+        }
+        Integer nextOffset = end < matching.size() ? end : null;
+        return new SkillRuntime.ArtifactPage(artifacts, safeOffset, matching.size(), nextOffset);
+    }
+
+    static String kindOf(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json")) {
+            return "json";
+        }
+        if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+            return "yaml";
+        }
+        if (name.endsWith(".md")) {
+            return "markdown";
+        }
+        if (name.endsWith(".txt")) {
+            return "text";
+        }
+        if (name.endsWith(".py")) {
+            return "python";
+        }
+        if (name.endsWith(".js")) {
+            return "javascript";
+        }
+        if (name.endsWith(".sh")) {
+            return "shell";
+        }
+        return "binary";
+    }
+
+    private List<Entry> scan() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        List<Entry> scanned = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && excludedDirectories.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    scanned.add(new Entry(file, attrs.size(), attrs.lastModifiedTime().toMillis(), kindOf(file)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        scanned.sort(Comparator.comparing(Entry::path));
+        return List.copyOf(scanned);
+    }
+
+    private String preview(Entry entry) {
+        if (entry.kind().equals("binary")) {
+            return "(binary)";
+        }
+        CachedPreview cached = previews.get(entry.path());
+        if (cached != null && cached.modifiedMillis() == entry.modifiedMillis() && cached.size() == entry.size()) {
+            return cached.preview();
+        }
+        String preview = readPreview(entry.path());
+        previews.put(entry.path(), new CachedPreview(entry.modifiedMillis(), entry.size(), preview));
+        return preview;
+    }
+
+    private static String readPreview(Path path) {
+        byte[] prefix;
+        try (InputStream input = Files.newInputStream(path)) {
+            prefix = input.readNBytes(PREVIEW_PREFIX_BYTES);
+        } catch (IOException e) {
+            return "(preview unavailable)";
+        }
+        // A multi-byte character may be cut at the prefix boundary; replace rather than fail.
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        String text;
+        try {
+            text = decoder.decode(ByteBuffer.wrap(prefix)).toString().strip();
+        } catch (IOException e) {
+            return "(preview unavailable)";
+        }
+        return text.length() <= PREVIEW_CHARS ? text : text.substring(0, PREVIEW_CHARS);
+    }
+
+    private record Entry(Path path, long size, long modifiedMillis, String kind) {}
+
+    private record CachedPreview(long modifiedMillis, long size, String preview) {}
+}
@@ -0,0 +1,153 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Captures a process output stream in constant memory: the first {@code headLimit} bytes and a ring buffer
+ * holding the last {@code tailLimit} bytes are kept, everything in between is dropped. When a spill file is
+ * configured, the complete stream is written there as soon as it outgrows the head window.
+ */
+final class BoundedOutputCapture {
+
+    private final int headLimit;
+    private final int tailLimit;
+    private final Path spillFile;
+    private final ByteArrayOutputStream head;
+    private byte[] tail;
+    private int tailNext;
+    private int tailSize;
+    private long totalBytes;
+    private OutputStream spill;
+    private boolean spillOpened;
+    private boolean spillFailed;
+    private boolean closed;
+
+    BoundedOutputCapture(int headLimit, int tailLimit, Path spillFile) {
+        if (headLimit <= 0 || tailLimit < 0) {
+            throw new IllegalArgumentException("headLimit must be positive and tailLimit non-negative");
+        }
+        this.headLimit = headLimit;
+        this.tailLimit = tailLimit;
+        this.spillFile = spillFile;
+        this.head = new ByteArrayOutputStream(Math.min(headLimit, 8192));
+    }
+
+    /** Captures everything in memory; used when the caller needs the complete output. */
+    static BoundedOutputCapture unbounded() {
+        return new BoundedOutputCapture(Integer.MAX_VALUE - 8, 0, null);
+    }
+
+    synchronized void write(byte[] chunk, int offset, int length) {
+        totalBytes += length;
+        int toHead = (int) Math.min(length, (long) headLimit - head.size());
+        if (toHead > 0) {
+            head.write(chunk, offset, toHead);
+        }
+        int remaining = length - toHead;
+        if (remaining <= 0) {
+            return;
+        }
+        appendTail(chunk, offset + toHead, remaining);
+        writeSpill(chunk, offset + toHead, remaining);
+    }
+
+    /** Flushes and closes the spill file; bytes written afterwards are only kept in memory. */
+    synchronized void close() {
+        closed = true;
+        closeSpill();
+    }
+
+    synchronized Captured result() {
+        if (totalBytes <= headLimit) {
+            return new Captured(head.toString(StandardCharsets.UTF_8), totalBytes, false, null);
+        }
+        Path spilled = spillOpened && !spillFailed ? spillFile : null;
+        long omitted = totalBytes - head.size() - tailSize;
+        StringBuilder text = new StringBuilder(head.size() + tailSize + 128);
+        text.append(head.toString(StandardCharsets.UTF_8));
+        text.append(System.lineSeparator()).append("... [").append(omitted).append(" bytes omitted");
+        if (spilled != null) {
+            text.append("; full output in ").append(spilled);
+        }
+        text.append("] ...").append(System.lineSeparator());
+        text.append(new String(tailBytes(), StandardCharsets.UTF_8));
+        return new Captured(text.toString(), totalBytes, true, spilled);
+    }
+
+    private void appendTail(byte[] chunk, int offset, int length) {
+        if (tailLimit == 0) {
+            return;
+        }
+        if (tail == null) {
+            tail = new byte[tailLimit];
+        }
+        if (length >= tailLimit) {
+            System.arraycopy(chunk, offset + length - tailLimit, tail, 0, tailLimit);
+            tailNext = 0;
+            tailSize = tailLimit;
+            return;
+        }
+        int first = Math.min(length, tailLimit - tailNext);
+        System.arraycopy(chunk, offset, tail, tailNext, first);
+        System.arraycopy(chunk, offset + first, tail, 0, length - first);
+        tailNext = (tailNext + length) % tailLimit;
+        tailSize = Math.min(tailLimit, tailSize + length);
+    }
+
+    private byte[] tailBytes() {
+        byte[] ordered = new byte[tailSize];
+        if (tailSize == 0) {
+            return ordered;
+        }
+        int start = (tailNext - tailSize + tailLimit) % tailLimit;
+        int first = Math.min(tailSize, tailLimit - start);
+        System.arraycopy(tail, start, ordered, 0, first);
+        System.arraycopy(tail, 0, ordered, first, tailSize - first);
+        return ordered;
+    }
+
+    private void writeSpill(byte[] chunk, int offset, int length) {
+        if (spillFile == null || spillFailed || closed) {
+            return;
+        }
+        try {
+            if (spill == null) {
+                Path parent = spillFile.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                spill = Files.newOutputStream(spillFile);
+                spillOpened = true;
+                head.writeTo(spill);
+            }
+            spill.write(chunk, offset, length);
+        } catch (IOException e) {
+            // Keep the in-memory head and tail; the complete stream is simply not available.
+            spillFailed = true;
+            closeSpill();
+        }
+    }
+
+    private void closeSpill() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.close();
+        } catch (IOException ignored) {
+            spillFailed = true;
+        }
+        spill = null;
+    }
+
+    /**
+     * Captured text. When {@code truncated}, {@code text} holds the head and tail windows around an omission
+     * marker and {@code spillFile} (if non-null) contains the complete stream.
+     */
+    record Captured(String text, long totalBytes, boolean truncated, Path spillFile) {}
+}
@@ -0,0 +1,175 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records which {@code pip}/{@code npm} package specs have already been installed into an environment so
+ * repeated {@code runScript} dependency requests skip the installer process entirely. Requests the ledger
+ * already covers return without taking any lock; everything else is checked again under the environment's
+ * own lock, so installs into different environments proceed concurrently while installs into the same
+ * environment are serialised. Ledgers of the {@code env/python} and {@code env/node} directories are
+ * persisted inside those directories; deleting an environment therefore also resets its ledger.
+ */
+final class DependencyInstallLedger {
+
+    static final String LEDGER_FILE_NAME = ".skills-install-ledger";
+    private static final Pattern PIP_SPEC = Pattern.compile("([A-Za-z0-9][A-Za-z0-9._-]*)(.*)");
+
+    private final Map<Path, EnvironmentLedger> environments = new ConcurrentHashMap<>();
+
+    /**
+     * Installs the packages that the ledger does not yet know about. The installer is invoked at most once,
+     * with only the missing packages, while holding the environment lock; its result is recorded when
+     * {@code succeeded} accepts it.
+     */
+    <R> Install<R> install(
+            String tool,
+            Path environment,
+            boolean persistent,
+            List<String> packages,
+            Function<List<String>, R> installer,
+            Predicate<R> succeeded) {
+        Objects.requireNonNull(tool, "tool");
+        Objects.requireNonNull(environment, "environment");
+        Objects.requireNonNull(installer, "installer");
+        Objects.requireNonNull(succeeded, "succeeded");
+        EnvironmentLedger ledger = environments.computeIfAbsent(
+                environment.toAbsolutePath().normalize(),
+                key -> new EnvironmentLedger(persistent ? key.resolve(LEDGER_FILE_NAME) : null));
+        List<String> specs = packages == null ? List.of() : packages;
+        // Fast path: a fully satisfied request never waits behind an install running in the same environment.
+        if (ledger.containsAll(tool, specs)) {
+            return new Install<>(List.copyOf(specs), List.of(), null);
+        }
+        ledger.lock.lock();
+        try {
+            Map<String, String> pending = new LinkedHashMap<>();
+            List<String> satisfied = new ArrayList<>();
+            for (String spec : specs) {
+                String key = key(tool, spec);
+                if (ledger.contains(key)) {
+                    satisfied.add(spec);
+                } else {
+                    pending.putIfAbsent(key, spec);
+                }
+            }
+            if (pending.isEmpty()) {
+                return new Install<>(List.copyOf(satisfied), List.of(), null);
+            }
+            List<String> toInstall = List.copyOf(pending.values());
+            R result = installer.apply(toInstall);
+            if (succeeded.test(result)) {
+                ledger.record(pending.keySet());
+            }
+            return new Install<>(List.copyOf(satisfied), toInstall, result);
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+
+    private static String key(String tool, String spec) {
+        return tool + "\t" + normalise(tool, spec);
+    }
+
+    static String normalise(String tool, String spec) {
+        String compact = spec == null ? "" : spec.replaceAll("\\s+", "");
+        if ("pip".equals(tool)) {
+            Matcher matcher = PIP_SPEC.matcher(compact);
+            if (matcher.matches()) {
+                String name = matcher.group(1).toLowerCase(Locale.ROOT).replaceAll("[-_.]+", "-");
+                return name + matcher.group(2).toLowerCase(Locale.ROOT);
+            }
+        }
+        return compact;
+    }
+
+    /**
+     * Outcome of an install request. {@code result} is {@code null} when every package was already satisfied
+     * and no installer process was started.
+     */
+    record Install<R>(List<String> satisfied, List<String> installed, R result) {}
+
+    private static final class EnvironmentLedger {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Path ledgerFile;
+        // Loaded and extended under the lock; read without it by the fast path once loaded.
+        private volatile Set<String> keys;
+
+        private EnvironmentLedger(Path ledgerFile) {
+            this.ledgerFile = ledgerFile;
+        }
+
+        private boolean contains(String key) {
+            return keys().contains(key);
+        }
+
+        /** Lock-free check; {@code false} until the ledger has been loaded under the lock. */
+        private boolean containsAll(String tool, List<String> specs) {
+            Set<String> loaded = keys;
+            if (loaded == null || specs.isEmpty()) {
+                return false;
+            }
+            for (String spec : specs) {
+                if (!loaded.contains(key(tool, spec))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void record(Set<String> installed) {
+            keys().addAll(installed);
+            if (ledgerFile == null || !Files.isDirectory(ledgerFile.getParent())) {
+                return;
+            }
+            try {
+                Files.write(
+                        ledgerFile,
+                        installed,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException ignored) {
+                // The in-memory ledger still prevents repeated installs during this process.
+            }
+        }
+
+        private Set<String> keys() {
+            Set<String> loaded = keys;
+            if (loaded == null) {
+                loaded = ConcurrentHashMap.newKeySet();
+                if (ledgerFile != null && Files.isRegularFile(ledgerFile)) {
+                    try {
+                        for (String line : Files.readAllLines(ledgerFile, StandardCharsets.UTF_8)) {
+                            if (line.indexOf('\t') > 0) {
+                                loaded.add(line.strip());
+                            }
+                        }
+                    } catch (IOException ignored) {
+                        // Treat an unreadable ledger as empty; packages are simply reinstalled.
+                    }
+                }
+                keys = loaded;
+            }
+            return loaded;
+        }
+    }
+}
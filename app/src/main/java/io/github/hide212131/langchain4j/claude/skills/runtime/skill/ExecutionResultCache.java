@@ -0,0 +1,272 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in cache of complete skill executions. A fingerprint covers the skill metadata, the content of the files
+ * under the skill root (SKILL.md, references, scripts; installed dependency and tool cache directories such as
+ * {@code node_modules} are skipped), the inputs, the expected outputs and the predecessor outputs the prompt
+ * embeds. On a hit the stored {@link SkillRuntime.ExecutionResult} is replayed
+ * and the files the run left in the skill output directory are restored from a content-addressed store, so
+ * the supervisor loop is skipped entirely.
+ */
+final class ExecutionResultCache {
+
+    static final int FORMAT_VERSION = 1;
+    // Installed dependencies and tool caches: large, machine-specific and not part of what the skill says.
+    private static final Set<String> DEPENDENCY_DIRECTORIES = Set.of(
+            "node_modules", ".venv", "venv", "__pycache__", ".pytest_cache", ".mypy_cache", ".git");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+    private final Set<String> excludedDirectories;
+    private final Map<Path, FileDigest> digests = new ConcurrentHashMap<>();
+
+    ExecutionResultCache(Path directory, Set<String> excludedDirectories) {
+        this.directory = Objects.requireNonNull(directory, "directory").toAbsolutePath().normalize();
+        this.excludedDirectories = Set.copyOf(excludedDirectories);
+    }
+
+    /**
+     * Returns a cache stored next to {@code outputDirectory} when {@code SKILLS_EXECUTION_CACHE} is
+     * {@code true}, otherwise {@code null}.
+     */
+    static ExecutionResultCache fromEnvironment(
+            Map<String, String> environment, Path outputDirectory, Set<String> excludedDirectories) {
+        String enabled = environment.get("SKILLS_EXECUTION_CACHE");
+        if (enabled == null || enabled.isBlank()) {
+            return null;
+        }
+        String normalised = enabled.trim().toLowerCase(Locale.ROOT);
+        if (!normalised.equals("true") && !normalised.equals("false")) {
+            throw new IllegalStateException("SKILLS_EXECUTION_CACHE must be true or false");
+        }
+        if (normalised.equals("false")) {
+            return null;
+        }
+        Path root = outputDirectory.toAbsolutePath().normalize();
+        Path parent = root.getParent() == null ? root : root.getParent();
+        return new ExecutionResultCache(parent.resolve("execution-cache"), excludedDirectories);
+    }
+
+    /**
+     * Computes the fingerprint of an execution, or returns {@code null} when the inputs cannot be serialised
+     * deterministically (the execution is then simply not cached).
+     */
+    String fingerprint(
+            SkillIndex.SkillMetadata metadata,
+            Path outputDirectory,
+            Map<String, Object> inputs,
+            List<String> expectedOutputs,
+            List<SkillRuntime.ExecutionResult> previousResults) {
+        Map<String, Object> material = new LinkedHashMap<>();
+        material.put("version", FORMAT_VERSION);
+        material.put("skillId", metadata.id());
+        material.put("name", metadata.name());
+        material.put("description", metadata.description());
+        material.put("keywords", metadata.keywords());
+        material.put("outputDirectory", outputDirectory.toAbsolutePath().normalize().toString());
+        material.put("inputs", inputs);
+        material.put("expectedOutputs", expectedOutputs);
+        if (previousResults != null && !previousResults.isEmpty()) {
+            List<Map<String, String>> previous = new ArrayList<>();
+            for (SkillRuntime.ExecutionResult previousResult : previousResults) {
+                previous.add(Map.of(
+                        "skillId", String.valueOf(previousResult.skillId()),
+                        "summary", String.valueOf(previousResult.outputs().get("summary")),
+                        "artifactPath", String.valueOf(previousResult.outputs().get("artifactPath"))));
+            }
+            material.put("previous", previous);
+        }
+        try {
+            material.put("skillFiles", hashTree(metadata.skillRoot()));
+            return sha256Hex(OBJECT_MAPPER.writeValueAsBytes(material));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replays a stored execution, restoring its files under {@code skillOutputDirectory}. Returns
+     * {@code null} on a miss or when the stored entry is unusable.
+     */
+    SkillRuntime.ExecutionResult replay(String fingerprint, Path skillOutputDirectory) {
+        Path entryFile = entryFile(fingerprint);
+        if (!Files.isRegularFile(entryFile)) {
+            return null;
+        }
+        try {
+            Entry entry = OBJECT_MAPPER.readValue(entryFile.toFile(), Entry.class);
+            if (entry.version() != FORMAT_VERSION || entry.result() == null) {
+                return null;
+            }
+            for (Map.Entry<String, String> file : entry.files().entrySet()) {
+                Path object = objectFile(file.getValue());
+                Path target = skillOutputDirectory.resolve(file.getKey()).normalize();
+                if (!target.startsWith(skillOutputDirectory) || !Files.isRegularFile(object)) {
+                    return null;
+                }
+                if (Files.isRegularFile(target) && file.getValue().equals(sha256Hex(target))) {
+                    continue;
+                }
+                Files.createDirectories(target.getParent());
+                Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return entry.result();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores {@code result} together with every file currently under {@code skillOutputDirectory}. Failures
+     * are ignored; the next identical execution simply runs again.
+     */
+    void store(String fingerprint, SkillRuntime.ExecutionResult result, Path skillOutputDirectory) {
+        try {
+            Map<String, String> files = new TreeMap<>();
+            for (Path file : listFiles(skillOutputDirectory, excludedDirectories)) {
+                String hash = sha256Hex(file);
+                Path object = objectFile(hash);
+                if (!Files.exists(object)) {
+                    Files.createDirectories(object.getParent());
+                    Path temp = Files.createTempFile(object.getParent(), hash, ".tmp");
+                    Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                    moveIntoPlace(temp, object);
+                }
+                files.put(skillOutputDirectory.relativize(file).toString().replace('\\', '/'), hash);
+            }
+            Path entryFile = entryFile(fingerprint);
+            Files.createDirectories(entryFile.getParent());
+            Path temp = Files.createTempFile(entryFile.getParent(), fingerprint, ".tmp");
+            OBJECT_MAPPER.writeValue(temp.toFile(), new Entry(FORMAT_VERSION, result, files));
+            moveIntoPlace(temp, entryFile);
+        } catch (IOException | RuntimeException e) {
+            // Best effort; a missing entry only costs a full execution.
+        }
+    }
+
+    private Map<String, String> hashTree(Path root) throws IOException {
+        Map<String, String> hashes = new TreeMap<>();
+        for (Path file : listFiles(root, DEPENDENCY_DIRECTORIES)) {
+            hashes.put(root.relativize(file).toString().replace('\\', '/'), cachedDigest(file));
+        }
+        return hashes;
+    }
+
+    /** Content hashes are memoised by size and modification time so unchanged skills are only stat'ed. */
+    private String cachedDigest(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        FileDigest cached = digests.get(file);
+        if (cached != null && cached.size() == size && cached.modifiedMillis() == modified) {
+            return cached.sha256();
+        }
+        String hash = sha256Hex(file);
+        digests.put(file, new FileDigest(size, modified, hash));
+        return hash;
+    }
+
+    private static List<Path> listFiles(Path root, Set<String> skippedDirectories) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return files;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                Path name = dir.getFileName();
+                if (!dir.equals(root) && name != null && skippedDirectories.contains(name.toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        files.sort(null);
+        return files;
+    }
+
+    private Path entryFile(String fingerprint) {
+        return directory.resolve("entries").resolve(fingerprint + ".json");
+    }
+
+    private Path objectFile(String hash) {
+        return directory.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256Hex(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    record Entry(int version, SkillRuntime.ExecutionResult result, Map<String, String> files) {
+        Entry {
+            files = files == null ? Map.of() : Map.copyOf(files);
+        }
+    }
+
+    private record FileDigest(long size, long modifiedMillis, String sha256) {}
+}
@@ -0,0 +1,221 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory view of a skill output directory backing {@code listOutputTree}. The tree is scanned once with
+ * {@link Files#walkFileTree}; afterwards only paths reported through {@link #pathChanged(Path)} are re-read,
+ * and the rendered text is reused until something changes. Directories whose name is in the excluded set
+ * (runtime bookkeeping such as script logs) are left out wherever they occur.
+ */
+final class OutputTreeSnapshot {
+
+    private static final Comparator<Node> ORDER = Comparator
+            .comparing((Node node) -> !node.directory)
+            .thenComparing(node -> node.name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(node -> node.name);
+
+    private final Path root;
+    private final Set<String> excludedDirectories;
+    private final Set<Path> dirtyPaths = new LinkedHashSet<>();
+    private Node rootNode;
+    private boolean rescanAll = true;
+    private String rendered;
+
+    OutputTreeSnapshot(Path root) {
+        this(root, Set.of());
+    }
+
+    OutputTreeSnapshot(Path root, Set<String> excludedDirectories) {
+        this.root = Objects.requireNonNull(root, "root").toAbsolutePath().normalize();
+        this.excludedDirectories = Set.copyOf(excludedDirectories);
+    }
+
+    /** Records that {@code path} (a file or a whole directory tree) was created, modified or deleted. */
+    synchronized void pathChanged(Path path) {
+        Path normalised = path.toAbsolutePath().normalize();
+        if (root.startsWith(normalised)) {
+            invalidateAll();
+            return;
+        }
+        if (!normalised.startsWith(root) || isExcluded(root.relativize(normalised))) {
+            return;
+        }
+        dirtyPaths.add(normalised);
+        rendered = null;
+    }
+
+    /** Forces a full rescan, e.g. after a script that may have written anywhere. */
+    synchronized void invalidateAll() {
+        rescanAll = true;
+        dirtyPaths.clear();
+        rendered = null;
+    }
+
+    /**
+     * Renders the tree under {@code label}, or returns {@code null} when the root directory does not exist.
+     */
+    synchronized String render(String label) throws IOException {
+        refresh();
+        if (rootNode == null) {
+            return null;
+        }
+        if (rendered == null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(label).append(System.lineSeparator());
+            appendChildren(rootNode, "", sb);
+            rendered = sb.toString().stripTrailing();
+        }
+        return rendered;
+    }
+
+    private void refresh() throws IOException {
+        if (rescanAll || rootNode == null) {
+            rootNode = Files.isDirectory(root) ? scan(root) : null;
+            rescanAll = false;
+            dirtyPaths.clear();
+            rendered = null;
+            return;
+        }
+        if (!Files.isDirectory(root)) {
+            rootNode = null;
+            dirtyPaths.clear();
+            return;
+        }
+        for (Path dirty : dirtyPaths) {
+            refreshPath(dirty);
+        }
+        dirtyPaths.clear();
+    }
+
+    /**
+     * Re-reads the highest ancestor of {@code path} that is missing from the snapshot (or {@code path} itself),
+     * so newly created intermediate directories are picked up with a single walk.
+     */
+    private void refreshPath(Path path) throws IOException {
+        Node parent = rootNode;
+        Path current = root;
+        for (Path segment : root.relativize(path)) {
+            current = current.resolve(segment.toString());
+            Node child = parent.children.get(segment.toString());
+            if (child == null || !child.directory || current.equals(path)) {
+                replaceChild(parent, current);
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    private void replaceChild(Node parent, Path path) throws IOException {
+        String name = path.getFileName().toString();
+        try {
+            BasicFileAttributes attributes =
+                    Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            parent.children.put(
+                    name, attributes.isDirectory() ? scan(path) : new Node(name, false, attributes.size()));
+        } catch (NoSuchFileException e) {
+            parent.children.remove(name);
+        }
+    }
+
+    private boolean isExcluded(Path relative) {
+        for (Path segment : relative) {
+            if (excludedDirectories.contains(segment.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Node scan(Path directory) throws IOException {
+        Deque<Node> stack = new ArrayDeque<>();
+        Node[] top = new Node[1];
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!stack.isEmpty() && excludedDirectories.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Node node = new Node(dir.getFileName() == null ? "" : dir.getFileName().toString(), true, 0L);
+                if (stack.isEmpty()) {
+                    top[0] = node;
+                } else {
+                    stack.peek().children.put(node.name, node);
+                }
+                stack.push(node);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!stack.isEmpty()) {
+                    String name = file.getFileName().toString();
+                    stack.peek().children.put(name, new Node(name, false, attrs.size()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                stack.pop();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return top[0];
+    }
+
+    private static void appendChildren(Node directory, String indent, StringBuilder sb) {
+        List<Node> children = new ArrayList<>(directory.children.values());
+        children.sort(ORDER);
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            boolean last = i == children.size() - 1;
+            sb.append(indent).append(last ? "└── " : "├── ").append(child.name);
+            if (child.directory) {
+                sb.append("/");
+            } else {
+                sb.append(" (").append(child.size).append(" bytes)");
+            }
+            sb.append(System.lineSeparator());
+            if (child.directory) {
+                appendChildren(child, indent + (last ? "    " : "│   "), sb);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final String name;
+        private final boolean directory;
+        private final long size;
+        private final Map<String, Node> children = new HashMap<>();
+
+        private Node(String name, boolean directory, long size) {
+            this.name = name;
+            this.directory = directory;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs skill scripts and dependency installers as external processes. Output streams are pumped on
+ * virtual threads and the timeout is enforced through {@link Process#onExit()}, so concurrent skill runs
+ * neither pin platform threads nor deadlock on full pipe buffers.
+ */
+final class ProcessRunner {
+
+    private static final Duration STREAM_DRAIN_GRACE = Duration.ofSeconds(2);
+
+    Completion run(
+            List<String> command,
+            Path workingDirectory,
+            String stdinPayload,
+            Duration timeout,
+            Map<String, String> environmentOverrides) {
+        return run(command, workingDirectory, stdinPayload, timeout, environmentOverrides, OutputLimits.UNBOUNDED);
+    }
+
+    /**
+     * Runs {@code command} capturing stdout/stderr within {@code limits}, so memory use does not grow with
+     * the verbosity of the process.
+     */
+    Completion run(
+            List<String> command,
+            Path workingDirectory,
+            String stdinPayload,
+            Duration timeout,
+            Map<String, String> environmentOverrides,
+            OutputLimits limits) {
+        Objects.requireNonNull(command, "command");
+        Objects.requireNonNull(workingDirectory, "workingDirectory");
+        Objects.requireNonNull(timeout, "timeout");
+        Objects.requireNonNull(limits, "limits");
+        List<String> commandCopy = List.copyOf(command);
+        Instant start = Instant.now();
+        ProcessBuilder builder = new ProcessBuilder(commandCopy);
+        builder.directory(workingDirectory.toFile());
+        builder.redirectErrorStream(false);
+        if (environmentOverrides != null && !environmentOverrides.isEmpty()) {
+            Map<String, String> environment = builder.environment();
+            for (Map.Entry<String, String> entry : environmentOverrides.entrySet()) {
+                String value = entry.getValue();
+                if (value == null) {
+                    environment.remove(entry.getKey());
+                } else {
+                    environment.put(entry.getKey(), value);
+                }
+            }
+        }
+        Process process;
+        try {
+            process = builder.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start process: " + String.join(" ", commandCopy), e);
+        }
+        StreamPump stdout = new StreamPump(
+                "skill-process-stdout", process.getInputStream(), limits.capture(limits.stdoutSpill()));
+        StreamPump stderr = new StreamPump(
+                "skill-process-stderr", process.getErrorStream(), limits.capture(limits.stderrSpill()));
+        try (OutputStream output = process.getOutputStream()) {
+            if (stdinPayload != null && !stdinPayload.isEmpty()) {
+                output.write(stdinPayload.getBytes(StandardCharsets.UTF_8));
+                output.flush();
+            }
+        } catch (IOException e) {
+            destroyTree(process);
+            throw new IllegalStateException("Failed to send input to process", e);
+        }
+        boolean finished;
+        try {
+            process.onExit().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            finished = true;
+        } catch (TimeoutException e) {
+            finished = false;
+            destroyTree(process);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroyTree(process);
+            throw new IllegalStateException("Interrupted while waiting for process", e);
+        } catch (ExecutionException e) {
+            destroyTree(process);
+            throw new IllegalStateException("Failed while waiting for process", e.getCause());
+        }
+        BoundedOutputCapture.Captured stdoutCaptured = stdout.await();
+        BoundedOutputCapture.Captured stderrCaptured = stderr.await();
+        long durationMillis = Duration.between(start, Instant.now()).toMillis();
+        int exitCode = finished ? process.exitValue() : -1;
+        return new Completion(
+                commandCopy,
+                exitCode,
+                !finished,
+                stdoutCaptured.text(),
+                stderrCaptured.text(),
+                durationMillis,
+                stdoutCaptured.truncated(),
+                stderrCaptured.truncated(),
+                stdoutCaptured.spillFile(),
+                stderrCaptured.spillFile());
+    }
+
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /**
+     * Result of a process run. A truncated stream holds head and tail windows only; its spill file, when
+     * present, contains the complete stream.
+     */
+    record Completion(
+            List<String> command,
+            int exitCode,
+            boolean timedOut,
+            String stdout,
+            String stderr,
+            long durationMillis,
+            boolean stdoutTruncated,
+            boolean stderrTruncated,
+            Path stdoutSpill,
+            Path stderrSpill) {
+
+        Completion(
+                List<String> command,
+                int exitCode,
+                boolean timedOut,
+                String stdout,
+                String stderr,
+                long durationMillis) {
+            this(command, exitCode, timedOut, stdout, stderr, durationMillis, false, false, null, null);
+        }
+
+        boolean outputTruncated() {
+            return stdoutTruncated || stderrTruncated;
+        }
+    }
+
+    /**
+     * Per-stream capture windows. Output beyond {@code headBytes} keeps only the last {@code tailBytes} in
+     * memory and, when a spill path is given, is written in full to that file.
+     */
+    record OutputLimits(int headBytes, int tailBytes, Path stdoutSpill, Path stderrSpill) {
+
+        static final OutputLimits UNBOUNDED = new OutputLimits(Integer.MAX_VALUE, 0, null, null);
+
+        private BoundedOutputCapture capture(Path spill) {
+            return headBytes == Integer.MAX_VALUE
+                    ? BoundedOutputCapture.unbounded()
+                    : new BoundedOutputCapture(headBytes, tailBytes, spill);
+        }
+    }
+
+    private static final class StreamPump {
+
+        private final BoundedOutputCapture capture;
+        private final Thread thread;
+
+        private StreamPump(String name, InputStream stream, BoundedOutputCapture capture) {
+            this.capture = capture;
+            this.thread = Thread.ofVirtual().name(name).start(() -> pump(stream));
+        }
+
+        private void pump(InputStream stream) {
+            byte[] chunk = new byte[8192];
+            try (InputStream input = stream) {
+                int read;
+                while ((read = input.read(chunk)) != -1) {
+                    capture.write(chunk, 0, read);
+                }
+            } catch (IOException ignored) {
+                // The stream is closed once the process is destroyed; keep whatever was captured.
+            }
+        }
+
+        /**
+         * Waits briefly for the pump to reach end-of-stream. A grandchild process that inherited the pipe
+         * can keep it open after the script exits, so the captured prefix is returned after the grace period.
+         */
+        private BoundedOutputCapture.Captured await() {
+            try {
+                thread.join(STREAM_DRAIN_GRACE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            capture.close();
+            return capture.result();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of decoded {@code readRef} documents keyed by path, modification time and size, so
+ * reference files shared by many skills (brand guidelines, templates) are read and decoded once. Entries are
+ * evicted least-recently-used first once their estimated heap footprint exceeds the byte budget.
+ */
+final class ReferenceContentCache {
+
+    static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    // Files modified this recently may still change within the file system's timestamp granularity.
+    private static final long RACY_WINDOW_MILLIS = 2000L;
+    private static final Object SHARED_LOCK = new Object();
+    private static volatile ReferenceContentCache shared;
+
+    private final long maxBytes;
+    private final Map<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long currentBytes;
+
+    ReferenceContentCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache shared by every runtime in this process, configured from
+     * {@code SKILLS_REFERENCE_CACHE_BYTES} on first use.
+     */
+    static ReferenceContentCache shared() {
+        ReferenceContentCache cache = shared;
+        if (cache == null) {
+            synchronized (SHARED_LOCK) {
+                cache = shared;
+                if (cache == null) {
+                    cache = fromEnvironment(System.getenv());
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    static ReferenceContentCache fromEnvironment(Map<String, String> environment) {
+        String raw = environment.get("SKILLS_REFERENCE_CACHE_BYTES");
+        if (raw == null || raw.isBlank()) {
+            return new ReferenceContentCache(DEFAULT_MAX_BYTES);
+        }
+        long maxBytes;
+        try {
+            maxBytes = Long.parseLong(raw.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("SKILLS_REFERENCE_CACHE_BYTES must be a non-negative integer", ex);
+        }
+        if (maxBytes < 0) {
+            throw new IllegalStateException("SKILLS_REFERENCE_CACHE_BYTES must not be negative");
+        }
+        return new ReferenceContentCache(maxBytes);
+    }
+
+    /**
+     * Returns the cached content of {@code path} when its modification time and size are unchanged, otherwise
+     * loads it with {@code loader} and caches the result.
+     */
+    Lookup get(Path path, Loader loader) throws IOException {
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(loader, "loader");
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes before = Files.readAttributes(key, BasicFileAttributes.class);
+        long modifiedMillis = before.lastModifiedTime().toMillis();
+        long size = before.size();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.modifiedMillis() == modifiedMillis && entry.size() == size) {
+                hits.incrementAndGet();
+                return new Lookup(entry.content(), true);
+            }
+        }
+        misses.incrementAndGet();
+        Content content = loader.load(key);
+        if (maxBytes > 0 && System.currentTimeMillis() - modifiedMillis >= RACY_WINDOW_MILLIS) {
+            BasicFileAttributes after = Files.readAttributes(key, BasicFileAttributes.class);
+            if (after.lastModifiedTime().toMillis() == modifiedMillis && after.size() == size) {
+                put(key, new Entry(modifiedMillis, size, content, weigh(key, content)));
+            }
+        }
+        return new Lookup(content, false);
+    }
+
+    Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.get(), misses.get(), evictions.get(), entries.size(), currentBytes, maxBytes);
+        }
+    }
+
+    private synchronized void put(Path key, Entry entry) {
+        if (entry.weight() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentBytes -= previous.weight();
+        }
+        currentBytes += entry.weight();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            currentBytes -= evicted.weight();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long weigh(Path key, Content content) {
+        // Strings are UTF-16 in the worst case; shared instances are only counted once.
+        long chars = content.detail().length();
+        if (content.summaryText() != content.detail()) {
+            chars += content.summaryText().length();
+        }
+        return 2L * (chars + key.toString().length()) + 128L;
+    }
+
+    /** Decoded form of a reference document as returned to the agent. */
+    record Content(String detail, String summaryText, boolean binary) {
+        Content {
+            Objects.requireNonNull(detail, "detail");
+            Objects.requireNonNull(summaryText, "summaryText");
+        }
+    }
+
+    record Lookup(Content content, boolean cached) {}
+
+    record Stats(long hits, long misses, long evictions, int entries, long bytes, long maxBytes) {}
+
+    @FunctionalInterface
+    interface Loader {
+        Content load(Path path) throws IOException;
+    }
+
+    private record Entry(long modifiedMillis, long size, Content content, long weight) {}
+}
@@ -0,0 +1,219 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mirrors a skill's script directory into the output tree for {@code deployScripts}. Files whose target
+ * already has the same size and modification time are skipped, so redeploying an unchanged folder of fonts
+ * and templates touches no data. In {@link Strategy#LINK} mode binary assets (fonts, images, office
+ * templates) are hard-linked instead of copied, falling back to a copy across file systems. A hard link
+ * shares its inode with the skill, so only an explicit list of read-only asset types is linked; everything
+ * else, including scripts, markup and configuration files that scripts commonly rewrite in place, is copied; {@link StreamingArtifactWriter} also detaches a linked file before appending to it.
+ * Large trees are copied on several virtual threads.
+ */
+final class ScriptDeployer {
+
+    static final int PARALLEL_THRESHOLD = 32;
+    private static final int MAX_PARALLEL_BATCHES = 8;
+    /** Read-only asset types that are safe to share with the skill through a hard link. */
+    private static final Set<String> LINKABLE_EXTENSIONS = Set.of(
+            "ttf", "otf", "woff", "woff2", "eot",
+            "png", "jpg", "jpeg", "gif", "bmp", "tif", "tiff", "webp", "ico",
+            "pptx", "potx", "docx", "dotx", "xlsx", "xltx", "pdf");
+
+    enum Strategy {
+        COPY,
+        LINK
+    }
+
+    private final Strategy strategy;
+
+    ScriptDeployer(Strategy strategy) {
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+    }
+
+    static ScriptDeployer fromEnvironment(Map<String, String> environment) {
+        String raw = environment.get("SKILLS_DEPLOY_STRATEGY");
+        if (raw == null || raw.isBlank()) {
+            return new ScriptDeployer(Strategy.COPY);
+        }
+        return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+            case "copy" -> new ScriptDeployer(Strategy.COPY);
+            case "link" -> new ScriptDeployer(Strategy.LINK);
+            default -> throw new IllegalStateException("SKILLS_DEPLOY_STRATEGY must be copy or link");
+        };
+    }
+
+    Summary deploy(Path source, Path target) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(target, "target");
+        try {
+            Files.createDirectories(target);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to prepare deployment target: " + target, e);
+        }
+        List<FileTask> tasks = new ArrayList<>();
+        int[] directoriesCreated = {0};
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Path destination = destinationFor(source, target, dir);
+                    if (!destination.equals(target)) {
+                        Files.createDirectories(destination);
+                        directoriesCreated[0]++;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    tasks.add(new FileTask(file, destinationFor(source, target, file), attrs));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to traverse deployment source: " + source, e);
+        }
+
+        Counters counters = new Counters();
+        if (tasks.size() < PARALLEL_THRESHOLD) {
+            tasks.forEach(task -> deployFile(task, counters));
+        } else {
+            deployInParallel(tasks, counters);
+        }
+        return new Summary(
+                counters.copied.get(), directoriesCreated[0], counters.linked.get(), counters.skipped.get());
+    }
+
+    private void deployInParallel(List<FileTask> tasks, Counters counters) {
+        int batches = Math.min(MAX_PARALLEL_BATCHES, tasks.size() / (PARALLEL_THRESHOLD / 4));
+        List<Callable<Void>> work = new ArrayList<>();
+        for (int batch = 0; batch < batches; batch++) {
+            int offset = batch;
+            work.add(() -> {
+                for (int i = offset; i < tasks.size(); i += batches) {
+                    deployFile(tasks.get(i), counters);
+                }
+                return null;
+            });
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Future<Void> future : executor.invokeAll(work)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deploying scripts", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Script deployment failed", e.getCause());
+        }
+    }
+
+    private void deployFile(FileTask task, Counters counters) {
+        try {
+            if (isUpToDate(task)) {
+                counters.skipped.incrementAndGet();
+                return;
+            }
+            if (strategy == Strategy.LINK && isLinkable(task) && link(task)) {
+                counters.linked.incrementAndGet();
+                return;
+            }
+            Files.copy(
+                    task.source(),
+                    task.destination(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.COPY_ATTRIBUTES);
+            counters.copied.incrementAndGet();
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Failed to copy '" + task.source() + "' to '" + task.destination() + "'", e);
+        }
+    }
+
+    /**
+     * A target is current when it is the same file (an earlier hard link) or a regular file with the source's
+     * size and modification time, which {@code COPY_ATTRIBUTES} preserves.
+     */
+    private static boolean isUpToDate(FileTask task) throws IOException {
+        Path destination = task.destination();
+        if (!Files.exists(destination, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        BasicFileAttributes existing =
+                Files.readAttributes(destination, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (!existing.isRegularFile()) {
+            return false;
+        }
+        if (Files.isSameFile(task.source(), destination)) {
+            return true;
+        }
+        BasicFileAttributes source = Files.readAttributes(task.source(), BasicFileAttributes.class);
+        return existing.size() == source.size()
+                && existing.lastModifiedTime().toMillis() == source.lastModifiedTime().toMillis();
+    }
+
+    /** Only fonts, images and office templates are shared with the skill; any other file gets its own copy. */
+    private static boolean isLinkable(FileTask task) {
+        if (task.attributes().isSymbolicLink()) {
+            return false;
+        }
+        String name = task.source().getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && LINKABLE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean link(FileTask task) throws IOException {
+        Files.deleteIfExists(task.destination());
+        try {
+            Files.createLink(task.destination(), task.source());
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // Cross-device or unsupported; fall back to copying.
+            return false;
+        }
+    }
+
+    private static Path destinationFor(Path source, Path target, Path entry) {
+        Path relative = source.relativize(entry);
+        Path destination = target.resolve(relative.toString()).toAbsolutePath().normalize();
+        if (!destination.startsWith(target)) {
+            throw new IllegalArgumentException("Deployment would escape target directory: " + destination);
+        }
+        return destination;
+    }
+
+    record Summary(int filesCopied, int directoriesCreated, int filesLinked, int filesSkipped) {}
+
+    private record FileTask(Path source, Path destination, BasicFileAttributes attributes) {}
+
+    private static final class Counters {
+
+        private final AtomicInteger copied = new AtomicInteger();
+        private final AtomicInteger linked = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams the YAML front matter of a SKILL.md and stops at the closing {@code ---} delimiter, so indexing
+ * cost does not depend on the size of the instruction body. Reads go through a small per-thread buffer.
+ */
+final class SkillFrontMatterReader {
+
+    static final String DELIMITER = "---";
+    static final int MAX_FRONT_MATTER_CHARS = 256 * 1024;
+    private static final int BUFFER_CHARS = 8 * 1024;
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[BUFFER_CHARS]);
+
+    private SkillFrontMatterReader() {
+    }
+
+    /**
+     * Returns the prefix of {@code file} up to and including the closing delimiter. When the file does not
+     * start with a delimiter, or no closing delimiter appears within {@link #MAX_FRONT_MATTER_CHARS}, the
+     * returned text contains no front matter and parses to an empty header.
+     */
+    static String readHeader(Path file) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), decoder)) {
+            char[] buffer = BUFFER.get();
+            StringBuilder header = new StringBuilder();
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                int searchFrom = Math.max(DELIMITER.length(), header.length() - (DELIMITER.length() - 1));
+                header.append(buffer, 0, read);
+                if (header.length() < DELIMITER.length()) {
+                    continue;
+                }
+                if (header.indexOf(DELIMITER) != 0) {
+                    return header.substring(0, DELIMITER.length());
+                }
+                int end = header.indexOf(DELIMITER, searchFrom);
+                if (end >= 0) {
+                    return header.substring(0, end + DELIMITER.length());
+                }
+                if (header.length() > MAX_FRONT_MATTER_CHARS) {
+                    return DELIMITER;
+                }
+            }
+            return header.toString();
+        }
+    }
+}
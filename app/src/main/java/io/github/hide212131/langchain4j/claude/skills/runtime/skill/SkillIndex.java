@@ -1,19 +1,25 @@
 package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -21,11 +27,22 @@ import java.util.stream.Collectors;
  * <p>
  * The index retains both metadata and the physical location of each skill in order to support
  * reference resolution without relying on hard-coded directory names (e.g. {@code resources/}).
+ * Globs are answered from an in-memory {@link SkillPathTrie} of the skills root that is built on first use;
+ * call {@link #invalidatePaths()} after the tree changes. Explicit paths are checked directly on disk. A
+ * {@link SkillSearchIndex} over the metadata is built up front so the planner can rank candidates with
+ * {@link #search(String, int)}.
  */
 public final class SkillIndex {
 
     private final Path skillsRoot;
     private final Map<String, SkillMetadata> skills;
+    private final SkillSearchIndex searchIndex;
+    private final String version;
+    private final Object pathTrieLock = new Object();
+    // Bumped by invalidatePaths(); a trie built from an older generation is rebuilt, even if the invalidation
+    // raced with the build.
+    private final AtomicLong pathGeneration = new AtomicLong();
+    private volatile PathTrieEntry pathTrie;
 
     public SkillIndex() {
         this(Path.of("").toAbsolutePath().normalize(), Collections.emptyMap());
@@ -40,6 +57,8 @@ public final class SkillIndex {
         Objects.requireNonNull(skills, "skills");
         this.skillsRoot = skillsRoot.toAbsolutePath().normalize();
         this.skills = Collections.unmodifiableMap(new HashMap<>(skills));
+        this.searchIndex = SkillSearchIndex.build(this.skills.values());
+        this.version = computeVersion(this.skills);
     }
 
     public Path skillsRoot() {
@@ -50,11 +69,35 @@ public final class SkillIndex {
         return skills;
     }
 
+    /**
+     * SHA-256 over the metadata of every skill; it changes whenever a skill is added, removed or has its id,
+     * name, description, keywords or location edited, so derived caches can key on it.
+     */
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Drops the cached file tree so the next reference resolution observes the current file system.
+     */
+    public void invalidatePaths() {
+        pathGeneration.incrementAndGet();
+    }
+
     public Optional<SkillMetadata> find(String id) {
         Objects.requireNonNull(id, "id");
         return Optional.ofNullable(skills.get(id));
     }
 
+    /**
+     * Ranks skills against {@code query} with BM25 over id, name, description and keywords.
+     *
+     * @return at most {@code limit} skills sharing a term with the query, best first
+     */
+    public List<SkillSearchIndex.Hit> search(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
     /**
      * Resolve a list of file system paths referenced by a skill using relative links, explicit paths
      * (prefixed with the skill id) or glob expressions.
@@ -131,6 +174,10 @@ public final class SkillIndex {
     }
 
     private List<Path> resolveGlobUnderBase(Path base, String pattern) {
+        List<Path> cached = pathTrie().glob(base, pattern);
+        if (cached != null) {
+            return cached;
+        }
         Path normalisedBase = base.toAbsolutePath().normalize();
         String adaptedPattern = adaptPattern(pattern);
         PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + adaptedPattern);
@@ -156,12 +203,53 @@ public final class SkillIndex {
         if (!resolved.startsWith(base.toAbsolutePath().normalize())) {
             return Optional.empty();
         }
+        // A single stat is cheaper than rebuilding a stale trie, and asks the file system about case rules.
         if (!Files.exists(resolved)) {
             return Optional.empty();
         }
         return Optional.of(resolved.toAbsolutePath().normalize());
     }
 
+    private SkillPathTrie pathTrie() {
+        long generation = pathGeneration.get();
+        PathTrieEntry entry = pathTrie;
+        if (entry == null || entry.generation() != generation) {
+            synchronized (pathTrieLock) {
+                entry = pathTrie;
+                if (entry == null || entry.generation() != generation) {
+                    entry = new PathTrieEntry(generation, SkillPathTrie.build(skillsRoot));
+                    pathTrie = entry;
+                }
+            }
+        }
+        return entry.trie();
+    }
+
+    private record PathTrieEntry(long generation, SkillPathTrie trie) {
+    }
+
+    private static String computeVersion(Map<String, SkillMetadata> skills) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        List<SkillMetadata> ordered = new ArrayList<>(skills.values());
+        ordered.sort(Comparator.comparing(SkillMetadata::id));
+        for (SkillMetadata metadata : ordered) {
+            String record = String.join("\u001f",
+                    metadata.id(),
+                    metadata.name(),
+                    metadata.description(),
+                    String.join("\u001e", metadata.keywords()),
+                    metadata.skillRoot().toString());
+            digest.update(record.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     private String adaptPattern(String pattern) {
         String separator = FileSystems.getDefault().getSeparator();
         if ("/".equals(separator)) {
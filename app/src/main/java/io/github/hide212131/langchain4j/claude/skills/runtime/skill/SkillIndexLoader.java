@@ -1,14 +1,26 @@
 package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import org.yaml.snakeyaml.Yaml;
 
@@ -19,6 +31,16 @@ import org.yaml.snakeyaml.Yaml;
  * (https://support.claude.com/en/articles/12512198-how-to-create-custom-skills),
  * only 'name' and 'description' are required fields in SKILL.md frontmatter.
  * All other fields (version, inputs, outputs, keywords, stages) are optional.
+ * <p>
+ * Each load is revalidated against the previous {@link SkillIndexSnapshot}: directories whose mtime did not
+ * change are not listed again and SKILL.md files are only reparsed when their mtime, size and front-matter
+ * hash changed. Only the front matter is read ({@link SkillFrontMatterReader}), never the instruction body.
+ * Snapshots are kept in memory per skills root and, when a snapshot directory is configured, persisted there
+ * (one file per skills root) so short CLI runs skip the cold scan.
+ * <p>
+ * Discovery always runs first; SKILL.md files are then revalidated and parsed on a fork-join pool when a
+ * parallelism greater than one is configured. SnakeYAML parsers are not thread-safe, so each worker thread
+ * uses its own instance, and results are merged in path order so metadata and warnings are deterministic.
  */
 public final class SkillIndexLoader {
 
@@ -34,7 +56,53 @@ public final class SkillIndexLoader {
             "stages",
             "license");
 
-    private final Yaml yaml = new Yaml();
+    // Entries modified this close to the snapshot may change again without a visible mtime change.
+    private static final long RACY_WINDOW_MILLIS = 2_000L;
+    private static final Path DEFAULT_SNAPSHOT_DIRECTORY = Path.of("build", "skill-index");
+    // Below this many SKILL.md files the fork-join hand-off costs more than it saves.
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    private final ThreadLocal<Yaml> yaml = ThreadLocal.withInitial(Yaml::new);
+    private final Path snapshotDirectory;
+    private final int parallelism;
+    private final Map<Path, SkillIndexSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public SkillIndexLoader() {
+        this(null);
+    }
+
+    /**
+     * @param snapshotDirectory directory the index snapshot is persisted to so that subsequent processes can
+     *                          revalidate instead of rescanning; {@code null} keeps snapshots in memory only
+     */
+    public SkillIndexLoader(Path snapshotDirectory) {
+        this(snapshotDirectory, 1);
+    }
+
+    /**
+     * @param snapshotDirectory see {@link #SkillIndexLoader(Path)}
+     * @param parallelism       number of threads used to parse SKILL.md files; {@code 1} parses sequentially
+     */
+    public SkillIndexLoader(Path snapshotDirectory, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.snapshotDirectory =
+                snapshotDirectory == null ? null : snapshotDirectory.toAbsolutePath().normalize();
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Persists snapshots under {@code SKILLS_INDEX_SNAPSHOT_DIR} (default {@code build/skill-index}, alongside
+     * the other build-directory caches) rather than next to the skills directory, which may live outside the
+     * project.
+     */
+    public static SkillIndexLoader fromEnvironment(Map<String, String> environment, int parallelism) {
+        String directory = environment.get("SKILLS_INDEX_SNAPSHOT_DIR");
+        return new SkillIndexLoader(
+                directory == null || directory.isBlank() ? DEFAULT_SNAPSHOT_DIRECTORY : Path.of(directory.trim()),
+                parallelism);
+    }
 
     public LoadResult load(Path skillsDirectory) {
         Objects.requireNonNull(skillsDirectory, "skillsDirectory");
@@ -42,44 +110,211 @@ public final class SkillIndexLoader {
         if (!Files.exists(normalizedRoot)) {
             return new LoadResult(new SkillIndex(normalizedRoot, Map.of()), List.of());
         }
-        Map<String, SkillIndex.SkillMetadata> metadataMap = new HashMap<>();
-        List<String> warnings = new ArrayList<>();
+        SkillIndexSnapshot previous = snapshots.get(normalizedRoot);
+        if (previous == null && snapshotDirectory != null) {
+            previous = SkillIndexSnapshot.read(snapshotFile(normalizedRoot), normalizedRoot);
+        }
+        long scanStartedAt = System.currentTimeMillis();
 
+        Map<String, SkillIndexSnapshot.DirectoryEntry> directories = new TreeMap<>();
+        List<String> skillFiles = new ArrayList<>();
         try {
-            Files.walk(normalizedRoot)
-                    .filter(path -> path.getFileName().toString().equalsIgnoreCase("SKILL.md"))
-                    .forEach(path -> parseSkillFile(normalizedRoot, metadataMap, path, warnings));
+            scanDirectory(normalizedRoot, "", previous, directories);
         } catch (IOException e) {
             throw new IllegalStateException("Failed to scan skills directory: " + skillsDirectory, e);
         }
+        for (Map.Entry<String, SkillIndexSnapshot.DirectoryEntry> directory : directories.entrySet()) {
+            for (String skillFile : directory.getValue().skillFiles()) {
+                skillFiles.add(child(directory.getKey(), skillFile));
+            }
+        }
+        Map<String, SkillIndexSnapshot.SkillEntry> skills = revalidateSkills(normalizedRoot, skillFiles, previous);
+
+        SkillIndexSnapshot snapshot = new SkillIndexSnapshot(
+                SkillIndexSnapshot.CURRENT_VERSION,
+                normalizedRoot.toString(),
+                scanStartedAt,
+                directories,
+                skills);
+        if (snapshot.sameEntries(previous)) {
+            snapshot = previous;
+        } else if (snapshotDirectory != null) {
+            snapshot.write(snapshotFile(normalizedRoot));
+        }
+        snapshots.put(normalizedRoot, snapshot);
+        return toLoadResult(normalizedRoot, snapshot);
+    }
+
+    /**
+     * Directories observed by the most recent load of {@code skillsDirectory}, used by
+     * {@link SkillIndexWatcher} to register watch keys.
+     */
+    List<Path> knownDirectories(Path skillsDirectory) {
+        Path normalizedRoot = skillsDirectory.toAbsolutePath().normalize();
+        SkillIndexSnapshot snapshot = snapshots.get(normalizedRoot);
+        if (snapshot == null) {
+            return List.of();
+        }
+        return snapshot.directories().keySet().stream()
+                .map(relative -> relative.isEmpty() ? normalizedRoot : normalizedRoot.resolve(relative))
+                .toList();
+    }
+
+    /** Snapshot file for {@code normalizedRoot}, named after a hash of the root so roots can share a directory. */
+    Path snapshotFile(Path normalizedRoot) {
+        String rootHash = sha256(normalizedRoot.toString().getBytes(StandardCharsets.UTF_8));
+        return snapshotDirectory.resolve("skill-index-" + rootHash.substring(0, 16) + ".json");
+    }
+
+    private void scanDirectory(
+            Path root,
+            String relative,
+            SkillIndexSnapshot previous,
+            Map<String, SkillIndexSnapshot.DirectoryEntry> directories) throws IOException {
+        Path directory = relative.isEmpty() ? root : root.resolve(relative);
+        long modified = relative.isEmpty()
+                ? Files.getLastModifiedTime(directory).toMillis()
+                : Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS).toMillis();
+        SkillIndexSnapshot.DirectoryEntry known = previous == null ? null : previous.directories().get(relative);
+        SkillIndexSnapshot.DirectoryEntry entry;
+        if (known != null && known.modifiedMillis() == modified && !isRacy(modified, previous)) {
+            entry = known;
+        } else {
+            entry = listDirectory(directory, modified);
+        }
+        directories.put(relative, entry);
+        for (String subdirectory : entry.subdirectories()) {
+            try {
+                scanDirectory(root, child(relative, subdirectory), previous, directories);
+            } catch (NoSuchFileException ignored) {
+                // Removed while scanning; the parent's next mtime change will drop it from the snapshot.
+            }
+        }
+    }
 
-        return new LoadResult(new SkillIndex(normalizedRoot, metadataMap), List.copyOf(warnings));
+    private SkillIndexSnapshot.DirectoryEntry listDirectory(Path directory, long modified) throws IOException {
+        List<String> subdirectories = new ArrayList<>();
+        List<String> skillFiles = new ArrayList<>();
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+            for (Path childPath : children) {
+                String name = childPath.getFileName().toString();
+                if (Files.isDirectory(childPath, LinkOption.NOFOLLOW_LINKS)) {
+                    subdirectories.add(name);
+                } else if (name.equalsIgnoreCase("SKILL.md")) {
+                    skillFiles.add(name);
+                }
+            }
+        }
+        subdirectories.sort(null);
+        skillFiles.sort(null);
+        return new SkillIndexSnapshot.DirectoryEntry(modified, subdirectories, skillFiles);
     }
 
-    private void parseSkillFile(
-            Path skillsDirectory,
-            Map<String, SkillIndex.SkillMetadata> metadataMap,
-            Path skillFile,
-            List<String> warnings) {
+    private Map<String, SkillIndexSnapshot.SkillEntry> revalidateSkills(
+            Path root, List<String> skillFiles, SkillIndexSnapshot previous) {
+        List<SkillIndexSnapshot.SkillEntry> entries;
+        if (parallelism <= 1 || skillFiles.size() < PARALLEL_THRESHOLD) {
+            entries = skillFiles.stream().map(relative -> revalidateSkill(root, relative, previous)).toList();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                entries = pool.submit(() -> skillFiles.parallelStream()
+                                .map(relative -> revalidateSkill(root, relative, previous))
+                                .toList())
+                        .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading skills from " + root, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Failed to load skills from " + root, e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        Map<String, SkillIndexSnapshot.SkillEntry> skills = new TreeMap<>();
+        for (int i = 0; i < skillFiles.size(); i++) {
+            skills.put(skillFiles.get(i), entries.get(i));
+        }
+        return skills;
+    }
+
+    private SkillIndexSnapshot.SkillEntry revalidateSkill(
+            Path root, String relative, SkillIndexSnapshot previous) {
+        Path skillFile = root.resolve(relative);
         try {
-            String content = Files.readString(skillFile);
-            SkillFrontMatter frontMatter = SkillFrontMatter.parse(content, yaml);
-            String id = frontMatter.id().orElseGet(() -> deriveSkillId(skillsDirectory, skillFile));
-            List<String> unknownKeys = frontMatter.unknownKeys();
-            if (!unknownKeys.isEmpty()) {
-                warnings.add("Unknown keys in " + skillFile + ": " + String.join(", ", unknownKeys));
+            BasicFileAttributes attributes = Files.readAttributes(skillFile, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+            SkillIndexSnapshot.SkillEntry known = previous == null ? null : previous.skills().get(relative);
+            if (known != null && known.modifiedMillis() == modified && known.size() == size
+                    && !isRacy(modified, previous)) {
+                return known;
+            }
+            // Metadata depends only on the front matter, so edits to the body never trigger a reparse.
+            String header = SkillFrontMatterReader.readHeader(skillFile);
+            String hash = sha256(header.getBytes(StandardCharsets.UTF_8));
+            if (known != null && hash.equals(known.sha256())) {
+                return known.withStat(modified, size);
+            }
+            return parseSkillFile(root, skillFile, header, modified, size, hash);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read skill file: " + skillFile, e);
+        }
+    }
+
+    private SkillIndexSnapshot.SkillEntry parseSkillFile(
+            Path skillsDirectory, Path skillFile, String header, long modified, long size, String hash) {
+        SkillFrontMatter frontMatter = SkillFrontMatter.parse(header, yaml.get());
+        String id = frontMatter.id().orElseGet(() -> deriveSkillId(skillsDirectory, skillFile));
+        return new SkillIndexSnapshot.SkillEntry(
+                modified,
+                size,
+                hash,
+                id,
+                frontMatter.name().orElse(id),
+                frontMatter.description().orElse(""),
+                List.copyOf(frontMatter.keywords()),
+                frontMatter.unknownKeys());
+    }
+
+    private LoadResult toLoadResult(Path root, SkillIndexSnapshot snapshot) {
+        Map<String, SkillIndex.SkillMetadata> metadataMap = new HashMap<>();
+        List<String> warnings = new ArrayList<>();
+        for (Map.Entry<String, SkillIndexSnapshot.SkillEntry> entry : snapshot.skills().entrySet()) {
+            Path skillFile = root.resolve(entry.getKey());
+            SkillIndexSnapshot.SkillEntry skill = entry.getValue();
+            if (!skill.unknownKeys().isEmpty()) {
+                warnings.add("Unknown keys in " + skillFile + ": " + String.join(", ", skill.unknownKeys()));
             }
             metadataMap.put(
-                    id,
+                    skill.id(),
                     new SkillIndex.SkillMetadata(
-                            id,
-                            frontMatter.name().orElse(id),
-                            frontMatter.description().orElse(""),
-                            List.copyOf(frontMatter.keywords()),
-                            List.copyOf(unknownKeys),
+                            skill.id(),
+                            skill.name(),
+                            skill.description(),
+                            skill.keywords(),
+                            skill.unknownKeys(),
                             skillFile.getParent().toAbsolutePath().normalize()));
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to read skill file: " + skillFile, e);
+        }
+        return new LoadResult(new SkillIndex(root, metadataMap), List.copyOf(warnings));
+    }
+
+    private static boolean isRacy(long modifiedMillis, SkillIndexSnapshot previous) {
+        return modifiedMillis >= previous.createdAtMillis() - RACY_WINDOW_MILLIS;
+    }
+
+    private static String child(String parent, String name) {
+        return parent.isEmpty() ? name : parent + "/" + name;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
@@ -88,13 +323,13 @@ public final class SkillIndexLoader {
     }
 
     private record SkillFrontMatter(
-            Map<String, Object> raw, List<String> keywords, List<String> unknownKeys, String rawContent) {
+            Map<String, Object> raw, List<String> keywords, List<String> unknownKeys) {
 
         static SkillFrontMatter parse(String content, Yaml yaml) {
             int start = content.indexOf("---");
             int end = content.indexOf("---", start + 3);
             if (start != 0 || end <= start) {
-                return new SkillFrontMatter(Map.of(), List.of(), List.of(), content);
+                return new SkillFrontMatter(Map.of(), List.of(), List.of());
             }
             String yamlSection = content.substring(start + 3, end);
             Map<String, Object> map = yaml.load(yamlSection);
@@ -106,7 +341,7 @@ public final class SkillIndexLoader {
                     .filter(key -> !ALLOWED_KEYS.contains(key))
                     .map(Object::toString)
                     .collect(Collectors.toCollection(ArrayList::new));
-            return new SkillFrontMatter(map, keywords, unknownKeys, content.substring(end + 3));
+            return new SkillFrontMatter(map, keywords, unknownKeys);
         }
 
         private static List<String> extractKeywords(Map<String, Object> map) {
@@ -0,0 +1,109 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persisted view of a skills tree that lets {@link SkillIndexLoader} revalidate the index incrementally.
+ * Directories are keyed by their path relative to the skills root ({@code ""} for the root itself) and
+ * SKILL.md files by their relative path, both using {@code /} as separator.
+ */
+record SkillIndexSnapshot(
+        int version,
+        String root,
+        long createdAtMillis,
+        Map<String, DirectoryEntry> directories,
+        Map<String, SkillEntry> skills) {
+
+    static final int CURRENT_VERSION = 2;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    SkillIndexSnapshot {
+        directories = directories == null ? Map.of() : new TreeMap<>(directories);
+        skills = skills == null ? Map.of() : new TreeMap<>(skills);
+    }
+
+    boolean sameEntries(SkillIndexSnapshot other) {
+        return other != null && directories.equals(other.directories()) && skills.equals(other.skills());
+    }
+
+    /**
+     * Reads a snapshot written for {@code root}; returns {@code null} when it is missing, unreadable, written
+     * by another format version or for another root.
+     */
+    static SkillIndexSnapshot read(Path file, Path root) {
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            SkillIndexSnapshot snapshot = OBJECT_MAPPER.readValue(file.toFile(), SkillIndexSnapshot.class);
+            if (snapshot.version() != CURRENT_VERSION || !root.toString().equals(snapshot.root())) {
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot through a temporary file so concurrent readers never observe a partial file.
+     * Failures are ignored; the next start simply rebuilds the index.
+     */
+    void write(Path file) {
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            OBJECT_MAPPER.writeValue(temp.toFile(), this);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort clean-up of the temporary snapshot.
+                }
+            }
+        }
+    }
+
+    record DirectoryEntry(long modifiedMillis, List<String> subdirectories, List<String> skillFiles) {
+        DirectoryEntry {
+            subdirectories = subdirectories == null ? List.of() : List.copyOf(subdirectories);
+            skillFiles = skillFiles == null ? List.of() : List.copyOf(skillFiles);
+        }
+    }
+
+    record SkillEntry(
+            long modifiedMillis,
+            long size,
+            String sha256,
+            String id,
+            String name,
+            String description,
+            List<String> keywords,
+            List<String> unknownKeys) {
+        SkillEntry {
+            keywords = keywords == null ? List.of() : List.copyOf(keywords);
+            unknownKeys = unknownKeys == null ? List.of() : List.copyOf(unknownKeys);
+        }
+
+        SkillEntry withStat(long newModifiedMillis, long newSize) {
+            return new SkillEntry(newModifiedMillis, newSize, sha256, id, name, description, keywords, unknownKeys);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link SkillIndex} current for long-running processes. File-system events under the skills root
+ * trigger an incremental {@link SkillIndexLoader#load(Path)} (only changed SKILL.md files are reparsed) and
+ * the resulting index is swapped in atomically. Indexes handed out earlier keep their metadata but drop their
+ * cached file tree on every refresh, so glob references resolved through them see the change. Off by default;
+ * the CLI starts it when {@code SKILLS_INDEX_WATCH} is {@code true}.
+ */
+public final class SkillIndexWatcher implements AutoCloseable {
+
+    private static final long DEBOUNCE_MILLIS = 200L;
+
+    private final SkillIndexLoader loader;
+    private final Path skillsDirectory;
+    private final Consumer<SkillIndexLoader.LoadResult> listener;
+    private final AtomicReference<SkillIndexLoader.LoadResult> current;
+    private final Set<SkillIndex> published = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private SkillIndexWatcher(
+            SkillIndexLoader loader,
+            Path skillsDirectory,
+            Consumer<SkillIndexLoader.LoadResult> listener) throws IOException {
+        this.loader = loader;
+        this.skillsDirectory = skillsDirectory;
+        this.listener = listener;
+        this.current = new AtomicReference<>(loader.load(skillsDirectory));
+        published.add(current.get().index());
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registerKnownDirectories();
+        this.thread = Thread.ofVirtual().name("skill-index-watcher").start(this::watchLoop);
+    }
+
+    /**
+     * Loads the index and starts watching {@code skillsDirectory}. {@code listener} is invoked after each
+     * refresh that changed the index.
+     */
+    public static SkillIndexWatcher start(
+            SkillIndexLoader loader,
+            Path skillsDirectory,
+            Consumer<SkillIndexLoader.LoadResult> listener) {
+        Objects.requireNonNull(loader, "loader");
+        Objects.requireNonNull(skillsDirectory, "skillsDirectory");
+        try {
+            return new SkillIndexWatcher(
+                    loader,
+                    skillsDirectory.toAbsolutePath().normalize(),
+                    listener == null ? result -> { } : listener);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to watch skills directory: " + skillsDirectory, e);
+        }
+    }
+
+    /** Reads {@code SKILLS_INDEX_WATCH}; unset or blank means off. */
+    public static boolean enabled(Map<String, String> environment) {
+        String value = environment.get("SKILLS_INDEX_WATCH");
+        if (value == null || value.isBlank()) {
+            return false;
+        }
+        String normalised = value.trim().toLowerCase(Locale.ROOT);
+        if (!normalised.equals("true") && !normalised.equals("false")) {
+            throw new IllegalStateException("SKILLS_INDEX_WATCH must be true or false");
+        }
+        return normalised.equals("true");
+    }
+
+    public SkillIndexLoader.LoadResult current() {
+        return current.get();
+    }
+
+    public SkillIndex index() {
+        return current.get().index();
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Closing only stops the watcher thread.
+        }
+        thread.interrupt();
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                drain(key);
+                // Coalesce bursts such as git checkouts into a single refresh.
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                refresh();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // Watcher closed.
+        }
+    }
+
+    private void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    private void refresh() {
+        SkillIndexLoader.LoadResult previous = current.get();
+        SkillIndexLoader.LoadResult refreshed;
+        try {
+            refreshed = loader.load(skillsDirectory);
+        } catch (IllegalStateException e) {
+            // A file may be mid-write; the next event triggers another attempt.
+            return;
+        }
+        registerKnownDirectories();
+        synchronized (published) {
+            published.forEach(SkillIndex::invalidatePaths);
+            published.add(refreshed.index());
+        }
+        current.set(refreshed);
+        if (!refreshed.index().skills().equals(previous.index().skills())
+                || !refreshed.warnings().equals(previous.warnings())) {
+            listener.accept(refreshed);
+        }
+    }
+
+    private void registerKnownDirectories() {
+        for (Path directory : loader.knownDirectories(skillsDirectory)) {
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try {
+                directory.register(
+                        watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (ClosedWatchServiceException e) {
+                return;
+            } catch (IOException ignored) {
+                // Directory vanished between the scan and registration.
+            }
+        }
+    }
+}
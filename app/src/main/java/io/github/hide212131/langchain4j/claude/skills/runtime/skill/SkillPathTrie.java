@@ -0,0 +1,202 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory snapshot of the file tree under a skills root, used by {@link SkillIndex} to answer glob
+ * references without walking the file system. Symbolic links are recorded but not followed, matching
+ * {@link Files#walk(Path, java.nio.file.FileVisitOption...)}; lookups that would need to traverse a link, or
+ * that fall outside the root, report {@code null} so callers can fall back to the file system. Names are
+ * compared case-insensitively when the skills root lives on a case-insensitive file system.
+ */
+final class SkillPathTrie {
+
+    private final Path rootPath;
+    private final Node root;
+
+    private SkillPathTrie(Path rootPath, Node root) {
+        this.rootPath = rootPath;
+        this.root = root;
+    }
+
+    static SkillPathTrie build(Path skillsRoot) {
+        Path rootPath = skillsRoot.toAbsolutePath().normalize();
+        Node root = new Node(rootPath, true, false, isCaseInsensitive(rootPath));
+        if (!Files.isDirectory(rootPath)) {
+            return new SkillPathTrie(rootPath, root);
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        try {
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Node node = stack.isEmpty() ? root : stack.peek().add(dir, true, false);
+                    stack.push(node);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (stack.isEmpty()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    stack.peek().add(file, attrs.isDirectory(), attrs.isSymbolicLink());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                    stack.pop();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to index skills directory: " + rootPath, e);
+        }
+        return new SkillPathTrie(rootPath, root);
+    }
+
+    /**
+     * Returns every entry below {@code base} (excluding {@code base} itself) whose path relative to
+     * {@code base} matches {@code pattern}, or {@code null} when {@code base} is not covered by the trie.
+     */
+    List<Path> glob(Path base, String pattern) {
+        Path normalisedBase = base.toAbsolutePath().normalize();
+        Node baseNode = locate(normalisedBase);
+        if (baseNode == null) {
+            return null;
+        }
+        String separator = FileSystems.getDefault().getSeparator();
+        String adaptedPattern = "/".equals(separator) ? pattern : pattern.replace("/", separator);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + adaptedPattern);
+
+        // Leading literal segments narrow the subtree to scan, e.g. "templates/**/*.md".
+        Node start = baseNode;
+        if ("/".equals(separator)) {
+            String[] segments = pattern.split("/");
+            for (int i = 0; i < segments.length - 1 && isLiteral(segments[i]); i++) {
+                start = start.children.get(segments[i]);
+                if (start == null) {
+                    return List.of();
+                }
+            }
+        }
+
+        List<Path> matches = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        if (start != baseNode && matcher.matches(normalisedBase.relativize(start.path))) {
+            matches.add(start.path);
+        }
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            List<Node> children = new ArrayList<>(node.children.values());
+            for (int i = children.size() - 1; i >= 0; i--) {
+                pending.push(children.get(i));
+            }
+            if (node != start && matcher.matches(normalisedBase.relativize(node.path))) {
+                matches.add(node.path);
+            }
+        }
+        return matches;
+    }
+
+    private Node locate(Path absolutePath) {
+        if (!absolutePath.startsWith(rootPath)) {
+            return null;
+        }
+        Node node = root;
+        for (Path segment : rootPath.relativize(absolutePath)) {
+            String name = segment.toString();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (node.symlink) {
+                return null;
+            }
+            node = node.children.get(name);
+            if (node == null || !node.directory) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Probes the deepest path component that has letters: if its case-swapped spelling names the same file, the
+     * file system ignores case, as macOS and Windows do by default.
+     */
+    private static boolean isCaseInsensitive(Path rootPath) {
+        for (Path path = rootPath; path != null && path.getFileName() != null; path = path.getParent()) {
+            String name = path.getFileName().toString();
+            String swapped = swapCase(name);
+            if (swapped.equals(name)) {
+                continue;
+            }
+            Path alternate = path.resolveSibling(swapped);
+            try {
+                return Files.exists(alternate) && Files.isSameFile(alternate, path);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static String swapCase(String name) {
+        StringBuilder swapped = new StringBuilder(name.length());
+        for (char c : name.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    private static boolean isLiteral(String segment) {
+        return !segment.isEmpty()
+                && !segment.equals(".")
+                && !segment.equals("..")
+                && segment.chars().noneMatch(c -> c == '*' || c == '?' || c == '{' || c == '[' || c == '\\');
+    }
+
+    private static final class Node {
+
+        private final Path path;
+        private final boolean directory;
+        private final boolean symlink;
+        private final boolean caseInsensitive;
+        private final Map<String, Node> children;
+
+        private Node(Path path, boolean directory, boolean symlink, boolean caseInsensitive) {
+            this.path = path;
+            this.directory = directory;
+            this.symlink = symlink;
+            this.caseInsensitive = caseInsensitive;
+            this.children = caseInsensitive ? new TreeMap<>(String.CASE_INSENSITIVE_ORDER) : new TreeMap<>();
+        }
+
+        private Node add(Path childPath, boolean childDirectory, boolean childSymlink) {
+            Node child = new Node(
+                    childPath.toAbsolutePath().normalize(), childDirectory, childSymlink, caseInsensitive);
+            children.put(childPath.getFileName().toString(), child);
+            return child;
+        }
+    }
+}
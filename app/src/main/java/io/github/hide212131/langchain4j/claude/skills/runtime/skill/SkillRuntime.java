@@ -12,12 +12,17 @@ import dev.langchain4j.agentic.scope.ResultWithAgenticScope;
 import dev.langchain4j.agentic.supervisor.SupervisorContextStrategy;
 import dev.langchain4j.agentic.supervisor.SupervisorResponseStrategy;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
 import io.github.hide212131.langchain4j.claude.skills.infra.logging.WorkflowLogger;
 import io.github.hide212131.langchain4j.claude.skills.infra.observability.WorkflowTracer;
+import io.github.hide212131.langchain4j.claude.skills.runtime.context.ContextPackingService;
 import io.github.hide212131.langchain4j.claude.skills.runtime.observability.AgenticScopeSnapshots;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmMetricsRegistry;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.MeteredChatModel;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.PromptAssembler;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.agent.ProgressTrackerAgent;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
@@ -25,38 +30,38 @@ import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.context.Scope;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.UncheckedIOException;
 import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.PathMatcher;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
-public final class SkillRuntime {
+public final class SkillRuntime implements AutoCloseable {
 
     private static final String DEFAULT_OUTPUT_FILE = "deck.pptx";
     private static final Pattern LOCAL_REFERENCE_PATTERN =
@@ -69,6 +74,15 @@ public final class SkillRuntime {
     private static final int MAX_STDOUT_CHARS = 8192;
     private static final int MAX_STDERR_CHARS = 8192;
     private static final int MAX_STDERR_LINES = 512;
+    // Per-stream capture windows; output beyond head + tail is spilled to a log file for scripts.
+    private static final int CAPTURE_HEAD_BYTES = 64 * 1024;
+    private static final int CAPTURE_TAIL_BYTES = 16 * 1024;
+    private static final long MAX_SPILLED_JSON_BYTES = 16L * 1024 * 1024;
+    private static final String SCRIPT_LOG_DIRECTORY = ".logs";
+    static final String OMITTED_REFERENCE_CONTENT = "[omitted: over context budget]";
+    private static final int MAX_CACHED_REFERENCE_RESOLUTIONS = 128;
+    private static final ReferenceContentCache.Content DIRECTORY_CONTENT =
+            new ReferenceContentCache.Content("(directory)", "(directory)", false);
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final TypeReference<Map<String, Object>> JSON_MAP_TYPE = new TypeReference<>() {};
 
@@ -77,7 +91,21 @@ public final class SkillRuntime {
     private final WorkflowLogger logger;
     private final SkillAgentOrchestrator orchestrator;
     private final WorkflowTracer workflowTracer;
-    private ExecutionResult previousExecutionResult;
+    private final ProcessRunner processRunner = new ProcessRunner();
+    private final WarmInterpreterPool warmInterpreterPool;
+    private final DependencyInstallLedger dependencyLedger = new DependencyInstallLedger();
+    private final ReferenceContentCache referenceContentCache;
+    private final ScriptDeployer scriptDeployer;
+    private final ArtifactCatalog artifactCatalog;
+    private final ExecutionResultCache executionResultCache;
+    private final StreamingArtifactWriter artifactWriter = new StreamingArtifactWriter();
+    private final ContextPackingService contextPacker;
+    // Bumped whenever any skill run mutates the output tree; cached reference resolutions from an older
+    // generation are treated as stale.
+    private final AtomicLong outputTreeGeneration = new AtomicLong();
+    private final AtomicLong scriptLogSequence = new AtomicLong();
+    private final Thread warmPoolShutdownHook;
+    private volatile ExecutionResult previousExecutionResult;
 
     public SkillRuntime(
             SkillIndex skillIndex, Path outputDirectory, WorkflowLogger logger, ChatModel chatModel) {
@@ -113,8 +141,27 @@ public final class SkillRuntime {
                 skillIndex,
                 outputDirectory,
                 logger,
-                new AgenticOrchestrator(chatModel, highPerformanceChatModel),
-                workflowTracer);
+                chatModel,
+                highPerformanceChatModel,
+                workflowTracer,
+                ContextPackingService.fromEnvironment(System.getenv()));
+    }
+
+    private SkillRuntime(
+            SkillIndex skillIndex,
+            Path outputDirectory,
+            WorkflowLogger logger,
+            ChatModel chatModel,
+            ChatModel highPerformanceChatModel,
+            WorkflowTracer workflowTracer,
+            ContextPackingService contextPacker) {
+        this(
+                skillIndex,
+                outputDirectory,
+                logger,
+                new AgenticOrchestrator(chatModel, highPerformanceChatModel, contextPacker),
+                workflowTracer,
+                contextPacker);
     }
 
     public SkillRuntime(
@@ -131,15 +178,57 @@ public final class SkillRuntime {
             WorkflowLogger logger,
             SkillAgentOrchestrator orchestrator,
             WorkflowTracer workflowTracer) {
+        this(
+                skillIndex,
+                outputDirectory,
+                logger,
+                orchestrator,
+                workflowTracer,
+                ContextPackingService.fromEnvironment(System.getenv()));
+    }
+
+    /** The packer is shared with the orchestrator so supervisor context and tool results use one budget. */
+    SkillRuntime(
+            SkillIndex skillIndex,
+            Path outputDirectory,
+            WorkflowLogger logger,
+            SkillAgentOrchestrator orchestrator,
+            WorkflowTracer workflowTracer,
+            ContextPackingService contextPacker) {
         this.skillIndex = Objects.requireNonNull(skillIndex, "skillIndex");
         this.outputDirectory =
                 Objects.requireNonNull(outputDirectory, "outputDirectory").toAbsolutePath().normalize();
         this.logger = Objects.requireNonNull(logger, "logger");
         this.orchestrator = Objects.requireNonNull(orchestrator, "orchestrator");
         this.workflowTracer = workflowTracer;
+        this.warmInterpreterPool = WarmInterpreterPool.fromEnvironment(System.getenv());
+        if (warmInterpreterPool != null) {
+            // Runtimes are rarely closed explicitly, so make sure pooled interpreters never outlive the JVM.
+            this.warmPoolShutdownHook = new Thread(warmInterpreterPool::close, "warm-interpreter-shutdown");
+            Runtime.getRuntime().addShutdownHook(warmPoolShutdownHook);
+        } else {
+            this.warmPoolShutdownHook = null;
+        }
+        this.referenceContentCache = ReferenceContentCache.shared();
+        this.scriptDeployer = ScriptDeployer.fromEnvironment(System.getenv());
+        this.artifactCatalog = new ArtifactCatalog(this.outputDirectory, Set.of(SCRIPT_LOG_DIRECTORY));
+        this.contextPacker = Objects.requireNonNull(contextPacker, "contextPacker");
+        this.executionResultCache = ExecutionResultCache.fromEnvironment(
+                System.getenv(), this.outputDirectory, Set.of(SCRIPT_LOG_DIRECTORY));
     }
 
     public ExecutionResult execute(String skillId, Map<String, Object> inputs) {
+        ExecutionResult previous = this.previousExecutionResult;
+        return execute(skillId, inputs, previous == null ? List.of() : List.of(previous));
+    }
+
+    /**
+     * Executes a skill using explicit predecessor results instead of the most recent execution.
+     * Concurrent callers (e.g. DAG-mode Act) use this to hand each skill the outputs of every step it
+     * depends on, in plan order.
+     */
+    public ExecutionResult execute(
+            String skillId, Map<String, Object> inputs, List<ExecutionResult> previousResults) {
         if (skillId == null || skillId.isBlank()) {
             throw new IllegalArgumentException("skillId must be provided");
         }
@@ -148,13 +237,33 @@ public final class SkillRuntime {
         Map<String, Object> safeInputs = inputs == null ? Map.of() : Map.copyOf(inputs);
         ensureOutputDirectoryExists(outputDirectory);
         List<String> expectedOutputs = resolveExpectedOutputs(safeInputs);
-        ExecutionResult previousResultSnapshot = this.previousExecutionResult;
+        List<ExecutionResult> previousResultSnapshot = previousResults == null
+                ? List.of()
+                : previousResults.stream().filter(Objects::nonNull).toList();
 
         Span skillSpan = startSkillExecutionSpan(metadata, safeInputs, expectedOutputs);
         Scope skillScope = skillSpan != null ? skillSpan.makeCurrent() : null;
 
         try {
             SkillRuntimeContext context = new SkillRuntimeContext(metadata, expectedOutputs, outputDirectory, logger);
+            String fingerprint = executionResultCache == null
+                    ? null
+                    : executionResultCache.fingerprint(
+                            metadata, outputDirectory, safeInputs, expectedOutputs, previousResultSnapshot);
+            if (fingerprint != null) {
+                ExecutionResult cached = executionResultCache.replay(fingerprint, context.skillOutputDirectory());
+                if (cached != null) {
+                    outputTreeChanged(context.skillOutputDirectory());
+                    logger.info("Act[cache] hit {} — {}", metadata.id(), cached.outputs().get("summary"));
+                    if (skillSpan != null) {
+                        skillSpan.setAttribute("skill.runtime.cache.hit", true);
+                        recordSkillResultAttributes(skillSpan, cached);
+                        skillSpan.setStatus(StatusCode.OK);
+                    }
+                    this.previousExecutionResult = cached;
+                    return cached;
+                }
+            }
             context.logL1();
             SkillToolbox toolbox = new SkillToolbox(context);
 
@@ -197,6 +306,14 @@ public final class SkillRuntime {
 
             Path artifactPath = context.artifactPath();
             logger.info("Act[done] {} — {}", metadata.id(), outputs.get("summary"));
+            ReferenceContentCache.Stats cacheStats = referenceContentCache.stats();
+            logger.debug(
+                    "Act[cache] references: {} hits, {} misses, {} evictions, {} of {} bytes",
+                    cacheStats.hits(),
+                    cacheStats.misses(),
+                    cacheStats.evictions(),
+                    cacheStats.bytes(),
+                    cacheStats.maxBytes());
             ExecutionResult result = new ExecutionResult(
                     skillId,
                     Map.copyOf(outputs),
@@ -205,7 +322,13 @@ public final class SkillRuntime {
                     context.disclosureLog(),
                     context.toolInvocations(),
                     context.invokedSkills());
+            if (fingerprint != null && validation.expectedOutputsSatisfied()) {
+                executionResultCache.store(fingerprint, result, context.skillOutputDirectory());
+            }
             if (skillSpan != null) {
+                if (fingerprint != null) {
+                    skillSpan.setAttribute("skill.runtime.cache.hit", false);
+                }
                 recordSkillResultAttributes(skillSpan, result);
                 skillSpan.setStatus(StatusCode.OK);
             }
@@ -231,7 +354,7 @@ public final class SkillRuntime {
             SkillIndex.SkillMetadata metadata,
             Map<String, Object> inputs,
             List<String> expectedOutputs,
-            ExecutionResult previousResult) {
+            List<ExecutionResult> previousResults) {
         String goal = Objects.toString(inputs.getOrDefault("goal", ""), "");
         String constraints = Objects.toString(inputs.getOrDefault("constraints", ""), "");
         String currentWorkProgress = Objects.toString(inputs.getOrDefault("current_work_progress", ""), "");
@@ -239,37 +362,69 @@ public final class SkillRuntime {
                 ? "artifactPath (default)"
                 : String.join(", ", expectedOutputs);
 
-        String progressSection = currentWorkProgress.isBlank()
-                ? ""
-                : "\nCurrent Work Progress:\n" + currentWorkProgress + "\n";
-        String previousOutputsSection = formatPreviousOutputs(previousResult);
-
-        return """
-                # Skill Execution Request
-
-                Skill ID: %s
-                Skill Name: %s
-                Goal: %s
-                Constraints: %s
-                Expected Outputs: %s of artifacts aligned with the goal%s%s
-
-                Apply the supervisor instructions to decide which tools to call. When you finish, respond with key=value lines containing at least:
-                  artifactPath=<absolute path to the generated artefact>
-                  summary=<one-line summary>
-                """.formatted(
-                metadata.id(),
-                metadata.name(),
-                goal.isBlank() ? "(goal not provided)" : goal,
-                constraints.isBlank() ? "(none)" : constraints,
-                expected,
-                progressSection,
-                previousOutputsSection);
+        // Run-specific values go last so every execution of a skill shares the same prompt prefix.
+        return new PromptAssembler()
+                .add(PromptAssembler.Layer.STATIC_POLICY, """
+                        # Skill Execution Request
+
+                        Apply the supervisor instructions to decide which tools to call. When you finish, respond with key=value lines containing at least:
+                          artifactPath=<absolute path to the generated artefact>
+                          summary=<one-line summary>
+                        """)
+                .add(PromptAssembler.Layer.SKILL_INSTRUCTIONS, """
+                        Skill ID: %s
+                        Skill Name: %s
+                        """.formatted(metadata.id(), metadata.name()))
+                .add(PromptAssembler.Layer.RUN_VARIABLES, """
+                        Goal: %s
+                        Constraints: %s
+                        Expected Outputs: %s of artifacts aligned with the goal
+                        """.formatted(
+                        goal.isBlank() ? "(goal not provided)" : goal,
+                        constraints.isBlank() ? "(none)" : constraints,
+                        expected))
+                .add(PromptAssembler.Layer.RUN_VARIABLES,
+                        currentWorkProgress.isBlank() ? null : "Current Work Progress:\n" + currentWorkProgress)
+                .add(PromptAssembler.Layer.RUN_VARIABLES, formatPreviousOutputs(previousResults))
+                .render();
     }
 
-    private String formatPreviousOutputs(ExecutionResult previousResult) {
-        if (previousResult == null) {
+    private String formatPreviousOutputs(List<ExecutionResult> previousResults) {
+        if (previousResults.size() == 1) {
+            PreviousOutput previous = previousOutput(previousResults.get(0));
+            if (previous == null) {
+                return "";
+            }
+            return """
+                    Previous Skill Output:
+                    The prior skill produced the following summary and artifact path.
+                    Summary: %s
+                    Artifact Path: %s
+                    """.formatted(previous.summary(), previous.artifactPath());
+        }
+        StringBuilder formatted = new StringBuilder();
+        for (ExecutionResult previousResult : previousResults) {
+            PreviousOutput previous = previousOutput(previousResult);
+            if (previous == null) {
+                continue;
+            }
+            formatted.append("""
+                    Skill: %s
+                    Summary: %s
+                    Artifact Path: %s
+                    """.formatted(previousResult.skillId(), previous.summary(), previous.artifactPath()));
+        }
+        if (formatted.isEmpty()) {
             return "";
         }
+        return """
+                Previous Skill Outputs:
+                The skills this step depends on produced the following summaries and artifact paths.
+                """ + formatted;
+    }
+
+    /** Summary and artifact lines for a predecessor, or {@code null} when it reported neither. */
+    private PreviousOutput previousOutput(ExecutionResult previousResult) {
         Map<String, Object> previousOutputs = previousResult.outputs();
         Object summaryObject = previousOutputs.get("summary");
         String summary = summaryObject == null ? "" : summaryObject.toString().trim();
@@ -280,22 +435,16 @@ public final class SkillRuntime {
             artifactPath = previousResult.artifactPath().toString();
         }
 
-        if ((summary == null || summary.isBlank()) && artifactPath == null) {
-            return "";
+        if (summary.isBlank() && artifactPath == null) {
+            return null;
         }
-
-        String summaryLine = (summary == null || summary.isBlank()) ? "(summary not available)" : summary;
-        String artifactLine = artifactPath == null ? "(artifact path not available)" : artifactPath;
-
-        return """
-
-                Previous Skill Output:
-                The prior skill produced the following summary and artifact path.
-                Summary: %s
-                Artifact Path: %s
-                """.formatted(summaryLine, artifactLine);
+        return new PreviousOutput(
+                summary.isBlank() ? "(summary not available)" : summary,
+                artifactPath == null ? "(artifact path not available)" : artifactPath);
     }
 
+    private record PreviousOutput(String summary, String artifactPath) {}
+
     private Map<String, String> parseFinalResponse(String response) {
         Map<String, String> result = new LinkedHashMap<>();
     if (response == null || response.isBlank()) {
@@ -409,6 +558,12 @@ public final class SkillRuntime {
                     "skill.runtime.validation.missing",
                     String.join(",", result.validation().missingOutputs()));
         }
+        // The reference cache is shared by every runtime in the process, so these are running totals.
+        ReferenceContentCache.Stats cacheStats = referenceContentCache.stats();
+        span.setAttribute("skill.runtime.reference_cache.hits", cacheStats.hits());
+        span.setAttribute("skill.runtime.reference_cache.misses", cacheStats.misses());
+        span.setAttribute("skill.runtime.reference_cache.evictions", cacheStats.evictions());
+        span.setAttribute("skill.runtime.reference_cache.bytes", cacheStats.bytes());
     }
 
     private void putIfNotBlank(Map<String, Object> attributes, String key, Object value) {
@@ -438,8 +593,62 @@ public final class SkillRuntime {
         return skillId.replaceAll("[^a-zA-Z0-9._-]", "_");
     }
 
+    /** Shuts down the warm interpreter pool, if any, destroying its worker processes. */
+    @Override
+    public void close() {
+        if (warmInterpreterPool == null) {
+            return;
+        }
+        warmInterpreterPool.close();
+        try {
+            Runtime.getRuntime().removeShutdownHook(warmPoolShutdownHook);
+        } catch (IllegalStateException ignored) {
+            // Already shutting down; the hook closes the (already closed) pool again, which is harmless.
+        }
+    }
+
+    /**
+     * Marks the output tree as changed so cached reference resolutions miss, and drops the skill index's path
+     * trie when {@code changedPath} lies inside the skills root or contains it.
+     */
+    private void outputTreeChanged(Path changedPath) {
+        outputTreeGeneration.incrementAndGet();
+        if (touchesSkillsRoot(changedPath)) {
+            skillIndex.invalidatePaths();
+        }
+    }
+
+    private boolean touchesSkillsRoot(Path path) {
+        Path skillsRoot = skillIndex.skillsRoot();
+        Path normalised = path.toAbsolutePath().normalize();
+        return normalised.startsWith(skillsRoot) || skillsRoot.startsWith(normalised);
+    }
+
+    /**
+     * Where a script is expected to write: the first argument that names a path inside the skills root
+     * (either bare or as {@code --flag=path}), otherwise its working directory.
+     */
+    private Path scriptWriteScope(Path workingDirectory, List<String> args) {
+        for (String arg : args) {
+            String value = arg.startsWith("-") && arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : arg;
+            if (value.isBlank() || value.startsWith("-")) {
+                continue;
+            }
+            try {
+                Path candidate = workingDirectory.resolve(value);
+                if (touchesSkillsRoot(candidate)) {
+                    return candidate;
+                }
+            } catch (InvalidPathException e) {
+                // Not a path.
+            }
+        }
+        return workingDirectory;
+    }
+
     public void resetOutputDirectory() {
         clearOutputDirectory(outputDirectory);
+        outputTreeChanged(outputDirectory);
         previousExecutionResult = null;
     }
 
@@ -502,6 +711,125 @@ public final class SkillRuntime {
                 .collect(Collectors.joining(" "));
     }
 
+    /** Fits one readRef batch into the default context budget, keeping recently modified files first. */
+    private ContextPackingService.PackResult packReferences(List<ReferenceDocument> documents) {
+        List<ContextPackingService.Disclosure> disclosures = new ArrayList<>(documents.size());
+        for (ReferenceDocument document : documents) {
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(Path.of(document.path())).toMillis();
+            } catch (IOException | RuntimeException e) {
+                modified = 0L;
+            }
+            disclosures.add(new ContextPackingService.Disclosure(
+                    ContextPackingService.Level.L3, document.path(), document.content(), 0, modified));
+        }
+        return contextPacker.pack(disclosures, contextPacker.budgetFor(orchestrator.modelName()));
+    }
+
+    /** Adds a span event when packing had to summarise, truncate or drop content. */
+    private static void recordPacking(String event, String skillId, ContextPackingService.PackResult packed) {
+        Span span = Span.current();
+        if (!packed.degraded() || !span.isRecording()) {
+            return;
+        }
+        long dropped = packed.disclosures().stream()
+                .filter(disclosure -> disclosure.outcome() == ContextPackingService.Outcome.DROPPED)
+                .count();
+        span.addEvent(event, Attributes.builder()
+                .put("skillId", skillId)
+                .put("budgetTokens", packed.budgetTokens())
+                .put("packedTokens", packed.packedTokens())
+                .put("droppedTokens", packed.droppedTokens())
+                .put("droppedDisclosures", dropped)
+                .build());
+    }
+
+    /**
+     * Warms the reference cache for a skill that is about to run: SKILL.md and the local files it links are
+     * loaded on a virtual thread so the first {@code readRef} calls are served from memory. Failures are
+     * ignored; the skill then reads the files on demand as usual.
+     */
+    public void prefetch(String skillId) {
+        Optional<SkillIndex.SkillMetadata> metadata = skillId == null ? Optional.empty() : skillIndex.find(skillId);
+        if (metadata.isEmpty()) {
+            return;
+        }
+        SkillIndex.SkillMetadata skill = metadata.get();
+        Thread.ofVirtual().name("skill-prefetch-" + skill.id()).start(() -> {
+            try {
+                Path skillMd = skill.skillRoot().resolve("SKILL.md");
+                if (!Files.isRegularFile(skillMd)) {
+                    return;
+                }
+                for (String reference : extractLocalReferences(Files.readString(skillMd, StandardCharsets.UTF_8))) {
+                    try {
+                        for (Path path : skillIndex.resolveReferences(skill.id(), reference)) {
+                            if (Files.isRegularFile(path)) {
+                                referenceContentCache.get(path, this::readReferenceContent);
+                            }
+                        }
+                    } catch (IllegalArgumentException ex) {
+                        // Unresolvable links are reported when the skill actually reads them.
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                logger.debug("Prefetch of {} skipped: {}", skill.id(), ex.getMessage());
+            }
+        });
+    }
+
+    private ReferenceContentCache.Content readReferenceContent(Path path) throws IOException {
+        try {
+            String text = Files.readString(path, StandardCharsets.UTF_8);
+            String limited = limitChars(text, 16384);
+            return new ReferenceContentCache.Content(limited, limited, false);
+        } catch (MalformedInputException ex) {
+            byte[] bytes = Files.readAllBytes(path);
+            String preview = summarisePreview(bytes);
+            if (preview == null || preview.isBlank()) {
+                preview = "(binary preview suppressed)";
+            }
+            String detail = """
+                    [Binary file]
+                    Path: %s
+                    Size: %d bytes
+                    Preview: %s
+                    """.formatted(path.toString(), bytes.length, preview);
+            return new ReferenceContentCache.Content(detail.strip(), preview, true);
+        }
+    }
+
+    private String limitChars(String text, int maxChars) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.strip();
+        if (trimmed.length() <= maxChars) {
+            return trimmed;
+        }
+        return trimmed.substring(0, maxChars);
+    }
+
+    private String summarisePreview(byte[] bytes) {
+        if (bytes.length == 0) {
+            return "(empty)";
+        }
+        int sampleSize = Math.min(bytes.length, 128);
+        int printable = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            int value = bytes[i] & 0xFF;
+            if (value >= 32 && value <= 126) {
+                printable++;
+            }
+        }
+        if (printable < sampleSize / 2) {
+            return "(binary preview suppressed)";
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return summariseForLog(text);
+    }
+
     private List<String> extractLocalReferences(String content) {
     if (content == null || content.isBlank()) {
             return List.of();
@@ -536,6 +864,13 @@ public final class SkillRuntime {
 
     ArtifactHandle writeArtifact(String skillId, String relativePath, String content, boolean base64Encoded);
 
+    /**
+     * Writes an artefact, appending {@code content} to the existing file when {@code append} is set so large
+     * artefacts can be assembled over several calls.
+     */
+    ArtifactHandle writeArtifact(
+            String skillId, String relativePath, String content, boolean base64Encoded, boolean append);
+
     ScriptResult runScript(
         String skillId,
         String path,
@@ -550,6 +885,12 @@ public final class SkillRuntime {
          */
         String listOutputTree(String skillId);
 
+        /**
+         * Pages through the artifacts under build/out with short previews, optionally filtered by kind
+         * (json, yaml, markdown, text, python, javascript, shell, binary).
+         */
+        ArtifactPage listArtifacts(String skillId, String kind, Integer offset, Integer limit);
+
         ValidationResult validateExpectedOutputs(Object expected, Object observed);
     }
 
@@ -560,21 +901,56 @@ public final class SkillRuntime {
                 Map<String, Object> inputs,
                 List<String> expectedOutputs,
                 String prompt);
+
+        /** Model that reads the tool results, used to size their context budget; {@code null} for the default. */
+        default String modelName() {
+            return null;
+        }
     }
 
     private static final class AgenticOrchestrator implements SkillAgentOrchestrator {
 
+        /** Identical for every skill and run, so it forms the cacheable prefix of the supervisor context. */
+        private static final String SUPERVISOR_POLICY = """
+                Progressive Disclosure Policy:
+                - Maintain L1 (name/description) in context by default.
+                - Use readRef to resolve any additional references (L3).
+                - When previous skill artefacts are provided, always readRef them before acting.
+                - Persist artefacts only through writeArtifact (paths relative to build/out).
+                - Capture derived procedures with writeArtifact and then reference them with readRef when you need that knowledge again.
+                - Use deployScripts to copy auxiliary files before executing a script. Provide sourceDir relative to the skill root (e.g. "scripts") and targetDir under build/out (e.g. "workdir").
+                - Run existing scripts with runScript after preparing arguments and deployment targets.
+                - Create new scripts with writeArtifact before running them via runScript.
+                - When calling writeArtifact, explicitly set base64Encoded to false unless you are saving Base64 content.
+                - For very large artefacts, call writeArtifact several times on the same path: the first call with append=false, later calls with append=true. Each Base64 part must be complete on its own (length a multiple of 4 except for the last part).
+                - As soon as you believe the latest writeArtifact output is the final deliverable, call validateOutputs and pass both the task goal and the exact path returned by writeArtifact.
+                - You must not declare the task complete (agentName="done") until validateOutputs has been invoked at least once during the current run.
+                - If validateOutputs responds with false, inspect the feedback, revise the artefact, and repeat writeArtifact + validateOutputs until you achieve true or can no longer make progress.
+                - When you issue an agent invocation (JSON), every argument value MUST be a simple string.
+                    * Join multiple values with commas, e.g. "args": "--flag1,--flag2".
+                    * Provide dependencies as "dependencies": "pip:python-pptx".
+                    * Provide deploy arguments as directory paths, e.g. "sourceDir": "scripts", "targetDir": "workdir".
+                    * EXCEPTION: boolean parameters (like base64Encoded) must be JSON booleans (true/false), not strings.
+                    * Do not emit JSON arrays or objects inside the arguments map.
+                - If you are unsure, choose the most appropriate next action yourself; you will not receive extra guidance from the user.
+                - Do not prompt the user for "next steps"; simply proceed to the next milestone.
+                Always respond with key=value pairs when completing the task.
+                """;
+
         private final ChatModel chatModel;
         private final ChatModel highPerformanceChatModel;
+        private final ContextPackingService contextPacker;
 
-        AgenticOrchestrator(ChatModel chatModel) {
-            this(chatModel, chatModel);
+        AgenticOrchestrator(ChatModel chatModel, ContextPackingService contextPacker) {
+            this(chatModel, chatModel, contextPacker);
         }
 
-        AgenticOrchestrator(ChatModel chatModel, ChatModel highPerformanceChatModel) {
+        AgenticOrchestrator(
+                ChatModel chatModel, ChatModel highPerformanceChatModel, ContextPackingService contextPacker) {
             this.chatModel = Objects.requireNonNull(chatModel, "chatModel");
             this.highPerformanceChatModel =
                     highPerformanceChatModel != null ? highPerformanceChatModel : this.chatModel;
+            this.contextPacker = Objects.requireNonNull(contextPacker, "contextPacker");
         }
 
         @Override
@@ -613,7 +989,8 @@ public final class SkillRuntime {
                 new WriteArtifactAgent(toolbox),
                 AgenticServices
                         .agentBuilder(SemanticOutputsValidatorAgent.class)
-                        .chatModel(highPerformanceChatModel)
+                        .chatModel(MeteredChatModel.withStage(
+                                highPerformanceChatModel, LlmMetricsRegistry.Stage.VALIDATOR))
                         .tools(toolbox)
                         .build()
                 )
@@ -646,35 +1023,47 @@ public final class SkillRuntime {
                     ? "artifactPath (default)"
                     : String.join(", ", expectedOutputs);
             String skillInstructions = loadSkillInstructions(metadata);
-            return """
-                    Progressive Disclosure Policy:
-                    - Maintain L1 (name/description) in context by default.
-                    - Use readRef to resolve any additional references (L3).
-                    - When previous skill artefacts are provided, always readRef them before acting.
-                    - Persist artefacts only through writeArtifact (paths relative to build/out).
-                    - Capture derived procedures with writeArtifact and then reference them with readRef when you need that knowledge again.
-                    - Use deployScripts to copy auxiliary files before executing a script. Provide sourceDir relative to the skill root (e.g. "scripts") and targetDir under build/out (e.g. "workdir").
-                    - Run existing scripts with runScript after preparing arguments and deployment targets.
-                    - Create new scripts with writeArtifact before running them via runScript.
-                    - When calling writeArtifact, explicitly set base64Encoded to false unless you are saving Base64 content.
-                    - As soon as you believe the latest writeArtifact output is the final deliverable, call validateOutputs and pass both the task goal and the exact path returned by writeArtifact.
-                    - You must not declare the task complete (agentName="done") until validateOutputs has been invoked at least once during the current run.
-                    - If validateOutputs responds with false, inspect the feedback, revise the artefact, and repeat writeArtifact + validateOutputs until you achieve true or can no longer make progress.
-                    - When you issue an agent invocation (JSON), every argument value MUST be a simple string.
-                        * Join multiple values with commas, e.g. "args": "--flag1,--flag2".
-                        * Provide dependencies as "dependencies": "pip:python-pptx".
-                        * Provide deploy arguments as directory paths, e.g. "sourceDir": "scripts", "targetDir": "workdir".
-                        * EXCEPTION: boolean parameters (like base64Encoded) must be JSON booleans (true/false), not strings.
-                        * Do not emit JSON arrays or objects inside the arguments map.
-                    - If you are unsure, choose the most appropriate next action yourself; you will not receive extra guidance from the user.
-                    - Do not prompt the user for "next steps"; simply proceed to the next milestone.
-                    Always respond with key=value pairs when completing the task.
-                    
-                    SKILL.md content (must be read fully before acting):
-                    %s
-                    
-                    Expected outputs: %s
-                    """.formatted(skillInstructions, expected);
+            // SKILL.md shares the model's budget with the fixed policy text.
+            int budget = contextPacker.budgetFor(modelName())
+                    - ContextPackingService.estimateTokens(SUPERVISOR_POLICY);
+            ContextPackingService.PackResult packed = contextPacker.pack(
+                    List.of(new ContextPackingService.Disclosure(
+                            ContextPackingService.Level.L2, "SKILL.md", skillInstructions, 0, 0)),
+                    budget);
+            recordPacking("skill.context.supervisor", metadata.id(), packed);
+            return new PromptAssembler()
+                    .add(PromptAssembler.Layer.STATIC_POLICY, SUPERVISOR_POLICY)
+                    .add(PromptAssembler.Layer.SKILL_INSTRUCTIONS,
+                            skillInstructionsLabel(packed.find("SKILL.md").outcome())
+                                    + String.join("\n\n", packed.contents()))
+                    .add(PromptAssembler.Layer.RUN_VARIABLES, "Expected outputs: " + expected)
+                    .render();
+        }
+
+        /** Only complete content is labelled as such; otherwise the supervisor is told to read the rest. */
+        private static String skillInstructionsLabel(ContextPackingService.Outcome outcome) {
+            return switch (outcome) {
+                case KEPT -> "SKILL.md content (must be read fully before acting):\n";
+                case SUMMARISED -> "SKILL.md outline (partial: only headings fit the context budget; "
+                        + "readRef SKILL.md before relying on anything not shown):\n";
+                case TRUNCATED -> "SKILL.md content (partial: truncated to fit the context budget; "
+                        + "readRef SKILL.md before relying on anything not shown):\n";
+                case DROPPED -> "SKILL.md content (omitted to fit the context budget; "
+                        + "readRef SKILL.md before acting):\n";
+            };
+        }
+
+        @Override
+        public String modelName() {
+            return modelName(highPerformanceChatModel);
+        }
+
+        private static String modelName(ChatModel model) {
+            if (model instanceof MeteredChatModel metered && metered.modelName() != null) {
+                return metered.modelName();
+            }
+            ChatRequestParameters parameters = model.defaultRequestParameters();
+            return parameters == null ? null : parameters.modelName();
         }
 
         private String loadSkillInstructions(SkillIndex.SkillMetadata metadata) {
@@ -875,14 +1264,15 @@ public final class SkillRuntime {
 
         @Agent(
                 name = "writeArtifact",
-                description = "Persists generated artefacts under the build output directory. You can save either plain text or Base64-encoded content. Specify which using the base64Encoded parameter.")
+                description = "Persists generated artefacts under the build output directory. You can save either plain text or Base64-encoded content. Specify which using the base64Encoded parameter. Set append to true to add content to the end of an existing artefact when writing a large file in several parts.")
         public ArtifactHandle write(
                 @V("skillId") String skillId,
                 @V(value = "relativePath") String relativePath,
                 @V(value = "content") String content,
-                @V(value = "base64Encoded") Boolean base64Encoded) {
+                @V(value = "base64Encoded") Boolean base64Encoded,
+                @V(value = "append") Boolean append) {
             boolean encoded = Boolean.TRUE.equals(base64Encoded);
-            return toolbox.writeArtifact(skillId, relativePath, content, encoded);
+            return toolbox.writeArtifact(skillId, relativePath, content, encoded, Boolean.TRUE.equals(append));
         }
     }
 
@@ -911,6 +1301,7 @@ public final class SkillRuntime {
 
                     Role:
                     - Use the provided toolbox tools (especially listOutputTree(skillId)) to inspect all files generated under build/out/skillId.
+                    - When file contents matter, page through listArtifacts(skillId, kind, offset, limit) for short previews instead of reading whole files.
                     - Based on the generated file tree and the file name of the final artifact path, judge whether the expected files are present, in light of the provided goal.
                     - If the set of artifacts satisfies the goal, respond with true; if not, respond with false.
 
@@ -983,11 +1374,21 @@ public final class SkillRuntime {
             SkillIndex.SkillMetadata metadata = context.metadata();
             validateSkillId(skillId, metadata.id());
             try {
-                List<Path> resolved = resolveReferencePaths(metadata, reference);
+                List<Path> resolved = resolveReferencePathsCached(metadata, reference);
         List<ReferenceDocument> documents = new ArrayList<>();
+        int cachedDocuments = 0;
         for (Path path : resolved) {
             String kind = Files.isDirectory(path) ? "directory" : "file";
-            ReferenceDocumentContent documentContent = readReferenceContent(path);
+            ReferenceContentCache.Content documentContent;
+            if (Files.isDirectory(path)) {
+                documentContent = DIRECTORY_CONTENT;
+            } else {
+                ReferenceContentCache.Lookup lookup = referenceContentCache.get(path, SkillRuntime.this::readReferenceContent);
+                documentContent = lookup.content();
+                if (lookup.cached()) {
+                    cachedDocuments++;
+                }
+            }
             logger.info(
                 "Act[L3] {} -> {} — {}",
                 metadata.id(),
@@ -1004,6 +1405,8 @@ public final class SkillRuntime {
                 kind,
                 documentContent.binary()));
         }
+        ContextPackingService.PackResult packed = packReferences(documents);
+        recordPacking("skill.context.readRef", metadata.id(), packed);
         context.recordInvocation(
             "readRef",
             Map.of("skillId", skillId, "reference", reference),
@@ -1011,9 +1414,28 @@ public final class SkillRuntime {
                 "resolvedCount",
                 documents.size(),
                 "containsBinary",
-                documents.stream().anyMatch(ReferenceDocument::binary)));
+                documents.stream().anyMatch(ReferenceDocument::binary),
+                "cachedCount",
+                cachedDocuments,
+                "packedTokens",
+                packed.packedTokens(),
+                "droppedTokens",
+                packed.droppedTokens()));
         context.recordSkill(metadata.id());
-        return new ReferenceDocuments(reference, documents);
+        List<ReferenceDocument> returned = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            ContextPackingService.PackedDisclosure packedDocument = packed.disclosures().get(i);
+            ReferenceDocument document = documents.get(i);
+            if (packedDocument.outcome() == ContextPackingService.Outcome.DROPPED) {
+                // Keep the path visible so the agent can ask for it on its own later.
+                returned.add(new ReferenceDocument(
+                        document.path(), OMITTED_REFERENCE_CONTENT, document.kind(), false));
+            } else {
+                returned.add(new ReferenceDocument(
+                        document.path(), packedDocument.content(), document.kind(), document.binary()));
+            }
+        }
+        return new ReferenceDocuments(reference, returned);
             } catch (IOException e) {
                 throw new IllegalStateException(
                         "Failed to read reference '%s' for skill '%s'".formatted(reference, metadata.id()),
@@ -1075,23 +1497,29 @@ public final class SkillRuntime {
                 throw new IllegalArgumentException(
                         "Working directory must reside under the skill root or output directory");
             }
-            ProcessResult execution = executeProcess(
+            ProcessResult execution = executeScript(
+                    extension,
                     command,
+                    scriptPath,
+                    argsList,
                     normalisedWorkingDirectory,
                     stdinPayload,
                     Duration.ofSeconds(effectiveTimeout),
-                    environmentOverrides);
+                    environmentOverrides,
+                    scriptOutputLimits(scriptPath));
 
             String stdoutLimited = limitChars(execution.stdout(), MAX_STDOUT_CHARS);
             String stderrLimited = limitText(execution.stderr(), MAX_STDERR_LINES, MAX_STDERR_CHARS);
-            Map<String, Object> stdoutJson = parseStdoutJson(execution.stdout());
+            Map<String, Object> stdoutJson = parseStdoutJson(execution);
 
             long durationMillis = execution.durationMillis();
-            String message = "Act[script] {} — {} exit={} timedOut={} durationMs={}";
+            String message = "Act[script] {} — {} exit={} timedOut={} durationMs={} warm={}";
             if (execution.exitCode() == 0 && !execution.timedOut()) {
-                logger.info(message, metadata.id(), scriptPath, execution.exitCode(), execution.timedOut(), durationMillis);
+                logger.info(message, metadata.id(), scriptPath, execution.exitCode(), execution.timedOut(),
+                        durationMillis, execution.warmWorker());
             } else {
-                logger.warn(message, metadata.id(), scriptPath, execution.exitCode(), execution.timedOut(), durationMillis);
+                logger.warn(message, metadata.id(), scriptPath, execution.exitCode(), execution.timedOut(),
+                        durationMillis, execution.warmWorker());
             }
 
             Map<String, Object> invocationArgs = new LinkedHashMap<>();
@@ -1110,6 +1538,7 @@ public final class SkillRuntime {
             invocationResult.put("exitCode", execution.exitCode());
             invocationResult.put("timedOut", execution.timedOut());
             invocationResult.put("durationMillis", durationMillis);
+            invocationResult.put("warmWorker", execution.warmWorker());
             if (!stdoutLimited.isBlank()) {
                 invocationResult.put("stdoutPreview", summariseForLog(stdoutLimited));
             }
@@ -1119,7 +1548,17 @@ public final class SkillRuntime {
             if (!dependencyCalls.isEmpty()) {
                 invocationResult.put("dependencyCalls", dependencyCalls);
             }
+            if (execution.stdoutSpill() != null) {
+                invocationResult.put("stdoutLog", execution.stdoutSpill().toString());
+            }
+            if (execution.stderrSpill() != null) {
+                invocationResult.put("stderrLog", execution.stderrSpill().toString());
+            }
 
+            // Scripts typically write into the output tree; the skill path trie is only dropped when the
+            // working directory or a path argument points into the skills root.
+            outputTreeChanged(scriptWriteScope(normalisedWorkingDirectory, argsList));
+            context.outputTree().invalidateAll();
             context.recordInvocation("runScript", invocationArgs, invocationResult);
             context.recordSkill(metadata.id());
             context.recordReferenced(scriptPath);
@@ -1133,7 +1572,10 @@ public final class SkillRuntime {
                     stdoutLimited,
                     stderrLimited,
                     durationMillis,
-                    dependencyCalls);
+                    dependencyCalls,
+                    execution.warmWorker(),
+                    execution.stdoutSpill() == null ? null : execution.stdoutSpill().toString(),
+                    execution.stderrSpill() == null ? null : execution.stderrSpill().toString());
         }
 
         @Tool(name = "deployScripts", returnBehavior = ReturnBehavior.TO_LLM)
@@ -1156,12 +1598,16 @@ public final class SkillRuntime {
             }
             Path targetPath = resolveDeploymentTarget(context, targetDir);
             DeploymentResult deployment = copyDirectoryTree(sourcePath, targetPath);
+            outputTreeChanged(targetPath);
+            context.outputTree().pathChanged(targetPath);
             logger.info(
-                    "Act[deploy] {} — {} -> {} (filesCopied={}, directoriesCreated={})",
+                    "Act[deploy] {} — {} -> {} (filesCopied={}, filesLinked={}, filesSkipped={}, directoriesCreated={})",
                     metadata.id(),
                     sourcePath,
                     targetPath,
                     deployment.filesCopied(),
+                    deployment.filesLinked(),
+                    deployment.filesSkipped(),
                     deployment.directoriesCreated());
             context.recordInvocation(
                     "deployScripts",
@@ -1173,6 +1619,8 @@ public final class SkillRuntime {
                             "source", deployment.source(),
                             "target", deployment.target(),
                             "filesCopied", deployment.filesCopied(),
+                            "filesLinked", deployment.filesLinked(),
+                            "filesSkipped", deployment.filesSkipped(),
                             "directoriesCreated", deployment.directoriesCreated()));
             context.recordSkill(metadata.id());
             context.recordReferenced(sourcePath);
@@ -1187,15 +1635,20 @@ public final class SkillRuntime {
             validateSkillId(skillId, metadata.id());
             Path baseDir = context.skillOutputDirectory();
             String tree;
-            if (!Files.exists(baseDir)) {
+            try {
+                tree = context.outputTree().render("build/out/" + metadata.id());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to enumerate output tree under " + baseDir, e);
+            }
+            if (tree == null) {
                 tree = "Directory not found: " + baseDir;
-            } else {
-                try {
-                    tree = buildDirectoryTree(baseDir);
-                } catch (IOException e) {
-                    throw new IllegalStateException("Failed to enumerate output tree under " + baseDir, e);
-                }
             }
+            ContextPackingService.PackResult packed = contextPacker.pack(
+                    List.of(new ContextPackingService.Disclosure(
+                            ContextPackingService.Level.L3, "outputTree", tree, 0, 0)),
+                    contextPacker.budgetFor(orchestrator.modelName()));
+            recordPacking("skill.context.outputTree", metadata.id(), packed);
+            tree = String.join("", packed.contents());
             context.recordInvocation(
                     "listOutputTree",
                     Map.of("skillId", skillId, "baseDir", baseDir.toString()),
@@ -1207,42 +1660,73 @@ public final class SkillRuntime {
             return tree;
         }
 
+        @Tool(name = "listArtifacts", returnBehavior = ReturnBehavior.TO_LLM)
+        @Override
+        public ArtifactPage listArtifacts(
+                @P("skillId") String skillId,
+                @P(value = "kind", required = false) String kind,
+                @P(value = "offset", required = false) Integer offset,
+                @P(value = "limit", required = false) Integer limit) {
+            SkillIndex.SkillMetadata metadata = context.metadata();
+            validateSkillId(skillId, metadata.id());
+            ArtifactPage page;
+            try {
+                page = artifactCatalog.page(
+                        outputTreeGeneration.get(),
+                        kind,
+                        offset == null ? 0 : offset,
+                        limit == null ? ArtifactCatalog.DEFAULT_PAGE_SIZE : limit);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to index artifacts under " + context.outputDirectory(), e);
+            }
+            Map<String, Object> invocationArgs = new LinkedHashMap<>();
+            invocationArgs.put("skillId", skillId);
+            if (kind != null && !kind.isBlank()) {
+                invocationArgs.put("kind", kind);
+            }
+            invocationArgs.put("offset", page.offset());
+            context.recordInvocation(
+                    "listArtifacts",
+                    invocationArgs,
+                    Map.of("returned", page.artifacts().size(), "total", page.total()));
+            context.recordSkill(metadata.id());
+            return page;
+        }
+
+        @Override
+        public ArtifactHandle writeArtifact(
+                String skillId, String relativePath, String content, boolean base64Encoded) {
+            return writeArtifact(skillId, relativePath, content, base64Encoded, false);
+        }
+
         @Tool(name = "writeArtifact", returnBehavior = ReturnBehavior.TO_LLM)
         @Override
         public ArtifactHandle writeArtifact(
                 @P("skillId") String skillId,
                 @P(value = "relativePath", required = false) String relativePath,
                 @P(value = "content", required = false) String content,
-                @P(value = "base64Encoded", required = false) boolean base64Encoded) {
+                @P(value = "base64Encoded", required = false) boolean base64Encoded,
+                @P(value = "append", required = false) boolean append) {
             SkillIndex.SkillMetadata metadata = context.metadata();
             validateSkillId(skillId, metadata.id());
             Path outputPath = context.resolveOutputPath(relativePath);
-            byte[] bytes;
-            String payload = content == null ? "" : content;
-            if (base64Encoded) {
-                try {
-                    bytes = Base64.getDecoder().decode(payload);
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException("Failed to decode Base64 content", e);
-                }
-            } else {
-                bytes = payload.getBytes(StandardCharsets.UTF_8);
-            }
+            StreamingArtifactWriter.Written written;
             try {
-                Path parent = outputPath.getParent();
-                if (parent != null) {
-                    Files.createDirectories(parent);
-                }
-                Files.write(outputPath, bytes);
+                written = artifactWriter.write(outputPath, content, base64Encoded, append);
             } catch (IOException e) {
                 throw new IllegalStateException("Failed to write artefact: " + outputPath, e);
-            }
-            String preview = summarisePreview(bytes);
-            context.registerArtifact(outputPath, bytes.length, preview);
-            Map<String, Object> result = Map.of(
-                    "path", outputPath.toString(),
-                    "bytesWritten", bytes.length,
-                    "preview", preview);
+            } finally {
+                outputTreeChanged(outputPath);
+                context.outputTree().pathChanged(outputPath);
+            }
+            String preview = summarisePreview(written.previewBytes());
+            context.registerArtifact(outputPath, written.size(), preview);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("path", outputPath.toString());
+            result.put("bytesWritten", written.bytesWritten());
+            result.put("size", written.size());
+            result.put("sha256", written.sha256());
+            result.put("preview", preview);
             context.recordInvocation(
                     "writeArtifact",
                     Map.of(
@@ -1251,10 +1735,13 @@ public final class SkillRuntime {
                 "skillId",
                 skillId,
                 "base64Encoded",
-                base64Encoded),
+                base64Encoded,
+                "append",
+                append),
                     result);
         context.recordSkill(metadata.id());
-            return new ArtifactHandle(outputPath.toString(), bytes.length, preview);
+            return new ArtifactHandle(
+                    outputPath.toString(), written.bytesWritten(), preview, written.size(), written.sha256());
         }
 
         @Tool(name = "validateExpectedOutputs", returnBehavior = ReturnBehavior.TO_LLM)
@@ -1448,51 +1935,6 @@ public final class SkillRuntime {
             return dot > 0 && dot < value.length() - 1;
         }
 
-        private String buildDirectoryTree(Path baseDir) throws IOException {
-            String label = "build/out/" + context.metadata().id();
-            StringBuilder sb = new StringBuilder();
-            sb.append(label).append(System.lineSeparator());
-            appendDirectoryTree(baseDir, baseDir, "", sb);
-            return sb.toString().stripTrailing();
-        }
-
-        private void appendDirectoryTree(Path root, Path current, String indent, StringBuilder sb)
-                throws IOException {
-            List<Path> children;
-            try (var stream = Files.list(current)) {
-                children = stream
-                        .sorted((a, b) -> {
-                            boolean aDir = Files.isDirectory(a);
-                            boolean bDir = Files.isDirectory(b);
-                            if (aDir != bDir) {
-                                return aDir ? -1 : 1;
-                            }
-                            return a.getFileName().toString().compareToIgnoreCase(b.getFileName().toString());
-                        })
-                        .toList();
-            }
-            for (int i = 0; i < children.size(); i++) {
-                Path child = children.get(i);
-                boolean last = i == children.size() - 1;
-                sb.append(indent)
-                        .append(last ? "└── " : "├── ")
-                        .append(child.getFileName());
-                if (Files.isDirectory(child)) {
-                    sb.append("/");
-                } else {
-                    try {
-                        sb.append(" (").append(Files.size(child)).append(" bytes)");
-                    } catch (IOException ignored) {
-                        sb.append(" (size unavailable)");
-                    }
-                }
-                sb.append(System.lineSeparator());
-                if (Files.isDirectory(child)) {
-                    appendDirectoryTree(root, child, indent + (last ? "    " : "│   "), sb);
-                }
-            }
-        }
-
         private void validateSkillId(String requested, String actual) {
             if (requested == null || requested.isBlank()) {
                 throw new IllegalArgumentException("skillId must be provided when calling SkillRuntime tools");
@@ -1503,6 +1945,22 @@ public final class SkillRuntime {
             }
         }
 
+        /**
+         * Serves repeated {@code readRef} calls from the run-scoped cache. Entries are tagged with the output
+         * tree generation observed before resolving, so any later mutation makes them miss.
+         */
+        private List<Path> resolveReferencePathsCached(SkillIndex.SkillMetadata metadata, String reference)
+                throws IOException {
+            long generation = outputTreeGeneration.get();
+            List<Path> cached = context.cachedReferences(reference, generation);
+            if (cached != null) {
+                return cached;
+            }
+            List<Path> resolved = List.copyOf(resolveReferencePaths(metadata, reference));
+            context.cacheReferences(reference, generation, resolved);
+            return resolved;
+        }
+
         private List<Path> resolveReferencePaths(SkillIndex.SkillMetadata metadata, String reference)
                 throws IOException {
             List<Path> resolved = new ArrayList<>();
@@ -1572,30 +2030,6 @@ public final class SkillRuntime {
             return matches;
         }
 
-        private ReferenceDocumentContent readReferenceContent(Path path) throws IOException {
-            if (Files.isDirectory(path)) {
-                return new ReferenceDocumentContent("(directory)", "(directory)", false);
-            }
-            try {
-                String text = Files.readString(path, StandardCharsets.UTF_8);
-                String limited = limitChars(text, 16384);
-                return new ReferenceDocumentContent(limited, limited, false);
-            } catch (MalformedInputException ex) {
-                byte[] bytes = Files.readAllBytes(path);
-                String preview = summarisePreview(bytes);
-                if (preview == null || preview.isBlank()) {
-                    preview = "(binary preview suppressed)";
-                }
-                String detail = """
-                        [Binary file]
-                        Path: %s
-                        Size: %d bytes
-                        Preview: %s
-                        """.formatted(path.toString(), bytes.length, preview);
-                return new ReferenceDocumentContent(detail.strip(), preview, true);
-            }
-        }
-
         private Set<String> expandOutputReferenceVariants(Path outputBase, String reference) {
             Set<String> variants = new LinkedHashSet<>();
             variants.add(reference);
@@ -1760,61 +2194,14 @@ public final class SkillRuntime {
         }
 
         private DeploymentResult copyDirectoryTree(Path source, Path target) {
-            try {
-                Files.createDirectories(target);
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to prepare deployment target: " + target, e);
-            }
-            int[] filesCopied = {0};
-            int[] directoriesCreated = {0};
-            try (var stream = Files.walk(source)) {
-                List<Path> entries = stream
-                        .sorted((left, right) -> {
-                            int depthCompare = Integer.compare(left.getNameCount(), right.getNameCount());
-                            if (depthCompare != 0) {
-                                return depthCompare;
-                            }
-                            boolean leftDir = Files.isDirectory(left);
-                            boolean rightDir = Files.isDirectory(right);
-                            if (leftDir != rightDir) {
-                                return leftDir ? -1 : 1;
-                            }
-                            return left.compareTo(right);
-                        })
-                        .collect(Collectors.toCollection(ArrayList::new));
-                for (Path entry : entries) {
-                    Path relative = source.relativize(entry);
-                    Path destination = target.resolve(relative.toString()).toAbsolutePath().normalize();
-                    if (!destination.startsWith(target)) {
-                        throw new IllegalArgumentException("Deployment would escape target directory: " + destination);
-                    }
-                    try {
-                        if (Files.isDirectory(entry)) {
-                            Files.createDirectories(destination);
-                            if (!relative.toString().isEmpty()) {
-                                directoriesCreated[0]++;
-                            }
-                        } else {
-                            Path parent = destination.getParent();
-                            if (parent != null) {
-                                Files.createDirectories(parent);
-                            }
-                            Files.copy(entry, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
-                            filesCopied[0]++;
-                        }
-                    } catch (IOException e) {
-                        throw new IllegalStateException(
-                                "Failed to copy '" + entry + "' to '" + destination + "'", e);
-                    }
-                }
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to traverse deployment source: " + source, e);
-            }
+            ScriptDeployer.Summary summary = scriptDeployer.deploy(source, target);
             return new DeploymentResult(
                     source.toString(),
                     target.toString(),
-                    filesCopied[0],
-                    directoriesCreated[0]);
+                    summary.filesCopied(),
+                    summary.directoriesCreated(),
+                    summary.filesLinked(),
+                    summary.filesSkipped());
         }
 
         private int determineTimeoutSeconds(Integer requestedSeconds) {
@@ -1834,12 +2221,26 @@ public final class SkillRuntime {
             }
         }
 
-        private Map<String, Object> parseStdoutJson(String stdout) {
-            if (stdout == null || stdout.isBlank()) {
+        /**
+         * Parses stdout as a JSON object. Truncated stdout is only parsed from its spill file when the captured
+         * head already looks like an object, so plain-text logs are never re-read. A truncated stderr does not
+         * affect stdout.
+         */
+        private Map<String, Object> parseStdoutJson(ProcessResult execution) {
+            String stdout = execution.stdout();
+            if (stdout.isBlank()) {
                 return Map.of();
             }
             try {
-                return OBJECT_MAPPER.readValue(stdout, JSON_MAP_TYPE);
+                if (!execution.stdoutTruncated()) {
+                    return OBJECT_MAPPER.readValue(stdout, JSON_MAP_TYPE);
+                }
+                Path spill = execution.stdoutSpill();
+                if (spill == null || !stdout.stripLeading().startsWith("{")
+                        || Files.size(spill) > MAX_SPILLED_JSON_BYTES) {
+                    return Map.of();
+                }
+                return OBJECT_MAPPER.readValue(spill.toFile(), JSON_MAP_TYPE);
             } catch (IOException e) {
                 logger.debug("Act[script] stdout is not valid JSON: {}", e.getMessage());
                 return Map.of();
@@ -1902,33 +2303,87 @@ public final class SkillRuntime {
             if (grouped.isEmpty()) {
                 return List.of();
             }
-            List<Map<String, Object>> summaries = new ArrayList<>();
+            List<Callable<Map<String, Object>>> installs = new ArrayList<>();
             List<String> pipPackages = grouped.getOrDefault("pip", List.of());
             if (!pipPackages.isEmpty()) {
-                ProcessResult pipResult = executeProcess(
-                        buildPipCommand(pipPackages),
-                        resolveDependencyWorkDir(pythonEnvDirectory(), metadata.skillRoot()),
-                        null,
-                        Duration.ofSeconds(DEFAULT_DEPENDENCY_TIMEOUT_SECONDS));
-                logDependencyOutcome("pip", pipPackages, pipResult);
-                summaries.add(createDependencySummary("pip", pipPackages, pipResult));
+                installs.add(() -> installWithLedger(
+                        "pip", pipPackages, pythonEnvDirectory(), metadata.skillRoot(), this::buildPipCommand));
             }
             List<String> npmPackages = grouped.getOrDefault("npm", List.of());
             if (!npmPackages.isEmpty()) {
-                ProcessResult npmResult = executeProcess(
-                        buildNpmCommand(npmPackages),
-                        resolveDependencyWorkDir(nodeEnvDirectory(), metadata.skillRoot()),
-                        null,
-                        Duration.ofSeconds(DEFAULT_DEPENDENCY_TIMEOUT_SECONDS));
-                logDependencyOutcome("npm", npmPackages, npmResult);
-                summaries.add(createDependencySummary("npm", npmPackages, npmResult));
-            }
-            if (summaries.isEmpty()) {
+                installs.add(() -> installWithLedger(
+                        "npm", npmPackages, nodeEnvDirectory(), metadata.skillRoot(), this::buildNpmCommand));
+            }
+            if (installs.isEmpty()) {
                 return List.of();
             }
+            if (installs.size() == 1) {
+                try {
+                    return List.of(installs.get(0).call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("Dependency installation failed", e);
+                }
+            }
+            List<Map<String, Object>> summaries = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Future<Map<String, Object>> future : executor.invokeAll(installs)) {
+                    summaries.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while installing dependencies", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Dependency installation failed", e.getCause());
+            }
             return List.copyOf(summaries);
         }
 
+        /**
+         * Installs the packages missing from the environment's ledger. Environments that do not exist yet fall
+         * back to the skill root as before and are only tracked in memory.
+         */
+        private Map<String, Object> installWithLedger(
+                String tool,
+                List<String> packages,
+                Path environmentDirectory,
+                Path skillRoot,
+                Function<List<String>, List<String>> commandBuilder) {
+            Path workDir = resolveDependencyWorkDir(environmentDirectory, skillRoot);
+            DependencyInstallLedger.Install<ProcessResult> install = dependencyLedger.install(
+                    tool,
+                    workDir,
+                    workDir.equals(environmentDirectory),
+                    packages,
+                    pending -> executeProcess(
+                            commandBuilder.apply(pending),
+                            workDir,
+                            null,
+                            Duration.ofSeconds(DEFAULT_DEPENDENCY_TIMEOUT_SECONDS)),
+                    result -> result.exitCode() == 0 && !result.timedOut());
+            if (install.result() == null) {
+                logger.info("Act[script] dependency {} {} already installed; skipping", tool, packages);
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("tool", tool);
+                summary.put("packages", List.copyOf(packages));
+                summary.put("alreadySatisfied", true);
+                summary.put("exitCode", 0);
+                summary.put("timedOut", false);
+                summary.put("durationMillis", 0L);
+                return summary;
+            }
+            logDependencyOutcome(tool, install.installed(), install.result());
+            Map<String, Object> summary = createDependencySummary(tool, install.installed(), install.result());
+            if (!install.satisfied().isEmpty()) {
+                summary.put("alreadySatisfied", install.satisfied());
+            }
+            return summary;
+        }
+
         private Map<String, List<String>> groupDependencies(List<String> dependencies) {
             Map<String, List<String>> grouped = new LinkedHashMap<>();
             for (String entry : dependencies) {
@@ -2141,7 +2596,13 @@ public final class SkillRuntime {
 
         private ProcessResult executeProcess(
                 List<String> command, Path workingDirectory, String stdinPayload, Duration timeout) {
-            return executeProcess(command, workingDirectory, stdinPayload, timeout, Map.of());
+            return executeProcess(
+                    command,
+                    workingDirectory,
+                    stdinPayload,
+                    timeout,
+                    Map.of(),
+                    new ProcessRunner.OutputLimits(CAPTURE_HEAD_BYTES, CAPTURE_TAIL_BYTES, null, null));
         }
 
         private ProcessResult executeProcess(
@@ -2149,83 +2610,73 @@ public final class SkillRuntime {
                 Path workingDirectory,
                 String stdinPayload,
                 Duration timeout,
-                Map<String, String> environmentOverrides) {
-            Objects.requireNonNull(command, "command");
-            Objects.requireNonNull(workingDirectory, "workingDirectory");
-            Objects.requireNonNull(timeout, "timeout");
-            List<String> commandCopy = List.copyOf(command);
-            Instant start = Instant.now();
-            ProcessBuilder builder = new ProcessBuilder(commandCopy);
-            builder.directory(workingDirectory.toFile());
-            builder.redirectErrorStream(false);
-            if (environmentOverrides != null && !environmentOverrides.isEmpty()) {
-                Map<String, String> environment = builder.environment();
-                for (Map.Entry<String, String> entry : environmentOverrides.entrySet()) {
-                    String value = entry.getValue();
-                    if (value == null) {
-                        environment.remove(entry.getKey());
-                    } else {
-                        environment.put(entry.getKey(), value);
-                    }
-                }
-            }
-            Process process;
-            try {
-                process = builder.start();
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to start process: " + String.join(" ", commandCopy), e);
-            }
-            try (OutputStream output = process.getOutputStream()) {
-                if (stdinPayload != null && !stdinPayload.isEmpty()) {
-                    try (OutputStreamWriter writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
-                        writer.write(stdinPayload);
-                        writer.flush();
-                    }
-                }
-            } catch (IOException e) {
-                process.destroyForcibly();
-                throw new IllegalStateException("Failed to send input to process", e);
-            }
-            boolean finished;
-            try {
-                finished = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                process.destroyForcibly();
-                throw new IllegalStateException("Interrupted while waiting for process", e);
-            }
-            if (!finished) {
-                process.destroyForcibly();
-                try {
-                    process.waitFor(1, TimeUnit.SECONDS);
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-            String stdout = readAll(process.getInputStream());
-            String stderr = readAll(process.getErrorStream());
-            long durationMillis = Duration.between(start, Instant.now()).toMillis();
-            int exitCode = finished ? process.exitValue() : -1;
-            return new ProcessResult(commandCopy, exitCode, !finished, stdout, stderr, durationMillis);
+                Map<String, String> environmentOverrides,
+                ProcessRunner.OutputLimits limits) {
+            ProcessRunner.Completion completion = processRunner.run(
+                    command, workingDirectory, stdinPayload, timeout, environmentOverrides, limits);
+            return toProcessResult(completion, false);
         }
 
-        private String readAll(InputStream stream) {
-            try (InputStream input = stream) {
-                return new String(input.readAllBytes(), StandardCharsets.UTF_8);
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
+        private ProcessRunner.OutputLimits scriptOutputLimits(Path scriptPath) {
+            Path logDirectory = context.skillOutputDirectory().resolve(SCRIPT_LOG_DIRECTORY);
+            String prefix = "%s-%d-%d".formatted(
+                    scriptPath.getFileName(), System.currentTimeMillis(), scriptLogSequence.incrementAndGet());
+            return new ProcessRunner.OutputLimits(
+                    CAPTURE_HEAD_BYTES,
+                    CAPTURE_TAIL_BYTES,
+                    logDirectory.resolve(prefix + ".stdout.log"),
+                    logDirectory.resolve(prefix + ".stderr.log"));
         }
 
-        private String limitChars(String text, int maxChars) {
-            if (text == null) {
-                return "";
-            }
-            String trimmed = text.strip();
-            if (trimmed.length() <= maxChars) {
-                return trimmed;
+        /**
+         * Runs Python and Node scripts on a warm interpreter when the pool is enabled, falling back to a
+         * freshly forked process when no worker is available or the script type cannot be pooled.
+         */
+        private ProcessResult executeScript(
+                String extension,
+                List<String> command,
+                Path scriptPath,
+                List<String> args,
+                Path workingDirectory,
+                String stdinPayload,
+                Duration timeout,
+                Map<String, String> environmentOverrides,
+                ProcessRunner.OutputLimits limits) {
+            WarmInterpreterPool.Language language = switch (extension) {
+                case ".py" -> WarmInterpreterPool.Language.PYTHON;
+                case ".js" -> WarmInterpreterPool.Language.NODE;
+                default -> null;
+            };
+            if (warmInterpreterPool != null && language != null) {
+                Optional<ProcessRunner.Completion> warm = warmInterpreterPool.run(
+                        language,
+                        command.get(0),
+                        environmentOverrides,
+                        scriptPath,
+                        args,
+                        stdinPayload,
+                        workingDirectory,
+                        timeout);
+                if (warm.isPresent()) {
+                    return toProcessResult(warm.get(), true);
+                }
+                logger.debug("Act[script] warm worker unavailable for {}; forking a new interpreter", scriptPath);
             }
-            return trimmed.substring(0, maxChars);
+            return executeProcess(command, workingDirectory, stdinPayload, timeout, environmentOverrides, limits);
+        }
+
+        private ProcessResult toProcessResult(ProcessRunner.Completion completion, boolean warmWorker) {
+            return new ProcessResult(
+                    completion.command(),
+                    completion.exitCode(),
+                    completion.timedOut(),
+                    completion.stdout(),
+                    completion.stderr(),
+                    completion.durationMillis(),
+                    warmWorker,
+                    completion.stdoutTruncated(),
+                    completion.stdoutSpill(),
+                    completion.stderrSpill());
         }
 
         private String limitText(String text, int maxLines, int maxChars) {
@@ -2239,93 +2690,6 @@ public final class SkillRuntime {
             }
             return joined.substring(0, maxChars);
         }
-
-        private String summarisePreview(byte[] bytes) {
-            if (bytes.length == 0) {
-                return "(empty)";
-            }
-            int sampleSize = Math.min(bytes.length, 128);
-            int printable = 0;
-            for (int i = 0; i < sampleSize; i++) {
-                int value = bytes[i] & 0xFF;
-                if (value >= 32 && value <= 126) {
-                    printable++;
-                }
-            }
-            if (printable < sampleSize / 2) {
-                return "(binary preview suppressed)";
-            }
-            String text = new String(bytes, StandardCharsets.UTF_8);
-            return summariseForLog(text);
-        }
-
-        private String generateArtifactsIndex() {
-            try {
-                Path outputDir = context.outputDirectory();
-                if (!Files.exists(outputDir)) {
-                    return "(no artifacts directory)";
-                }
-                
-                StringBuilder index = new StringBuilder();
-                try (var stream = Files.walk(outputDir)) {
-                    stream.filter(Files::isRegularFile)
-                          .forEach(path -> {
-                              try {
-                                  String relativePath = outputDir.relativize(path).toString();
-                                  long size = Files.size(path);
-                                  String kind = determineFileKind(path);
-                                  String preview = generatePreview(path);
-                                  
-                                  index.append(String.format("""
-                                      - name: %s
-                                        path: %s
-                                        size: %d
-                                        kind: %s
-                                        preview: %s
-                                      """,
-                                      path.getFileName(),
-                                      relativePath,
-                                      size,
-                                      kind,
-                                      preview));
-                              } catch (IOException e) {
-                                  logger.debug("Failed to index artifact: {}", path, e);
-                              }
-                          });
-                }
-                return index.toString();
-            } catch (IOException e) {
-                logger.debug("Failed to generate artifacts index", e);
-                return "(error generating index)";
-            }
-        }
-
-        private String determineFileKind(Path path) {
-            String name = path.getFileName().toString().toLowerCase();
-            if (name.endsWith(".json")) return "json";
-            if (name.endsWith(".yaml") || name.endsWith(".yml")) return "yaml";
-            if (name.endsWith(".md")) return "markdown";
-            if (name.endsWith(".txt")) return "text";
-            if (name.endsWith(".py")) return "python";
-            if (name.endsWith(".js")) return "javascript";
-            if (name.endsWith(".sh")) return "shell";
-            return "binary";
-        }
-
-        private String generatePreview(Path path) {
-            try {
-                String kind = determineFileKind(path);
-                if (kind.equals("binary")) {
-                    return "(binary)";
-                }
-                String content = Files.readString(path, StandardCharsets.UTF_8);
-                return limitChars(content, 400);
-            } catch (Exception e) {
-                return "(preview unavailable)";
-            }
-        }
-
-        private record ReferenceDocumentContent(String detail, String summaryText, boolean binary) {}
     }
 
     private static Path sanitiseOutputRelativePath(Path candidate, Path outputDir) {
@@ -2383,7 +2747,11 @@ public final class SkillRuntime {
             boolean timedOut,
             String stdout,
             String stderr,
-            long durationMillis) {
+            long durationMillis,
+            boolean warmWorker,
+            boolean stdoutTruncated,
+            Path stdoutSpill,
+            Path stderrSpill) {
         ProcessResult {
             command = List.copyOf(command);
             stdout = stdout == null ? "" : stdout;
@@ -2391,6 +2759,8 @@ public final class SkillRuntime {
         }
     }
 
+    private record CachedResolution(long generation, List<Path> paths) {}
+
     private static final class SkillRuntimeContext {
 
         private final SkillIndex.SkillMetadata metadata;
@@ -2405,6 +2775,14 @@ public final class SkillRuntime {
         private final Set<String> invokedSkills = new LinkedHashSet<>();
         private Path artifactPath;
         private Validation validation;
+        private final OutputTreeSnapshot outputTree;
+        private final Map<String, CachedResolution> resolvedReferences =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedResolution> eldest) {
+                        return size() > MAX_CACHED_REFERENCE_RESOLUTIONS;
+                    }
+                };
 
         SkillRuntimeContext(
                 SkillIndex.SkillMetadata metadata,
@@ -2419,6 +2797,7 @@ public final class SkillRuntime {
                 throw new IllegalArgumentException("Skill id must resolve to at least one path segment");
             }
             this.skillOutputDirectory = resolveSkillOutputDirectory(outputDirectory, skillRelativePath);
+            this.outputTree = new OutputTreeSnapshot(skillOutputDirectory, Set.of(SCRIPT_LOG_DIRECTORY));
             this.logger = Objects.requireNonNull(logger, "logger");
         }
 
@@ -2438,6 +2817,10 @@ public final class SkillRuntime {
             return skillOutputDirectory;
         }
 
+        OutputTreeSnapshot outputTree() {
+            return outputTree;
+        }
+
         Path relativizeToSkill(Path candidate) {
             return stripSkillIdPrefix(candidate);
         }
@@ -2470,6 +2853,22 @@ public final class SkillRuntime {
             referencedFiles.add(path);
         }
 
+        synchronized List<Path> cachedReferences(String reference, long generation) {
+            CachedResolution cached = resolvedReferences.get(reference);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.generation() != generation) {
+                resolvedReferences.remove(reference);
+                return null;
+            }
+            return cached.paths();
+        }
+
+        synchronized void cacheReferences(String reference, long generation, List<Path> paths) {
+            resolvedReferences.put(reference, new CachedResolution(generation, paths));
+        }
+
         void recordSkill(String skillId) {
             invokedSkills.add(skillId);
         }
@@ -2591,7 +2990,10 @@ public final class SkillRuntime {
             String stdoutText,
             String stderrText,
             long durationMillis,
-            List<Map<String, Object>> dependencyCalls) {
+            List<Map<String, Object>> dependencyCalls,
+            boolean warmWorker,
+            String stdoutLogPath,
+            String stderrLogPath) {
         public ScriptResult {
             Objects.requireNonNull(path, "path");
             stdout = stdout == null ? Map.of() : Map.copyOf(stdout);
@@ -2601,9 +3003,24 @@ public final class SkillRuntime {
         }
     }
 
-    public record ArtifactHandle(String path, long bytesWritten, String preview) {}
+    public record ArtifactHandle(String path, long bytesWritten, String preview, long size, String sha256) {}
+
+    public record ArtifactSummary(String name, String path, long size, String kind, String preview) {}
+
+    /** One page of the artifact catalog; {@code nextOffset} is {@code null} on the last page. */
+    public record ArtifactPage(List<ArtifactSummary> artifacts, int offset, int total, Integer nextOffset) {
+        public ArtifactPage {
+            artifacts = artifacts == null ? List.of() : List.copyOf(artifacts);
+        }
+    }
 
-    public record DeploymentResult(String source, String target, int filesCopied, int directoriesCreated) {
+    public record DeploymentResult(
+            String source,
+            String target,
+            int filesCopied,
+            int directoriesCreated,
+            int filesLinked,
+            int filesSkipped) {
         public DeploymentResult {
             Objects.requireNonNull(source, "source");
             Objects.requireNonNull(target, "target");
@@ -0,0 +1,204 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex.SkillMetadata;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory BM25 index over skill id, name, description and keywords, used to narrow the candidates shown to
+ * the planner. Latin text is split into lower-cased alphanumeric words (so ids split on {@code -}, {@code /}
+ * and {@code _}); Japanese and other CJK runs are indexed as overlapping character bigrams, which needs no
+ * dictionary. Each term's posting list is a pair of primitive arrays ordered by document number.
+ */
+public final class SkillSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    private static final float IDENTITY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it", "of", "on",
+            "or", "the", "this", "that", "to", "use", "using", "when", "with");
+
+    private final SkillMetadata[] documents;
+    private final float[] lengths;
+    private final double averageLength;
+    private final Map<String, Postings> postings;
+
+    private SkillSearchIndex(
+            SkillMetadata[] documents, float[] lengths, double averageLength, Map<String, Postings> postings) {
+        this.documents = documents;
+        this.lengths = lengths;
+        this.averageLength = averageLength;
+        this.postings = postings;
+    }
+
+    /** Builds the index; documents are numbered in id order so results are deterministic. */
+    public static SkillSearchIndex build(Collection<SkillMetadata> skills) {
+        Objects.requireNonNull(skills, "skills");
+        SkillMetadata[] documents = skills.toArray(SkillMetadata[]::new);
+        Arrays.sort(documents, Comparator.comparing(SkillMetadata::id));
+        float[] lengths = new float[documents.length];
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+        double totalLength = 0;
+        for (int doc = 0; doc < documents.length; doc++) {
+            Map<String, Float> frequencies = new HashMap<>();
+            SkillMetadata skill = documents[doc];
+            addField(frequencies, skill.id(), IDENTITY_WEIGHT);
+            addField(frequencies, skill.name(), IDENTITY_WEIGHT);
+            addField(frequencies, String.join(" ", skill.keywords()), IDENTITY_WEIGHT);
+            addField(frequencies, skill.description(), DESCRIPTION_WEIGHT);
+            float length = 0f;
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), term -> new PostingsBuilder()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            lengths[doc] = length;
+            totalLength += length;
+        }
+        Map<String, Postings> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((term, builder) -> postings.put(term, builder.build()));
+        double averageLength = documents.length == 0 ? 0 : totalLength / documents.length;
+        return new SkillSearchIndex(documents, lengths, averageLength, postings);
+    }
+
+    public int size() {
+        return documents.length;
+    }
+
+    /**
+     * Returns up to {@code limit} skills that share at least one term with {@code query}, best first. Ties
+     * are broken by id.
+     */
+    public List<Hit> search(String query, int limit) {
+        if (query == null || limit <= 0 || documents.length == 0) {
+            return List.of();
+        }
+        double[] scores = new double[documents.length];
+        boolean matched = false;
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            matched = true;
+            int df = list.docs.length;
+            double idf = Math.log(1.0 + (documents.length - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < df; i++) {
+                int doc = list.docs[i];
+                double tf = list.frequencies[i];
+                double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        if (!matched) {
+            return List.of();
+        }
+        List<Hit> hits = new ArrayList<>();
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] > 0) {
+                hits.add(new Hit(documents[doc], scores[doc]));
+            }
+        }
+        // Documents are numbered in id order, so a stable sort keeps ties ordered by id.
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits.size() <= limit ? List.copyOf(hits) : List.copyOf(hits.subList(0, limit));
+    }
+
+    public record Hit(SkillMetadata skill, double score) {}
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjk, tokens);
+                word.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens);
+        return tokens;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        if (codePoint == 'ー') {
+            return true;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 1) {
+            String token = word.toString();
+            if (!STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        word.setLength(0);
+    }
+
+    private static void flushCjk(StringBuilder run, List<String> tokens) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(new String(codePoints, 0, 1));
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+        run.setLength(0);
+    }
+
+    private record Postings(int[] docs, float[] frequencies) {}
+
+    private static final class PostingsBuilder {
+
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(docs, size), Arrays.copyOf(frequencies, size));
+        }
+    }
+}
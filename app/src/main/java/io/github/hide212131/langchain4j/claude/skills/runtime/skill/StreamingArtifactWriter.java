@@ -0,0 +1,290 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes {@code writeArtifact} payloads without materialising them as a second full byte array: text is
+ * encoded and Base64 decoded in fixed-size chunks straight into a {@link FileChannel}. Complete writes go to a
+ * temporary file that is atomically renamed into place; appends extend the existing file and keep a running
+ * SHA-256 so large artifacts can be assembled over several tool calls. A file hard-linked by
+ * {@code deployScripts} is replaced with a private copy before the first append so the skill's own copy is
+ * never modified.
+ */
+final class StreamingArtifactWriter {
+
+    static final int PREVIEW_BYTES = 4096;
+    private static final int CHUNK_BYTES = 64 * 1024;
+    // Multiple of four so chunk boundaries never split a Base64 quantum.
+    private static final int BASE64_CHUNK_CHARS = 4 * 16 * 1024;
+
+    private final Map<Path, AppendState> appendStates = new ConcurrentHashMap<>();
+
+    /**
+     * Writes {@code content} to {@code target}, replacing it or, when {@code append} is set, appending to it.
+     * Appended Base64 chunks must each be decodable on their own (a multiple of four characters except for
+     * the final chunk).
+     */
+    Written write(Path target, String content, boolean base64Encoded, boolean append) throws IOException {
+        Objects.requireNonNull(target, "target");
+        String payload = content == null ? "" : content;
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (append) {
+            return appendTo(target, payload, base64Encoded);
+        }
+        appendStates.remove(target);
+        Path temp = createTempSibling(target);
+        try {
+            MessageDigest digest = sha256();
+            Sink sink;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                sink = new Sink(channel, digest, true);
+                stream(payload, base64Encoded, sink);
+            }
+            moveIntoPlace(temp, target);
+            return new Written(
+                    sink.written, sink.written, HexFormat.of().formatHex(digest.digest()), sink.preview());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Written appendTo(Path target, String payload, boolean base64Encoded) throws IOException {
+        if (base64Encoded) {
+            // Appends write in place, so reject a bad chunk before any of its bytes reach the file.
+            forEachBase64Chunk(payload, decoded -> { });
+        }
+        AppendState state = appendStates.computeIfAbsent(target, key -> new AppendState());
+        synchronized (state) {
+            detachHardLink(target);
+            if (state.digest == null || state.size != (Files.exists(target) ? Files.size(target) : 0L)) {
+                state.rehash(target);
+            }
+            Sink sink;
+            try (FileChannel channel = FileChannel.open(
+                    target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                sink = new Sink(channel, state.digest, state.size == 0L);
+                stream(payload, base64Encoded, sink);
+            }
+            state.size += sink.written;
+            String sha256 = state.currentHash();
+            byte[] preview = state.size == sink.written ? sink.preview() : readHead(target);
+            return new Written(sink.written, state.size, sha256, preview);
+        }
+    }
+
+    private static void stream(String payload, boolean base64Encoded, Sink sink) throws IOException {
+        if (base64Encoded) {
+            forEachBase64Chunk(payload, decoded -> sink.accept(ByteBuffer.wrap(decoded)));
+            return;
+        }
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer input = CharBuffer.wrap(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        while (true) {
+            CoderResult result = encoder.encode(input, buffer, true);
+            drain(buffer, sink);
+            if (result.isUnderflow()) {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain(buffer, sink);
+        }
+        drain(buffer, sink);
+    }
+
+    private static void forEachBase64Chunk(String payload, ChunkConsumer consumer) throws IOException {
+        Base64.Decoder decoder = Base64.getDecoder();
+        for (int start = 0; start < payload.length(); start += BASE64_CHUNK_CHARS) {
+            int end = Math.min(payload.length(), start + BASE64_CHUNK_CHARS);
+            byte[] decoded;
+            try {
+                decoded = decoder.decode(payload.substring(start, end));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Failed to decode Base64 content", e);
+            }
+            consumer.accept(decoded);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, Sink sink) throws IOException {
+        buffer.flip();
+        if (buffer.hasRemaining()) {
+            sink.accept(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Replaces {@code target} with a copy of itself when other links share its inode. File systems without a
+     * link count ({@code unix:nlink}) are assumed not to share files.
+     */
+    private static void detachHardLink(Path target) throws IOException {
+        int links;
+        try {
+            links = (Integer) Files.getAttribute(target, "unix:nlink", LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException | UnsupportedOperationException | IllegalArgumentException e) {
+            return;
+        }
+        if (links <= 1) {
+            return;
+        }
+        Path copy = createTempSibling(target);
+        try {
+            Files.copy(target, copy, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            moveIntoPlace(copy, target);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /**
+     * Creates an empty temporary file next to {@code target}. Unlike {@link Files#createTempFile}, which is
+     * owner-only on POSIX, the file gets the process's default permissions, or the target's when it exists, so
+     * renaming it into place does not change who can read the artifact.
+     */
+    private static Path createTempSibling(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        while (true) {
+            Path temp = parent.resolve("." + target.getFileName() + "."
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                Files.newByteChannel(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+            PosixFileAttributeView view = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+            if (view != null && Files.exists(target)) {
+                view.setPermissions(Files.getPosixFilePermissions(target));
+            }
+            return temp;
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] readHead(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return input.readNBytes(PREVIEW_BYTES);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Outcome of a write. {@code size} and {@code sha256} describe the whole file; {@code previewBytes} holds
+     * at most {@link #PREVIEW_BYTES} bytes from its start.
+     */
+    record Written(long bytesWritten, long size, String sha256, byte[] previewBytes) {}
+
+    @FunctionalInterface
+    private interface ChunkConsumer {
+        void accept(byte[] decoded) throws IOException;
+    }
+
+    private static final class Sink {
+
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private final byte[] preview;
+        private int previewLength;
+        private long written;
+
+        private Sink(FileChannel channel, MessageDigest digest, boolean capturePreview) {
+            this.channel = channel;
+            this.digest = digest;
+            this.preview = capturePreview ? new byte[PREVIEW_BYTES] : new byte[0];
+        }
+
+        private void accept(ByteBuffer bytes) throws IOException {
+            ByteBuffer view = bytes.duplicate();
+            int toPreview = Math.min(view.remaining(), preview.length - previewLength);
+            if (toPreview > 0) {
+                view.get(preview, previewLength, toPreview);
+                previewLength += toPreview;
+            }
+            digest.update(bytes.duplicate());
+            while (bytes.hasRemaining()) {
+                written += channel.write(bytes);
+            }
+        }
+
+        private byte[] preview() {
+            return Arrays.copyOf(preview, previewLength);
+        }
+    }
+
+    private static final class AppendState {
+
+        private MessageDigest digest;
+        private long size;
+
+        private void rehash(Path target) throws IOException {
+            digest = sha256();
+            size = 0L;
+            if (!Files.exists(target)) {
+                return;
+            }
+            byte[] chunk = new byte[CHUNK_BYTES];
+            try (InputStream input = Files.newInputStream(target)) {
+                int read;
+                while ((read = input.read(chunk)) != -1) {
+                    digest.update(chunk, 0, read);
+                    size += read;
+                }
+            }
+        }
+
+        private String currentHash() {
+            try {
+                MessageDigest snapshot = (MessageDigest) digest.clone();
+                return HexFormat.of().formatHex(snapshot.digest());
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+            }
+        }
+    }
+}
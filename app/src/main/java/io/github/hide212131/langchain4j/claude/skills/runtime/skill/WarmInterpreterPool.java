@@ -0,0 +1,525 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional pool of long-lived Python/Node interpreters that run skill scripts in-process, so repeated
+ * {@code runScript} calls skip interpreter start-up and keep third-party modules (python-pptx, pptxgenjs, ...)
+ * loaded. Workers speak a line-delimited JSON protocol over their stdin/stdout, are keyed by interpreter and
+ * environment, and are recycled after a fixed number of jobs, on timeout, or when they crash. Closing the pool
+ * destroys every worker together with any processes its scripts left behind; later jobs fall back to cold
+ * processes.
+ */
+final class WarmInterpreterPool implements AutoCloseable {
+
+    static final int DEFAULT_MAX_JOBS_PER_WORKER = 50;
+    private static final int MAX_IDLE_WORKERS_PER_ENV = 2;
+    private static final String RESPONSE_MARKER = "\0WARM\0";
+    private static final int STDERR_TAIL_CHARS = 4096;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ExecutorService READERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final String PYTHON_WORKER = """
+            import io, json, os, runpy, sys, traceback
+            MARKER = "\\0WARM\\0"
+            proto_in = sys.stdin
+            proto_out = sys.stdout
+            base_cwd = os.getcwd()
+            base_path = list(sys.path)
+            def capture():
+                return io.TextIOWrapper(io.BytesIO(), encoding="utf-8", errors="replace", write_through=True)
+            for line in proto_in:
+                if not line.strip():
+                    continue
+                job = json.loads(line)
+                out, err = capture(), capture()
+                stdin = io.TextIOWrapper(io.BytesIO(job["stdin"].encode("utf-8")), encoding="utf-8")
+                code = 0
+                job_dirs = tuple(os.path.abspath(d) + os.sep for d in (os.path.dirname(job["script"]), job["cwd"]))
+                modules_before = set(sys.modules)
+                saved = (sys.argv, sys.stdin, sys.stdout, sys.stderr)
+                sys.argv = [job["script"]] + job["args"]
+                sys.stdin, sys.stdout, sys.stderr = stdin, out, err
+                sys.path[:] = [os.path.dirname(job["script"])] + base_path
+                try:
+                    os.chdir(job["cwd"])
+                    runpy.run_path(job["script"], run_name="__main__")
+                except SystemExit as exit_signal:
+                    if exit_signal.code is None:
+                        code = 0
+                    elif isinstance(exit_signal.code, int):
+                        code = exit_signal.code
+                    else:
+                        err.write(str(exit_signal.code) + "\\n")
+                        code = 1
+                except BaseException:
+                    traceback.print_exc(file=err)
+                    code = 1
+                finally:
+                    sys.argv, sys.stdin, sys.stdout, sys.stderr = saved
+                    sys.path[:] = base_path
+                    os.chdir(base_cwd)
+                    for name in set(sys.modules) - modules_before:
+                        origin = getattr(sys.modules.get(name), "__file__", None) or ""
+                        if origin and os.path.abspath(origin).startswith(job_dirs):
+                            del sys.modules[name]
+                out.flush()
+                err.flush()
+                response = {
+                    "exitCode": code,
+                    "stdout": out.buffer.getvalue().decode("utf-8", "replace"),
+                    "stderr": err.buffer.getvalue().decode("utf-8", "replace"),
+                }
+                proto_out.write("\\n" + MARKER + json.dumps(response) + "\\n")
+                proto_out.flush()
+            """;
+
+    private static final String NODE_WORKER = """
+            'use strict';
+            const fs = require('fs');
+            const Module = require('module');
+            const path = require('path');
+            const readline = require('readline');
+            const { Readable } = require('stream');
+            const MARKER = '\\u0000WARM\\u0000';
+            const realStdoutWrite = process.stdout.write.bind(process.stdout);
+            const realStderrWrite = process.stderr.write.bind(process.stderr);
+            const realExit = process.exit;
+            const realReadFileSync = fs.readFileSync;
+            const realStdin = process.stdin;
+            const realMainModule = process.mainModule;
+            const baseCwd = process.cwd();
+            const baseArgv = [process.argv[0]];
+            const nodeModules = path.sep + 'node_modules' + path.sep;
+            const activeResources = () => typeof process.getActiveResourcesInfo === 'function'
+              ? process.getActiveResourcesInfo().filter(type => type !== 'Immediate').length
+              : 0;
+            class ExitSignal { constructor(code) { this.code = code; } }
+            let current = null;
+            const fail = error => {
+              if (current) { current(error); } else { realStderrWrite(String(error && error.stack || error) + '\\n'); }
+            };
+            process.on('uncaughtException', fail);
+            process.on('unhandledRejection', fail);
+            const capture = sink => (chunk, encoding, callback) => {
+              sink.push(typeof chunk === 'string' ? chunk : Buffer.from(chunk).toString('utf8'));
+              const done = typeof encoding === 'function' ? encoding : callback;
+              if (typeof done === 'function') { done(); }
+              return true;
+            };
+            const runJob = job => new Promise(resolve => {
+              const out = [];
+              const err = [];
+              let settled = false;
+              const baseline = activeResources();
+              const cacheBefore = new Set(Object.keys(require.cache));
+              const settle = error => {
+                if (settled) { return; }
+                settled = true;
+                let exitCode;
+                if (error instanceof ExitSignal) {
+                  exitCode = error.code;
+                } else if (error) {
+                  exitCode = 1;
+                  err.push(String(error && error.stack || error) + '\\n');
+                } else {
+                  exitCode = Number(process.exitCode || 0);
+                }
+                process.stdout.write = realStdoutWrite;
+                process.stderr.write = realStderrWrite;
+                process.exit = realExit;
+                fs.readFileSync = realReadFileSync;
+                Object.defineProperty(process, 'stdin', { value: realStdin, configurable: true, writable: true });
+                process.mainModule = realMainModule;
+                process.exitCode = undefined;
+                process.argv = baseArgv.slice();
+                process.chdir(baseCwd);
+                for (const key of Object.keys(require.cache)) {
+                  if (!cacheBefore.has(key) && !key.includes(nodeModules)) { delete require.cache[key]; }
+                }
+                current = null;
+                resolve({ exitCode, stdout: out.join(''), stderr: err.join('') });
+              };
+              const waitForIdle = () => {
+                const check = () => {
+                  if (settled) { return; }
+                  if (activeResources() <= baseline) { settle(null); }
+                  else { setTimeout(check, 5).unref(); }
+                };
+                setTimeout(check, 0).unref();
+              };
+              current = settle;
+              process.stdout.write = capture(out);
+              process.stderr.write = capture(err);
+              process.exit = code => { throw new ExitSignal(code === undefined ? Number(process.exitCode || 0) : Number(code)); };
+              fs.readFileSync = function (file, options) {
+                if (file === 0 || file === '/dev/stdin') {
+                  const data = Buffer.from(job.stdin, 'utf8');
+                  const encoding = typeof options === 'string' ? options : options && options.encoding;
+                  return encoding ? data.toString(encoding) : data;
+                }
+                return realReadFileSync.apply(fs, arguments);
+              };
+              Object.defineProperty(process, 'stdin', { value: Readable.from([job.stdin]), configurable: true, writable: true });
+              try {
+                process.chdir(job.cwd);
+                process.argv = baseArgv.concat([job.script], job.args);
+                // Load as the main module so `require.main === module` guards run, as with `node script.js`.
+                const exported = Module._load(job.script, null, true);
+                const pending = exported && typeof exported.then === 'function' ? exported : undefined;
+                Promise.resolve(pending).then(waitForIdle, settle);
+              } catch (error) {
+                settle(error);
+              }
+            });
+            const queue = [];
+            let busy = false;
+            const drain = async () => {
+              if (busy) { return; }
+              busy = true;
+              while (queue.length > 0) {
+                const response = await runJob(JSON.parse(queue.shift()));
+                realStdoutWrite('\\n' + MARKER + JSON.stringify(response) + '\\n');
+              }
+              busy = false;
+            };
+            readline.createInterface({ input: realStdin }).on('line', line => {
+              if (line.trim()) { queue.push(line); drain(); }
+            });
+            """;
+
+    private final int maxJobsPerWorker;
+    private final Map<WorkerKey, Deque<Worker>> idleWorkers = new ConcurrentHashMap<>();
+    private final Set<Worker> liveWorkers = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    WarmInterpreterPool(int maxJobsPerWorker) {
+        if (maxJobsPerWorker < 1) {
+            throw new IllegalArgumentException("maxJobsPerWorker must be at least 1");
+        }
+        this.maxJobsPerWorker = maxJobsPerWorker;
+    }
+
+    /**
+     * Returns a pool when {@code SKILLS_WARM_INTERPRETERS} is enabled, or {@code null} when scripts should
+     * always be forked cold.
+     */
+    static WarmInterpreterPool fromEnvironment(Map<String, String> environment) {
+        String enabled = environment.get("SKILLS_WARM_INTERPRETERS");
+        if (enabled == null || enabled.isBlank()) {
+            return null;
+        }
+        String normalised = enabled.trim().toLowerCase(Locale.ROOT);
+        if (!normalised.equals("true") && !normalised.equals("false")) {
+            throw new IllegalStateException("SKILLS_WARM_INTERPRETERS must be true or false");
+        }
+        if (normalised.equals("false")) {
+            return null;
+        }
+        String rawMaxJobs = environment.get("SKILLS_WARM_WORKER_MAX_JOBS");
+        if (rawMaxJobs == null || rawMaxJobs.isBlank()) {
+            return new WarmInterpreterPool(DEFAULT_MAX_JOBS_PER_WORKER);
+        }
+        int maxJobs;
+        try {
+            maxJobs = Integer.parseInt(rawMaxJobs.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("SKILLS_WARM_WORKER_MAX_JOBS must be a positive integer", ex);
+        }
+        if (maxJobs <= 0) {
+            throw new IllegalStateException("SKILLS_WARM_WORKER_MAX_JOBS must be greater than zero");
+        }
+        return new WarmInterpreterPool(maxJobs);
+    }
+
+    /**
+     * Runs a script on a warm worker. Returns empty when no worker could accept the job, in which case the
+     * script has not been started and the caller should fall back to a cold process.
+     */
+    Optional<ProcessRunner.Completion> run(
+            Language language,
+            String interpreter,
+            Map<String, String> environmentOverrides,
+            Path script,
+            List<String> args,
+            String stdinPayload,
+            Path workingDirectory,
+            Duration timeout) {
+        Objects.requireNonNull(language, "language");
+        Objects.requireNonNull(interpreter, "interpreter");
+        Objects.requireNonNull(script, "script");
+        Objects.requireNonNull(workingDirectory, "workingDirectory");
+        Objects.requireNonNull(timeout, "timeout");
+        List<String> safeArgs = args == null ? List.of() : List.copyOf(args);
+        List<String> command = new ArrayList<>();
+        command.add(interpreter);
+        command.add(script.toString());
+        command.addAll(safeArgs);
+
+        WorkerKey key = new WorkerKey(
+                language,
+                interpreter,
+                environmentOverrides == null ? Map.of() : Map.copyOf(environmentOverrides));
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("script", script.toAbsolutePath().normalize().toString());
+        job.put("args", safeArgs);
+        job.put("stdin", stdinPayload == null ? "" : stdinPayload);
+        job.put("cwd", workingDirectory.toAbsolutePath().normalize().toString());
+        String request;
+        try {
+            request = OBJECT_MAPPER.writeValueAsString(job);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialise warm worker job", e);
+        }
+
+        Instant start = Instant.now();
+        Worker worker = null;
+        for (int attempt = 0; attempt < 2 && worker == null; attempt++) {
+            Worker candidate = borrow(key);
+            if (candidate == null) {
+                return Optional.empty();
+            }
+            try {
+                candidate.send(request);
+                worker = candidate;
+            } catch (IOException e) {
+                destroy(candidate);
+            }
+        }
+        if (worker == null) {
+            return Optional.empty();
+        }
+
+        Future<String> response = READERS.submit(worker::readResponse);
+        String line;
+        try {
+            line = response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            destroy(worker);
+            return Optional.of(new ProcessRunner.Completion(
+                    command, -1, true, "", "", elapsedMillis(start)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroy(worker);
+            throw new IllegalStateException("Interrupted while waiting for warm worker", e);
+        } catch (ExecutionException e) {
+            line = null;
+        }
+        if (line == null) {
+            int exitCode = destroy(worker);
+            String stderr = "Warm worker exited unexpectedly\n" + worker.stderrTail();
+            return Optional.of(new ProcessRunner.Completion(
+                    command, exitCode, false, "", stderr, elapsedMillis(start)));
+        }
+
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(line);
+        } catch (IOException e) {
+            destroy(worker);
+            throw new IllegalStateException("Warm worker returned an invalid response", e);
+        }
+        release(key, worker);
+        return Optional.of(new ProcessRunner.Completion(
+                command,
+                node.path("exitCode").asInt(1),
+                false,
+                node.path("stdout").asText(""),
+                node.path("stderr").asText(""),
+                elapsedMillis(start)));
+    }
+
+    /** Destroys every worker, idle or busy; a job still running on one completes as a crashed worker. */
+    @Override
+    public void close() {
+        closed = true;
+        idleWorkers.clear();
+        for (Worker worker : liveWorkers) {
+            destroy(worker);
+        }
+    }
+
+    private Worker borrow(WorkerKey key) {
+        if (closed) {
+            return null;
+        }
+        Deque<Worker> idle = idleWorkers.computeIfAbsent(key, ignored -> new ConcurrentLinkedDeque<>());
+        Worker worker;
+        while ((worker = idle.pollFirst()) != null) {
+            if (worker.isAlive()) {
+                return worker;
+            }
+            destroy(worker);
+        }
+        worker = Worker.start(key);
+        if (worker != null) {
+            liveWorkers.add(worker);
+            if (closed) {
+                destroy(worker);
+                return null;
+            }
+        }
+        return worker;
+    }
+
+    private void release(WorkerKey key, Worker worker) {
+        if (closed || worker.completeJob() >= maxJobsPerWorker || !worker.isAlive()) {
+            destroy(worker);
+            return;
+        }
+        Deque<Worker> idle = idleWorkers.computeIfAbsent(key, ignored -> new ConcurrentLinkedDeque<>());
+        if (idle.size() >= MAX_IDLE_WORKERS_PER_ENV) {
+            destroy(worker);
+            return;
+        }
+        idle.offerFirst(worker);
+        if (closed && idle.remove(worker)) {
+            destroy(worker);
+        }
+    }
+
+    private int destroy(Worker worker) {
+        liveWorkers.remove(worker);
+        return worker.destroy();
+    }
+
+    private static long elapsedMillis(Instant start) {
+        return Duration.between(start, Instant.now()).toMillis();
+    }
+
+    enum Language {
+        PYTHON,
+        NODE
+    }
+
+    private record WorkerKey(Language language, String interpreter, Map<String, String> environment) {}
+
+    private static final class Worker {
+
+        private final Process process;
+        private final BufferedWriter input;
+        private final BufferedReader output;
+        private final StringBuilder stderrTail = new StringBuilder();
+        private int jobs;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.input = new BufferedWriter(
+                    new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            Thread.ofVirtual().name("warm-worker-stderr").start(() -> drainStderr(process.getErrorStream()));
+        }
+
+        static Worker start(WorkerKey key) {
+            List<String> command = key.language() == Language.PYTHON
+                    ? List.of(key.interpreter(), "-u", "-c", PYTHON_WORKER)
+                    : List.of(key.interpreter(), "-e", NODE_WORKER);
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.redirectErrorStream(false);
+            Map<String, String> environment = builder.environment();
+            for (Map.Entry<String, String> entry : key.environment().entrySet()) {
+                if (entry.getValue() == null) {
+                    environment.remove(entry.getKey());
+                } else {
+                    environment.put(entry.getKey(), entry.getValue());
+                }
+            }
+            try {
+                return new Worker(builder.start());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        void send(String request) throws IOException {
+            input.write(request);
+            input.newLine();
+            input.flush();
+        }
+
+        /**
+         * Reads until the marked response line, skipping anything a child process of the script wrote to the
+         * worker's stdout. Returns {@code null} once the worker has exited.
+         */
+        String readResponse() throws IOException {
+            String line;
+            while ((line = output.readLine()) != null) {
+                int marker = line.indexOf(RESPONSE_MARKER);
+                if (marker >= 0) {
+                    return line.substring(marker + RESPONSE_MARKER.length());
+                }
+            }
+            return null;
+        }
+
+        int completeJob() {
+            return ++jobs;
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        int destroy() {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            try {
+                return process.waitFor(1, TimeUnit.SECONDS) ? process.exitValue() : -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+
+        String stderrTail() {
+            synchronized (stderrTail) {
+                return stderrTail.toString();
+            }
+        }
+
+        private void drainStderr(InputStream stream) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    synchronized (stderrTail) {
+                        stderrTail.append(line).append('\n');
+                        if (stderrTail.length() > STDERR_TAIL_CHARS) {
+                            stderrTail.delete(0, stderrTail.length() - STDERR_TAIL_CHARS);
+                        }
+                    }
+                }
+            } catch (IOException ignored) {
+                // Worker was destroyed; the captured tail is all we need.
+            }
+        }
+    }
+}
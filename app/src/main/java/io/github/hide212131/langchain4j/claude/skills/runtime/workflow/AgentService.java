@@ -14,8 +14,12 @@ import io.github.hide212131.langchain4j.claude.skills.infra.observability.Workfl
 import io.github.hide212131.langchain4j.claude.skills.runtime.observability.AgentWorkflowObserver;
 import io.github.hide212131.langchain4j.claude.skills.runtime.observability.ExecutionTelemetryReporter;
 import io.github.hide212131.langchain4j.claude.skills.runtime.observability.InstrumentedChatModel;
+import io.github.hide212131.langchain4j.claude.skills.runtime.observability.ObservabilityChatModelListener;
 import io.github.hide212131.langchain4j.claude.skills.runtime.guard.SkillInvocationGuard;
 import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmMetricsRegistry;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmRunMetrics;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.MeteredChatModel;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.DryRunSkillRuntimeOrchestrator;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillRuntime;
@@ -26,6 +30,7 @@ import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan.Agen
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan.PlanModels;
 
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.support.WorkflowFactory;
+import io.opentelemetry.context.Scope;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -82,6 +87,25 @@ public final class AgentService {
             }
             runtimeChatModel = instrumentedDefault;
             highPerformanceChatModel = instrumentedHighPerformance;
+            // The planner calls the client directly, blocking or streamed, so it reports to the same listener.
+            llmClient.instrument(new ObservabilityChatModelListener(
+                    observability.tracer(), determineProvider(llmClient.chatModel()), llmClient.defaultModelName()));
+        }
+        if (!dryRun) {
+            // Outermost, so SkillRuntime can re-tag validator calls with MeteredChatModel.withStage.
+            ChatModel meteredDefault = new MeteredChatModel(
+                    runtimeChatModel,
+                    llmClient.llmMetrics(),
+                    llmClient.defaultModelName(),
+                    LlmMetricsRegistry.Stage.SUPERVISOR);
+            highPerformanceChatModel = highPerformanceChatModel == runtimeChatModel
+                    ? meteredDefault
+                    : new MeteredChatModel(
+                            highPerformanceChatModel,
+                            llmClient.llmMetrics(),
+                            llmClient.highPerformanceModelName(),
+                            LlmMetricsRegistry.Stage.SUPERVISOR);
+            runtimeChatModel = meteredDefault;
         }
     Path outputDirectory = resolveOutputDirectory(skillIndex);
     SkillRuntime runtime = dryRun
@@ -100,17 +124,34 @@ public final class AgentService {
             tracer);
         InvokeSkillTool tool = new InvokeSkillTool(runtime);
         SkillInvocationGuard guard = new SkillInvocationGuard();
-        DefaultInvoker invoker = new DefaultInvoker(tool, guard, logger);
+        DefaultInvoker invoker = new DefaultInvoker(tool, guard, logger, resolveActParallelism(System.getenv()));
         return new AgentService(
                 workflowFactory,
                 llmClient,
                 skillIndex,
                 logger,
                 invoker,
-                new AgenticPlanner(skillIndex, llmClient, logger),
+                new AgenticPlanner(skillIndex, llmClient, logger, step -> runtime.prefetch(step.skillId())),
                 tracer);
     }
 
+    static int resolveActParallelism(Map<String, String> environment) {
+        String raw = environment.get("SKILLS_ACT_MAX_PARALLELISM");
+        if (raw == null || raw.isBlank()) {
+            return 1;
+        }
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("SKILLS_ACT_MAX_PARALLELISM must be a positive integer", ex);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalStateException("SKILLS_ACT_MAX_PARALLELISM must be greater than zero");
+        }
+        return parallelism;
+    }
+
     private static Path resolveOutputDirectory(SkillIndex skillIndex) {
         Objects.requireNonNull(skillIndex, "skillIndex");
         Path skillsRoot = skillIndex.skillsRoot();
@@ -138,7 +179,14 @@ public final class AgentService {
 
     public ExecutionResult run(AgentRunRequest request) {
         Objects.requireNonNull(request, "request");
+        // The client is shared across runs, so calls are also recorded into this run's own metrics.
+        LlmRunMetrics runMetrics = new LlmRunMetrics();
+        try (Scope ignored = runMetrics.makeCurrent()) {
+            return runTraced(request, runMetrics);
+        }
+    }
 
+    private ExecutionResult runTraced(AgentRunRequest request, LlmRunMetrics runMetrics) {
     return tracer.trace("agent.execution", Map.ofEntries(
         Map.entry("workflow.execution.goal", request.goal()),
         Map.entry("workflow.execution.dry_run", request.dryRun()),
@@ -174,7 +222,8 @@ public final class AgentService {
 
                     UntypedAgent executionWorkflow = workflowFactory.createWorkflow(builder -> {
                         builder.name("skills-plan-act");
-                        builder.output(attemptScope -> assembleExecutionResult(request, stageVisits, attemptScope, observer));
+                        builder.output(attemptScope -> assembleExecutionResult(
+                                request, stageVisits, attemptScope, observer, runMetrics));
                         builder.subAgents(planBranch, actAgent);
                     });
 
@@ -193,13 +242,15 @@ public final class AgentService {
             AgentRunRequest request,
             List<StageVisit> stageVisits,
             AgenticScope scope,
-            AgentWorkflowObserver observer) {
+            AgentWorkflowObserver observer,
+            LlmRunMetrics runMetrics) {
 
         PlanModels.PlanResult finalPlan = readStateOrNull(scope, WorkflowStateKeys.PLAN_RESULT);
         LangChain4jLlmClient.CompletionResult finalPlanCompletion = readStateOrNull(scope, WorkflowStateKeys.PLAN_DRAFT);
         ActResult finalActResult = readStateOrNull(scope, WorkflowStateKeys.ACT_RESULT);
 
-        LangChain4jLlmClient.ProviderMetrics metricsSnapshot = llmClient.metrics();
+        LangChain4jLlmClient.ProviderMetrics metricsSnapshot = runMetrics.snapshot();
+        LlmMetricsRegistry.Snapshot latencySnapshot = runMetrics.llmMetrics().snapshot();
 
         stageVisits.addAll(observer.visits());
         List<StageVisit> visitsSnapshot = List.copyOf(stageVisits);
@@ -210,6 +261,7 @@ public final class AgentService {
                 finalPlanCompletion,
                 finalActResult,
                 metricsSnapshot,
+                latencySnapshot,
                 visitsSnapshot.size());
 
         // Build blackboard snapshot from ActResult outputs for backward compatibility
@@ -228,7 +280,8 @@ public final class AgentService {
                 finalPlanCompletion,
                 metricsSnapshot,
                 finalActResult,
-                blackboardSnapshot);
+                blackboardSnapshot,
+                latencySnapshot);
     }
 
 
@@ -378,7 +431,8 @@ public final class AgentService {
             LangChain4jLlmClient.CompletionResult planResult,
             LangChain4jLlmClient.ProviderMetrics metrics,
             ActResult actResult,
-            Map<String, Object> blackboardSnapshot) {
+            Map<String, Object> blackboardSnapshot,
+            LlmMetricsRegistry.Snapshot llmLatency) {
     }
 
     public record StageVisit(int attempt, String stage) {
@@ -15,30 +15,63 @@ import io.github.hide212131.langchain4j.claude.skills.runtime.guard.SkillInvocat
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillRuntime;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.WorkflowStateKeys;
 import io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan.PlanModels;
+import io.opentelemetry.context.Context;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
- * Minimal Act-stage invoker that executes planned skills sequentially via the {@link InvokeSkillTool}.
+ * Act-stage invoker that executes planned skills via the {@link InvokeSkillTool}.
+ * <p>
+ * By default skills run sequentially. When constructed with a parallelism greater than one and the
+ * plan declares independent steps ({@link PlanModels.PlanStep#dependsOn()}), the plan is executed as a
+ * DAG on virtual threads, at most that many skills at a time, so that wall-clock time approaches the
+ * critical path.
  */
 public final class DefaultInvoker {
 
     private final InvokeSkillTool invokeSkillTool;
     private final SkillInvocationGuard guard;
     private final WorkflowLogger logger;
+    private final int maxParallelism;
 
     public DefaultInvoker(
             InvokeSkillTool invokeSkillTool,
             SkillInvocationGuard guard,
             WorkflowLogger logger) {
+        this(invokeSkillTool, guard, logger, 1);
+    }
+
+    public DefaultInvoker(
+            InvokeSkillTool invokeSkillTool,
+            SkillInvocationGuard guard,
+            WorkflowLogger logger,
+            int maxParallelism) {
         this.invokeSkillTool = Objects.requireNonNull(invokeSkillTool, "invokeSkillTool");
         this.guard = Objects.requireNonNull(guard, "guard");
         this.logger = Objects.requireNonNull(logger, "logger");
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("maxParallelism must be at least 1");
+        }
+        this.maxParallelism = maxParallelism;
     }
 
     public ActResult invoke(AgenticScope scope, PlanModels.PlanResult plan) {
@@ -51,21 +84,29 @@ public final class DefaultInvoker {
         ActWindowState windowState = ActWindowState.initial(plan.goal(), orderedSkillIds);
         ActWindowState.STATE.write(scope, windowState);
 
-        // Create dynamic sequence of skill agents
-        List<Object> skillAgents = steps.stream()
-                .map(this::createSkillAgent)
-                .collect(Collectors.toList());
+        ActResult result;
+        List<PlanModels.PlanStep> executionOrder = maxParallelism > 1 && plan.hasIndependentSteps()
+                ? topologicalOrder(steps)
+                : null;
+        if (executionOrder != null) {
+            result = invokeAsDag(scope, plan, executionOrder);
+        } else {
+            // Create dynamic sequence of skill agents
+            List<Object> skillAgents = steps.stream()
+                    .map(this::createSkillAgent)
+                    .collect(Collectors.toList());
 
-        // Build dynamic sequence that executes all skills
-        UntypedAgent dynamicSequence = AgenticServices.sequenceBuilder()
-                .name("dynamic-skills-execution")
-                .subAgents(skillAgents.toArray())
-                .output(s -> assembleActResult(s, plan))
-                .build();
+            // Build dynamic sequence that executes all skills
+            UntypedAgent dynamicSequence = AgenticServices.sequenceBuilder()
+                    .name("dynamic-skills-execution")
+                    .subAgents(skillAgents.toArray())
+                    .output(s -> assembleActResult(s, plan))
+                    .build();
+
+            // Execute the dynamic sequence
+            result = (ActResult) dynamicSequence.invoke(Map.of("goal", plan.goal()));
+        }
 
-        // Execute the dynamic sequence
-        ActResult result = (ActResult) dynamicSequence.invoke(Map.of("goal", plan.goal()));
-        
         // Persist outputs back onto the parent AgenticScope for downstream stages
         result.outputs().forEach((skillId, output) ->
                 scope.writeState(ActState.outputKey(skillId), output));
@@ -90,31 +131,193 @@ public final class DefaultInvoker {
             guard.ensureAllowed(step.skillId());
             guard.checkBudgets(new BudgetSnapshot(1, Integer.MAX_VALUE));
 
-            ActCurrentStepState.STATE.write(agenticScope, new ActCurrentStepState(step.skillId(), step.name()));
-            ActInputBundleState.STATE.write(agenticScope, new ActInputBundleState(
-                    step.stepGoal(),
-                    step.skillId(),
-                    step.description(),
-                    step.keywords(),
-                    step.skillRoot()));
-
-            Map<String, Object> invocationInputs = Map.of(
-                    "goal", step.stepGoal(),
-                    "skillId", step.skillId(),
-                    "description", step.description(),
-                    "keywords", step.keywords(),
-                    "skillRoot", step.skillRoot().toString());
+            writeStepStarted(agenticScope, step);
 
-            SkillRuntime.ExecutionResult executionResult = invokeSkillTool.invoke(step.skillId(), invocationInputs);
-            Object outputValue = executionResult.outputs();
-
-            ActState.STATE.write(agenticScope, new ActState(step.skillId(), outputValue));
-            agenticScope.writeState(ActState.outputKey(step.skillId()), outputValue);
+            SkillRuntime.ExecutionResult executionResult =
+                    invokeSkillTool.invoke(step.skillId(), invocationInputs(step));
+            writeStepCompleted(agenticScope, step, executionResult);
 
             logger.info("Skill {} completed", step.skillId());
         });
     }
 
+    private static void writeStepStarted(AgenticScope scope, PlanModels.PlanStep step) {
+        ActCurrentStepState.STATE.write(scope, new ActCurrentStepState(step.skillId(), step.name()));
+        ActInputBundleState.STATE.write(scope, new ActInputBundleState(
+                step.stepGoal(),
+                step.skillId(),
+                step.description(),
+                step.keywords(),
+                step.skillRoot()));
+    }
+
+    private static void writeStepCompleted(
+            AgenticScope scope, PlanModels.PlanStep step, SkillRuntime.ExecutionResult executionResult) {
+        Object outputValue = executionResult.outputs();
+        ActState.STATE.write(scope, new ActState(step.skillId(), outputValue));
+        scope.writeState(ActState.outputKey(step.skillId()), outputValue);
+    }
+
+    private Map<String, Object> invocationInputs(PlanModels.PlanStep step) {
+        return Map.of(
+                "goal", step.stepGoal(),
+                "skillId", step.skillId(),
+                "description", step.description(),
+                "keywords", step.keywords(),
+                "skillRoot", step.skillRoot().toString());
+    }
+
+    /**
+     * Executes the plan as a DAG. Each step starts as soon as all of its dependencies have completed and
+     * receives the results of every dependency, in plan order. Steps run on virtual threads, at most
+     * {@code maxParallelism} at a time, and write the same step and output state as the sequential path;
+     * writes to the shared scope are serialised on the scope. The assembled {@link ActResult} follows plan
+     * order, so it does not depend on completion timing. The run fails fast: once a step fails, no further
+     * step starts, including those on independent branches; steps already running finish, and the first
+     * failure is rethrown.
+     */
+    private ActResult invokeAsDag(
+            AgenticScope scope, PlanModels.PlanResult plan, List<PlanModels.PlanStep> executionOrder) {
+        int parallelism = Math.min(maxParallelism, executionOrder.size());
+        logger.info("Act executing {} skills as DAG (parallelism={})", executionOrder.size(), parallelism);
+        Map<String, Integer> planOrder = new HashMap<>();
+        for (PlanModels.PlanStep step : plan.steps()) {
+            planOrder.put(step.skillId(), planOrder.size());
+        }
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+        Map<String, CompletableFuture<SkillRuntime.ExecutionResult>> futures = new HashMap<>();
+        try (ExecutorService executor = Context.current().wrap(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("act-dag-", 0).factory()))) {
+            for (PlanModels.PlanStep step : executionOrder) {
+                List<CompletableFuture<SkillRuntime.ExecutionResult>> dependencies = step.dependsOn().stream()
+                        .distinct()
+                        .sorted(Comparator.comparing(planOrder::get))
+                        .map(futures::get)
+                        .toList();
+                CompletableFuture<SkillRuntime.ExecutionResult> future = CompletableFuture
+                        .allOf(dependencies.toArray(CompletableFuture[]::new))
+                        .thenApplyAsync(ignored -> {
+                            List<SkillRuntime.ExecutionResult> previous = dependencies.stream()
+                                    .map(CompletableFuture::join)
+                                    .toList();
+                            permits.acquireUninterruptibly();
+                            try {
+                                if (firstFailure.get() != null) {
+                                    throw new CancellationException(
+                                            "Skipped " + step.skillId() + " after an earlier step failed");
+                                }
+                                return runStep(scope, step, previous);
+                            } catch (CancellationException ex) {
+                                throw ex;
+                            } catch (RuntimeException ex) {
+                                firstFailure.compareAndSet(null, ex);
+                                throw ex;
+                            } finally {
+                                permits.release();
+                            }
+                        }, executor);
+                futures.put(step.skillId(), future);
+            }
+
+            RuntimeException failure = null;
+            for (PlanModels.PlanStep step : plan.steps()) {
+                try {
+                    futures.get(step.skillId()).join();
+                } catch (CompletionException ex) {
+                    if (failure == null) {
+                        failure = unwrap(ex);
+                    }
+                } catch (CancellationException ex) {
+                    // Skipped after another step failed; that failure is reported instead.
+                }
+            }
+            if (firstFailure.get() != null) {
+                throw firstFailure.get();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return assembleActResult(scope, plan);
+    }
+
+    private SkillRuntime.ExecutionResult runStep(
+            AgenticScope scope, PlanModels.PlanStep step, List<SkillRuntime.ExecutionResult> previous) {
+        guard.ensureAllowed(step.skillId());
+        guard.checkBudgets(new BudgetSnapshot(1, Integer.MAX_VALUE));
+        synchronized (scope) {
+            writeStepStarted(scope, step);
+        }
+        SkillRuntime.ExecutionResult executionResult =
+                invokeSkillTool.invoke(step.skillId(), invocationInputs(step), previous);
+        synchronized (scope) {
+            writeStepCompleted(scope, step, executionResult);
+        }
+        logger.info("Skill {} completed", step.skillId());
+        return executionResult;
+    }
+
+    private RuntimeException unwrap(CompletionException ex) {
+        Throwable cause = ex.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return ex;
+    }
+
+    /**
+     * Orders steps so that every step follows its dependencies, preferring plan order among ready steps.
+     * Returns {@code null} when the dependencies reference unknown skills or contain a cycle, in which
+     * case the caller falls back to sequential execution.
+     */
+    private List<PlanModels.PlanStep> topologicalOrder(List<PlanModels.PlanStep> steps) {
+        Map<String, PlanModels.PlanStep> byId = new LinkedHashMap<>();
+        for (PlanModels.PlanStep step : steps) {
+            if (byId.putIfAbsent(step.skillId(), step) != null) {
+                logger.warn("Act DAG mode disabled: skill {} appears more than once in the plan", step.skillId());
+                return null;
+            }
+        }
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependants = new HashMap<>();
+        for (PlanModels.PlanStep step : steps) {
+            Set<String> dependencies = new LinkedHashSet<>(step.dependsOn());
+            for (String dependency : dependencies) {
+                if (!byId.containsKey(dependency) || dependency.equals(step.skillId())) {
+                    logger.warn(
+                            "Act DAG mode disabled: skill {} depends on unknown step {}", step.skillId(), dependency);
+                    return null;
+                }
+                dependants.computeIfAbsent(dependency, key -> new ArrayList<>()).add(step.skillId());
+            }
+            pending.put(step.skillId(), dependencies.size());
+        }
+        Deque<String> ready = new ArrayDeque<>();
+        byId.keySet().stream().filter(id -> pending.get(id) == 0).forEach(ready::add);
+        List<PlanModels.PlanStep> ordered = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            ordered.add(byId.get(id));
+            for (String dependant : dependants.getOrDefault(id, List.of())) {
+                if (pending.merge(dependant, -1, Integer::sum) == 0) {
+                    ready.add(dependant);
+                }
+            }
+        }
+        if (ordered.size() != steps.size()) {
+            logger.warn("Act DAG mode disabled: plan dependencies contain a cycle");
+            return null;
+        }
+        return ordered;
+    }
+
     /**
      * Assembles the final ActResult from the shared outputs collected during execution.
      * Each skill agent writes its output to the shared map, which is then used to build the result.
@@ -143,7 +346,7 @@ public final class DefaultInvoker {
             }
         }
 
-        return new ActResult(List.copyOf(invokedSkills), Map.copyOf(outputs), lastArtifact);
+        return new ActResult(List.copyOf(invokedSkills), Collections.unmodifiableMap(outputs), lastArtifact);
     }
 
     public ToolMetadata toolMetadata() {
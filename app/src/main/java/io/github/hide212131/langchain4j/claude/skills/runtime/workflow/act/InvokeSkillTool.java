@@ -47,4 +47,9 @@ public final class InvokeSkillTool {
             @P("skillId") String skillId, @P(value = "inputs", required = false) Map<String, Object> inputs) {
         return skillRuntime.execute(skillId, inputs);
     }
+
+    public SkillRuntime.ExecutionResult invoke(
+            String skillId, Map<String, Object> inputs, List<SkillRuntime.ExecutionResult> previousResults) {
+        return skillRuntime.execute(skillId, inputs, previousResults);
+    }
 }
@@ -5,8 +5,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.hide212131.langchain4j.claude.skills.infra.logging.WorkflowLogger;
 import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.PromptAssembler;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex.SkillMetadata;
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillSearchIndex;
 import io.opentelemetry.api.trace.Span;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -15,6 +17,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
@@ -23,17 +26,83 @@ import java.util.Comparator;
  */
 public final class AgenticPlanner {
 
-    private static final int MAX_PRESENTED_CANDIDATES = 100;
+    /**
+     * Catalogs up to this size are presented whole; larger ones are narrowed with the BM25 index. Matches the
+     * size the planner prompt has always carried; lower it with {@code SKILLS_PLAN_MAX_CANDIDATES}.
+     */
+    static final int DEFAULT_MAX_PRESENTED_CANDIDATES = 100;
+    private static final String PLANNER_INSTRUCTIONS = "You are an expert workflow planner. Given a user goal in "
+            + "Japanese or English, choose the minimal ordered list of skills required to satisfy it. "
+            + "Reply strictly as JSON with a root object containing `skill_steps`, an array where each "
+            + "element has `skill_id`, `goal` and `depends_on`. The goal must describe the artifact produced by the "
+            + "step and, when useful, how the skill will be used to create it. `depends_on` lists the "
+            + "`skill_id`s whose artifacts the step consumes; use an empty array when the step can run "
+            + "independently of the others. Do not ask the user for "
+            + "confirmation or next steps; simply proceed to the next milestone. "
+            + "Use only skill identifiers "
+            + "from the list below. Also include `skill_ids`, mirroring the identifiers in order for "
+            + "backward compatibility.\n\n"
+            + "JSON schema: {\"skill_steps\": [{\"skill_id\": \"id-1\", \"goal\": \"artifact description\", "
+            + "\"depends_on\": []}, {\"skill_id\": \"id-2\", \"goal\": \"artifact description\", "
+            + "\"depends_on\": [\"id-1\"]}], "
+            + "\"skill_ids\": [\"id-1\", \"id-2\"]}";
 
     private final SkillIndex skillIndex;
     private final LangChain4jLlmClient llmClient;
     private final WorkflowLogger logger;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Consumer<PlanModels.PlanStep> earlyStepListener;
+    private final PlanCache planCache;
+    private final int maxPresentedCandidates;
 
     public AgenticPlanner(SkillIndex skillIndex, LangChain4jLlmClient llmClient, WorkflowLogger logger) {
+        this(skillIndex, llmClient, logger, null);
+    }
+
+    /**
+     * @param earlyStepListener notified with each step as soon as it appears in the streamed response, before
+     *     the plan is complete (e.g. to prefetch the skill's references); its dependencies are not resolved
+     *     yet. May be {@code null}.
+     */
+    public AgenticPlanner(
+            SkillIndex skillIndex,
+            LangChain4jLlmClient llmClient,
+            WorkflowLogger logger,
+            Consumer<PlanModels.PlanStep> earlyStepListener) {
+        this(
+                skillIndex,
+                llmClient,
+                logger,
+                earlyStepListener,
+                PlanCache.fromEnvironment(System.getenv()),
+                maxCandidatesFromEnvironment(System.getenv()));
+    }
+
+    AgenticPlanner(
+            SkillIndex skillIndex,
+            LangChain4jLlmClient llmClient,
+            WorkflowLogger logger,
+            Consumer<PlanModels.PlanStep> earlyStepListener,
+            PlanCache planCache) {
+        this(skillIndex, llmClient, logger, earlyStepListener, planCache, DEFAULT_MAX_PRESENTED_CANDIDATES);
+    }
+
+    AgenticPlanner(
+            SkillIndex skillIndex,
+            LangChain4jLlmClient llmClient,
+            WorkflowLogger logger,
+            Consumer<PlanModels.PlanStep> earlyStepListener,
+            PlanCache planCache,
+            int maxPresentedCandidates) {
+        if (maxPresentedCandidates < 1) {
+            throw new IllegalArgumentException("maxPresentedCandidates must be at least 1");
+        }
+        this.maxPresentedCandidates = maxPresentedCandidates;
         this.skillIndex = Objects.requireNonNull(skillIndex, "skillIndex");
         this.llmClient = Objects.requireNonNull(llmClient, "llmClient");
         this.logger = Objects.requireNonNull(logger, "logger");
+        this.earlyStepListener = earlyStepListener;
+        this.planCache = planCache;
     }
 
     public PlanModels.PlanResult plan(String goal) {
@@ -50,19 +119,30 @@ public final class AgenticPlanner {
                 .map(this::toPlanStep)
                 .toList();
 
-        List<PlanModels.PlanStep> presentedCandidates = candidates.stream()
-                .limit(MAX_PRESENTED_CANDIDATES)
-                .toList();
-
         if (normalisedGoal.isBlank()) {
             logger.warn("Agentic planner received blank goal; returning empty plan");
             return PlanModels.empty(normalisedGoal, "No skills selected");
         }
 
+        PlanModels.PlanResult cached = cachedPlan(normalisedGoal);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<PlanModels.PlanStep> presentedCandidates = presentCandidates(normalisedGoal, allSkills);
+
+        Map<String, PlanModels.PlanStep> stepById = candidates.stream()
+                .collect(Collectors.toMap(PlanModels.PlanStep::skillId, step -> step, (a, b) -> a));
         String prompt = buildPrompt(normalisedGoal, presentedCandidates);
         LangChain4jLlmClient.CompletionResult completion;
         try {
-            completion = llmClient.complete(prompt);
+            Set<String> presentedIds = presentedCandidates.stream()
+                    .map(PlanModels.PlanStep::skillId)
+                    .collect(Collectors.toSet());
+            Set<String> announced = new LinkedHashSet<>();
+            IncrementalPlanJsonParser parser = new IncrementalPlanJsonParser(
+                    objectMapper, node -> announceStep(toOrderedStep(node), presentedIds, stepById, announced));
+            completion = llmClient.completeStreaming(prompt, parser::accept);
         } catch (RuntimeException ex) {
             logger.warn("Agentic planner call failed: {}", ex.getMessage());
             return PlanModels.empty(normalisedGoal, "No skills selected");
@@ -77,10 +157,12 @@ public final class AgenticPlanner {
             return PlanModels.empty(normalisedGoal, "No skills selected");
         }
 
-        Map<String, PlanModels.PlanStep> stepById = candidates.stream()
-                .collect(Collectors.toMap(PlanModels.PlanStep::skillId, step -> step, (a, b) -> a));
         List<PlanModels.PlanStep> selectedSteps = new ArrayList<>();
         List<String> orderedSkillIds = new ArrayList<>();
+        Set<String> selectedIds = orderedSteps.stream()
+                .map(OrderedStep::skillId)
+                .filter(stepById::containsKey)
+                .collect(Collectors.toSet());
 
         for (OrderedStep orderedStep : orderedSteps) {
             PlanModels.PlanStep metadata = stepById.get(orderedStep.skillId());
@@ -93,7 +175,8 @@ public final class AgenticPlanner {
                     metadata.description(),
                     metadata.keywords(),
                     normaliseStepGoal(orderedStep.stepGoal()),
-                    metadata.skillRoot());
+                    metadata.skillRoot(),
+                    resolveDependsOn(orderedStep, orderedSkillIds, selectedIds));
             selectedSteps.add(resolved);
             orderedSkillIds.add(resolved.skillId());
         }
@@ -105,7 +188,47 @@ public final class AgenticPlanner {
 
         String summary = summarize(selectedSteps);
         logger.info("Agentic planner selected skills {}", orderedSkillIds);
-        return new PlanModels.PlanResult(normalisedGoal, selectedSteps, summary);
+        PlanModels.PlanResult result = new PlanModels.PlanResult(normalisedGoal, selectedSteps, summary);
+        if (planCache != null) {
+            planCache.store(normalisedGoal, result, skillIndex);
+        }
+        return result;
+    }
+
+    /**
+     * Serves a plan from the plan cache, if configured. Early-step listeners still see every step so reference
+     * prefetching behaves as on a planned run. Fuzzy hits carry step goals rebuilt from the new goal, so their
+     * summary is rebuilt here as well.
+     */
+    private PlanModels.PlanResult cachedPlan(String goal) {
+        if (planCache == null) {
+            return null;
+        }
+        PlanCache.Hit hit = planCache.lookup(goal, skillIndex);
+        Span span = Span.current();
+        span.setAttribute("plan.cache", hit == null ? "miss" : hit.exact() ? "exact" : "fuzzy");
+        if (hit == null) {
+            return null;
+        }
+        span.setAttribute("plan.cache.similarity", hit.similarity());
+        PlanModels.PlanResult plan = hit.exact()
+                ? hit.plan()
+                : new PlanModels.PlanResult(hit.plan().goal(), hit.plan().steps(), summarize(hit.plan().steps()));
+        logger.info(
+                "Agentic planner reused cached plan {} ({} match, similarity {})",
+                plan.orderedSkillIds(),
+                hit.exact() ? "exact" : "fuzzy",
+                String.format(Locale.ROOT, "%.2f", hit.similarity()));
+        if (earlyStepListener != null) {
+            for (PlanModels.PlanStep step : plan.steps()) {
+                try {
+                    earlyStepListener.accept(step);
+                } catch (RuntimeException ex) {
+                    logger.debug("Early plan step listener failed for {}: {}", step.skillId(), ex.getMessage());
+                }
+            }
+        }
+        return plan;
     }
 
     public PlanModels.PlanResult planWithFixedOrder(String goal, List<String> requestedSkillIds) {
@@ -141,7 +264,11 @@ public final class AgenticPlanner {
                 missing.add(id);
                 continue;
             }
-            steps.add(toPlanStep(metadata));
+            // Forced sequences keep their strict order, so every step waits for its predecessor.
+            List<String> dependsOn = steps.isEmpty()
+                    ? List.of()
+                    : List.of(steps.get(steps.size() - 1).skillId());
+            steps.add(toPlanStep(metadata).withDependsOn(dependsOn));
         }
 
         if (steps.isEmpty()) {
@@ -167,6 +294,82 @@ public final class AgenticPlanner {
         return new PlanModels.PlanResult(normalisedGoal, steps, summary);
     }
 
+    /** Materialises a streamed step and hands it to the early-step listener once per skill. */
+    private void announceStep(
+            OrderedStep orderedStep,
+            Set<String> presentedIds,
+            Map<String, PlanModels.PlanStep> stepById,
+            Set<String> announced) {
+        if (earlyStepListener == null || orderedStep == null) {
+            return;
+        }
+        String skillId = orderedStep.skillId().trim();
+        PlanModels.PlanStep metadata = stepById.get(skillId);
+        if (metadata == null || !presentedIds.contains(skillId) || !announced.add(skillId)) {
+            return;
+        }
+        PlanModels.PlanStep step = new PlanModels.PlanStep(
+                metadata.skillId(),
+                metadata.name(),
+                metadata.description(),
+                metadata.keywords(),
+                normaliseStepGoal(orderedStep.stepGoal()),
+                metadata.skillRoot());
+        try {
+            earlyStepListener.accept(step);
+        } catch (RuntimeException ex) {
+            logger.debug("Early plan step listener failed for {}: {}", skillId, ex.getMessage());
+        }
+    }
+
+    static int maxCandidatesFromEnvironment(Map<String, String> environment) {
+        String raw = environment.get("SKILLS_PLAN_MAX_CANDIDATES");
+        if (raw == null || raw.isBlank()) {
+            return DEFAULT_MAX_PRESENTED_CANDIDATES;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("SKILLS_PLAN_MAX_CANDIDATES must be a positive integer", ex);
+        }
+        if (value <= 0) {
+            throw new IllegalStateException("SKILLS_PLAN_MAX_CANDIDATES must be greater than zero");
+        }
+        return value;
+    }
+
+    /**
+     * Picks the skills shown to the LLM: the whole catalog when it is small, otherwise the best BM25 matches for
+     * the goal, topped up in id order when fewer than {@code maxPresentedCandidates} skills match so a goal
+     * with little lexical overlap still gets a usable list.
+     */
+    private List<PlanModels.PlanStep> presentCandidates(String goal, List<SkillMetadata> allSkills) {
+        if (allSkills.size() <= maxPresentedCandidates) {
+            return allSkills.stream().map(this::toPlanStep).toList();
+        }
+        LinkedHashSet<SkillMetadata> chosen = new LinkedHashSet<>();
+        for (SkillSearchIndex.Hit hit : skillIndex.search(goal, maxPresentedCandidates)) {
+            chosen.add(hit.skill());
+        }
+        int matched = chosen.size();
+        for (SkillMetadata skill : allSkills) {
+            if (chosen.size() >= maxPresentedCandidates) {
+                break;
+            }
+            chosen.add(skill);
+        }
+        logger.debug(
+                "Agentic planner presenting {} of {} skills ({} lexical matches)",
+                chosen.size(),
+                allSkills.size(),
+                matched);
+        Span span = Span.current();
+        span.setAttribute("plan.candidates.total", allSkills.size());
+        span.setAttribute("plan.candidates.matched", matched);
+        return chosen.stream().map(this::toPlanStep).toList();
+    }
+
     private PlanModels.PlanStep toPlanStep(SkillMetadata metadata) {
         return new PlanModels.PlanStep(
                 metadata.id(),
@@ -177,6 +380,35 @@ public final class AgenticPlanner {
                 metadata.skillRoot());
     }
 
+    /**
+     * Resolves the dependencies of a planned step. When the LLM omitted {@code depends_on} the step
+     * waits for its predecessor so that the plan keeps the historical sequential semantics.
+     */
+    private List<String> resolveDependsOn(
+            OrderedStep orderedStep, List<String> precedingSkillIds, Set<String> selectedIds) {
+        if (orderedStep.dependsOn() == null) {
+            return precedingSkillIds.isEmpty()
+                    ? List.of()
+                    : List.of(precedingSkillIds.get(precedingSkillIds.size() - 1));
+        }
+        LinkedHashSet<String> resolved = new LinkedHashSet<>();
+        for (String dependency : orderedStep.dependsOn()) {
+            String trimmed = dependency == null ? "" : dependency.trim();
+            if (trimmed.isEmpty() || trimmed.equals(orderedStep.skillId())) {
+                continue;
+            }
+            if (!selectedIds.contains(trimmed)) {
+                logger.warn(
+                        "Agentic planner ignored dependency '{}' of '{}' because it is not part of the plan",
+                        trimmed,
+                        orderedStep.skillId());
+                continue;
+            }
+            resolved.add(trimmed);
+        }
+        return List.copyOf(resolved);
+    }
+
     private String buildPrompt(String goal, List<PlanModels.PlanStep> candidates) {
         String candidateBlock = candidates.stream()
                 .map(step -> String.format(
@@ -187,20 +419,13 @@ public final class AgenticPlanner {
                         step.keywords().isEmpty() ? "[]" : step.keywords()))
                 .collect(Collectors.joining("\n\n"));
 
-        return "You are an expert workflow planner. Given a user goal in Japanese "
-                + "or English, choose the minimal ordered list of skills required to satisfy it. "
-                + "Reply strictly as JSON with a root object containing `skill_steps`, an array where each "
-                + "element has `skill_id` and `goal`. The goal must describe the artifact produced by the "
-                + "step and, when useful, how the skill will be used to create it. Do not ask the user for "
-                + "confirmation or next steps; simply proceed to the next milestone. "
-                + "Use only skill identifiers "
-                + "from the list below. Also include `skill_ids`, mirroring the identifiers in order for "
-                + "backward compatibility." + "\n\n"
-                + "Goal: " + goal + "\n\n"
-                + "Available skills (top candidates):\n"
-                + candidateBlock + "\n\n"
-                + "JSON schema: {\"skill_steps\": [{\"skill_id\": \"id-1\", \"goal\": \"artifact description\"}], "
-                + "\"skill_ids\": [\"id-1\", \"id-2\"]}";
+        // Fixed instructions first and the goal last, so repeated plans share the longest possible prefix.
+        return new PromptAssembler()
+                .add(PromptAssembler.Layer.STATIC_POLICY, PLANNER_INSTRUCTIONS)
+                .add(PromptAssembler.Layer.SKILL_INSTRUCTIONS,
+                        "Available skills (top candidates):\n" + candidateBlock)
+                .add(PromptAssembler.Layer.RUN_VARIABLES, "Goal: " + goal)
+                .render();
     }
 
     private List<OrderedStep> extractOrderedSteps(
@@ -267,7 +492,7 @@ public final class AgenticPlanner {
             return nested;
         }
         if (node.isTextual()) {
-            return List.of(new OrderedStep(node.asText(), ""));
+            return List.of(new OrderedStep(node.asText(), "", null));
         }
         return List.of();
     }
@@ -278,7 +503,28 @@ public final class AgenticPlanner {
             return null;
         }
         String goal = textValue(node, "goal", "step_goal", "stepGoal");
-        return new OrderedStep(id, goal == null ? "" : goal);
+        return new OrderedStep(id, goal == null ? "" : goal, textValues(node, "depends_on", "dependsOn"));
+    }
+
+    private List<String> textValues(JsonNode node, String... candidates) {
+        for (String field : candidates) {
+            JsonNode child = node.get(field);
+            if (child == null || child.isNull()) {
+                continue;
+            }
+            List<String> values = new ArrayList<>();
+            if (child.isArray()) {
+                for (JsonNode element : child) {
+                    if (element.isTextual()) {
+                        values.add(element.asText());
+                    }
+                }
+            } else if (child.isTextual() && !child.asText().isBlank()) {
+                values.add(child.asText());
+            }
+            return values;
+        }
+        return null;
     }
 
     private String textValue(JsonNode node, String... candidates) {
@@ -311,7 +557,7 @@ public final class AgenticPlanner {
             }
             String trimmed = step.skillId().trim();
             if (!trimmed.isEmpty() && validIds.contains(trimmed) && seen.add(trimmed)) {
-                filtered.add(new OrderedStep(trimmed, normaliseStepGoal(step.stepGoal())));
+                filtered.add(new OrderedStep(trimmed, normaliseStepGoal(step.stepGoal()), step.dependsOn()));
             }
         }
         return filtered;
@@ -332,7 +578,7 @@ public final class AgenticPlanner {
         return matches.stream()
                 .map(Match::id)
                 .distinct()
-                .map(id -> new OrderedStep(id, ""))
+                .map(id -> new OrderedStep(id, "", null))
                 .toList();
     }
 
@@ -369,7 +615,11 @@ public final class AgenticPlanner {
         return goal == null ? "" : goal.trim();
     }
 
-    private record OrderedStep(String skillId, String stepGoal) {}
+    /**
+     * Step as returned by the LLM. {@code dependsOn} is {@code null} when the response did not declare
+     * dependencies at all, which is distinct from an explicit empty list.
+     */
+    private record OrderedStep(String skillId, String stepGoal, List<String> dependsOn) {}
 
     private void recordPlanTelemetry(String prompt, LangChain4jLlmClient.CompletionResult completion) {
         Span span = Span.current();
@@ -382,6 +632,9 @@ public final class AgenticPlanner {
         if (completion != null && completion.content() != null) {
             span.setAttribute("plan.llm.response", completion.content());
             span.setAttribute("plan.llm.durationMs", completion.durationMs());
+            if (completion.timeToFirstTokenMs() != null) {
+                span.setAttribute("plan.llm.ttftMs", completion.timeToFirstTokenMs());
+            }
             if (completion.tokenUsage() != null) {
                 if (completion.tokenUsage().inputTokenCount() != null) {
                     span.setAttribute("plan.llm.inputTokens", completion.tokenUsage().inputTokenCount());
@@ -392,6 +645,10 @@ public final class AgenticPlanner {
                 if (completion.tokenUsage().totalTokenCount() != null) {
                     span.setAttribute("plan.llm.totalTokens", completion.tokenUsage().totalTokenCount());
                 }
+                Integer cachedTokens = LangChain4jLlmClient.cachedInputTokens(completion.tokenUsage());
+                if (cachedTokens != null) {
+                    span.setAttribute("plan.llm.cachedTokens", cachedTokens);
+                }
             }
         }
     }
@@ -0,0 +1,111 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Scans a planner response as it streams in and hands over each element of the root {@code skill_steps} array
+ * as soon as its closing brace arrives, so the planner can resolve skills before the completion finishes.
+ * Text before the first {@code {}} (e.g. a Markdown fence) is ignored; the full response is still parsed
+ * normally once complete.
+ */
+final class IncrementalPlanJsonParser {
+
+    private static final String STEPS_FIELD = "skill_steps";
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<JsonNode> onStep;
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder containers = new StringBuilder();
+    private int scanned;
+    private boolean inString;
+    private boolean escaped;
+    private int stringStart = -1;
+    private String lastRootString;
+    private String currentRootKey;
+    private int elementStart = -1;
+    private boolean finished;
+
+    IncrementalPlanJsonParser(ObjectMapper objectMapper, Consumer<JsonNode> onStep) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.onStep = Objects.requireNonNull(onStep, "onStep");
+    }
+
+    void accept(String chunk) {
+        if (chunk == null || chunk.isEmpty() || finished) {
+            return;
+        }
+        text.append(chunk);
+        for (; scanned < text.length() && !finished; scanned++) {
+            scan(text.charAt(scanned), scanned);
+        }
+    }
+
+    private void scan(char c, int index) {
+        if (containers.isEmpty()) {
+            if (c == '{') {
+                containers.append(c);
+            }
+            return;
+        }
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (containers.length() == 1) {
+                    lastRootString = text.substring(stringStart + 1, index);
+                }
+            }
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                stringStart = index;
+            }
+            case ':' -> {
+                if (containers.length() == 1) {
+                    currentRootKey = lastRootString;
+                }
+            }
+            case '{', '[' -> {
+                containers.append(c);
+                if (c == '{' && isStepElementDepth() && STEPS_FIELD.equals(currentRootKey)) {
+                    elementStart = index;
+                }
+            }
+            case '}', ']' -> {
+                if (c == '}' && elementStart >= 0 && isStepElementDepth()) {
+                    emit(text.substring(elementStart, index + 1));
+                    elementStart = -1;
+                }
+                containers.setLength(containers.length() - 1);
+                if (containers.isEmpty()) {
+                    finished = true;
+                }
+            }
+            default -> {
+                // Whitespace, commas and scalars need no tracking.
+            }
+        }
+    }
+
+    /** Root object, then the steps array, then the step object. */
+    private boolean isStepElementDepth() {
+        return containers.length() == 3 && containers.charAt(1) == '[' && containers.charAt(2) == '{';
+    }
+
+    private void emit(String json) {
+        try {
+            onStep.accept(objectMapper.readTree(json));
+        } catch (JsonProcessingException ex) {
+            // Malformed fragments are left to the final parse of the complete response.
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex.SkillMetadata;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Opt-in cache of planner results, keyed by the normalised goal and {@link SkillIndex#version()}. Any change to
+ * the skill catalog's metadata produces a new version, so plans made against the old catalog are never served
+ * and their file is dropped on the next store. Besides exact hits, goals whose character trigram sets reach a
+ * configurable Dice similarity can reuse a stored plan. Steps are rebuilt from the current metadata on a hit;
+ * only skill ids, step goals and dependencies are stored, in {@code <directory>/<index version>.json}. A fuzzy
+ * hit reuses only the skill selection, order and dependencies: step goals and the summary were written for a
+ * different request, so every step is pointed at the new goal and the summary is left empty for the caller.
+ */
+final class PlanCache {
+
+    static final int FORMAT_VERSION = 1;
+    static final int MAX_ENTRIES = 256;
+    static final Path DEFAULT_DIRECTORY = Path.of("build", "plan-cache");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s.。!?！？]+$");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+    private final double similarityThreshold;
+    private final Clock clock;
+    private String loadedVersion;
+    private Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * @param similarityThreshold minimum trigram similarity in {@code (0, 1]} for a fuzzy hit, or {@code 0}
+     *     for exact matches only
+     */
+    PlanCache(Path directory, double similarityThreshold, Clock clock) {
+        this.directory = Objects.requireNonNull(directory, "directory").toAbsolutePath().normalize();
+        if (similarityThreshold < 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("similarityThreshold must be between 0 and 1");
+        }
+        this.similarityThreshold = similarityThreshold;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Returns a cache when {@code SKILLS_PLAN_CACHE=true}, otherwise {@code null}. {@code SKILLS_PLAN_CACHE_DIR}
+     * moves the store and {@code SKILLS_PLAN_CACHE_SIMILARITY} enables fuzzy hits.
+     */
+    static PlanCache fromEnvironment(Map<String, String> environment) {
+        String enabled = environment.get("SKILLS_PLAN_CACHE");
+        if (enabled == null || enabled.isBlank()) {
+            return null;
+        }
+        String normalised = enabled.trim().toLowerCase(Locale.ROOT);
+        if (!normalised.equals("true") && !normalised.equals("false")) {
+            throw new IllegalStateException("SKILLS_PLAN_CACHE must be true or false");
+        }
+        if (normalised.equals("false")) {
+            return null;
+        }
+        String directory = environment.get("SKILLS_PLAN_CACHE_DIR");
+        double threshold = 0;
+        String similarity = environment.get("SKILLS_PLAN_CACHE_SIMILARITY");
+        if (similarity != null && !similarity.isBlank()) {
+            try {
+                threshold = Double.parseDouble(similarity.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalStateException("SKILLS_PLAN_CACHE_SIMILARITY must be a number in (0, 1]", ex);
+            }
+            if (!(threshold > 0 && threshold <= 1)) {
+                throw new IllegalStateException("SKILLS_PLAN_CACHE_SIMILARITY must be a number in (0, 1]");
+            }
+        }
+        return new PlanCache(
+                directory == null || directory.isBlank() ? DEFAULT_DIRECTORY : Path.of(directory.trim()),
+                threshold,
+                Clock.systemUTC());
+    }
+
+    /** Returns the cached plan for {@code goal}, or {@code null} on a miss. */
+    synchronized Hit lookup(String goal, SkillIndex skillIndex) {
+        String key = normaliseGoal(goal);
+        if (key.isEmpty()) {
+            return null;
+        }
+        ensureLoaded(skillIndex.version());
+        Entry exact = entries.get(key);
+        if (exact != null) {
+            return materialise(exact, goal, skillIndex, true, 1.0);
+        }
+        if (similarityThreshold <= 0) {
+            return null;
+        }
+        Set<String> grams = trigrams(key);
+        Entry best = null;
+        double bestScore = 0;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            double score = similarity(grams, trigrams(candidate.getKey()));
+            if (score > bestScore) {
+                best = candidate.getValue();
+                bestScore = score;
+            }
+        }
+        return best != null && bestScore >= similarityThreshold
+                ? materialise(best, goal, skillIndex, false, bestScore)
+                : null;
+    }
+
+    /** Stores a non-empty plan. I/O failures are ignored; the next run simply plans again. */
+    synchronized void store(String goal, PlanModels.PlanResult plan, SkillIndex skillIndex) {
+        String key = normaliseGoal(goal);
+        if (key.isEmpty() || plan.steps().isEmpty()) {
+            return;
+        }
+        ensureLoaded(skillIndex.version());
+        List<CachedStep> steps = new ArrayList<>();
+        for (PlanModels.PlanStep step : plan.steps()) {
+            steps.add(new CachedStep(step.skillId(), step.stepGoal(), step.dependsOn()));
+        }
+        entries.remove(key);
+        entries.put(key, new Entry(steps, plan.systemPromptSummary(), clock.millis()));
+        while (entries.size() > MAX_ENTRIES) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+        persist(skillIndex.version());
+    }
+
+    record Hit(PlanModels.PlanResult plan, boolean exact, double similarity) {}
+
+    /** NFKC, lower case, single spaces and no trailing sentence punctuation. */
+    static String normaliseGoal(String goal) {
+        if (goal == null) {
+            return "";
+        }
+        String normalised = Normalizer.normalize(goal, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalised = WHITESPACE.matcher(normalised.strip()).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(normalised).replaceAll("");
+    }
+
+    /** Dice coefficient of the two trigram sets. */
+    static double similarity(Set<String> left, Set<String> right) {
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String gram : left) {
+            if (right.contains(gram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (left.size() + right.size());
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        int[] codePoints = (" " + text + " ").codePoints().toArray();
+        for (int i = 0; i + 3 <= codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 3));
+        }
+        return grams;
+    }
+
+    private Hit materialise(Entry entry, String goal, SkillIndex skillIndex, boolean exact, double similarity) {
+        List<PlanModels.PlanStep> steps = new ArrayList<>();
+        for (CachedStep cached : entry.steps()) {
+            SkillMetadata metadata = skillIndex.skills().get(cached.skillId());
+            if (metadata == null) {
+                return null;
+            }
+            steps.add(new PlanModels.PlanStep(
+                    metadata.id(),
+                    metadata.name(),
+                    metadata.description(),
+                    metadata.keywords(),
+                    exact ? (cached.stepGoal() == null ? "" : cached.stepGoal()) : goal,
+                    metadata.skillRoot(),
+                    cached.dependsOn()));
+        }
+        String summary = !exact || entry.summary() == null ? "" : entry.summary();
+        return new Hit(new PlanModels.PlanResult(goal, steps, summary), exact, similarity);
+    }
+
+    private void ensureLoaded(String version) {
+        if (version.equals(loadedVersion)) {
+            return;
+        }
+        loadedVersion = version;
+        entries = new LinkedHashMap<>();
+        Path file = directory.resolve(version + ".json");
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            CacheFile stored = OBJECT_MAPPER.readValue(file.toFile(), CacheFile.class);
+            if (stored.version() == FORMAT_VERSION && stored.entries() != null) {
+                entries.putAll(stored.entries());
+            }
+        } catch (IOException | RuntimeException e) {
+            // A corrupt file only costs a planner call; it is rewritten on the next store.
+        }
+    }
+
+    private void persist(String version) {
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(version + ".json");
+            Path temp = Files.createTempFile(directory, version, ".tmp");
+            OBJECT_MAPPER.writeValue(temp.toFile(), new CacheFile(FORMAT_VERSION, entries));
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            // Plans for other catalog versions can never be served again.
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*.json")) {
+                for (Path file : stale) {
+                    if (!file.equals(target)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Best effort, like the execution result cache.
+        }
+    }
+
+    record CacheFile(int version, Map<String, Entry> entries) {}
+
+    record Entry(List<CachedStep> steps, String summary, long storedAtMillis) {}
+
+    record CachedStep(String skillId, String stepGoal, List<String> dependsOn) {}
+}
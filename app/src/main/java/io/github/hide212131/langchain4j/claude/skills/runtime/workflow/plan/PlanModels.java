@@ -23,6 +23,20 @@ public final class PlanModels {
         public List<String> orderedSkillIds() {
             return steps.stream().map(PlanStep::skillId).collect(Collectors.toList());
         }
+
+        /**
+         * Returns {@code true} when at least one step does not depend on its immediate predecessor,
+         * i.e. the plan is not a plain chain and can benefit from concurrent execution.
+         */
+        public boolean hasIndependentSteps() {
+            for (int i = 1; i < steps.size(); i++) {
+                List<String> dependsOn = steps.get(i).dependsOn();
+                if (dependsOn.size() != 1 || !dependsOn.get(0).equals(steps.get(i - 1).skillId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     public record PlanStep(
@@ -31,7 +45,8 @@ public final class PlanModels {
             String description,
             List<String> keywords,
             String stepGoal,
-            Path skillRoot) {
+            Path skillRoot,
+            List<String> dependsOn) {
         public PlanStep {
             Objects.requireNonNull(skillId, "skillId");
             Objects.requireNonNull(name, "name");
@@ -39,6 +54,21 @@ public final class PlanModels {
             Objects.requireNonNull(keywords, "keywords");
             Objects.requireNonNull(stepGoal, "stepGoal");
             Objects.requireNonNull(skillRoot, "skillRoot");
+            dependsOn = dependsOn == null ? List.of() : List.copyOf(dependsOn);
+        }
+
+        public PlanStep(
+                String skillId,
+                String name,
+                String description,
+                List<String> keywords,
+                String stepGoal,
+                Path skillRoot) {
+            this(skillId, name, description, keywords, stepGoal, skillRoot, List.of());
+        }
+
+        public PlanStep withDependsOn(List<String> dependencies) {
+            return new PlanStep(skillId, name, description, keywords, stepGoal, skillRoot, dependencies);
         }
     }
 }
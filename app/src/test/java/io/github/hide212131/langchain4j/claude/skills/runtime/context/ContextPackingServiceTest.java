@@ -0,0 +1,112 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.hide212131.langchain4j.claude.skills.runtime.context.ContextPackingService.Disclosure;
+import io.github.hide212131.langchain4j.claude.skills.runtime.context.ContextPackingService.Level;
+import io.github.hide212131.langchain4j.claude.skills.runtime.context.ContextPackingService.Outcome;
+import io.github.hide212131.langchain4j.claude.skills.runtime.context.ContextPackingService.PackResult;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ContextPackingServiceTest {
+
+    private static final String SKILL_MD = """
+            ---
+            name: brand-guidelines
+            ---
+            # Brand guidelines
+            Use the corporate palette.
+            Details about every colour.
+            ## Typography
+            Headings use the display face.
+            """.repeat(40);
+
+    private final ContextPackingService packer = new ContextPackingService();
+
+    @Test
+    void packShouldKeepEverythingWithinBudget() {
+        List<Disclosure> disclosures = List.of(
+                new Disclosure(Level.L1, "metadata", "brand-guidelines: palette", 0, 0),
+                new Disclosure(Level.L2, "SKILL.md", SKILL_MD, 0, 0));
+
+        PackResult result = packer.pack(disclosures, 100_000);
+
+        assertThat(result.degraded()).isFalse();
+        assertThat(result.contents()).containsExactly("brand-guidelines: palette", SKILL_MD);
+        assertThat(result.packedTokens())
+                .isEqualTo(ContextPackingService.estimateTokens("brand-guidelines: palette")
+                        + ContextPackingService.estimateTokens(SKILL_MD));
+    }
+
+    @Test
+    void packShouldDegradeOlderReferencesBeforeNewerOnesAndKeepInputOrder() {
+        List<Disclosure> disclosures = List.of(
+                new Disclosure(Level.L2, "SKILL.md", SKILL_MD, 0, 0),
+                new Disclosure(Level.L3, "old.md", "o".repeat(2_000), 0, 1),
+                new Disclosure(Level.L3, "new.md", "n".repeat(2_000), 0, 2));
+        int skillTokens = ContextPackingService.estimateTokens(SKILL_MD);
+
+        PackResult result = packer.pack(disclosures, skillTokens + 500 + 20);
+
+        assertThat(result.disclosures()).extracting(packed -> packed.disclosure().source())
+                .containsExactly("SKILL.md", "old.md", "new.md");
+        assertThat(result.find("SKILL.md").outcome()).isEqualTo(Outcome.KEPT);
+        assertThat(result.find("new.md").outcome()).isEqualTo(Outcome.KEPT);
+        assertThat(result.find("old.md").outcome()).isEqualTo(Outcome.DROPPED);
+        assertThat(result.packedTokens()).isLessThanOrEqualTo(result.budgetTokens());
+        assertThat(result.droppedTokens()).isEqualTo(500);
+    }
+
+    @Test
+    void packShouldPreferPriorityOverLevelAndSummariseBeforeDropping() {
+        List<Disclosure> disclosures = List.of(
+                new Disclosure(Level.L2, "SKILL.md", SKILL_MD, 0, 0),
+                new Disclosure(Level.L3, "pinned.md", "p".repeat(400), 5, 0));
+
+        PackResult result = packer.pack(disclosures, 100 + ContextPackingService.SUMMARY_TOKENS);
+
+        assertThat(result.find("pinned.md").outcome()).isEqualTo(Outcome.KEPT);
+        assertThat(result.find("SKILL.md").outcome()).isEqualTo(Outcome.SUMMARISED);
+        assertThat(result.find("SKILL.md").content())
+                .startsWith("---\nname: brand-guidelines\n---\n# Brand guidelines\nUse the corporate palette.")
+                .doesNotContain("Details about every colour.");
+        assertThat(result.packedTokens()).isLessThanOrEqualTo(result.budgetTokens());
+    }
+
+    @Test
+    void packShouldTruncateTheMostValuableDisclosureWhenNothingElseFits() {
+        PackResult result = packer.pack(
+                List.of(new Disclosure(Level.L2, "SKILL.md", SKILL_MD, 0, 0)), 120);
+
+        assertThat(result.find("SKILL.md").outcome()).isEqualTo(Outcome.TRUNCATED);
+        assertThat(result.find("SKILL.md").content()).contains("[truncated: 120 of");
+        assertThat(result.packedTokens()).isLessThanOrEqualTo(120);
+        assertThat(result.droppedTokens())
+                .isEqualTo(ContextPackingService.estimateTokens(SKILL_MD) - result.packedTokens());
+    }
+
+    @Test
+    void fromEnvironmentShouldResolvePerModelBudgets() {
+        ContextPackingService configured = ContextPackingService.fromEnvironment(Map.of(
+                "SKILLS_CONTEXT_BUDGET_TOKENS", "8000",
+                "SKILLS_CONTEXT_MODEL_BUDGETS", "gpt-5-mini=4000, gpt-5=32000"));
+
+        assertThat(ContextPackingService.fromEnvironment(Map.of()).budgetFor("gpt-5"))
+                .isEqualTo(ContextPackingService.DEFAULT_BUDGET_TOKENS);
+        assertThat(configured.budgetFor("gpt-5-mini")).isEqualTo(4000);
+        assertThat(configured.budgetFor("gpt-5")).isEqualTo(32000);
+        assertThat(configured.budgetFor("other")).isEqualTo(8000);
+        assertThat(configured.budgetFor(null)).isEqualTo(8000);
+        assertThatThrownBy(() -> ContextPackingService.fromEnvironment(
+                        Map.of("SKILLS_CONTEXT_MODEL_BUDGETS", "gpt-5")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_CONTEXT_MODEL_BUDGETS");
+        assertThatThrownBy(() -> ContextPackingService.fromEnvironment(
+                        Map.of("SKILLS_CONTEXT_BUDGET_TOKENS", "0")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_CONTEXT_BUDGET_TOKENS");
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.exception.TimeoutException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+    @Test
+    void aimdLimiterShouldHalveOnOverloadAndRecoverGradually() throws Exception {
+        AdmissionController.AimdLimiter limiter = new AdmissionController.AimdLimiter(8);
+
+        limiter.acquire();
+        limiter.release(true);
+        limiter.acquire();
+        limiter.release(true);
+        int afterOverload = limiter.limit();
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+            limiter.release(false);
+        }
+
+        assertThat(afterOverload).isEqualTo(2);
+        assertThat(limiter.limit()).isEqualTo(3);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void tokenBucketShouldRefillContinuously() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AdmissionController.TokenBucket bucket = new AdmissionController.TokenBucket(60, now.get());
+
+        boolean waited = bucket.take(60, now::get);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(waited).isFalse();
+        assertThat(bucket.level(now.get())).isEqualTo(30.0);
+        assertThat(bucket.nanosUntil(45)).isEqualTo(TimeUnit.SECONDS.toNanos(15));
+        bucket.adjust(40);
+        assertThat(bucket.level(now.get())).isEqualTo(-10.0);
+    }
+
+    @Test
+    void acquireShouldQueueWhenConcurrencyIsExhausted() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 0, 0);
+        AdmissionController.Permit first = controller.acquire("gpt-5-mini", 10);
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                controller.acquire("gpt-5-mini", 10).succeeded(10);
+                admitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(admitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        first.succeeded(10);
+        assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+
+        AdmissionController.ModelStats stats = controller.stats().get(0);
+        assertThat(stats.model()).isEqualTo("gpt-5-mini");
+        assertThat(stats.admitted()).isEqualTo(2);
+        assertThat(stats.queued()).isEqualTo(1);
+        assertThat(stats.inFlight()).isZero();
+    }
+
+    @Test
+    void chatModelShouldShrinkLimitWhenProviderIsRateLimited() {
+        AdmissionController controller = new AdmissionController(4, 0, 0);
+        ChatModel rateLimited = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                throw new RateLimitException("Rate limit reached");
+            }
+        };
+        AdmissionControlledChatModel model = new AdmissionControlledChatModel(rateLimited, controller, "m");
+        ChatRequest request = ChatRequest.builder().messages(List.of(UserMessage.from("hi"))).build();
+
+        assertThatThrownBy(() -> model.doChat(request)).isInstanceOf(RateLimitException.class);
+
+        AdmissionController.ModelStats stats = controller.stats().get(0);
+        assertThat(stats.concurrencyLimit()).isEqualTo(2);
+        assertThat(stats.throttled()).isEqualTo(1);
+    }
+
+    @Test
+    void isOverloadShouldOnlyTrustTypedProviderErrors() {
+        assertThat(AdmissionControlledChatModel.isOverload(
+                        new IllegalStateException("wrapped", new RateLimitException("slow down"))))
+                .isTrue();
+        assertThat(AdmissionControlledChatModel.isOverload(new TimeoutException("read timed out"))).isTrue();
+        assertThat(AdmissionControlledChatModel.isOverload(new HttpException(429, "Too Many Requests"))).isTrue();
+        assertThat(AdmissionControlledChatModel.isOverload(new HttpException(400, "status code: 429 in prompt")))
+                .isFalse();
+        assertThat(AdmissionControlledChatModel.isOverload(
+                        new IllegalArgumentException("Prompt mentions a 429 rate limit")))
+                .isFalse();
+    }
+
+    @Test
+    void releaseShouldReconcileAgainstTheCappedReservation() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AdmissionController controller = new AdmissionController(2, 0, 6_000, now::get);
+        controller.acquire("m", 10_000).succeeded(1_000);
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                controller.acquire("m", 5_010).succeeded(5_010);
+                admitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Only 6,000 tokens were taken, so a 1,000-token call refunds 5,000 rather than refilling the bucket.
+        assertThat(admitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+    }
+
+    @Test
+    void chatModelShouldPassThroughSuccessfulResponses() {
+        AdmissionController controller = new AdmissionController(2, 0, 1000);
+        ChatModel delegate = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                return ChatResponse.builder().aiMessage(AiMessage.from("ok")).build();
+            }
+        };
+        AdmissionControlledChatModel model = new AdmissionControlledChatModel(delegate, controller, "m");
+
+        ChatResponse response =
+                model.doChat(ChatRequest.builder().messages(List.of(UserMessage.from("hello"))).build());
+
+        assertThat(response.aiMessage().text()).isEqualTo("ok");
+        assertThat(controller.stats().get(0).inFlight()).isZero();
+    }
+
+    @Test
+    void fromEnvironmentShouldBeDisabledWithoutSettings() {
+        assertThat(AdmissionController.fromEnvironment(key -> null)).isNull();
+        assertThat(AdmissionController.fromEnvironment(key -> key.equals("SKILLS_LLM_TPM") ? "90000" : null))
+                .isNotNull();
+        assertThatThrownBy(() -> AdmissionController.fromEnvironment(
+                        key -> key.equals("SKILLS_LLM_RPM") ? "0" : null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_LLM_RPM");
+    }
+}
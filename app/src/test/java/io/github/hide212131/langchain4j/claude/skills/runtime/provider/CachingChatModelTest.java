@@ -0,0 +1,147 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CachingChatModelTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void identicalRequestsShouldBeServedFromCache() {
+        CountingChatModel delegate = new CountingChatModel();
+        CachingChatModel model = new CachingChatModel(
+                delegate, new InMemoryChatResponseStore(8), "gpt-5-mini", Duration.ofMinutes(5), CLOCK);
+
+        ChatResponse first = model.doChat(request("plan the deck"));
+        ChatResponse second = model.doChat(request("plan the deck\r\n"));
+        model.doChat(request("something else"));
+
+        assertThat(delegate.calls).isEqualTo(2);
+        assertThat(second.aiMessage().text()).isEqualTo(first.aiMessage().text());
+        assertThat(second.tokenUsage().totalTokenCount()).isZero();
+        assertThat(model.stats()).isEqualTo(new CachingChatModel.Stats(1, 2, 0, 2));
+    }
+
+    @Test
+    void expiredEntriesShouldBeRefetched() {
+        CountingChatModel delegate = new CountingChatModel();
+        MutableClock clock = new MutableClock();
+        CachingChatModel model = new CachingChatModel(
+                delegate, new InMemoryChatResponseStore(8), "m", Duration.ofSeconds(10), clock);
+
+        model.doChat(request("hello"));
+        clock.advance(Duration.ofSeconds(11));
+        model.doChat(request("hello"));
+
+        assertThat(delegate.calls).isEqualTo(2);
+        assertThat(model.stats().expired()).isEqualTo(1);
+    }
+
+    @Test
+    void segmentFileStoreShouldSurviveReopenAndKeepToolCalls() throws Exception {
+        Path directory = Files.createTempDirectory("llm-cache");
+        CountingChatModel delegate = new CountingChatModel();
+        delegate.toolCall = true;
+        CachingChatModel first = new CachingChatModel(
+                delegate,
+                new InMemoryChatResponseStore(8, new SegmentFileChatResponseStore(directory, CLOCK)),
+                "m",
+                Duration.ofMinutes(5),
+                CLOCK);
+        first.doChat(request("call a tool"));
+
+        CachingChatModel reopened = new CachingChatModel(
+                delegate,
+                new InMemoryChatResponseStore(8, new SegmentFileChatResponseStore(directory, CLOCK)),
+                "m",
+                Duration.ofMinutes(5),
+                CLOCK);
+        ChatResponse replayed = reopened.doChat(request("call a tool"));
+
+        assertThat(delegate.calls).isEqualTo(1);
+        assertThat(replayed.finishReason()).isEqualTo(FinishReason.TOOL_EXECUTION);
+        assertThat(replayed.aiMessage().toolExecutionRequests())
+                .extracting(ToolExecutionRequest::name, ToolExecutionRequest::arguments)
+                .containsExactly(tuple("readSkillMd", "{\"skillId\":\"pptx\"}"));
+    }
+
+    @Test
+    void storeFromEnvironmentShouldValidateMode() {
+        assertThat(CachingChatModel.storeFromEnvironment(key -> null, CLOCK)).isNull();
+        assertThat(CachingChatModel.storeFromEnvironment(key -> key.equals("SKILLS_LLM_CACHE") ? "memory" : null, CLOCK))
+                .isInstanceOf(InMemoryChatResponseStore.class);
+        assertThatThrownBy(() -> CachingChatModel.storeFromEnvironment(
+                        key -> key.equals("SKILLS_LLM_CACHE") ? "redis" : null, CLOCK))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_LLM_CACHE");
+    }
+
+    private static ChatRequest request(String prompt) {
+        return ChatRequest.builder().messages(List.of(UserMessage.from(prompt))).build();
+    }
+
+    private static final class CountingChatModel implements ChatModel {
+        int calls;
+        boolean toolCall;
+
+        @Override
+        public ChatResponse doChat(ChatRequest request) {
+            calls++;
+            AiMessage message = toolCall
+                    ? AiMessage.from(List.of(ToolExecutionRequest.builder()
+                            .id("call-1")
+                            .name("readSkillMd")
+                            .arguments("{\"skillId\":\"pptx\"}")
+                            .build()))
+                    : AiMessage.from("reply " + calls);
+            return ChatResponse.builder()
+                    .aiMessage(message)
+                    .tokenUsage(new TokenUsage(5, 7, 12))
+                    .finishReason(toolCall ? FinishReason.TOOL_EXECUTION : FinishReason.STOP)
+                    .build();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -7,12 +7,18 @@ import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import dev.langchain4j.model.output.TokenUsage;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
@@ -108,11 +114,163 @@ class LangChain4jLlmClientTest {
         assertThat(client.highPerformanceModelName()).isEqualTo("gpt-5.1");
     }
 
+    @Test
+    void completeStreamingShouldDeliverChunksAndRecordTimeToFirstToken() {
+        MutableClock clock = new MutableClock();
+        StreamingChatModel streamingModel = new StreamingChatModel() {
+            @Override
+            public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+                clock.advanceMillis(40);
+                handler.onPartialResponse("{\"skill_ids\":");
+                clock.advanceMillis(60);
+                handler.onPartialResponse("[\"a\"]}");
+                handler.onCompleteResponse(ChatResponse.builder()
+                        .aiMessage(AiMessage.from("{\"skill_ids\":[\"a\"]}"))
+                        .tokenUsage(new TokenUsage(4, 6, 10))
+                        .build());
+            }
+        };
+        CapturingFactory factory = new CapturingFactory(new RecordingChatModel()) {
+            @Override
+            public StreamingChatModel createStreaming(LangChain4jLlmClient.OpenAiConfig config) {
+                return streamingModel;
+            }
+        };
+        LangChain4jLlmClient client = LangChain4jLlmClient.forOpenAi(key -> switch (key) {
+            case "OPENAI_API_KEY" -> "test-key";
+            case "OPENAI_STREAMING" -> "true";
+            default -> null;
+        }, factory, clock);
+        List<String> chunks = new ArrayList<>();
+
+        LangChain4jLlmClient.CompletionResult result = client.completeStreaming("plan", chunks::add);
+
+        assertThat(chunks).containsExactly("{\"skill_ids\":", "[\"a\"]}");
+        assertThat(result.content()).isEqualTo("{\"skill_ids\":[\"a\"]}");
+        assertThat(result.timeToFirstTokenMs()).isEqualTo(40L);
+        assertThat(result.durationMs()).isEqualTo(100L);
+        LangChain4jLlmClient.ProviderMetrics metrics = client.metrics();
+        assertThat(metrics.streaming().callCount()).isEqualTo(1);
+        assertThat(metrics.streaming().averageTimeToFirstTokenMs()).isEqualTo(40L);
+        assertThat(metrics.totalTokenCount()).isEqualTo(10);
+    }
+
+    @Test
+    void completeStreamingShouldUseDecoratedBlockingModelWhenResponseCacheIsConfigured() {
+        RecordingChatModel chatModel = new RecordingChatModel();
+        CapturingFactory factory = new CapturingFactory(chatModel) {
+            @Override
+            public StreamingChatModel createStreaming(LangChain4jLlmClient.OpenAiConfig config) {
+                throw new AssertionError("streaming would bypass the response cache");
+            }
+        };
+        LangChain4jLlmClient client = LangChain4jLlmClient.forOpenAi(key -> switch (key) {
+            case "OPENAI_API_KEY" -> "test-key";
+            case "OPENAI_STREAMING" -> "true";
+            case "SKILLS_LLM_CACHE" -> "memory";
+            default -> null;
+        }, factory, Clock.systemUTC());
+        List<String> chunks = new ArrayList<>();
+
+        client.completeStreaming("plan", chunks::add);
+        LangChain4jLlmClient.CompletionResult cached = client.completeStreaming("plan", chunks::add);
+
+        assertThat(chunks).containsExactly("assistant response", "assistant response");
+        assertThat(chatModel.calls).isEqualTo(1);
+        assertThat(cached.timeToFirstTokenMs()).isNull();
+        assertThat(client.metrics().streaming().callCount()).isZero();
+    }
+
+    @Test
+    void completeStreamingShouldReportToTheListenerWithTheSameRequestAsComplete() {
+        List<ChatRequest> streamedRequests = new ArrayList<>();
+        StreamingChatModel streamingModel = new StreamingChatModel() {
+            @Override
+            public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+                streamedRequests.add(request);
+                handler.onPartialResponse("done");
+                handler.onCompleteResponse(ChatResponse.builder()
+                        .aiMessage(AiMessage.from("done"))
+                        .tokenUsage(new TokenUsage(1, 1, 2))
+                        .build());
+            }
+        };
+        CapturingFactory factory = new CapturingFactory(new RecordingChatModel()) {
+            @Override
+            public StreamingChatModel createStreaming(LangChain4jLlmClient.OpenAiConfig config) {
+                return streamingModel;
+            }
+        };
+        LangChain4jLlmClient client = LangChain4jLlmClient.forOpenAi(key -> switch (key) {
+            case "OPENAI_API_KEY" -> "test-key";
+            case "OPENAI_STREAMING" -> "true";
+            default -> null;
+        }, factory, Clock.systemUTC());
+        List<String> events = new ArrayList<>();
+        List<ChatRequest> reportedRequests = new ArrayList<>();
+        client.instrument(new ChatModelListener() {
+            @Override
+            public void onRequest(ChatModelRequestContext requestContext) {
+                events.add("request");
+                reportedRequests.add(requestContext.chatRequest());
+            }
+
+            @Override
+            public void onResponse(ChatModelResponseContext responseContext) {
+                events.add("response:" + responseContext.chatResponse().aiMessage().text());
+            }
+        });
+
+        client.complete("plan");
+        client.completeStreaming("plan", chunk -> { });
+
+        assertThat(events).containsExactly("request", "response:assistant response", "request", "response:done");
+        assertThat(streamedRequests).hasSize(1);
+        assertThat(reportedRequests.get(1).parameters()).isEqualTo(reportedRequests.get(0).parameters());
+    }
+
+    @Test
+    void completeStreamingShouldFallBackToBlockingCompletion() {
+        LangChain4jLlmClient client = LangChain4jLlmClient.usingChatModel(new RecordingChatModel());
+        List<String> chunks = new ArrayList<>();
+
+        LangChain4jLlmClient.CompletionResult result = client.completeStreaming("plan", chunks::add);
+
+        assertThat(chunks).containsExactly("assistant response");
+        assertThat(result.timeToFirstTokenMs()).isNull();
+        assertThat(client.metrics().streaming().callCount()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advanceMillis(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
     private static final class RecordingChatModel implements ChatModel {
         String lastPrompt;
+        int calls;
 
         @Override
         public ChatResponse doChat(ChatRequest request) {
+            calls++;
             List<ChatMessage> messages = request.messages();
             if (!messages.isEmpty() && messages.get(0) instanceof UserMessage userMessage) {
                 lastPrompt = userMessage.singleText();
@@ -124,7 +282,7 @@ class LangChain4jLlmClientTest {
         }
     }
 
-    private static final class CapturingFactory implements LangChain4jLlmClient.ChatModelFactory {
+    private static class CapturingFactory implements LangChain4jLlmClient.ChatModelFactory {
         final ChatModel delegate;
         LangChain4jLlmClient.OpenAiConfig lastConfig;
         final List<LangChain4jLlmClient.OpenAiConfig> configs = new ArrayList<>();
@@ -0,0 +1,86 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmMetricsRegistry.Stage;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LlmMetricsRegistryTest {
+
+    @Test
+    void bucketsShouldBoundValuesWithinAQuarterOfTheirPowerOfTwo() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = LlmMetricsRegistry.bucketIndex(value);
+            assertThat(LlmMetricsRegistry.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+            assertThat(LlmMetricsRegistry.bucketUpperBound(index)).isLessThanOrEqualTo(Math.max(value, 1) * 5 / 4 + 1);
+        }
+        assertThat(LlmMetricsRegistry.bucketIndex(Long.MAX_VALUE)).isEqualTo(LlmMetricsRegistry.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    void snapshotShouldReportPercentilesPerModelAndStage() {
+        LlmMetricsRegistry registry = new LlmMetricsRegistry();
+        for (int latency = 1; latency <= 100; latency++) {
+            registry.record("gpt-5-mini", Stage.PLAN, latency * 10L, new TokenUsage(latency, 2 * latency));
+        }
+        registry.record("gpt-5", Stage.SUPERVISOR, 5_000, null);
+        registry.recordFailure("gpt-5", Stage.SUPERVISOR);
+
+        LlmMetricsRegistry.Snapshot snapshot = registry.snapshot();
+        LlmMetricsRegistry.SeriesSnapshot plan = snapshot.find("gpt-5-mini", Stage.PLAN);
+        LlmMetricsRegistry.SeriesSnapshot supervisor = snapshot.find("gpt-5", Stage.SUPERVISOR);
+
+        assertThat(snapshot.series()).extracting(LlmMetricsRegistry.SeriesSnapshot::stage)
+                .containsExactly(Stage.PLAN, Stage.SUPERVISOR);
+        assertThat(plan.calls()).isEqualTo(100);
+        assertThat(plan.latencyMs().p50()).isBetween(500L, 625L);
+        assertThat(plan.latencyMs().p95()).isBetween(950L, 1000L);
+        assertThat(plan.latencyMs().p99()).isBetween(990L, 1000L);
+        assertThat(plan.latencyMs().mean()).isEqualTo(505.0);
+        assertThat(plan.outputTokens().p50()).isBetween(100L, 125L);
+        assertThat(supervisor.calls()).isEqualTo(1);
+        assertThat(supervisor.failures()).isEqualTo(1);
+        assertThat(supervisor.inputTokens().count()).isZero();
+    }
+
+    @Test
+    void meteredModelShouldRecordUnderItsStageAndCountFailures() {
+        LlmMetricsRegistry registry = new LlmMetricsRegistry();
+        ChatModel provider = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                if (request.messages().toString().contains("fail")) {
+                    throw new IllegalStateException("boom");
+                }
+                return ChatResponse.builder()
+                        .aiMessage(AiMessage.from("ok"))
+                        .tokenUsage(new TokenUsage(12, 3))
+                        .build();
+            }
+        };
+        ChatModel supervisor = new MeteredChatModel(provider, registry, "gpt-5", Stage.SUPERVISOR);
+        ChatModel validator = MeteredChatModel.withStage(supervisor, Stage.VALIDATOR);
+
+        supervisor.chat(ChatRequest.builder().messages(List.of(UserMessage.from("hello"))).build());
+        validator.chat(ChatRequest.builder().messages(List.of(UserMessage.from("hello"))).build());
+        try {
+            validator.chat(ChatRequest.builder().messages(List.of(UserMessage.from("fail"))).build());
+        } catch (IllegalStateException expected) {
+            // counted as a failure below
+        }
+
+        LlmMetricsRegistry.Snapshot snapshot = registry.snapshot();
+        assertThat(snapshot.find("gpt-5", Stage.SUPERVISOR).calls()).isEqualTo(1);
+        assertThat(snapshot.find("gpt-5", Stage.VALIDATOR).calls()).isEqualTo(1);
+        assertThat(snapshot.find("gpt-5", Stage.VALIDATOR).failures()).isEqualTo(1);
+        assertThat(snapshot.find("gpt-5", Stage.VALIDATOR).inputTokens().max()).isEqualTo(12);
+        assertThat(MeteredChatModel.withStage(provider, Stage.VALIDATOR)).isSameAs(provider);
+    }
+}
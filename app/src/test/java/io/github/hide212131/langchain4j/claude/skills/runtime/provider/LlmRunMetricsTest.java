@@ -0,0 +1,88 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmMetricsRegistry.Stage;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class LlmRunMetricsTest {
+
+    private static final ChatModel PROVIDER = new ChatModel() {
+        @Override
+        public ChatResponse doChat(ChatRequest request) {
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from("ok"))
+                    .tokenUsage(new TokenUsage(10, 5))
+                    .build();
+        }
+    };
+
+    @Test
+    void concurrentRunsSharingAClientShouldOnlyCountTheirOwnCalls() throws Exception {
+        LangChain4jLlmClient client = LangChain4jLlmClient.usingChatModel(PROVIDER);
+        ChatModel supervisor = new MeteredChatModel(PROVIDER, client.llmMetrics(), "gpt-5", Stage.SUPERVISOR);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<LlmRunMetrics> small = executor.submit(run(client, supervisor, 1, bothStarted));
+            Future<LlmRunMetrics> large = executor.submit(run(client, supervisor, 3, bothStarted));
+
+            LangChain4jLlmClient.ProviderMetrics smallMetrics = small.get().snapshot();
+            LangChain4jLlmClient.ProviderMetrics largeMetrics = large.get().snapshot();
+
+            assertThat(smallMetrics.callCount()).isEqualTo(1);
+            assertThat(smallMetrics.totalInputTokens()).isEqualTo(10);
+            assertThat(largeMetrics.callCount()).isEqualTo(3);
+            assertThat(largeMetrics.totalInputTokens()).isEqualTo(30);
+            assertThat(small.get().llmMetrics().snapshot().find("default", Stage.PLAN).calls()).isEqualTo(1);
+            assertThat(large.get().llmMetrics().snapshot().find("gpt-5", Stage.SUPERVISOR).calls()).isEqualTo(1);
+            assertThat(client.metrics().callCount()).isEqualTo(4);
+            assertThat(client.llmMetrics().snapshot().find("gpt-5", Stage.SUPERVISOR).calls()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void runShouldFollowTheContextOntoWorkerThreads() throws Exception {
+        LlmRunMetrics metrics = new LlmRunMetrics();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Scope ignored = metrics.makeCurrent()) {
+            assertThat(Context.current().wrap(executor).submit(LlmRunMetrics::current).get()).isSameAs(metrics);
+            assertThat(executor.submit(LlmRunMetrics::current).get()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(LlmRunMetrics.current()).isNull();
+    }
+
+    private static Callable<LlmRunMetrics> run(
+            LangChain4jLlmClient client, ChatModel supervisor, int plannerCalls, CountDownLatch bothStarted) {
+        return () -> {
+            LlmRunMetrics metrics = new LlmRunMetrics();
+            try (Scope ignored = metrics.makeCurrent()) {
+                bothStarted.countDown();
+                bothStarted.await();
+                for (int i = 0; i < plannerCalls; i++) {
+                    client.complete("plan");
+                }
+                supervisor.chat(ChatRequest.builder().messages(List.of(UserMessage.from("act"))).build());
+            }
+            return metrics;
+        };
+    }
+}
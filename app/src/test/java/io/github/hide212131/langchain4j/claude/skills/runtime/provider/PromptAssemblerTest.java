@@ -0,0 +1,40 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.PromptAssembler.Layer;
+import org.junit.jupiter.api.Test;
+
+class PromptAssemblerTest {
+
+    @Test
+    void renderShouldOrderSectionsByLayerRegardlessOfInsertionOrder() {
+        String prompt = new PromptAssembler()
+                .add(Layer.RUN_VARIABLES, "Goal: make a deck")
+                .add(Layer.SKILL_INSTRUCTIONS, "Skill ID: pptx")
+                .add(Layer.STATIC_POLICY, "# Policy")
+                .add(Layer.RUN_VARIABLES, "Constraints: none")
+                .render();
+
+        assertThat(prompt).isEqualTo("# Policy\n\nSkill ID: pptx\n\nGoal: make a deck\n\nConstraints: none\n");
+    }
+
+    @Test
+    void stablePrefixShouldNotDependOnLineEndingsOrRunValues() {
+        PromptAssembler first = new PromptAssembler()
+                .add(Layer.STATIC_POLICY, "# Policy  \r\nline two\r\n")
+                .add(Layer.SKILL_INSTRUCTIONS, "SKILL.md body\r\n\r\n")
+                .add(Layer.RUN_VARIABLES, "Goal: first");
+        PromptAssembler second = new PromptAssembler()
+                .add(Layer.STATIC_POLICY, "# Policy  \nline two")
+                .add(Layer.SKILL_INSTRUCTIONS, "SKILL.md body")
+                .add(Layer.RUN_VARIABLES, "   ")
+                .add(Layer.RUN_VARIABLES, null)
+                .add(Layer.RUN_VARIABLES, "Goal: second, with more detail");
+
+        String stablePrefix = "# Policy  \nline two\n\nSKILL.md body\n\n";
+
+        assertThat(first.render()).isEqualTo(stablePrefix + "Goal: first\n");
+        assertThat(second.render()).isEqualTo(stablePrefix + "Goal: second, with more detail\n");
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.InternalServerException;
+import dev.langchain4j.exception.InvalidRequestException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ResilientChatModelTest {
+
+    private static final ChatRequest REQUEST =
+            ChatRequest.builder().messages(List.of(UserMessage.from("plan"))).build();
+
+    @Test
+    void shouldRetryTransientFailuresWithJitteredBackoff() {
+        AtomicInteger calls = new AtomicInteger();
+        ChatModel flaky = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                if (calls.incrementAndGet() < 3) {
+                    throw new InternalServerException("Service Unavailable");
+                }
+                return reply("ok");
+            }
+        };
+        List<Long> sleeps = new ArrayList<>();
+        ResilientChatModel model =
+                new ResilientChatModel(flaky, 2, Duration.ofMillis(500), 0, sleeps::add, () -> 0.5);
+
+        ChatResponse response = model.doChat(REQUEST);
+
+        assertThat(response.aiMessage().text()).isEqualTo("ok");
+        assertThat(sleeps).containsExactly(250L, 500L);
+        assertThat(model.stats().retries()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotRetryClientErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        ChatModel invalid = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                calls.incrementAndGet();
+                throw new InvalidRequestException("invalid schema (status code: 503 upstream)");
+            }
+        };
+        ResilientChatModel model = new ResilientChatModel(invalid, 3, Duration.ofMillis(1), 0, millis -> { }, () -> 1.0);
+
+        assertThatThrownBy(() -> model.doChat(REQUEST)).isInstanceOf(InvalidRequestException.class);
+        assertThat(calls).hasValue(1);
+        assertThat(model.stats().retries()).isZero();
+    }
+
+    @Test
+    void isTransientShouldFollowExceptionTypes() {
+        assertThat(ResilientChatModel.isTransient(new InternalServerException("boom"))).isTrue();
+        assertThat(ResilientChatModel.isTransient(new HttpException(502, "Bad Gateway"))).isTrue();
+        assertThat(ResilientChatModel.isTransient(
+                        new IllegalStateException("wrapped", new ConnectException("refused"))))
+                .isTrue();
+        assertThat(ResilientChatModel.isTransient(new HttpException(400, "Bad Request"))).isFalse();
+        assertThat(ResilientChatModel.isTransient(new IllegalStateException("status code: 503; Service Unavailable")))
+                .isFalse();
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxRetries() {
+        AtomicInteger calls = new AtomicInteger();
+        ChatModel limited = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                calls.incrementAndGet();
+                throw new RateLimitException("Rate limit reached");
+            }
+        };
+        ResilientChatModel model = new ResilientChatModel(limited, 1, Duration.ofMillis(1), 0, millis -> { }, () -> 1.0);
+
+        assertThatThrownBy(() -> model.doChat(REQUEST)).isInstanceOf(RateLimitException.class);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void shouldHedgeSlowCallsAndCancelTheLoser() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+        ChatModel slowThenFast = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                if (calls.incrementAndGet() == 1) {
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                    } catch (InterruptedException ex) {
+                        loserInterrupted.countDown();
+                        throw new IllegalStateException("cancelled", ex);
+                    }
+                }
+                return reply("hedged");
+            }
+        };
+        ResilientChatModel model = new ResilientChatModel(slowThenFast, 0, Duration.ofMillis(1), 95, millis -> { }, () -> 0.0);
+        for (int i = 0; i < ResilientChatModel.MIN_HEDGE_SAMPLES; i++) {
+            model.recordLatency(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        ChatResponse response = model.doChat(REQUEST);
+
+        assertThat(response.aiMessage().text()).isEqualTo("hedged");
+        assertThat(loserInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        ResilientChatModel.Stats stats = model.stats();
+        assertThat(stats.hedges()).isEqualTo(1);
+        assertThat(stats.hedgeWins()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotHedgeBeforeEnoughSamples() {
+        AtomicInteger calls = new AtomicInteger();
+        ChatModel delegate = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                calls.incrementAndGet();
+                return reply("ok");
+            }
+        };
+        ResilientChatModel model = new ResilientChatModel(delegate, 0, Duration.ofMillis(1), 95, millis -> { }, () -> 0.0);
+
+        model.doChat(REQUEST);
+
+        assertThat(calls).hasValue(1);
+        assertThat(model.stats().hedges()).isZero();
+    }
+
+    @Test
+    void latencyWindowShouldReportNearestRankPercentile() {
+        ResilientChatModel.LatencyWindow window = new ResilientChatModel.LatencyWindow(4);
+        for (long sample : new long[] {100, 40, 10, 20, 30}) {
+            window.add(sample);
+        }
+
+        assertThat(window.percentile(50, 1)).isEqualTo(20);
+        assertThat(window.percentile(95, 1)).isEqualTo(40);
+        assertThat(window.percentile(95, 5)).isEqualTo(-1);
+    }
+
+    @Test
+    void settingsFromEnvironmentShouldBeOptIn() {
+        assertThat(ResilientChatModel.settingsFromEnvironment(key -> null)).isNull();
+        ResilientChatModel.Settings settings = ResilientChatModel.settingsFromEnvironment(
+                key -> key.equals("SKILLS_LLM_HEDGE_PERCENTILE") ? "90" : null);
+        assertThat(settings.maxRetries()).isEqualTo(ResilientChatModel.DEFAULT_MAX_RETRIES);
+        assertThat(settings.hedgePercentile()).isEqualTo(90.0);
+        assertThatThrownBy(() -> ResilientChatModel.settingsFromEnvironment(
+                        key -> key.equals("SKILLS_LLM_MAX_RETRIES") ? "-1" : null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_LLM_MAX_RETRIES");
+    }
+
+    private static ChatResponse reply(String text) {
+        return ChatResponse.builder().aiMessage(AiMessage.from(text)).build();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ArtifactCatalogTest {
+
+    @Test
+    void pageShouldPaginateAndFilterByKind() throws Exception {
+        Path root = Files.createTempDirectory("artifact-catalog");
+        Files.createDirectories(root.resolve("skill/data"));
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(root.resolve("skill/data/item" + i + ".json"), "{\"index\": " + i + "}");
+        }
+        Files.writeString(root.resolve("skill/notes.md"), "# Notes");
+        Files.write(root.resolve("skill/deck.pptx"), new byte[] {1, 2, 3});
+        ArtifactCatalog catalog = new ArtifactCatalog(root);
+
+        SkillRuntime.ArtifactPage first = catalog.page(0L, "json", 0, 2);
+        SkillRuntime.ArtifactPage last = catalog.page(0L, "json", 4, 2);
+        SkillRuntime.ArtifactPage all = catalog.page(0L, null, 0, 0);
+
+        assertThat(first.total()).isEqualTo(5);
+        assertThat(first.artifacts()).extracting(SkillRuntime.ArtifactSummary::name)
+                .containsExactly("item0.json", "item1.json");
+        assertThat(first.nextOffset()).isEqualTo(2);
+        assertThat(last.artifacts()).hasSize(1);
+        assertThat(last.nextOffset()).isNull();
+        assertThat(all.total()).isEqualTo(7);
+        assertThat(all.artifacts())
+                .filteredOn(artifact -> artifact.name().equals("deck.pptx"))
+                .extracting(SkillRuntime.ArtifactSummary::preview)
+                .containsExactly("(binary)");
+    }
+
+    @Test
+    void pageShouldPreviewOnlyAPrefixAndRescanWhenGenerationChanges() throws Exception {
+        Path root = Files.createTempDirectory("artifact-catalog-preview");
+        Files.writeString(root.resolve("large.txt"), "x".repeat(1_000_000));
+        ArtifactCatalog catalog = new ArtifactCatalog(root);
+
+        SkillRuntime.ArtifactPage page = catalog.page(1L, "text", 0, 10);
+        Files.writeString(root.resolve("added.txt"), "added");
+        SkillRuntime.ArtifactPage sameGeneration = catalog.page(1L, "text", 0, 10);
+        SkillRuntime.ArtifactPage nextGeneration = catalog.page(2L, "text", 0, 10);
+
+        assertThat(page.artifacts()).singleElement().satisfies(artifact -> {
+            assertThat(artifact.size()).isEqualTo(1_000_000L);
+            assertThat(artifact.preview()).hasSize(400);
+        });
+        assertThat(sameGeneration.total()).isEqualTo(1);
+        assertThat(nextGeneration.total()).isEqualTo(2);
+    }
+
+    @Test
+    void pageShouldNotListExcludedDirectories() throws Exception {
+        Path root = Files.createTempDirectory("artifact-catalog-excluded");
+        Files.createDirectories(root.resolve("document-skills/pptx/.logs"));
+        Files.writeString(root.resolve("document-skills/pptx/.logs/script-1.stdout.log"), "log");
+        Files.writeString(root.resolve("document-skills/pptx/outline.md"), "# Outline");
+        ArtifactCatalog catalog = new ArtifactCatalog(root, Set.of(".logs"));
+
+        SkillRuntime.ArtifactPage page = catalog.page(0L, null, 0, 0);
+
+        assertThat(page.total()).isEqualTo(1);
+        assertThat(page.artifacts()).extracting(SkillRuntime.ArtifactSummary::name).containsExactly("outline.md");
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class DependencyInstallLedgerTest {
+
+    @Test
+    void installShouldSkipPackagesAlreadyRecordedForEnvironment() throws Exception {
+        Path env = Files.createTempDirectory("ledger-env");
+        DependencyInstallLedger ledger = new DependencyInstallLedger();
+        List<List<String>> invocations = new ArrayList<>();
+
+        DependencyInstallLedger.Install<Integer> first = ledger.install(
+                "pip", env, true, List.of("python-pptx", "Pillow"), pending -> {
+                    invocations.add(pending);
+                    return 0;
+                }, exitCode -> exitCode == 0);
+        DependencyInstallLedger.Install<Integer> second = ledger.install(
+                "pip", env, true, List.of("Python_PPTX", "lxml"), pending -> {
+                    invocations.add(pending);
+                    return 0;
+                }, exitCode -> exitCode == 0);
+
+        assertThat(first.installed()).containsExactly("python-pptx", "Pillow");
+        assertThat(second.satisfied()).containsExactly("Python_PPTX");
+        assertThat(second.installed()).containsExactly("lxml");
+        assertThat(invocations).containsExactly(List.of("python-pptx", "Pillow"), List.of("lxml"));
+
+        DependencyInstallLedger reloaded = new DependencyInstallLedger();
+        DependencyInstallLedger.Install<Integer> third = reloaded.install(
+                "pip", env, true, List.of("pillow", "lxml"), pending -> {
+                    throw new AssertionError("installer should not run");
+                }, exitCode -> true);
+        assertThat(third.result()).isNull();
+        assertThat(third.satisfied()).containsExactly("pillow", "lxml");
+    }
+
+    @Test
+    void installShouldAnswerSatisfiedRequestsWhileAnotherInstallHoldsTheLock() throws Exception {
+        Path env = Files.createTempDirectory("ledger-concurrent");
+        DependencyInstallLedger ledger = new DependencyInstallLedger();
+        ledger.install("pip", env, false, List.of("pillow"), pending -> 0, exitCode -> exitCode == 0);
+        CountDownLatch installing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slowInstall = Thread.ofVirtual().start(() -> ledger.install(
+                "pip", env, false, List.of("lxml"), pending -> {
+                    installing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 0;
+                }, exitCode -> exitCode == 0));
+        assertThat(installing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        DependencyInstallLedger.Install<Integer> satisfied = ledger.install(
+                "pip", env, false, List.of("Pillow"), pending -> {
+                    throw new AssertionError("installer should not run");
+                }, exitCode -> true);
+
+        release.countDown();
+        slowInstall.join();
+        assertThat(satisfied.result()).isNull();
+        assertThat(satisfied.satisfied()).containsExactly("Pillow");
+    }
+
+    @Test
+    void installShouldNotRecordFailedInstalls() throws Exception {
+        Path env = Files.createTempDirectory("ledger-failure");
+        DependencyInstallLedger ledger = new DependencyInstallLedger();
+
+        ledger.install("npm", env, false, List.of("pptxgenjs"), pending -> 1, exitCode -> exitCode == 0);
+        DependencyInstallLedger.Install<Integer> retry =
+                ledger.install("npm", env, false, List.of("pptxgenjs"), pending -> 0, exitCode -> exitCode == 0);
+
+        assertThat(retry.installed()).containsExactly("pptxgenjs");
+        assertThat(env.resolve(DependencyInstallLedger.LEDGER_FILE_NAME)).doesNotExist();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ExecutionResultCacheTest {
+
+    @Test
+    void replayShouldRestoreStoredResultAndArtifacts() throws Exception {
+        Path workspace = Files.createTempDirectory("execution-cache");
+        Path skillRoot = Files.createDirectories(workspace.resolve("skills/brand"));
+        Files.writeString(skillRoot.resolve("SKILL.md"), "---\nname: brand\n---\nbody");
+        Path outputDirectory = Files.createDirectories(workspace.resolve("out"));
+        Path skillOutput = Files.createDirectories(outputDirectory.resolve("brand"));
+        Files.writeString(skillOutput.resolve("deck.md"), "# Deck");
+        Files.createDirectories(skillOutput.resolve(".logs"));
+        Files.writeString(skillOutput.resolve(".logs/run.stdout.log"), "noise");
+        ExecutionResultCache cache = new ExecutionResultCache(workspace.resolve("cache"), Set.of(".logs"));
+        SkillIndex.SkillMetadata metadata =
+                new SkillIndex.SkillMetadata("brand", "brand", "Brand guide", List.of(), List.of(), skillRoot);
+        Map<String, Object> inputs = Map.of("goal", "make a deck");
+        SkillRuntime.ExecutionResult result = new SkillRuntime.ExecutionResult(
+                "brand",
+                Map.of("summary", "done", "artifactPath", skillOutput.resolve("deck.md").toString()),
+                skillOutput.resolve("deck.md"),
+                new SkillRuntime.Validation(true, List.of()),
+                List.of(new SkillRuntime.DisclosureEvent(SkillRuntime.DisclosureLevel.L1, "brand", "metadata")),
+                List.of(new SkillRuntime.ToolInvocation("writeArtifact", Map.of("relativePath", "deck.md"), Map.of())),
+                List.of());
+
+        String fingerprint = cache.fingerprint(metadata, outputDirectory, inputs, List.of(), null);
+        assertThat(cache.replay(fingerprint, skillOutput)).isNull();
+        cache.store(fingerprint, result, skillOutput);
+        Files.delete(skillOutput.resolve("deck.md"));
+
+        SkillRuntime.ExecutionResult replayed = cache.replay(
+                cache.fingerprint(metadata, outputDirectory, inputs, List.of(), null), skillOutput);
+
+        assertThat(replayed).isEqualTo(result);
+        assertThat(Files.readString(skillOutput.resolve("deck.md"))).isEqualTo("# Deck");
+    }
+
+    @Test
+    void fingerprintShouldChangeWithSkillFilesAndInputs() throws Exception {
+        Path skillRoot = Files.createTempDirectory("execution-cache-skill");
+        Files.writeString(skillRoot.resolve("SKILL.md"), "v1");
+        Files.createDirectories(skillRoot.resolve("references"));
+        Files.writeString(skillRoot.resolve("references/guide.md"), "guide");
+        Path outputDirectory = Files.createTempDirectory("execution-cache-out");
+        ExecutionResultCache cache = new ExecutionResultCache(outputDirectory.resolveSibling("cache"), Set.of());
+        SkillIndex.SkillMetadata metadata =
+                new SkillIndex.SkillMetadata("s", "s", "d", List.of(), List.of(), skillRoot);
+
+        String base = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "a"), List.of(), null);
+        String sameInputs = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "a"), List.of(), null);
+        String otherGoal = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "b"), List.of(), null);
+        Files.writeString(skillRoot.resolve("references/guide.md"), "guide, revised");
+        String editedReference = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "a"), List.of(), null);
+
+        assertThat(sameInputs).isEqualTo(base);
+        assertThat(otherGoal).isNotEqualTo(base);
+        assertThat(editedReference).isNotEqualTo(base);
+    }
+
+    @Test
+    void fingerprintShouldIgnoreInstalledDependencies() throws Exception {
+        Path skillRoot = Files.createTempDirectory("execution-cache-deps");
+        Files.writeString(skillRoot.resolve("SKILL.md"), "v1");
+        Files.createDirectories(skillRoot.resolve("scripts/node_modules/pptxgenjs"));
+        Files.writeString(skillRoot.resolve("scripts/build.js"), "require('pptxgenjs')");
+        Files.writeString(skillRoot.resolve("scripts/node_modules/pptxgenjs/index.js"), "v1");
+        Path outputDirectory = Files.createTempDirectory("execution-cache-deps-out");
+        ExecutionResultCache cache = new ExecutionResultCache(outputDirectory.resolveSibling("cache"), Set.of());
+        SkillIndex.SkillMetadata metadata =
+                new SkillIndex.SkillMetadata("s", "s", "d", List.of(), List.of(), skillRoot);
+
+        String base = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "a"), List.of(), null);
+        Files.writeString(skillRoot.resolve("scripts/node_modules/pptxgenjs/index.js"), "v2");
+        Files.createDirectories(skillRoot.resolve("scripts/__pycache__"));
+        Files.writeString(skillRoot.resolve("scripts/__pycache__/helper.cpython-312.pyc"), "bytecode");
+        String reinstalled = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "a"), List.of(), null);
+        Files.writeString(skillRoot.resolve("scripts/build.js"), "require('pptxgenjs'); // revised");
+        String editedScript = cache.fingerprint(metadata, outputDirectory, Map.of("goal", "a"), List.of(), null);
+
+        assertThat(reinstalled).isEqualTo(base);
+        assertThat(editedScript).isNotEqualTo(base);
+    }
+
+    @Test
+    void fromEnvironmentShouldBeOptIn() {
+        Path output = Path.of("build/out");
+
+        assertThat(ExecutionResultCache.fromEnvironment(Map.of(), output, Set.of())).isNull();
+        assertThat(ExecutionResultCache.fromEnvironment(Map.of("SKILLS_EXECUTION_CACHE", "false"), output, Set.of()))
+                .isNull();
+        assertThat(ExecutionResultCache.fromEnvironment(Map.of("SKILLS_EXECUTION_CACHE", "true"), output, Set.of()))
+                .isNotNull();
+        assertThatThrownBy(() -> ExecutionResultCache.fromEnvironment(
+                        Map.of("SKILLS_EXECUTION_CACHE", "yes"), output, Set.of()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class OutputTreeSnapshotTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void renderShouldListDirectoriesFirstWithFileSizes() throws Exception {
+        Path root = Files.createTempDirectory("output-tree");
+        Files.createDirectories(root.resolve("slides"));
+        Files.writeString(root.resolve("slides/deck.pptx"), "12345");
+        Files.writeString(root.resolve("README.md"), "hi");
+        OutputTreeSnapshot snapshot = new OutputTreeSnapshot(root);
+
+        String tree = snapshot.render("build/out/demo");
+
+        assertThat(tree).isEqualTo(
+                "build/out/demo" + NL
+                        + "├── slides/" + NL
+                        + "│   └── deck.pptx (5 bytes)" + NL
+                        + "└── README.md (2 bytes)");
+    }
+
+    @Test
+    void renderShouldOnlyRereadReportedPaths() throws Exception {
+        Path root = Files.createTempDirectory("output-tree-incremental");
+        Files.writeString(root.resolve("a.txt"), "a");
+        OutputTreeSnapshot snapshot = new OutputTreeSnapshot(root);
+        snapshot.render("out");
+
+        Files.createDirectories(root.resolve("nested/deeper"));
+        Files.writeString(root.resolve("nested/deeper/b.txt"), "bb");
+        Files.writeString(root.resolve("unreported.txt"), "x");
+        assertThat(snapshot.render("out")).doesNotContain("b.txt");
+
+        snapshot.pathChanged(root.resolve("nested/deeper/b.txt"));
+        String updated = snapshot.render("out");
+        assertThat(updated).contains("nested/", "deeper/", "b.txt (2 bytes)").doesNotContain("unreported.txt");
+
+        Files.delete(root.resolve("a.txt"));
+        snapshot.pathChanged(root.resolve("a.txt"));
+        assertThat(snapshot.render("out")).doesNotContain("a.txt");
+
+        snapshot.invalidateAll();
+        assertThat(snapshot.render("out")).contains("unreported.txt");
+    }
+
+    @Test
+    void renderShouldSkipExcludedDirectories() throws Exception {
+        Path root = Files.createTempDirectory("output-tree-excluded");
+        Files.createDirectories(root.resolve(".logs"));
+        Files.writeString(root.resolve(".logs/run-1.stdout.log"), "log");
+        Files.writeString(root.resolve("result.json"), "{}");
+        OutputTreeSnapshot snapshot = new OutputTreeSnapshot(root, Set.of(".logs"));
+
+        assertThat(snapshot.render("out")).isEqualTo("out" + NL + "└── result.json (2 bytes)");
+
+        Files.writeString(root.resolve(".logs/run-2.stderr.log"), "log");
+        snapshot.pathChanged(root.resolve(".logs/run-2.stderr.log"));
+        assertThat(snapshot.render("out")).doesNotContain(".logs", "run-2");
+
+        snapshot.invalidateAll();
+        assertThat(snapshot.render("out")).doesNotContain(".logs");
+    }
+
+    @Test
+    void renderShouldReturnNullWhenRootIsMissing() throws Exception {
+        Path root = Files.createTempDirectory("output-tree-missing").resolve("absent");
+
+        assertThat(new OutputTreeSnapshot(root).render("out")).isNull();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ProcessRunnerTest {
+
+    private final ProcessRunner runner = new ProcessRunner();
+
+    @Test
+    void runShouldDrainOutputLargerThanPipeBuffer() throws Exception {
+        Path workDir = Files.createTempDirectory("process-runner-test");
+
+        ProcessRunner.Completion completion = runner.run(
+                List.of("sh", "-c", "cat; head -c 200000 /dev/zero | tr '\\0' 'x'; echo oops >&2"),
+                workDir,
+                "payload",
+                Duration.ofSeconds(10),
+                Map.of());
+
+        assertThat(completion.exitCode()).isZero();
+        assertThat(completion.timedOut()).isFalse();
+        assertThat(completion.stdout()).startsWith("payload").hasSize("payload".length() + 200_000);
+        assertThat(completion.stderr()).isEqualTo("oops\n");
+    }
+
+    @Test
+    void runShouldKeepHeadAndTailWindowsAndSpillFullOutput() throws Exception {
+        Path workDir = Files.createTempDirectory("process-runner-limits");
+        Path stdoutSpill = workDir.resolve("logs/stdout.log");
+
+        ProcessRunner.Completion completion = runner.run(
+                List.of("sh", "-c", "echo first; head -c 500000 /dev/zero | tr '\\0' 'x'; echo; echo last"),
+                workDir,
+                null,
+                Duration.ofSeconds(10),
+                Map.of(),
+                new ProcessRunner.OutputLimits(1024, 512, stdoutSpill, workDir.resolve("logs/stderr.log")));
+
+        assertThat(completion.exitCode()).isZero();
+        assertThat(completion.outputTruncated()).isTrue();
+        assertThat(completion.stdout())
+                .startsWith("first")
+                .endsWith("last\n")
+                .contains("bytes omitted")
+                .hasSizeLessThan(4096);
+        assertThat(completion.stdoutSpill()).isEqualTo(stdoutSpill);
+        assertThat(Files.size(stdoutSpill)).isEqualTo("first\n".length() + 500_000 + "\nlast\n".length());
+        assertThat(completion.stderrSpill()).isNull();
+        assertThat(workDir.resolve("logs/stderr.log")).doesNotExist();
+    }
+
+    @Test
+    void runShouldReportTimeoutAndKillProcess() throws Exception {
+        Path workDir = Files.createTempDirectory("process-runner-timeout");
+
+        ProcessRunner.Completion completion = runner.run(
+                List.of("sh", "-c", "echo started; sleep 30"),
+                workDir,
+                null,
+                Duration.ofMillis(300),
+                Map.of());
+
+        assertThat(completion.timedOut()).isTrue();
+        assertThat(completion.exitCode()).isEqualTo(-1);
+        assertThat(completion.durationMillis()).isLessThan(10_000);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ReferenceContentCacheTest {
+
+    @Test
+    void getShouldServeUnchangedFilesFromCacheAndReloadModifiedOnes() throws Exception {
+        Path dir = Files.createTempDirectory("reference-cache");
+        Path file = writeAged(dir.resolve("guide.md"), "brand rules", 60_000L);
+        ReferenceContentCache cache = new ReferenceContentCache(ReferenceContentCache.DEFAULT_MAX_BYTES);
+        AtomicInteger loads = new AtomicInteger();
+        ReferenceContentCache.Loader loader = path -> {
+            loads.incrementAndGet();
+            String text = Files.readString(path);
+            return new ReferenceContentCache.Content(text, text, false);
+        };
+
+        ReferenceContentCache.Lookup first = cache.get(file, loader);
+        ReferenceContentCache.Lookup second = cache.get(file, loader);
+        writeAged(file, "brand rules v2", 30_000L);
+        ReferenceContentCache.Lookup third = cache.get(file, loader);
+
+        assertThat(first.cached()).isFalse();
+        assertThat(second.cached()).isTrue();
+        assertThat(second.content().detail()).isEqualTo("brand rules");
+        assertThat(third.cached()).isFalse();
+        assertThat(third.content().detail()).isEqualTo("brand rules v2");
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+        assertThat(cache.stats().entries()).isEqualTo(1);
+    }
+
+    @Test
+    void getShouldEvictLeastRecentlyUsedEntriesBeyondBudget() throws Exception {
+        Path dir = Files.createTempDirectory("reference-cache-budget");
+        Path a = writeAged(dir.resolve("a.md"), "a".repeat(1000), 60_000L);
+        Path b = writeAged(dir.resolve("b.md"), "b".repeat(1000), 60_000L);
+        Path c = writeAged(dir.resolve("c.md"), "c".repeat(1000), 60_000L);
+        ReferenceContentCache cache = new ReferenceContentCache(5_000L);
+        ReferenceContentCache.Loader loader = path -> {
+            String text = Files.readString(path);
+            return new ReferenceContentCache.Content(text, text, false);
+        };
+
+        cache.get(a, loader);
+        cache.get(b, loader);
+        cache.get(a, loader);
+        cache.get(c, loader);
+
+        assertThat(cache.stats().bytes()).isLessThanOrEqualTo(5_000L);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.get(a, loader).cached()).isTrue();
+        assertThat(cache.get(b, loader).cached()).isFalse();
+    }
+
+    @Test
+    void getShouldNotCacheRecentlyModifiedFiles() throws Exception {
+        Path file = Files.createTempDirectory("reference-cache-racy").resolve("fresh.md");
+        Files.writeString(file, "fresh");
+        ReferenceContentCache cache = new ReferenceContentCache(ReferenceContentCache.DEFAULT_MAX_BYTES);
+        ReferenceContentCache.Loader loader = path -> new ReferenceContentCache.Content("fresh", "fresh", false);
+
+        cache.get(file, loader);
+
+        assertThat(cache.get(file, loader).cached()).isFalse();
+    }
+
+    @Test
+    void fromEnvironmentShouldValidateBudget() {
+        assertThat(ReferenceContentCache.fromEnvironment(Map.of()).stats().maxBytes())
+                .isEqualTo(ReferenceContentCache.DEFAULT_MAX_BYTES);
+        assertThat(ReferenceContentCache.fromEnvironment(Map.of("SKILLS_REFERENCE_CACHE_BYTES", "0"))
+                .stats().maxBytes()).isZero();
+        assertThatThrownBy(() -> ReferenceContentCache.fromEnvironment(
+                Map.of("SKILLS_REFERENCE_CACHE_BYTES", "-1")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ReferenceContentCache.fromEnvironment(
+                Map.of("SKILLS_REFERENCE_CACHE_BYTES", "lots")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Path writeAged(Path file, String content, long ageMillis) throws Exception {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - ageMillis));
+        return file;
+    }
+}
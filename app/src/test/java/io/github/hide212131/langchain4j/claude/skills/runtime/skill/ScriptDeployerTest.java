@@ -0,0 +1,111 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ScriptDeployerTest {
+
+    @Test
+    void deployShouldSkipFilesThatAreAlreadyUpToDate() throws Exception {
+        Path source = Files.createTempDirectory("deploy-source");
+        Files.createDirectories(source.resolve("fonts"));
+        Files.writeString(source.resolve("build.py"), "print('hi')");
+        Files.writeString(source.resolve("fonts/a.ttf"), "font");
+        Path target = Files.createTempDirectory("deploy-target").resolve("scripts");
+        ScriptDeployer deployer = new ScriptDeployer(ScriptDeployer.Strategy.COPY);
+
+        ScriptDeployer.Summary first = deployer.deploy(source, target);
+        ScriptDeployer.Summary second = deployer.deploy(source, target);
+        Files.writeString(source.resolve("build.py"), "print('changed')");
+        Files.setLastModifiedTime(source.resolve("build.py"), FileTime.fromMillis(1_000_000L));
+        ScriptDeployer.Summary third = deployer.deploy(source, target);
+
+        assertThat(first.filesCopied()).isEqualTo(2);
+        assertThat(first.directoriesCreated()).isEqualTo(1);
+        assertThat(second.filesCopied()).isZero();
+        assertThat(second.filesSkipped()).isEqualTo(2);
+        assertThat(third.filesCopied()).isEqualTo(1);
+        assertThat(third.filesSkipped()).isEqualTo(1);
+        assertThat(Files.readString(target.resolve("build.py"))).isEqualTo("print('changed')");
+    }
+
+    @Test
+    void deployShouldCopyLargeTreesInParallel() throws Exception {
+        Path source = Files.createTempDirectory("deploy-source-large");
+        for (int i = 0; i < ScriptDeployer.PARALLEL_THRESHOLD * 3; i++) {
+            Path file = source.resolve("dir" + (i % 5)).resolve("file" + i + ".txt");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "content " + i);
+        }
+        Path target = Files.createTempDirectory("deploy-target-large");
+        ScriptDeployer deployer = new ScriptDeployer(ScriptDeployer.Strategy.COPY);
+
+        ScriptDeployer.Summary summary = deployer.deploy(source, target);
+
+        assertThat(summary.filesCopied()).isEqualTo(ScriptDeployer.PARALLEL_THRESHOLD * 3);
+        assertThat(Files.readString(target.resolve("dir2/file7.txt"))).isEqualTo("content 7");
+    }
+
+    @Test
+    void deployShouldHardLinkWhenRequested() throws Exception {
+        Path source = Files.createTempDirectory("deploy-source-link");
+        Files.writeString(source.resolve("template.pptx"), "template");
+        Path target = source.resolveSibling(source.getFileName() + "-out");
+        ScriptDeployer deployer = new ScriptDeployer(ScriptDeployer.Strategy.LINK);
+
+        ScriptDeployer.Summary first = deployer.deploy(source, target);
+        ScriptDeployer.Summary second = deployer.deploy(source, target);
+
+        assertThat(first.filesLinked() + first.filesCopied()).isEqualTo(1);
+        assertThat(second.filesSkipped()).isEqualTo(1);
+        assertThat(Files.readString(target.resolve("template.pptx"))).isEqualTo("template");
+    }
+
+    @Test
+    void linkModeShouldCopyScriptsAndTextFiles() throws Exception {
+        Path source = Files.createTempDirectory("deploy-source-link-text");
+        Files.writeString(source.resolve("build.py"), "print('hi')");
+        Files.writeString(source.resolve("config.json"), "{}");
+        Path target = source.resolveSibling(source.getFileName() + "-out");
+        ScriptDeployer deployer = new ScriptDeployer(ScriptDeployer.Strategy.LINK);
+
+        ScriptDeployer.Summary summary = deployer.deploy(source, target);
+        Files.writeString(target.resolve("config.json"), "{\"edited\": true}");
+
+        assertThat(summary.filesLinked()).isZero();
+        assertThat(summary.filesCopied()).isEqualTo(2);
+        assertThat(Files.isSameFile(source.resolve("build.py"), target.resolve("build.py"))).isFalse();
+        assertThat(Files.readString(source.resolve("config.json"))).isEqualTo("{}");
+    }
+
+    @Test
+    void linkModeShouldCopyEditableAssetsOutsideTheAllowlist() throws Exception {
+        Path source = Files.createTempDirectory("deploy-source-link-assets");
+        for (String name : List.of("layout.xml", "index.html", "style.css", "data.csv", "settings.toml", "lib.mjs")) {
+            Files.writeString(source.resolve(name), "original");
+        }
+        Path target = source.resolveSibling(source.getFileName() + "-out");
+        ScriptDeployer deployer = new ScriptDeployer(ScriptDeployer.Strategy.LINK);
+
+        ScriptDeployer.Summary summary = deployer.deploy(source, target);
+        Files.writeString(target.resolve("layout.xml"), "edited");
+
+        assertThat(summary.filesLinked()).isZero();
+        assertThat(summary.filesCopied()).isEqualTo(6);
+        assertThat(Files.readString(source.resolve("layout.xml"))).isEqualTo("original");
+    }
+
+    @Test
+    void fromEnvironmentShouldValidateStrategy() {
+        assertThat(ScriptDeployer.fromEnvironment(Map.of("SKILLS_DEPLOY_STRATEGY", "LINK"))).isNotNull();
+        assertThatThrownBy(() -> ScriptDeployer.fromEnvironment(Map.of("SKILLS_DEPLOY_STRATEGY", "reflink")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
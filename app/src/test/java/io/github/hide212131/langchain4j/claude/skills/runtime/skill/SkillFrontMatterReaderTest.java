@@ -0,0 +1,31 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class SkillFrontMatterReaderTest {
+
+    @Test
+    void readHeaderShouldStopAtClosingDelimiter() throws Exception {
+        Path file = Files.createTempFile("skill", ".md");
+        String header = """
+                ---
+                name: Long Skill
+                description: body is large
+                ---""";
+        Files.writeString(file, header + "\n" + "instructions\n".repeat(200_000) + "---\nfooter\n");
+
+        assertThat(SkillFrontMatterReader.readHeader(file)).isEqualTo(header);
+    }
+
+    @Test
+    void readHeaderShouldReturnNoFrontMatterWhenFileDoesNotStartWithDelimiter() throws Exception {
+        Path file = Files.createTempFile("skill", ".md");
+        Files.writeString(file, "# Title\n---\nname: ignored\n---\n");
+
+        assertThat(SkillFrontMatterReader.readHeader(file)).doesNotStartWith("---");
+    }
+}
@@ -144,4 +144,127 @@ class SkillIndexLoaderTest {
         assertThat(index.resolveReferences("custom", "custom/**/*.txt"))
                 .contains(template.toAbsolutePath().normalize());
     }
+
+    @Test
+    void loadShouldPersistSnapshotAndPickUpIncrementalChanges() throws Exception {
+        Path workspace = Files.createTempDirectory("skill-loader-snapshot");
+        Path skillsRoot = workspace.resolve("skills");
+        Path alpha = skillsRoot.resolve("alpha");
+        Files.createDirectories(alpha);
+        Files.writeString(alpha.resolve("SKILL.md"), """
+                ---
+                name: Alpha
+                description: first
+                ---
+                """);
+
+        Path snapshotDirectory = workspace.resolve("project/build/skill-index");
+        SkillIndexLoader persisting = new SkillIndexLoader(snapshotDirectory);
+        SkillIndex initial = persisting.load(skillsRoot).index();
+        assertThat(initial.skills()).containsOnlyKeys("alpha");
+        assertThat(persisting.snapshotFile(skillsRoot.toAbsolutePath().normalize()))
+                .exists()
+                .hasParent(snapshotDirectory);
+        assertThat(workspace.resolve("build")).doesNotExist();
+
+        Files.writeString(alpha.resolve("SKILL.md"), """
+                ---
+                name: Alpha v2
+                description: updated description
+                ---
+                """);
+        Path beta = skillsRoot.resolve("nested/beta");
+        Files.createDirectories(beta);
+        Files.writeString(beta.resolve("SKILL.md"), """
+                ---
+                name: Beta
+                description: second
+                unexpected: true
+                ---
+                """);
+
+        SkillIndexLoader.LoadResult reloaded = new SkillIndexLoader(snapshotDirectory).load(skillsRoot);
+
+        assertThat(reloaded.index().skills()).containsOnlyKeys("alpha", "nested/beta");
+        assertThat(reloaded.index().find("alpha").orElseThrow().name()).isEqualTo("Alpha v2");
+        assertThat(reloaded.warnings()).singleElement().satisfies(warning -> assertThat(warning).contains("unexpected"));
+
+        Files.delete(alpha.resolve("SKILL.md"));
+        assertThat(persisting.load(skillsRoot).index().skills()).containsOnlyKeys("nested/beta");
+    }
+
+    @Test
+    void parallelLoadShouldMatchSequentialLoad() throws Exception {
+        Path skillsRoot = Files.createTempDirectory("skill-loader-parallel");
+        for (int i = 0; i < 80; i++) {
+            Path skillDir = skillsRoot.resolve("group-" + (i % 7)).resolve("skill-" + i);
+            Files.createDirectories(skillDir);
+            Files.writeString(skillDir.resolve("SKILL.md"), """
+                    ---
+                    name: Skill %d
+                    description: generated
+                    keywords:
+                      - k%d
+                    %s
+                    ---
+                    """.formatted(i, i, i % 5 == 0 ? "extra_" + i + ": true" : ""));
+        }
+
+        SkillIndexLoader.LoadResult sequential = new SkillIndexLoader(null, 1).load(skillsRoot);
+        SkillIndexLoader.LoadResult parallel = new SkillIndexLoader(null, 4).load(skillsRoot);
+
+        assertThat(parallel.index().skills()).hasSize(80).isEqualTo(sequential.index().skills());
+        assertThat(parallel.warnings()).hasSize(16).containsExactlyElementsOf(sequential.warnings());
+    }
+
+    @Test
+    void resolveReferencesShouldObserveFilesAddedBeforeInvalidation() throws Exception {
+        Path skillsRoot = Files.createTempDirectory("skill-loader-trie");
+        Path skillDir = skillsRoot.resolve("docs");
+        Files.createDirectories(skillDir.resolve("templates/nested"));
+        Files.writeString(skillDir.resolve("SKILL.md"), """
+                ---
+                name: Docs
+                description: Trie lookups
+                ---
+                """);
+        Path first = skillDir.resolve("templates/nested/first.md");
+        Files.writeString(first, "first");
+
+        SkillIndex index = loader.load(skillsRoot).index();
+
+        assertThat(index.resolveReferences("docs", "templates/**/*.md"))
+                .containsExactly(first.toAbsolutePath().normalize());
+
+        Path second = skillDir.resolve("templates/second.md");
+        Files.writeString(second, "second");
+        index.invalidatePaths();
+
+        assertThat(index.resolveReferences("docs", "templates/**/*.md"))
+                .containsExactlyInAnyOrder(first.toAbsolutePath().normalize(), second.toAbsolutePath().normalize());
+        assertThat(index.resolveReferences("docs", "templates/second.md"))
+                .containsExactly(second.toAbsolutePath().normalize());
+    }
+
+    @Test
+    void resolveReferencesShouldCheckExplicitPathsOnDiskWithoutInvalidation() throws Exception {
+        Path skillsRoot = Files.createTempDirectory("skill-loader-explicit");
+        Path skillDir = skillsRoot.resolve("docs");
+        Files.createDirectories(skillDir.resolve("templates"));
+        Files.writeString(skillDir.resolve("SKILL.md"), """
+                ---
+                name: Docs
+                description: Explicit lookups
+                ---
+                """);
+        Files.writeString(skillDir.resolve("templates/first.md"), "first");
+        SkillIndex index = loader.load(skillsRoot).index();
+        assertThat(index.resolveReferences("docs", "templates/*.md")).hasSize(1);
+
+        Path added = skillDir.resolve("templates/added.md");
+        Files.writeString(added, "added");
+
+        assertThat(index.resolveReferences("docs", "templates/added.md"))
+                .containsExactly(added.toAbsolutePath().normalize());
+    }
 }
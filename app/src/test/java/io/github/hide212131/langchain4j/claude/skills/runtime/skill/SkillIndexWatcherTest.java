@@ -0,0 +1,62 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SkillIndexWatcherTest {
+
+    @Test
+    void enabledShouldDefaultToOffAndRejectOtherValues() {
+        assertThat(SkillIndexWatcher.enabled(Map.of())).isFalse();
+        assertThat(SkillIndexWatcher.enabled(Map.of("SKILLS_INDEX_WATCH", "false"))).isFalse();
+        assertThat(SkillIndexWatcher.enabled(Map.of("SKILLS_INDEX_WATCH", " TRUE "))).isTrue();
+        assertThatThrownBy(() -> SkillIndexWatcher.enabled(Map.of("SKILLS_INDEX_WATCH", "yes")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_INDEX_WATCH");
+    }
+
+    @Test
+    void refreshShouldSwapTheIndexAndInvalidateEarlierOnes() throws Exception {
+        Path skillsRoot = Files.createTempDirectory("skill-index-watcher");
+        Path skillDir = skillsRoot.resolve("docs");
+        Files.createDirectories(skillDir.resolve("templates"));
+        Files.writeString(skillDir.resolve("SKILL.md"), """
+                ---
+                name: Docs
+                description: first
+                ---
+                """);
+        Path first = skillDir.resolve("templates/first.md");
+        Files.writeString(first, "first");
+        CountDownLatch changed = new CountDownLatch(1);
+
+        try (SkillIndexWatcher watcher = SkillIndexWatcher.start(
+                new SkillIndexLoader(), skillsRoot, result -> changed.countDown())) {
+            SkillIndex initial = watcher.index();
+            assertThat(initial.resolveReferences("docs", "templates/*.md")).hasSize(1);
+
+            Path second = skillDir.resolve("templates/second.md");
+            Files.writeString(second, "second");
+            Files.writeString(skillDir.resolve("SKILL.md"), """
+                    ---
+                    name: Docs
+                    description: second
+                    ---
+                    """);
+
+            assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(watcher.index()).isNotSameAs(initial);
+            assertThat(watcher.index().find("docs").orElseThrow().description()).isEqualTo("second");
+            assertThat(initial.find("docs").orElseThrow().description()).isEqualTo("first");
+            assertThat(initial.resolveReferences("docs", "templates/*.md"))
+                    .containsExactlyInAnyOrder(first.toAbsolutePath().normalize(), second.toAbsolutePath().normalize());
+        }
+    }
+}
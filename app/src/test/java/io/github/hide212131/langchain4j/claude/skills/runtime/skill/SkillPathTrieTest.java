@@ -0,0 +1,71 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class SkillPathTrieTest {
+
+    @Test
+    void globShouldMatchRelativeToTheBaseAndNarrowOnLiteralSegments() throws Exception {
+        Path root = Files.createTempDirectory("skill-trie-glob").toAbsolutePath().normalize();
+        Path skill = root.resolve("docs");
+        Files.createDirectories(skill.resolve("templates/nested"));
+        Files.createDirectories(skill.resolve("other"));
+        Files.writeString(skill.resolve("templates/first.md"), "first");
+        Files.writeString(skill.resolve("templates/nested/second.md"), "second");
+        Files.writeString(skill.resolve("templates/nested/data.json"), "{}");
+        Files.writeString(skill.resolve("other/third.md"), "third");
+
+        SkillPathTrie trie = SkillPathTrie.build(root);
+
+        assertThat(trie.glob(skill, "templates/**/*.md"))
+                .containsExactly(skill.resolve("templates/nested/second.md"));
+        assertThat(trie.glob(skill, "**/*.md"))
+                .containsExactlyInAnyOrder(
+                        skill.resolve("templates/first.md"),
+                        skill.resolve("templates/nested/second.md"),
+                        skill.resolve("other/third.md"));
+        assertThat(trie.glob(skill, "missing/*.md")).isEmpty();
+        assertThat(trie.glob(root.resolve("docs/templates/first.md"), "*")).isNull();
+        assertThat(trie.glob(root.resolveSibling("elsewhere"), "*")).isNull();
+    }
+
+    @Test
+    void trieShouldBeASnapshotOfTheTreeAtBuildTime() throws Exception {
+        Path root = Files.createTempDirectory("skill-trie-snapshot").toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve("docs"));
+        SkillPathTrie before = SkillPathTrie.build(root);
+
+        Files.writeString(root.resolve("docs/added.md"), "added");
+
+        assertThat(before.glob(root.resolve("docs"), "*.md")).isEmpty();
+        assertThat(SkillPathTrie.build(root).glob(root.resolve("docs"), "*.md"))
+                .containsExactly(root.resolve("docs/added.md"));
+    }
+
+    @Test
+    void lookupsBelowSymbolicLinksShouldDeferToTheFileSystem() throws Exception {
+        Path root = Files.createTempDirectory("skill-trie-links").toAbsolutePath().normalize();
+        Path target = Files.createTempDirectory("skill-trie-link-target");
+        Files.writeString(target.resolve("linked.md"), "linked");
+        Files.createDirectories(root.resolve("docs"));
+        Files.createSymbolicLink(root.resolve("docs/shared"), target);
+
+        SkillPathTrie trie = SkillPathTrie.build(root);
+
+        assertThat(trie.glob(root.resolve("docs"), "*")).containsExactly(root.resolve("docs/shared"));
+        assertThat(trie.glob(root.resolve("docs/shared"), "*.md")).isNull();
+    }
+
+    @Test
+    void buildShouldReturnAnEmptyTrieForAMissingRoot() throws Exception {
+        Path root = Files.createTempDirectory("skill-trie-missing").toAbsolutePath().normalize().resolve("absent");
+
+        SkillPathTrie trie = SkillPathTrie.build(root);
+
+        assertThat(trie.glob(root, "**/*.md")).isEmpty();
+    }
+}
@@ -3,8 +3,10 @@ package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.github.hide212131.langchain4j.claude.skills.infra.logging.WorkflowLogger;
+import io.github.hide212131.langchain4j.claude.skills.runtime.context.ContextPackingService;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
@@ -251,6 +253,209 @@ class SkillRuntimeTest {
         assertThat(Files.readString(generated)).contains("Generated notes");
     }
 
+    @Test
+    void readReferenceShouldSeeArtifactsWrittenAfterEarlierResolution() throws Exception {
+        Path tempDir = Files.createTempDirectory("skill-runtime-reference-cache");
+        Path skillsRoot = Path.of("skills").toAbsolutePath().normalize();
+        SkillIndex index = new SkillIndex(skillsRoot, Map.of(
+                "document-skills/pptx",
+                new SkillIndex.SkillMetadata(
+                        "document-skills/pptx",
+                        "PPTX Generator",
+                        "Build slide decks",
+                        List.of("pptx"),
+                        List.of(),
+                        skillsRoot.resolve("document-skills/pptx"))));
+        SkillRuntime.SkillAgentOrchestrator customOrchestrator = new SkillRuntime.SkillAgentOrchestrator() {
+            @Override
+            public String run(
+                    SkillRuntime.Toolbox toolbox,
+                    SkillIndex.SkillMetadata metadata,
+                    Map<String, Object> inputs,
+                    List<String> expectedOutputs,
+                    String prompt) {
+                String skillId = metadata.id();
+                toolbox.writeArtifact(skillId, "notes/first.md", "First", false);
+                assertThat(toolbox.readReference(skillId, "notes/*.md").documents()).hasSize(1);
+                assertThat(toolbox.readReference(skillId, "notes/*.md").documents()).hasSize(1);
+                SkillRuntime.ArtifactHandle handle =
+                        toolbox.writeArtifact(skillId, "notes/second.md", "Second", false);
+                assertThat(toolbox.readReference(skillId, "notes/*.md").documents()).hasSize(2);
+                return "artifactPath=" + handle.path() + System.lineSeparator() + "summary=notes";
+            }
+        };
+        SkillRuntime runtime = new SkillRuntime(index, tempDir, logger, customOrchestrator);
+
+        SkillRuntime.ExecutionResult result = runtime.execute("document-skills/pptx", Map.of());
+
+        assertThat(result.toolInvocations())
+                .filteredOn(invocation -> invocation.name().equals("readRef"))
+                .hasSize(3);
+    }
+
+    @Test
+    void readReferenceShouldReturnPlaceholdersForDocumentsDroppedByTheContextBudget() throws Exception {
+        Path tempDir = Files.createTempDirectory("skill-runtime-packing-output");
+        Path skillsRoot = Files.createTempDirectory("skill-runtime-packing-skills").toAbsolutePath().normalize();
+        Path skillRoot = skillsRoot.resolve("docs");
+        Files.createDirectories(skillRoot.resolve("notes"));
+        Path older = Files.writeString(skillRoot.resolve("notes/older.md"), "o".repeat(2_000));
+        Path newer = Files.writeString(skillRoot.resolve("notes/newer.md"), "n".repeat(2_000));
+        Files.setLastModifiedTime(older, FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(newer, FileTime.fromMillis(2_000));
+        SkillIndex index = new SkillIndex(skillsRoot, Map.of(
+                "docs",
+                new SkillIndex.SkillMetadata("docs", "Docs", "Notes", List.of(), List.of(), skillRoot)));
+        List<SkillRuntime.ReferenceDocument> documents = new ArrayList<>();
+        SkillRuntime.SkillAgentOrchestrator customOrchestrator = new SkillRuntime.SkillAgentOrchestrator() {
+            @Override
+            public String run(
+                    SkillRuntime.Toolbox toolbox,
+                    SkillIndex.SkillMetadata metadata,
+                    Map<String, Object> inputs,
+                    List<String> expectedOutputs,
+                    String prompt) {
+                documents.addAll(toolbox.readReference(metadata.id(), "notes/*.md").documents());
+                return "summary=notes";
+            }
+        };
+        SkillRuntime runtime = new SkillRuntime(
+                index, tempDir, logger, customOrchestrator, null, new ContextPackingService(100, Map.of()));
+
+        runtime.execute("docs", Map.of());
+
+        assertThat(documents).hasSize(2);
+        SkillRuntime.ReferenceDocument dropped = documents.stream()
+                .filter(document -> document.path().equals(older.toString()))
+                .findFirst()
+                .orElseThrow();
+        SkillRuntime.ReferenceDocument kept = documents.stream()
+                .filter(document -> document.path().equals(newer.toString()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(dropped.content()).isEqualTo(SkillRuntime.OMITTED_REFERENCE_CONTENT);
+        assertThat(dropped.kind()).isEqualTo(kept.kind());
+        assertThat(kept.content()).startsWith("nnnn").contains("[truncated:");
+    }
+
+    @Test
+    void readReferenceShouldUseTheContextBudgetOfTheOrchestratorModel() throws Exception {
+        Path tempDir = Files.createTempDirectory("skill-runtime-model-budget-output");
+        Path skillsRoot = Files.createTempDirectory("skill-runtime-model-budget-skills").toAbsolutePath().normalize();
+        Path skillRoot = skillsRoot.resolve("docs");
+        Files.createDirectories(skillRoot.resolve("notes"));
+        Files.writeString(skillRoot.resolve("notes/older.md"), "o".repeat(2_000));
+        Files.writeString(skillRoot.resolve("notes/newer.md"), "n".repeat(2_000));
+        SkillIndex index = new SkillIndex(skillsRoot, Map.of(
+                "docs",
+                new SkillIndex.SkillMetadata("docs", "Docs", "Notes", List.of(), List.of(), skillRoot)));
+        List<SkillRuntime.ReferenceDocument> documents = new ArrayList<>();
+        SkillRuntime.SkillAgentOrchestrator customOrchestrator = new SkillRuntime.SkillAgentOrchestrator() {
+            @Override
+            public String run(
+                    SkillRuntime.Toolbox toolbox,
+                    SkillIndex.SkillMetadata metadata,
+                    Map<String, Object> inputs,
+                    List<String> expectedOutputs,
+                    String prompt) {
+                documents.addAll(toolbox.readReference(metadata.id(), "notes/*.md").documents());
+                return "summary=notes";
+            }
+
+            @Override
+            public String modelName() {
+                return "large-model";
+            }
+        };
+        SkillRuntime runtime = new SkillRuntime(
+                index,
+                tempDir,
+                logger,
+                customOrchestrator,
+                null,
+                new ContextPackingService(100, Map.of("large-model", 10_000)));
+
+        runtime.execute("docs", Map.of());
+
+        assertThat(documents).hasSize(2);
+        assertThat(documents).extracting(SkillRuntime.ReferenceDocument::content)
+                .containsExactlyInAnyOrder("o".repeat(2_000), "n".repeat(2_000));
+    }
+
+    @Test
+    void runScriptShouldParseStdoutJsonWhenOnlyStderrIsTruncated() throws Exception {
+        Path tempDir = Files.createTempDirectory("skill-runtime-stderr-output");
+        Path skillsRoot = Files.createTempDirectory("skill-runtime-stderr-skills").toAbsolutePath().normalize();
+        Path skillRoot = skillsRoot.resolve("noisy");
+        Files.createDirectories(skillRoot.resolve("scripts"));
+        Files.writeString(
+                skillRoot.resolve("scripts/noisy.sh"),
+                "printf '{\"status\":\"ok\"}'\nhead -c 300000 /dev/zero | tr '\\0' 'e' >&2\n");
+        SkillIndex index = new SkillIndex(skillsRoot, Map.of(
+                "noisy",
+                new SkillIndex.SkillMetadata("noisy", "Noisy", "Logs a lot", List.of(), List.of(), skillRoot)));
+        List<SkillRuntime.ScriptResult> scripts = new ArrayList<>();
+        SkillRuntime.SkillAgentOrchestrator customOrchestrator = new SkillRuntime.SkillAgentOrchestrator() {
+            @Override
+            public String run(
+                    SkillRuntime.Toolbox toolbox,
+                    SkillIndex.SkillMetadata metadata,
+                    Map<String, Object> inputs,
+                    List<String> expectedOutputs,
+                    String prompt) {
+                scripts.add(toolbox.runScript(metadata.id(), "scripts/noisy.sh", List.of(), List.of(), 10));
+                return "summary=noisy";
+            }
+        };
+        SkillRuntime runtime = new SkillRuntime(index, tempDir, logger, customOrchestrator);
+
+        runtime.execute("noisy", Map.of());
+
+        assertThat(scripts).hasSize(1);
+        assertThat(scripts.get(0).exitCode()).isZero();
+        assertThat(scripts.get(0).stdout()).containsEntry("status", "ok");
+    }
+
+    @Test
+    void readReferenceShouldSeeSkillFilesCreatedByScripts() throws Exception {
+        Path tempDir = Files.createTempDirectory("skill-runtime-trie-output");
+        Path skillsRoot = Files.createTempDirectory("skill-runtime-trie-skills").toAbsolutePath().normalize();
+        Path skillRoot = skillsRoot.resolve("docs");
+        Files.createDirectories(skillRoot.resolve("templates"));
+        Files.createDirectories(skillRoot.resolve("scripts"));
+        Files.writeString(skillRoot.resolve("templates/first.md"), "First");
+        Files.writeString(skillRoot.resolve("scripts/add-template.sh"), "printf 'Second' > ../templates/second.md\n");
+        SkillIndex index = new SkillIndex(skillsRoot, Map.of(
+                "docs",
+                new SkillIndex.SkillMetadata("docs", "Docs", "Templates", List.of(), List.of(), skillRoot)));
+        SkillRuntime.SkillAgentOrchestrator customOrchestrator = new SkillRuntime.SkillAgentOrchestrator() {
+            @Override
+            public String run(
+                    SkillRuntime.Toolbox toolbox,
+                    SkillIndex.SkillMetadata metadata,
+                    Map<String, Object> inputs,
+                    List<String> expectedOutputs,
+                    String prompt) {
+                String skillId = metadata.id();
+                assertThat(toolbox.readReference(skillId, "templates/*.md").documents()).hasSize(1);
+                SkillRuntime.ScriptResult script =
+                        toolbox.runScript(skillId, "scripts/add-template.sh", List.of(), List.of(), 10);
+                assertThat(script.exitCode()).isZero();
+                assertThat(toolbox.readReference(skillId, "templates/*.md").documents())
+                        .extracting(SkillRuntime.ReferenceDocument::content)
+                        .containsExactlyInAnyOrder("First", "Second");
+                return "summary=templates";
+            }
+        };
+        SkillRuntime runtime = new SkillRuntime(index, tempDir, logger, customOrchestrator);
+
+        SkillRuntime.ExecutionResult result = runtime.execute("docs", Map.of());
+
+        assertThat(result.toolInvocations())
+                .filteredOn(invocation -> invocation.name().equals("readRef"))
+                .hasSize(2);
+    }
+
     @Test
     void secondExecutionShouldEmbedPreviousOutputDetailsIntoPrompt() throws Exception {
         Path tempDir = Files.createTempDirectory("skill-runtime-previous-output");
@@ -0,0 +1,56 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex.SkillMetadata;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SkillSearchIndexTest {
+
+    @Test
+    void tokenizeShouldSplitLatinWordsAndEmitCjkBigrams() {
+        assertThat(SkillSearchIndex.tokenize("document-skills/PPTX for the deck"))
+                .containsExactly("document", "skills", "pptx", "deck");
+        assertThat(SkillSearchIndex.tokenize("ブランド資料をPDFで"))
+                .containsExactly("ブラ", "ラン", "ンド", "ド資", "資料", "料を", "pdf", "で");
+    }
+
+    @Test
+    void searchShouldRankRelevantSkillsBeyondTheFirstHundredIds() {
+        List<SkillMetadata> skills = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            skills.add(skill("aaa-filler-%03d".formatted(i), "Generic helper number " + i, List.of("misc")));
+        }
+        skills.add(skill("zz-brand-guidelines", "Apply corporate brand colours and typography", List.of("brand")));
+        skills.add(skill("zz-pptx", "Create PowerPoint decks; スライド資料を作成", List.of("slides", "pptx")));
+        SkillSearchIndex index = SkillSearchIndex.build(skills);
+
+        List<SkillSearchIndex.Hit> english = index.search("Create a brand-compliant slide deck", 5);
+        List<SkillSearchIndex.Hit> japanese = index.search("ブランドに沿ったスライド資料を作って", 5);
+
+        assertThat(english).extracting(hit -> hit.skill().id())
+                .containsExactly("zz-brand-guidelines", "zz-pptx");
+        assertThat(japanese).extracting(hit -> hit.skill().id()).first().isEqualTo("zz-pptx");
+        assertThat(index.search("quantum chromodynamics", 5)).isEmpty();
+    }
+
+    @Test
+    void searchShouldPreferIdentityFieldsAndRespectLimit() {
+        SkillSearchIndex index = SkillSearchIndex.build(List.of(
+                skill("xlsx", "Spreadsheets; mentions pdf once", List.of()),
+                skill("pdf", "Portable documents", List.of("pdf")),
+                skill("docx", "Word documents", List.of())));
+
+        List<SkillSearchIndex.Hit> hits = index.search("pdf", 1);
+
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).skill().id()).isEqualTo("pdf");
+    }
+
+    private static SkillMetadata skill(String id, String description, List<String> keywords) {
+        return new SkillMetadata(id, id, description, keywords, List.of(), Path.of("skills", id));
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class StreamingArtifactWriterTest {
+
+    private final StreamingArtifactWriter writer = new StreamingArtifactWriter();
+
+    @Test
+    void writeShouldDecodeLargeBase64PayloadInChunks() throws Exception {
+        Path target = Files.createTempDirectory("artifact-writer").resolve("images/chart.png");
+        byte[] data = new byte[300_000];
+        new Random(7).nextBytes(data);
+
+        StreamingArtifactWriter.Written written =
+                writer.write(target, Base64.getEncoder().encodeToString(data), true, false);
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(data);
+        assertThat(written.size()).isEqualTo(data.length);
+        assertThat(written.sha256()).isEqualTo(sha256(data));
+        assertThat(written.previewBytes()).hasSize(StreamingArtifactWriter.PREVIEW_BYTES);
+        assertThat(target.getParent()).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void writeShouldAppendAcrossCallsAndTrackWholeFileHash() throws Exception {
+        Path target = Files.createTempDirectory("artifact-writer-append").resolve("report.md");
+
+        writer.write(target, "# Report\n", false, false);
+        writer.write(target, "part one\n", false, true);
+        StreamingArtifactWriter.Written last = writer.write(target, "part two\n", false, true);
+
+        byte[] expected = "# Report\npart one\npart two\n".getBytes(StandardCharsets.UTF_8);
+        assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+        assertThat(last.bytesWritten()).isEqualTo("part two\n".length());
+        assertThat(last.size()).isEqualTo(expected.length);
+        assertThat(last.sha256()).isEqualTo(sha256(expected));
+        assertThat(new String(last.previewBytes(), StandardCharsets.UTF_8)).startsWith("# Report");
+    }
+
+    @Test
+    void appendShouldNotModifyTheOtherSideOfAHardLink() throws Exception {
+        Path directory = Files.createTempDirectory("artifact-writer-link");
+        Path skillFile = directory.resolve("skill/template.bin");
+        Files.createDirectories(skillFile.getParent());
+        Files.writeString(skillFile, "template");
+        Path deployed = directory.resolve("out/template.bin");
+        Files.createDirectories(deployed.getParent());
+        try {
+            Files.createLink(deployed, skillFile);
+        } catch (UnsupportedOperationException e) {
+            assumeTrue(false, "hard links are not supported");
+        }
+
+        StreamingArtifactWriter.Written written = writer.write(deployed, "-patched", false, true);
+
+        assertThat(Files.readString(deployed)).isEqualTo("template-patched");
+        assertThat(Files.readString(skillFile)).isEqualTo("template");
+        assertThat(written.sha256()).isEqualTo(sha256("template-patched".getBytes(StandardCharsets.UTF_8)));
+        assertThat(deployed.getParent()).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void writeShouldKeepDefaultOrExistingPermissions() throws Exception {
+        Path directory = Files.createTempDirectory("artifact-writer-permissions");
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView("posix"), "POSIX permissions required");
+        Path reference = Files.createFile(directory.resolve("reference.txt"));
+        Path fresh = directory.resolve("fresh.txt");
+        Path script = directory.resolve("run.sh");
+        Files.writeString(script, "echo old");
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-x---"));
+
+        writer.write(fresh, "fresh", false, false);
+        writer.write(script, "echo new", false, false);
+
+        assertThat(Files.getPosixFilePermissions(fresh)).isEqualTo(Files.getPosixFilePermissions(reference));
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(script))).isEqualTo("rwxr-x---");
+        assertThat(Files.readString(script)).isEqualTo("echo new");
+    }
+
+    @Test
+    void writeShouldLeaveExistingFileUntouchedWhenBase64IsInvalid() throws Exception {
+        Path target = Files.createTempDirectory("artifact-writer-invalid").resolve("data.bin");
+        writer.write(target, "original", false, false);
+
+        assertThatThrownBy(() -> writer.write(target, "not base64!", true, false))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(Files.readString(target)).isEqualTo("original");
+        assertThat(target.getParent()).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void appendShouldWriteNothingWhenALaterBase64ChunkIsInvalid() throws Exception {
+        Path target = Files.createTempDirectory("artifact-writer-append-invalid").resolve("data.bin");
+        writer.write(target, "head", false, false);
+        // 48 KiB encodes to exactly one 64 Ki-character chunk, so only the second chunk is invalid.
+        String validChunk = Base64.getEncoder().encodeToString(new byte[48 * 1024]);
+
+        assertThatThrownBy(() -> writer.write(target, validChunk + "not base64!", true, true))
+                .isInstanceOf(IllegalArgumentException.class);
+        StreamingArtifactWriter.Written written = writer.write(target, "tail", false, true);
+
+        assertThat(Files.readString(target)).isEqualTo("headtail");
+        assertThat(written.size()).isEqualTo(8);
+        assertThat(written.sha256()).isEqualTo(sha256("headtail".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.skill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class WarmInterpreterPoolTest {
+
+    @Test
+    void runShouldExecutePythonScriptsOnReusedWorker() throws Exception {
+        assumeTrue(isAvailable("python3"), "python3 is required");
+        Path workDir = Files.createTempDirectory("warm-pool-test");
+        Path script = workDir.resolve("echo.py");
+        Files.writeString(script, """
+                import json, os, sys
+                payload = json.load(sys.stdin)
+                print(json.dumps({"args": sys.argv[1:], "payload": payload, "pid": os.getpid()}))
+                sys.exit(len(payload))
+                """);
+        List<Long> pids = new ArrayList<>();
+        try (WarmInterpreterPool pool = new WarmInterpreterPool(2)) {
+            for (int i = 0; i < 3; i++) {
+                Optional<ProcessRunner.Completion> completion = runEcho(pool, script, workDir);
+
+                assertThat(completion).isPresent();
+                assertThat(completion.get().exitCode()).isEqualTo(2);
+                assertThat(completion.get().timedOut()).isFalse();
+                assertThat(completion.get().stdout())
+                        .contains("\"args\": [\"--flag\"]")
+                        .contains("\"payload\": [\"a\", \"b\"]");
+                pids.add(pid(completion.get()));
+            }
+        }
+
+        // Two jobs per worker: the second run reuses the first worker, the third gets a fresh one.
+        assertThat(pids.get(1)).isEqualTo(pids.get(0));
+        assertThat(pids.get(2)).isNotEqualTo(pids.get(1));
+    }
+
+    @Test
+    void runShouldExecuteNodeScriptsAsTheMainModule() throws Exception {
+        assumeTrue(isAvailable("node"), "node is required");
+        Path workDir = Files.createTempDirectory("warm-pool-node");
+        Path script = workDir.resolve("guarded.js");
+        Files.writeString(script, """
+                function main() {
+                  console.log(JSON.stringify({ args: process.argv.slice(2), pid: process.pid }));
+                }
+                if (require.main === module) {
+                  main();
+                }
+                """);
+        List<Long> pids = new ArrayList<>();
+        try (WarmInterpreterPool pool = new WarmInterpreterPool(2)) {
+            for (int i = 0; i < 2; i++) {
+                ProcessRunner.Completion completion = pool.run(
+                                WarmInterpreterPool.Language.NODE,
+                                "node",
+                                Map.of(),
+                                script,
+                                List.of("--flag"),
+                                "",
+                                workDir,
+                                Duration.ofSeconds(20))
+                        .orElseThrow();
+
+                assertThat(completion.exitCode()).isZero();
+                assertThat(completion.stdout()).contains("\"args\":[\"--flag\"]");
+                pids.add(pid(completion));
+            }
+        }
+
+        assertThat(pids.get(1)).isEqualTo(pids.get(0));
+    }
+
+    @Test
+    void closeShouldDestroyWorkersAndFallBackToColdProcesses() throws Exception {
+        assumeTrue(isAvailable("python3"), "python3 is required");
+        Path workDir = Files.createTempDirectory("warm-pool-close");
+        Path script = workDir.resolve("echo.py");
+        Files.writeString(script, """
+                import json, os
+                print(json.dumps({"pid": os.getpid()}))
+                """);
+        WarmInterpreterPool pool = new WarmInterpreterPool(10);
+        long pid = pid(runEcho(pool, script, workDir).orElseThrow());
+
+        pool.close();
+
+        assertThat(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)).isFalse();
+        assertThat(runEcho(pool, script, workDir)).isEmpty();
+    }
+
+    @Test
+    void runShouldReturnEmptyWhenInterpreterCannotStart() throws Exception {
+        Path workDir = Files.createTempDirectory("warm-pool-missing");
+        WarmInterpreterPool pool = new WarmInterpreterPool(1);
+
+        Optional<ProcessRunner.Completion> completion = pool.run(
+                WarmInterpreterPool.Language.PYTHON,
+                workDir.resolve("no-such-python").toString(),
+                Map.of(),
+                workDir.resolve("script.py"),
+                List.of(),
+                "[]",
+                workDir,
+                Duration.ofSeconds(5));
+
+        assertThat(completion).isEmpty();
+    }
+
+    @Test
+    void fromEnvironmentShouldBeDisabledByDefaultAndRejectInvalidValues() {
+        assertThat(WarmInterpreterPool.fromEnvironment(Map.of())).isNull();
+        assertThat(WarmInterpreterPool.fromEnvironment(Map.of("SKILLS_WARM_INTERPRETERS", "true"))).isNotNull();
+        assertThatThrownBy(() -> WarmInterpreterPool.fromEnvironment(Map.of(
+                        "SKILLS_WARM_INTERPRETERS", "true",
+                        "SKILLS_WARM_WORKER_MAX_JOBS", "0")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Optional<ProcessRunner.Completion> runEcho(WarmInterpreterPool pool, Path script, Path workDir) {
+        return pool.run(
+                WarmInterpreterPool.Language.PYTHON,
+                "python3",
+                Map.of(),
+                script,
+                List.of("--flag"),
+                "[\"a\", \"b\"]",
+                workDir,
+                Duration.ofSeconds(20));
+    }
+
+    private static long pid(ProcessRunner.Completion completion) throws Exception {
+        return new ObjectMapper().readTree(completion.stdout().strip()).path("pid").asLong();
+    }
+
+    private static boolean isAvailable(String executable) {
+        try {
+            return new ProcessBuilder(executable, "--version").start().waitFor() == 0;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+}
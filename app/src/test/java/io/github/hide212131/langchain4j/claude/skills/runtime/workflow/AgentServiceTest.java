@@ -9,6 +9,7 @@ import io.github.hide212131.langchain4j.claude.skills.runtime.blackboard.ActStat
 
 import io.github.hide212131.langchain4j.claude.skills.runtime.guard.SkillInvocationGuard;
 import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LlmMetricsRegistry;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex.SkillMetadata;
 import io.github.hide212131.langchain4j.claude.skills.runtime.skill.DryRunSkillRuntimeOrchestrator;
@@ -80,6 +81,9 @@ class AgentServiceTest {
         // Note: planResult() is now null as we removed the direct llmClient.complete() call
         assertThat(result.planResult()).isNull();
         assertThat(result.metrics().callCount()).isEqualTo(1);
+        assertThat(result.llmLatency().series())
+                .extracting(series -> series.stage(), series -> series.calls())
+                .containsExactly(tuple(LlmMetricsRegistry.Stage.PLAN, 1L));
         assertThat(result.actResult()).isNotNull();
         assertThat(result.actResult().invokedSkills())
                 .containsExactly("brand-guidelines", "document-skills/pptx");
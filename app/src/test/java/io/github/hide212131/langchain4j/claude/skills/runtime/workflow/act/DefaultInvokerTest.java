@@ -1,10 +1,12 @@
 package io.github.hide212131.langchain4j.claude.skills.runtime.workflow.act;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import dev.langchain4j.agentic.internal.AgentInvocation;
 import dev.langchain4j.agentic.scope.AgenticScope;
 import io.github.hide212131.langchain4j.claude.skills.infra.logging.WorkflowLogger;
+import io.github.hide212131.langchain4j.claude.skills.runtime.blackboard.ActCurrentStepState;
 import io.github.hide212131.langchain4j.claude.skills.runtime.blackboard.ActInputBundleState;
 import io.github.hide212131.langchain4j.claude.skills.runtime.blackboard.ActState;
 import io.github.hide212131.langchain4j.claude.skills.runtime.blackboard.SharedBlackboardIndexState;
@@ -17,9 +19,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
@@ -105,6 +113,149 @@ class DefaultInvokerTest {
         // and not directly accessible from the parent scope - this is expected behavior
     }
 
+    @Test
+    void invokeShouldRunIndependentStepsAsDagWhenParallelismEnabled() throws Exception {
+        Path tempDir = Files.createTempDirectory("default-invoker-dag-test");
+        Path skillsRoot = Path.of("skills").toAbsolutePath().normalize();
+        Map<String, SkillIndex.SkillMetadata> skills = new HashMap<>();
+        for (String id : List.of("brand-guidelines", "market-research", "document-skills/pptx")) {
+            skills.put(id, new SkillIndex.SkillMetadata(
+                    id, id, "Skill " + id, List.of(), List.of(), skillsRoot.resolve(id)));
+        }
+        SkillIndex index = new SkillIndex(skillsRoot, skills);
+        // Both roots must be running at the same time to get past the barrier, so a sequential run times out.
+        ConcurrencyProbeOrchestrator probe =
+                new ConcurrencyProbeOrchestrator(Set.of("brand-guidelines", "market-research"));
+        SkillRuntime runtime = new SkillRuntime(index, tempDir, logger, probe);
+        DefaultInvoker invoker =
+                new DefaultInvoker(new InvokeSkillTool(runtime), new SkillInvocationGuard(), logger, 3);
+
+        List<PlanModels.PlanStep> steps = List.of(
+                new PlanModels.PlanStep(
+                        "brand-guidelines", "brand-guidelines", "Skill brand-guidelines", List.of(),
+                        "Extract brand rules", skillsRoot.resolve("brand-guidelines"), List.of()),
+                new PlanModels.PlanStep(
+                        "market-research", "market-research", "Skill market-research", List.of(),
+                        "Collect market data", skillsRoot.resolve("market-research"), List.of()),
+                new PlanModels.PlanStep(
+                        "document-skills/pptx", "document-skills/pptx", "Skill document-skills/pptx", List.of(),
+                        "Build the deck", skillsRoot.resolve("document-skills/pptx"),
+                        List.of("market-research", "brand-guidelines")));
+        PlanModels.PlanResult plan = new PlanModels.PlanResult("Create a deck", steps, "dag plan");
+        assertThat(plan.hasIndependentSteps()).isTrue();
+        RecordingAgenticScope scope = new RecordingAgenticScope();
+
+        DefaultInvoker.ActResult result = invoker.invoke(scope, plan);
+
+        assertThat(probe.completedBeforeStart.get("document-skills/pptx"))
+                .containsExactlyInAnyOrder("brand-guidelines", "market-research");
+        String fanInPrompt = probe.prompts.get("document-skills/pptx");
+        assertThat(fanInPrompt).contains("Previous Skill Outputs:");
+        // Dependency outputs arrive in plan order, not in the order depends_on listed them.
+        assertThat(fanInPrompt.indexOf("Summary: Skill brand-guidelines"))
+                .isPositive()
+                .isLessThan(fanInPrompt.indexOf("Summary: Skill market-research"));
+        assertThat(probe.prompts.get("brand-guidelines")).doesNotContain("Previous Skill Output");
+
+        assertThat(result.invokedSkills())
+                .containsExactly("brand-guidelines", "market-research", "document-skills/pptx");
+        assertThat(result.outputs().keySet())
+                .containsExactly("brand-guidelines", "market-research", "document-skills/pptx");
+        assertThat(scope.readState(ActState.outputKey("market-research")))
+                .isEqualTo(result.outputs().get("market-research"));
+        assertThat(scope.readState(ActCurrentStepState.KEY))
+                .isEqualTo(new ActCurrentStepState("document-skills/pptx", "document-skills/pptx"));
+        assertThat(((ActInputBundleState) scope.readState(ActInputBundleState.KEY)).skillId())
+                .isEqualTo("document-skills/pptx");
+        SharedBlackboardIndexState typedIndex =
+                (SharedBlackboardIndexState) scope.readState(SharedBlackboardIndexState.KEY);
+        assertThat(typedIndex.invokedSkillIds())
+                .containsExactly("brand-guidelines", "market-research", "document-skills/pptx");
+    }
+
+    @Test
+    void invokeShouldStopStartingStepsAfterADagStepFails() throws Exception {
+        Path tempDir = Files.createTempDirectory("default-invoker-dag-failure");
+        Path skillsRoot = Path.of("skills").toAbsolutePath().normalize();
+        Map<String, SkillIndex.SkillMetadata> skills = new HashMap<>();
+        for (String id : List.of("failing", "slow", "after-slow")) {
+            skills.put(id, new SkillIndex.SkillMetadata(
+                    id, id, "Skill " + id, List.of(), List.of(), skillsRoot.resolve(id)));
+        }
+        CountDownLatch failing = new CountDownLatch(1);
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        DryRunSkillRuntimeOrchestrator delegate = new DryRunSkillRuntimeOrchestrator();
+        SkillRuntime.SkillAgentOrchestrator orchestrator = (toolbox, metadata, inputs, expectedOutputs, prompt) -> {
+            started.add(metadata.id());
+            if (metadata.id().equals("failing")) {
+                failing.countDown();
+                throw new IllegalStateException("boom");
+            }
+            if (metadata.id().equals("slow")) {
+                try {
+                    failing.await(10, TimeUnit.SECONDS);
+                    Thread.sleep(500);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return delegate.run(toolbox, metadata, inputs, expectedOutputs, prompt);
+        };
+        SkillRuntime runtime = new SkillRuntime(new SkillIndex(skillsRoot, skills), tempDir, logger, orchestrator);
+        DefaultInvoker invoker =
+                new DefaultInvoker(new InvokeSkillTool(runtime), new SkillInvocationGuard(), logger, 2);
+        PlanModels.PlanResult plan = new PlanModels.PlanResult("Fail fast", List.of(
+                new PlanModels.PlanStep("failing", "failing", "Skill failing", List.of(), "Fail",
+                        skillsRoot.resolve("failing"), List.of()),
+                new PlanModels.PlanStep("slow", "slow", "Skill slow", List.of(), "Wait",
+                        skillsRoot.resolve("slow"), List.of()),
+                new PlanModels.PlanStep("after-slow", "after-slow", "Skill after-slow", List.of(), "Follow",
+                        skillsRoot.resolve("after-slow"), List.of("slow"))), "dag plan");
+
+        assertThatThrownBy(() -> invoker.invoke(new RecordingAgenticScope(), plan))
+                .hasMessageContaining("boom");
+        assertThat(started).containsExactlyInAnyOrder("failing", "slow");
+    }
+
+    /** Dry-run orchestrator that records prompts and completion order and makes the given skills meet. */
+    private static final class ConcurrencyProbeOrchestrator implements SkillRuntime.SkillAgentOrchestrator {
+
+        private final DryRunSkillRuntimeOrchestrator delegate = new DryRunSkillRuntimeOrchestrator();
+        private final Set<String> concurrentSkills;
+        private final CyclicBarrier barrier;
+        private final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, String> prompts = new ConcurrentHashMap<>();
+        final Map<String, List<String>> completedBeforeStart = new ConcurrentHashMap<>();
+
+        ConcurrencyProbeOrchestrator(Set<String> concurrentSkills) {
+            this.concurrentSkills = concurrentSkills;
+            this.barrier = new CyclicBarrier(concurrentSkills.size());
+        }
+
+        @Override
+        public String run(
+                SkillRuntime.Toolbox toolbox,
+                SkillIndex.SkillMetadata metadata,
+                Map<String, Object> inputs,
+                List<String> expectedOutputs,
+                String prompt) {
+            prompts.put(metadata.id(), prompt);
+            synchronized (completed) {
+                completedBeforeStart.put(metadata.id(), List.copyOf(completed));
+            }
+            if (concurrentSkills.contains(metadata.id())) {
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(metadata.id() + " did not run concurrently", ex);
+                }
+            }
+            String reply = delegate.run(toolbox, metadata, inputs, expectedOutputs, prompt);
+            completed.add(metadata.id());
+            return reply;
+        }
+    }
+
     private static final class RecordingAgenticScope implements AgenticScope {
 
         private final Map<String, Object> state = new HashMap<>();
@@ -0,0 +1,145 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.github.hide212131.langchain4j.claude.skills.infra.logging.WorkflowLogger;
+import io.github.hide212131.langchain4j.claude.skills.runtime.provider.LangChain4jLlmClient;
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AgenticPlannerTest {
+
+    private final WorkflowLogger logger = new WorkflowLogger();
+
+    @Test
+    void planShouldParseDependsOnAndDropEdgesOutsideThePlan() {
+        AgenticPlanner planner = planner(index("brand-guidelines", "market-research", "document-skills/pptx"), """
+                {"skill_steps": [
+                  {"skill_id": "brand-guidelines", "goal": "Palette summary", "depends_on": []},
+                  {"skill_id": "market-research", "goal": "Market data", "depends_on": []},
+                  {"skill_id": "document-skills/pptx", "goal": "Deck",
+                   "depends_on": ["brand-guidelines", "market-research", "unknown-skill", "document-skills/pptx"]}
+                ]}
+                """);
+
+        PlanModels.PlanResult plan = planner.plan("Create a deck");
+
+        assertThat(plan.orderedSkillIds())
+                .containsExactly("brand-guidelines", "market-research", "document-skills/pptx");
+        assertThat(plan.steps().get(0).dependsOn()).isEmpty();
+        assertThat(plan.steps().get(1).dependsOn()).isEmpty();
+        assertThat(plan.steps().get(2).dependsOn()).containsExactly("brand-guidelines", "market-research");
+        assertThat(plan.steps().get(2).stepGoal()).isEqualTo("Deck");
+        assertThat(plan.hasIndependentSteps()).isTrue();
+    }
+
+    @Test
+    void planShouldChainStepsOnTheirPredecessorWhenDependsOnIsOmitted() {
+        AgenticPlanner planner = planner(index("brand-guidelines", "market-research", "document-skills/pptx"), """
+                {"skill_steps": [
+                  {"skill_id": "brand-guidelines", "goal": "Palette summary"},
+                  {"skill_id": "market-research", "goal": "Market data"},
+                  {"skill_id": "document-skills/pptx", "goal": "Deck"}
+                ]}
+                """);
+
+        PlanModels.PlanResult plan = planner.plan("Create a deck");
+
+        assertThat(plan.steps().get(0).dependsOn()).isEmpty();
+        assertThat(plan.steps().get(1).dependsOn()).containsExactly("brand-guidelines");
+        assertThat(plan.steps().get(2).dependsOn()).containsExactly("market-research");
+        assertThat(plan.hasIndependentSteps()).isFalse();
+    }
+
+    @Test
+    void planShouldPresentBestMatchesToppedUpInIdOrderWhenCatalogExceedsTheCap() {
+        FixedReplyChatModel chatModel = new FixedReplyChatModel("""
+                {"skill_steps": [{"skill_id": "slides", "goal": "Deck", "depends_on": []}]}
+                """);
+        AgenticPlanner planner = new AgenticPlanner(
+                index("alpha", "beta", "gamma", "delta", "slides"),
+                LangChain4jLlmClient.usingChatModel(chatModel),
+                logger,
+                null,
+                null,
+                2);
+
+        PlanModels.PlanResult plan = planner.plan("Build slides for the launch");
+
+        assertThat(plan.orderedSkillIds()).containsExactly("slides");
+        assertThat(chatModel.lastPrompt)
+                .contains("- id: slides", "- id: alpha")
+                .doesNotContain("- id: beta", "- id: gamma", "- id: delta");
+    }
+
+    @Test
+    void planShouldPresentTheWholeCatalogWithinTheCap() {
+        FixedReplyChatModel chatModel = new FixedReplyChatModel("""
+                {"skill_steps": [{"skill_id": "slides", "goal": "Deck", "depends_on": []}]}
+                """);
+        AgenticPlanner planner = new AgenticPlanner(
+                index("alpha", "beta", "slides"), LangChain4jLlmClient.usingChatModel(chatModel), logger, null, null);
+
+        planner.plan("Build slides for the launch");
+
+        assertThat(chatModel.lastPrompt).contains("- id: alpha", "- id: beta", "- id: slides");
+    }
+
+    @Test
+    void maxCandidatesFromEnvironmentShouldValidate() {
+        assertThat(AgenticPlanner.maxCandidatesFromEnvironment(Map.of()))
+                .isEqualTo(AgenticPlanner.DEFAULT_MAX_PRESENTED_CANDIDATES);
+        assertThat(AgenticPlanner.maxCandidatesFromEnvironment(Map.of("SKILLS_PLAN_MAX_CANDIDATES", " 24 ")))
+                .isEqualTo(24);
+        assertThatThrownBy(() -> AgenticPlanner.maxCandidatesFromEnvironment(
+                        Map.of("SKILLS_PLAN_MAX_CANDIDATES", "0")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_PLAN_MAX_CANDIDATES");
+    }
+
+    private AgenticPlanner planner(SkillIndex index, String reply) {
+        return new AgenticPlanner(index, LangChain4jLlmClient.usingChatModel(new FixedReplyChatModel(reply)), logger,
+                null, null);
+    }
+
+    private static SkillIndex index(String... ids) {
+        Path root = Path.of("skills").toAbsolutePath().normalize();
+        Map<String, SkillIndex.SkillMetadata> skills = new LinkedHashMap<>();
+        for (String id : ids) {
+            skills.put(id, new SkillIndex.SkillMetadata(id, id, "Skill " + id, List.of(), List.of(), root.resolve(id)));
+        }
+        return new SkillIndex(root, skills);
+    }
+
+    private static final class FixedReplyChatModel implements ChatModel {
+
+        private final String reply;
+        private String lastPrompt;
+
+        FixedReplyChatModel(String reply) {
+            this.reply = reply;
+        }
+
+        @Override
+        public ChatResponse doChat(ChatRequest request) {
+            if (!request.messages().isEmpty() && request.messages().get(0) instanceof UserMessage userMessage) {
+                lastPrompt = userMessage.singleText();
+            }
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from(reply))
+                    .tokenUsage(new TokenUsage(0, 0, 0))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IncrementalPlanJsonParserTest {
+
+    @Test
+    void shouldEmitEachStepAsSoonAsItCloses() {
+        List<String> emitted = new ArrayList<>();
+        List<Integer> emittedAtChunk = new ArrayList<>();
+        int[] chunkIndex = {0};
+        IncrementalPlanJsonParser parser = new IncrementalPlanJsonParser(new ObjectMapper(), node -> {
+            emitted.add(node.get("skill_id").asText());
+            emittedAtChunk.add(chunkIndex[0]);
+        });
+        List<String> chunks = List.of(
+                "```json\n{\"note\": \"braces {in} \\\"strings\\\"\", \"skill_steps\": [",
+                "{\"skill_id\": \"brand-guidelines\", \"goal\": \"palette {hex}\", \"depends_on\": []},",
+                "{\"skill_id\": \"document-skills/pptx\", \"goal\": \"deck\", ",
+                "\"depends_on\": [\"brand-guidelines\"]}], \"skill_ids\": [\"brand-guidelines\"]}\n```");
+
+        for (String chunk : chunks) {
+            parser.accept(chunk);
+            chunkIndex[0]++;
+        }
+
+        assertThat(emitted).containsExactly("brand-guidelines", "document-skills/pptx");
+        assertThat(emittedAtChunk).containsExactly(1, 3);
+    }
+
+    @Test
+    void shouldIgnoreObjectsOutsideSkillSteps() {
+        List<JsonNode> emitted = new ArrayList<>();
+        IncrementalPlanJsonParser parser = new IncrementalPlanJsonParser(new ObjectMapper(), emitted::add);
+
+        parser.accept("{\"other\": [{\"skill_id\": \"x\"}], \"skill_ids\": [\"x\"]}");
+
+        assertThat(emitted).isEmpty();
+    }
+}
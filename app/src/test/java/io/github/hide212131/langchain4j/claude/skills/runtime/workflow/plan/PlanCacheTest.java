@@ -0,0 +1,129 @@
+package io.github.hide212131.langchain4j.claude.skills.runtime.workflow.plan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex;
+import io.github.hide212131.langchain4j.claude.skills.runtime.skill.SkillIndex.SkillMetadata;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PlanCacheTest {
+
+    @Test
+    void shouldServeExactHitsAcrossInstancesAndRebuildStepsFromMetadata() throws Exception {
+        Path dir = Files.createTempDirectory("plan-cache");
+        SkillIndex index = index("Brand colours");
+        new PlanCache(dir, 0, Clock.systemUTC()).store("Create a branded deck", plan("Create a branded deck"), index);
+
+        PlanCache.Hit hit = new PlanCache(dir, 0, Clock.systemUTC()).lookup("  create a BRANDED deck. ", index);
+
+        assertThat(hit).isNotNull();
+        assertThat(hit.exact()).isTrue();
+        assertThat(hit.plan().goal()).isEqualTo("  create a BRANDED deck. ");
+        assertThat(hit.plan().orderedSkillIds()).containsExactly("brand-guidelines", "document-skills/pptx");
+        assertThat(hit.plan().steps().get(1).dependsOn()).containsExactly("brand-guidelines");
+        assertThat(hit.plan().steps().get(0).description()).isEqualTo("Brand colours");
+    }
+
+    @Test
+    void shouldMissWhenSkillMetadataChanges() throws Exception {
+        Path dir = Files.createTempDirectory("plan-cache");
+        PlanCache cache = new PlanCache(dir, 0, Clock.systemUTC());
+        cache.store("Create a branded deck", plan("Create a branded deck"), index("Brand colours"));
+
+        SkillIndex edited = index("Brand colours and typography");
+
+        assertThat(edited.version()).isNotEqualTo(index("Brand colours").version());
+        assertThat(cache.lookup("Create a branded deck", edited)).isNull();
+    }
+
+    @Test
+    void shouldServeFuzzyHitsOnlyAboveThreshold() throws Exception {
+        Path dir = Files.createTempDirectory("plan-cache");
+        SkillIndex index = index("Brand colours");
+        PlanCache fuzzy = new PlanCache(dir, 0.8, Clock.systemUTC());
+        fuzzy.store("ブランドガイドラインに沿ったスライドを作成して", plan("g"), index);
+
+        PlanCache.Hit close = fuzzy.lookup("ブランドガイドラインに沿ったスライドを作成してください", index);
+        PlanCache.Hit far = fuzzy.lookup("売上データを集計して", index);
+        PlanCache.Hit exactOnly = new PlanCache(dir, 0, Clock.systemUTC())
+                .lookup("ブランドガイドラインに沿ったスライドを作成してください", index);
+
+        assertThat(close).isNotNull();
+        assertThat(close.exact()).isFalse();
+        assertThat(close.similarity()).isBetween(0.8, 1.0);
+        assertThat(far).isNull();
+        assertThat(exactOnly).isNull();
+    }
+
+    @Test
+    void fuzzyHitsShouldReuseOnlyTheSkillSelectionAndPointStepsAtTheNewGoal() throws Exception {
+        Path dir = Files.createTempDirectory("plan-cache");
+        SkillIndex index = index("Brand colours");
+        PlanCache fuzzy = new PlanCache(dir, 0.8, Clock.systemUTC());
+        fuzzy.store("ブランドガイドラインに沿ったスライドを作成して", plan("g"), index);
+        String similarGoal = "ブランドガイドラインに沿ったスライドを作成してください";
+
+        PlanCache.Hit hit = fuzzy.lookup(similarGoal, index);
+
+        assertThat(hit).isNotNull();
+        assertThat(hit.exact()).isFalse();
+        assertThat(hit.plan().goal()).isEqualTo(similarGoal);
+        assertThat(hit.plan().orderedSkillIds()).containsExactly("brand-guidelines", "document-skills/pptx");
+        assertThat(hit.plan().steps().get(1).dependsOn()).containsExactly("brand-guidelines");
+        assertThat(hit.plan().steps()).extracting(PlanModels.PlanStep::stepGoal)
+                .containsOnly(similarGoal)
+                .doesNotContain("palette", "deck");
+        assertThat(hit.plan().systemPromptSummary()).isEmpty();
+    }
+
+    @Test
+    void exactHitsShouldKeepTheStoredStepGoalsAndSummary() throws Exception {
+        Path dir = Files.createTempDirectory("plan-cache");
+        SkillIndex index = index("Brand colours");
+        PlanCache cache = new PlanCache(dir, 0.8, Clock.systemUTC());
+        cache.store("Create a branded deck", plan("Create a branded deck"), index);
+
+        PlanCache.Hit hit = cache.lookup("Create a branded deck", index);
+
+        assertThat(hit.exact()).isTrue();
+        assertThat(hit.plan().steps()).extracting(PlanModels.PlanStep::stepGoal).containsExactly("palette", "deck");
+        assertThat(hit.plan().systemPromptSummary()).isEqualTo("summary");
+    }
+
+    @Test
+    void fromEnvironmentShouldValidateSettings() {
+        assertThat(PlanCache.fromEnvironment(Map.of())).isNull();
+        assertThat(PlanCache.fromEnvironment(Map.of("SKILLS_PLAN_CACHE", "false"))).isNull();
+        assertThat(PlanCache.fromEnvironment(Map.of("SKILLS_PLAN_CACHE", "true"))).isNotNull();
+        assertThatThrownBy(() -> PlanCache.fromEnvironment(
+                        Map.of("SKILLS_PLAN_CACHE", "true", "SKILLS_PLAN_CACHE_SIMILARITY", "1.5")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SKILLS_PLAN_CACHE_SIMILARITY");
+    }
+
+    private static PlanModels.PlanResult plan(String goal) {
+        Path root = Path.of("skills");
+        return new PlanModels.PlanResult(goal, List.of(
+                new PlanModels.PlanStep("brand-guidelines", "brand", "old", List.of(), "palette", root),
+                new PlanModels.PlanStep(
+                        "document-skills/pptx", "pptx", "old", List.of(), "deck", root, List.of("brand-guidelines"))),
+                "summary");
+    }
+
+    private static SkillIndex index(String brandDescription) {
+        Path root = Path.of("skills").toAbsolutePath();
+        return new SkillIndex(root, Map.of(
+                "brand-guidelines",
+                new SkillMetadata("brand-guidelines", "brand", brandDescription, List.of(), List.of(),
+                        root.resolve("brand-guidelines")),
+                "document-skills/pptx",
+                new SkillMetadata("document-skills/pptx", "pptx", "Slides", List.of("pptx"), List.of(),
+                        root.resolve("document-skills/pptx"))));
+    }
+}